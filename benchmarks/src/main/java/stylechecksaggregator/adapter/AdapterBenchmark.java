@@ -0,0 +1,127 @@
+package stylechecksaggregator.adapter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.xpath.XPathException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+import stylechecksaggregator.benchmark.ReportGenerator;
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.util.XMLUtil;
+
+/**
+ * Benchmarks for processing a single report with each of the adapters. Larger report sizes (up to 10M issues)
+ * can be selected using {@code -p issueCount=...}.
+ * 
+ * @author Holger Knoche
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AdapterBenchmark {
+	
+	@Param({ReportGenerator.CHECKSTYLE, ReportGenerator.PMD, ReportGenerator.FINDBUGS})
+	public String tool;
+	
+	@Param({"1000", "100000"})
+	public int issueCount;
+	
+	/**
+	 * Minimum severity of the extracted issues, which allows to compare the extraction of all issues with the extraction of errors only.
+	 */
+	@Param({"UNCLASSIFIED", "ERROR"})
+	public String minSeverity;
+	
+	private File directory;
+	
+	private String reportFileName;
+	
+	private XMLBasedToolAdapter domAdapter;
+	
+	private XMLBasedToolAdapter streamingAdapter;
+	
+	private Document document;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory("adapter-benchmark").toFile();
+		
+		final File reportFile = new File(this.directory, this.tool + ".xml");
+		ReportGenerator.writeReport(this.tool, reportFile, this.issueCount);
+		this.reportFileName = reportFile.getAbsolutePath();
+		
+		final Properties properties = new Properties();
+		properties.setProperty(XMLBasedToolAdapter.MIN_SEVERITY_PROPERTY, this.minSeverity);
+		this.domAdapter = createAdapter(this.tool, properties);
+		
+		properties.setProperty(XMLBasedToolAdapter.STREAMING_PROPERTY, "true");
+		this.streamingAdapter = createAdapter(this.tool, properties);
+		
+		this.document = XMLUtil.parseXMLFile(reportFile);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		ReportGenerator.deleteDirectory(this.directory);
+	}
+	
+	/**
+	 * Measures the extraction of issues from an already parsed document.
+	 */
+	@Benchmark
+	public List<Issue> processDocument() throws XPathException {
+		return this.domAdapter.processDocument(this.document);
+	}
+	
+	/**
+	 * Measures parsing and processing a report using a DOM tree.
+	 */
+	@Benchmark
+	public List<Issue> processFileDom() throws IOException {
+		return this.domAdapter.processFile(this.reportFileName);
+	}
+	
+	/**
+	 * Measures parsing and processing a report using the streaming parser.
+	 */
+	@Benchmark
+	public List<Issue> processFileStreaming() throws IOException {
+		return this.streamingAdapter.processFile(this.reportFileName);
+	}
+	
+	static XMLBasedToolAdapter createAdapter(final String tool, final Properties properties) {
+		switch(tool) {
+		case ReportGenerator.CHECKSTYLE:
+			return new CheckstyleAdapter(properties);
+		case ReportGenerator.PMD:
+			return new PMDAdapter(properties);
+		case ReportGenerator.FINDBUGS:
+			return new FindBugsAdapter(properties);
+		default:
+			throw new IllegalArgumentException("Unknown tool '" + tool + "'.");
+		}
+	}
+	
+}
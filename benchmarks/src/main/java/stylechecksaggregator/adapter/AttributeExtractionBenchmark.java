@@ -0,0 +1,229 @@
+package stylechecksaggregator.adapter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.xpath.XPathException;
+import javax.xml.xpath.XPathExpression;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import stylechecksaggregator.benchmark.ReportGenerator;
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
+import stylechecksaggregator.model.IssueType;
+import stylechecksaggregator.util.ObjectPool;
+import stylechecksaggregator.util.XMLUtil;
+
+/**
+ * Compares the extraction of issues from a parsed document by the adapters with the previous implementation,
+ * which evaluated an XPath expression per group element and read the attributes via {@link NamedNodeMap} and
+ * {@link Node#getTextContent()}. As the previous implementation takes quadratic time, the report sizes are
+ * smaller than in {@link AdapterBenchmark}.
+ * 
+ * @author Holger Knoche
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AttributeExtractionBenchmark {
+	
+	@Param({ReportGenerator.CHECKSTYLE, ReportGenerator.PMD, ReportGenerator.FINDBUGS})
+	public String tool;
+	
+	@Param({"1000", "10000"})
+	public int issueCount;
+	
+	private File directory;
+	
+	private XMLBasedToolAdapter adapter;
+	
+	private Document document;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory("attribute-extraction-benchmark").toFile();
+		
+		final File reportFile = new File(this.directory, this.tool + ".xml");
+		ReportGenerator.writeReport(this.tool, reportFile, this.issueCount);
+		
+		this.adapter = AdapterBenchmark.createAdapter(this.tool, new Properties());
+		this.document = XMLUtil.parseXMLFile(reportFile);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		ReportGenerator.deleteDirectory(this.directory);
+	}
+	
+	/**
+	 * Measures the extraction using the current implementation.
+	 */
+	@Benchmark
+	public List<Issue> processDocument() throws XPathException {
+		return this.adapter.processDocument(this.document);
+	}
+	
+	/**
+	 * Measures the extraction using the previous implementation.
+	 */
+	@Benchmark
+	public List<Issue> processDocumentLegacy() throws XPathException {
+		switch(this.tool) {
+		case ReportGenerator.CHECKSTYLE:
+			return LegacyExtraction.processCheckstyleDocument(this.document);
+		case ReportGenerator.PMD:
+			return LegacyExtraction.processPMDDocument(this.document);
+		case ReportGenerator.FINDBUGS:
+			return LegacyExtraction.processFindBugsDocument(this.document);
+		default:
+			throw new IllegalArgumentException("Unknown tool '" + this.tool + "'.");
+		}
+	}
+	
+	/**
+	 * Copy of the previous extraction code of the adapters.
+	 */
+	private static class LegacyExtraction {
+		
+		private static final ObjectPool<XPathExpression> CHECKSTYLE_FILE_NODES_EXPRESSION = XMLUtil.compileXPathExpression("/checkstyle/file");
+		
+		private static final ObjectPool<XPathExpression> CHECKSTYLE_ERROR_NODES_EXPRESSION = XMLUtil.compileXPathExpression("error");
+		
+		private static final ObjectPool<XPathExpression> PMD_FILE_NODES_EXPRESSION = XMLUtil.compileXPathExpression("/pmd/file");
+		
+		private static final ObjectPool<XPathExpression> PMD_ERROR_NODES_EXPRESSION = XMLUtil.compileXPathExpression("violation");
+		
+		private static final ObjectPool<XPathExpression> FINDBUGS_BUG_NODES_EXPRESSION = XMLUtil.compileXPathExpression("/BugCollection/BugInstance");
+		
+		private static final ObjectPool<XPathExpression> FINDBUGS_SOURCE_NODES_EXPRESSION = XMLUtil.compileXPathExpression("SourceLine");
+		
+		public static List<Issue> processCheckstyleDocument(final Document document) throws XPathException {
+			final NodeList fileNodes = XMLUtil.evaluateNodes(CHECKSTYLE_FILE_NODES_EXPRESSION, document.getDocumentElement());
+			final List<Issue> issues = new ArrayList<>();
+			
+			for(int fileIndex = 0; fileIndex < fileNodes.getLength(); fileIndex++) {
+				final Node fileNode = fileNodes.item(fileIndex);
+				final String fileName = fileNode.getAttributes().getNamedItem("name").getTextContent();
+				
+				final NodeList errorNodes = XMLUtil.evaluateNodes(CHECKSTYLE_ERROR_NODES_EXPRESSION, fileNode);
+				for(int errorIndex = 0; errorIndex < errorNodes.getLength(); errorIndex++) {
+					final NamedNodeMap errorAttributes = errorNodes.item(errorIndex).getAttributes();
+					final int lineNumber = Integer.parseInt(errorAttributes.getNamedItem("line").getTextContent());
+					final String message = errorAttributes.getNamedItem("message").getTextContent();
+					final IssueSeverity severity = parseCheckstyleSeverity(errorAttributes.getNamedItem("severity").getTextContent());
+					
+					issues.add(new Issue(fileName, lineNumber, severity, IssueType.CHECKSTYLE, message));
+				}
+			}
+			
+			return issues;
+		}
+		
+		public static List<Issue> processPMDDocument(final Document document) throws XPathException {
+			final NodeList fileNodes = XMLUtil.evaluateNodes(PMD_FILE_NODES_EXPRESSION, document.getDocumentElement());
+			final List<Issue> issues = new ArrayList<>();
+			
+			for(int fileIndex = 0; fileIndex < fileNodes.getLength(); fileIndex++) {
+				final Node fileNode = fileNodes.item(fileIndex);
+				final String fileName = fileNode.getAttributes().getNamedItem("name").getTextContent();
+				
+				final NodeList errorNodes = XMLUtil.evaluateNodes(PMD_ERROR_NODES_EXPRESSION, fileNode);
+				for(int errorIndex = 0; errorIndex < errorNodes.getLength(); errorIndex++) {
+					final Node errorNode = errorNodes.item(errorIndex);
+					final NamedNodeMap errorAttributes = errorNode.getAttributes();
+					final int lineNumber = Integer.parseInt(errorAttributes.getNamedItem("beginline").getTextContent());
+					final IssueSeverity severity = parsePMDPriority(errorAttributes.getNamedItem("priority").getTextContent());
+					final String message = errorNode.getTextContent().trim();
+					
+					issues.add(new Issue(fileName, lineNumber, severity, IssueType.PMD, message));
+				}
+			}
+			
+			return issues;
+		}
+		
+		public static List<Issue> processFindBugsDocument(final Document document) throws XPathException {
+			final NodeList bugNodes = XMLUtil.evaluateNodes(FINDBUGS_BUG_NODES_EXPRESSION, document.getDocumentElement());
+			final List<Issue> issues = new ArrayList<>();
+			
+			for(int bugIndex = 0; bugIndex < bugNodes.getLength(); bugIndex++) {
+				final Node bugNode = bugNodes.item(bugIndex);
+				final NamedNodeMap bugAttributes = bugNode.getAttributes();
+				final String bugType = bugAttributes.getNamedItem("type").getTextContent();
+				final IssueSeverity severity = parseFindBugsPriority(bugAttributes.getNamedItem("priority").getTextContent());
+				
+				final NodeList sourceNodes = XMLUtil.evaluateNodes(FINDBUGS_SOURCE_NODES_EXPRESSION, bugNode);
+				for(int sourceIndex = 0; sourceIndex < sourceNodes.getLength(); sourceIndex++) {
+					final NamedNodeMap sourceAttributes = sourceNodes.item(sourceIndex).getAttributes();
+					final int lineNumber = Integer.parseInt(sourceAttributes.getNamedItem("start").getTextContent());
+					final String fileName = sourceAttributes.getNamedItem("sourcepath").getTextContent();
+					
+					issues.add(new Issue(fileName, lineNumber, severity, IssueType.FINDBUGS, bugType));
+				}
+			}
+			
+			return issues;
+		}
+		
+		private static IssueSeverity parseCheckstyleSeverity(final String value) {
+			switch(value) {
+			case "info":
+				return IssueSeverity.INFO;
+			case "warning":
+				return IssueSeverity.WARNING;
+			default:
+				return IssueSeverity.ERROR;
+			}
+		}
+		
+		private static IssueSeverity parsePMDPriority(final String value) {
+			switch(value) {
+			case "1":
+			case "2":
+				return IssueSeverity.ERROR;
+			case "3":
+				return IssueSeverity.WARNING;
+			default:
+				return IssueSeverity.INFO;
+			}
+		}
+		
+		private static IssueSeverity parseFindBugsPriority(final String value) {
+			switch(value) {
+			case "1":
+				return IssueSeverity.ERROR;
+			case "2":
+				return IssueSeverity.WARNING;
+			default:
+				return IssueSeverity.INFO;
+			}
+		}
+		
+	}
+	
+}
@@ -0,0 +1,218 @@
+package stylechecksaggregator.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Generates synthetic CheckStyle, PMD and FindBugs reports of configurable sizes for benchmarking.
+ * The generated reports are deterministic for a given size.
+ * 
+ * @author Holger Knoche
+ */
+public class ReportGenerator {
+	
+	/**
+	 * Tool id for CheckStyle reports, which is also the property prefix of the tool.
+	 */
+	public static final String CHECKSTYLE = "checkstyle";
+	
+	/**
+	 * Tool id for PMD reports, which is also the property prefix of the tool.
+	 */
+	public static final String PMD = "pmd";
+	
+	/**
+	 * Tool id for FindBugs reports, which is also the property prefix of the tool.
+	 */
+	public static final String FINDBUGS = "findbugs";
+	
+	/**
+	 * Ids of all supported tools.
+	 */
+	public static final String[] TOOLS = {CHECKSTYLE, PMD, FINDBUGS};
+	
+	private static final int ISSUES_PER_FILE = 10;
+	
+	private static final int NUMBER_OF_MODULES = 40;
+	
+	private static final int NUMBER_OF_MESSAGES = 50;
+	
+	private static final int MAX_LINE_NUMBER = 2000;
+	
+	private static final String[] CHECKSTYLE_SEVERITIES = {"info", "warning", "error"};
+	
+	private static final long SEED = 4711;
+	
+	private final Random random = new Random(SEED);
+	
+	/**
+	 * Writes a report for the given tool containing the given number of issues.
+	 * @param tool The id of the tool to generate the report for
+	 * @param file The file to write the report to
+	 * @param issueCount The number of issues in the report
+	 * @throws IOException If an I/O error occurs
+	 */
+	public static void writeReport(final String tool, final File file, final int issueCount) throws IOException {
+		final ReportGenerator generator = new ReportGenerator();
+		
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+			switch(tool) {
+			case CHECKSTYLE:
+				generator.writeCheckstyleReport(writer, issueCount);
+				break;
+			case PMD:
+				generator.writePMDReport(writer, issueCount);
+				break;
+			case FINDBUGS:
+				generator.writeFindBugsReport(writer, issueCount);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown tool '" + tool + "'.");
+			}
+		}
+	}
+	
+	/**
+	 * Writes reports for all tools into the given directory and creates a matching configuration file.
+	 * @param directory The directory to write the reports and the configuration to
+	 * @param reportsPerTool The number of reports to write per tool
+	 * @param issuesPerReport The number of issues per report
+	 * @return The configuration file listing all reports relative to the given directory
+	 * @throws IOException If an I/O error occurs
+	 */
+	public static File writeReports(final File directory, final int reportsPerTool, final int issuesPerReport) throws IOException {
+		final Properties properties = new Properties();
+		
+		for(final String tool : TOOLS) {
+			final List<String> fileNames = new ArrayList<>(reportsPerTool);
+			
+			for(int reportIndex = 0; reportIndex < reportsPerTool; reportIndex++) {
+				final String fileName = tool + "-" + reportIndex + ".xml";
+				
+				writeReport(tool, new File(directory, fileName), issuesPerReport);
+				fileNames.add(fileName);
+			}
+			
+			properties.setProperty(tool + ".fileNames", String.join(";", fileNames));
+		}
+		
+		final File configFile = new File(directory, "benchmark.properties");
+		try (FileOutputStream outputStream = new FileOutputStream(configFile)) {
+			properties.store(outputStream, null);
+		}
+		
+		return configFile;
+	}
+	
+	/**
+	 * Deletes the given directory and all files it contains.
+	 * @param directory The directory to delete
+	 */
+	public static void deleteDirectory(final File directory) {
+		final File[] files = directory.listFiles();
+		
+		if(files != null) {
+			for(final File file : files) {
+				if(file.isDirectory()) {
+					deleteDirectory(file);
+				} else {
+					file.delete();
+				}
+			}
+		}
+		
+		directory.delete();
+	}
+	
+	private void writeCheckstyleReport(final Writer writer, final int issueCount) throws IOException {
+		writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		writer.write("<checkstyle version=\"8.0\">\n");
+		
+		for(int fileIndex = 0; fileIndex * ISSUES_PER_FILE < issueCount; fileIndex++) {
+			writer.write("<file name=\"" + this.sourceFileName(fileIndex) + "\">\n");
+			
+			final int issuesInFile = Math.min(ISSUES_PER_FILE, issueCount - fileIndex * ISSUES_PER_FILE);
+			for(int issueIndex = 0; issueIndex < issuesInFile; issueIndex++) {
+				writer.write("<error line=\"" + this.lineNumber() + "\" column=\"5\" severity=\"" + CHECKSTYLE_SEVERITIES[this.random.nextInt(CHECKSTYLE_SEVERITIES.length)] +
+						"\" message=\"" + this.message() + "\" source=\"com.puppycrawl.tools.checkstyle.checks.SyntheticCheck\"/>\n");
+			}
+			
+			writer.write("</file>\n");
+		}
+		
+		writer.write("</checkstyle>\n");
+	}
+	
+	private void writePMDReport(final Writer writer, final int issueCount) throws IOException {
+		writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		writer.write("<pmd xmlns=\"http://pmd.sourceforge.net/report/2.0.0\" version=\"6.0.0\">\n");
+		
+		for(int fileIndex = 0; fileIndex * ISSUES_PER_FILE < issueCount; fileIndex++) {
+			writer.write("<file name=\"" + this.sourceFileName(fileIndex) + "\">\n");
+			
+			final int issuesInFile = Math.min(ISSUES_PER_FILE, issueCount - fileIndex * ISSUES_PER_FILE);
+			for(int issueIndex = 0; issueIndex < issuesInFile; issueIndex++) {
+				final int lineNumber = this.lineNumber();
+				
+				writer.write("<violation beginline=\"" + lineNumber + "\" endline=\"" + (lineNumber + 2) + "\" begincolumn=\"5\" endcolumn=\"20\" rule=\"SyntheticRule\" ruleset=\"Synthetic\" priority=\"" +
+						(1 + this.random.nextInt(5)) + "\">\n");
+				writer.write(this.message() + "\n");
+				writer.write("</violation>\n");
+			}
+			
+			writer.write("</file>\n");
+		}
+		
+		writer.write("</pmd>\n");
+	}
+	
+	private void writeFindBugsReport(final Writer writer, final int issueCount) throws IOException {
+		writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		writer.write("<BugCollection version=\"3.0.1\" sequence=\"0\" timestamp=\"0\" analysisTimestamp=\"0\" release=\"\">\n");
+		
+		// Each bug instance contains two source lines, both of which result in an issue
+		for(int bugIndex = 0; bugIndex * 2 < issueCount; bugIndex++) {
+			final String sourcePath = this.sourceFileName(bugIndex / ISSUES_PER_FILE).substring(1);
+			final int lineNumber = this.lineNumber();
+			
+			writer.write("<BugInstance type=\"SYNTHETIC_BUG_" + this.random.nextInt(NUMBER_OF_MESSAGES) + "\" priority=\"" + (1 + this.random.nextInt(3)) +
+					"\" rank=\"10\" abbrev=\"SB\" category=\"BAD_PRACTICE\">\n");
+			writer.write("<Class classname=\"com.example.Synthetic\"><SourceLine classname=\"com.example.Synthetic\" start=\"1\" end=\"" + MAX_LINE_NUMBER +
+					"\" sourcefile=\"Synthetic.java\" sourcepath=\"" + sourcePath + "\"/></Class>\n");
+			writer.write("<SourceLine classname=\"com.example.Synthetic\" start=\"" + lineNumber + "\" end=\"" + lineNumber + "\" sourcefile=\"Synthetic.java\" sourcepath=\"" +
+					sourcePath + "\"/>\n");
+			
+			if(bugIndex * 2 + 1 < issueCount) {
+				writer.write("<SourceLine classname=\"com.example.Synthetic\" start=\"" + (lineNumber + 1) + "\" end=\"" + (lineNumber + 1) + "\" sourcefile=\"Synthetic.java\" sourcepath=\"" +
+						sourcePath + "\"/>\n");
+			}
+			
+			writer.write("</BugInstance>\n");
+		}
+		
+		writer.write("</BugCollection>\n");
+	}
+	
+	private String sourceFileName(final int fileIndex) {
+		final int moduleIndex = fileIndex % NUMBER_OF_MODULES;
+		return "/home/build/workspace/project/module-" + moduleIndex + "/src/main/java/com/example/module" + moduleIndex + "/SyntheticClass" + fileIndex + ".java";
+	}
+	
+	private int lineNumber() {
+		return 1 + this.random.nextInt(MAX_LINE_NUMBER);
+	}
+	
+	private String message() {
+		return "Synthetic issue message number " + this.random.nextInt(NUMBER_OF_MESSAGES) + " &amp; some more explanatory text.";
+	}
+	
+}
@@ -0,0 +1,81 @@
+package stylechecksaggregator.main;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import stylechecksaggregator.adapter.StylecheckToolAdapter;
+import stylechecksaggregator.benchmark.ReportGenerator;
+import stylechecksaggregator.main.StylechecksAggregator.StylechecksAggregatorParams;
+import stylechecksaggregator.model.Issue;
+
+/**
+ * Benchmarks for the aggregation of all reports. The total number of issues is spread evenly over the reports
+ * of all tools.
+ * 
+ * @author Holger Knoche
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AggregationBenchmark {
+	
+	private static final int REPORTS_PER_TOOL = 10;
+	
+	@Param({"1000", "100000"})
+	public int issueCount;
+	
+	@Param({"1", "4"})
+	public int threads;
+	
+	private File directory;
+	
+	private StylechecksAggregatorParams parameters;
+	
+	private List<StylecheckToolAdapter> adapters;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory("aggregation-benchmark").toFile();
+		
+		final int issuesPerReport = Math.max(1, this.issueCount / (REPORTS_PER_TOOL * ReportGenerator.TOOLS.length));
+		final File configFile = ReportGenerator.writeReports(this.directory, REPORTS_PER_TOOL, issuesPerReport);
+		
+		final String[] arguments = {"--config", configFile.getAbsolutePath(), "--threads", String.valueOf(this.threads), this.directory.getAbsolutePath()};
+		this.parameters = StylechecksAggregator.parseParameters(arguments);
+		this.adapters = StylechecksAggregator.initializeAdapters(this.parameters);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		ReportGenerator.deleteDirectory(this.directory);
+	}
+	
+	/**
+	 * Measures processing all configured reports.
+	 */
+	@Benchmark
+	public List<Issue> aggregateIssues() throws IOException {
+		return StylechecksAggregator.aggregateIssues(this.parameters, this.adapters);
+	}
+	
+}
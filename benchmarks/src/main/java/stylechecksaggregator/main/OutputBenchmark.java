@@ -0,0 +1,122 @@
+package stylechecksaggregator.main;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import stylechecksaggregator.adapter.StylecheckToolAdapter;
+import stylechecksaggregator.benchmark.ReportGenerator;
+import stylechecksaggregator.main.StylechecksAggregator.StylechecksAggregatorParams;
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
+
+/**
+ * Benchmarks for the filtering, sorting and printing of the aggregated issues. The issues are taken from
+ * generated reports of all tools.
+ * 
+ * @author Holger Knoche
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class OutputBenchmark {
+	
+	private static final int REPORTS_PER_TOOL = 10;
+	
+	@Param({"1000", "100000"})
+	public int issueCount;
+	
+	private File directory;
+	
+	private List<Issue> issues;
+	
+	private PrintStream nullStream;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory("output-benchmark").toFile();
+		
+		final int issuesPerReport = Math.max(1, this.issueCount / (REPORTS_PER_TOOL * ReportGenerator.TOOLS.length));
+		final File configFile = ReportGenerator.writeReports(this.directory, REPORTS_PER_TOOL, issuesPerReport);
+		
+		final String[] arguments = {"--config", configFile.getAbsolutePath(), this.directory.getAbsolutePath()};
+		final StylechecksAggregatorParams parameters = StylechecksAggregator.parseParameters(arguments);
+		final List<StylecheckToolAdapter> adapters = StylechecksAggregator.initializeAdapters(parameters);
+		this.issues = StylechecksAggregator.aggregateIssues(parameters, adapters);
+		
+		this.nullStream = new PrintStream(new NullOutputStream());
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		ReportGenerator.deleteDirectory(this.directory);
+	}
+	
+	/**
+	 * Measures the severity filter and the sort by file name and line number.
+	 */
+	@Benchmark
+	public List<Issue> filterAndSortIssues() {
+		return StylechecksAggregator.filterAndSortIssues(this.issues, IssueSeverity.ERROR);
+	}
+	
+	/**
+	 * Measures formatting all issues using {@link Issue#toString()}.
+	 */
+	@Benchmark
+	public void formatIssues(final Blackhole blackhole) {
+		for(final Issue issue : this.issues) {
+			blackhole.consume(issue.toString());
+		}
+	}
+	
+	/**
+	 * Measures printing all issues in the same way as the aggregator does.
+	 */
+	@Benchmark
+	public void printIssues() {
+		for(final Issue issue : this.issues) {
+			this.nullStream.println(issue);
+		}
+	}
+	
+	/**
+	 * Output stream that discards all data.
+	 */
+	private static class NullOutputStream extends OutputStream {
+		
+		@Override
+		public void write(final int value) {
+			// Discard the data
+		}
+		
+		@Override
+		public void write(final byte[] buffer, final int offset, final int length) {
+			// Discard the data
+		}
+		
+	}
+	
+}
@@ -0,0 +1,110 @@
+package stylechecksaggregator.main;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import stylechecksaggregator.adapter.StylecheckToolAdapter;
+import stylechecksaggregator.benchmark.ReportGenerator;
+import stylechecksaggregator.main.StylechecksAggregator.StylechecksAggregatorParams;
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.output.IssuePrinter;
+import stylechecksaggregator.output.OutputFormat;
+
+/**
+ * Benchmarks for printing the issues in the supported output formats. The output is discarded, so only the
+ * formatting and encoding is measured.
+ * 
+ * @author Holger Knoche
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class OutputFormatBenchmark {
+	
+	private static final int REPORTS_PER_TOOL = 10;
+	
+	@Param({"text", "ndjson", "sarif", "binary"})
+	public String format;
+	
+	@Param({"100000"})
+	public int issueCount;
+	
+	private File directory;
+	
+	private List<Issue> issues;
+	
+	private OutputFormat outputFormat;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory("output-format-benchmark").toFile();
+		
+		final int issuesPerReport = Math.max(1, this.issueCount / (REPORTS_PER_TOOL * ReportGenerator.TOOLS.length));
+		final File configFile = ReportGenerator.writeReports(this.directory, REPORTS_PER_TOOL, issuesPerReport);
+		
+		final String[] arguments = {"--config", configFile.getAbsolutePath(), this.directory.getAbsolutePath()};
+		final StylechecksAggregatorParams parameters = StylechecksAggregator.parseParameters(arguments);
+		final List<StylecheckToolAdapter> adapters = StylechecksAggregator.initializeAdapters(parameters);
+		this.issues = StylechecksAggregator.aggregateIssues(parameters, adapters);
+		this.outputFormat = OutputFormat.fromName(this.format);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		ReportGenerator.deleteDirectory(this.directory);
+	}
+	
+	/**
+	 * Measures printing all issues in the selected format.
+	 */
+	@Benchmark
+	public long printIssues() throws IOException {
+		final IssuePrinter printer = this.outputFormat.createPrinter(new NullOutputStream());
+		
+		for(final Issue issue : this.issues) {
+			printer.accept(issue);
+		}
+		
+		printer.finish();
+		return printer.getIssueCount();
+	}
+	
+	/**
+	 * Output stream that discards all data.
+	 */
+	private static class NullOutputStream extends OutputStream {
+		
+		@Override
+		public void write(final int value) {
+			// Discard the data
+		}
+		
+		@Override
+		public void write(final byte[] buffer, final int offset, final int length) {
+			// Discard the data
+		}
+		
+	}
+	
+}
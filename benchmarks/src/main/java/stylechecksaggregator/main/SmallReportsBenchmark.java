@@ -0,0 +1,110 @@
+package stylechecksaggregator.main;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import stylechecksaggregator.adapter.StylecheckToolAdapter;
+import stylechecksaggregator.benchmark.ReportGenerator;
+import stylechecksaggregator.main.StylechecksAggregator.StylechecksAggregatorParams;
+import stylechecksaggregator.model.Issue;
+
+/**
+ * Benchmarks for the aggregation of many small reports, whose processing is dominated by the per-file overhead.
+ * The reports are processed sequentially, on a thread pool or on one virtual thread per report. On JDKs without
+ * virtual threads, the latter falls back to a thread pool with one thread per processor.
+ * 
+ * @author Holger Knoche
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SmallReportsBenchmark {
+	
+	private static final String SEQUENTIAL = "sequential";
+	
+	private static final String POOL = "pool";
+	
+	private static final String VIRTUAL = "virtual";
+	
+	/**
+	 * Number of threads of the thread pool.
+	 */
+	private static final int POOL_THREADS = 8;
+	
+	@Param({"10000"})
+	public int reportCount;
+	
+	@Param({"5"})
+	public int issuesPerReport;
+	
+	@Param({SEQUENTIAL, POOL, VIRTUAL})
+	public String execution;
+	
+	private File directory;
+	
+	private StylechecksAggregatorParams parameters;
+	
+	private List<StylecheckToolAdapter> adapters;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory("small-reports-benchmark").toFile();
+		
+		final int reportsPerTool = (this.reportCount + ReportGenerator.TOOLS.length - 1) / ReportGenerator.TOOLS.length;
+		final File configFile = ReportGenerator.writeReports(this.directory, reportsPerTool, this.issuesPerReport);
+		
+		final List<String> arguments = new ArrayList<>(Arrays.asList("--config", configFile.getAbsolutePath()));
+		switch(this.execution) {
+		case SEQUENTIAL:
+			break;
+		case POOL:
+			arguments.addAll(Arrays.asList("--threads", String.valueOf(POOL_THREADS)));
+			break;
+		case VIRTUAL:
+			arguments.add("--virtual-threads");
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown execution '" + this.execution + "'.");
+		}
+		arguments.add(this.directory.getAbsolutePath());
+		
+		this.parameters = StylechecksAggregator.parseParameters(arguments.toArray(new String[arguments.size()]));
+		this.adapters = StylechecksAggregator.initializeAdapters(this.parameters);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		ReportGenerator.deleteDirectory(this.directory);
+	}
+	
+	/**
+	 * Measures processing all reports.
+	 */
+	@Benchmark
+	public List<Issue> aggregateIssues() throws IOException {
+		return StylechecksAggregator.aggregateIssues(this.parameters, this.adapters);
+	}
+	
+}
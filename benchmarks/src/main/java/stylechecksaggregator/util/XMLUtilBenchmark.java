@@ -0,0 +1,105 @@
+package stylechecksaggregator.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+import stylechecksaggregator.benchmark.ReportGenerator;
+
+/**
+ * Compares creating new parser objects per use with reusing the per-thread document builders and
+ * compiled XPath expressions provided by {@link XMLUtil}. A small report is used, as the setup
+ * cost matters most for the many small reports of a large project.
+ * 
+ * @author Holger Knoche
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class XMLUtilBenchmark {
+	
+	private static final int ISSUE_COUNT = 20;
+	
+	private static final String EXPRESSION = "/checkstyle/file";
+	
+	private final ObjectPool<XPathExpression> compiledExpression = XMLUtil.compileXPathExpression(EXPRESSION);
+	
+	private File directory;
+	
+	private File reportFile;
+	
+	private Document document;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory("xmlutil-benchmark").toFile();
+		this.reportFile = new File(this.directory, "checkstyle.xml");
+		
+		ReportGenerator.writeReport(ReportGenerator.CHECKSTYLE, this.reportFile, ISSUE_COUNT);
+		this.document = XMLUtil.parseXMLFile(this.reportFile);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		ReportGenerator.deleteDirectory(this.directory);
+	}
+	
+	/**
+	 * Parses the report with a newly created factory and document builder.
+	 */
+	@Benchmark
+	public Document parseWithNewDocumentBuilder() throws IOException, ParserConfigurationException, SAXException {
+		return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(this.reportFile);
+	}
+	
+	/**
+	 * Parses the report with the per-thread document builder.
+	 */
+	@Benchmark
+	public Document parseWithReusedDocumentBuilder() throws IOException {
+		return XMLUtil.parseXMLFile(this.reportFile);
+	}
+	
+	/**
+	 * Evaluates the expression string with a newly created XPath object.
+	 */
+	@Benchmark
+	public Object evaluateWithNewXPath() throws XPathExpressionException {
+		return XPathFactory.newInstance().newXPath().evaluate(EXPRESSION, this.document.getDocumentElement(), XPathConstants.NODESET);
+	}
+	
+	/**
+	 * Evaluates the per-thread compiled expression.
+	 */
+	@Benchmark
+	public Object evaluateCompiledExpression() throws XPathExpressionException {
+		return XMLUtil.evaluateNodes(this.compiledExpression, this.document.getDocumentElement());
+	}
+	
+}
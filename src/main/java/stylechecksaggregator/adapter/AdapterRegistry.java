@@ -0,0 +1,117 @@
+package stylechecksaggregator.adapter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+import stylechecksaggregator.model.IssueType;
+
+/**
+ * Registry of all adapter providers available on the class path (see {@link StylecheckToolAdapterProvider}). The
+ * providers are loaded once: the built-in providers come first, followed by the additional providers in the order in
+ * which they are found by the service loader. The issue types of all providers are registered when they are loaded.
+ * Tool ids must be unique, so a provider declaring the id of another provider is rejected.
+ * 
+ * @author Holger Knoche
+ */
+public class AdapterRegistry {
+	
+	private AdapterRegistry() {
+		// Only static methods
+	}
+	
+	/**
+	 * Returns all available adapter providers.
+	 * @return The (unmodifiable) list of providers
+	 */
+	public static List<StylecheckToolAdapterProvider> getProviders() {
+		return ProviderHolder.PROVIDERS;
+	}
+	
+	/**
+	 * Returns the provider for the tool with the given id.
+	 * @param toolId The id of the tool
+	 * @return The provider or {@code null} if there is no such provider
+	 */
+	public static StylecheckToolAdapterProvider getProvider(final String toolId) {
+		for(final StylecheckToolAdapterProvider provider : getProviders()) {
+			if(provider.getToolId().equals(toolId)) {
+				return provider;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Creates the adapters for all tools that are configured in the given properties. Adapters for tools without
+	 * configuration are not instantiated.
+	 * @param properties The properties containing the settings of the adapters
+	 * @return The adapters in the order of their providers
+	 */
+	public static List<StylecheckToolAdapter> createAdapters(final Properties properties) {
+		final List<StylecheckToolAdapter> adapters = new ArrayList<>();
+		
+		for(final StylecheckToolAdapterProvider provider : getProviders()) {
+			if(provider.isConfigured(properties)) {
+				adapters.add(provider.createAdapter(properties));
+			}
+		}
+		
+		return adapters;
+	}
+	
+	private static List<StylecheckToolAdapterProvider> loadProviders() {
+		final List<StylecheckToolAdapterProvider> providers = new ArrayList<>();
+		final Map<String, StylecheckToolAdapterProvider> providersById = new HashMap<>();
+		
+		final List<StylecheckToolAdapterProvider> builtInProviders = Arrays.asList(new CheckstyleAdapterProvider(), new FindBugsAdapterProvider(), new PMDAdapterProvider());
+		final Set<Class<?>> builtInProviderClasses = new HashSet<>();
+		
+		for(final StylecheckToolAdapterProvider provider : builtInProviders) {
+			addProvider(provider, providers, providersById);
+			builtInProviderClasses.add(provider.getClass());
+		}
+		
+		// The built-in providers are also declared as services, so they must be skipped here
+		for(final StylecheckToolAdapterProvider provider : ServiceLoader.load(StylecheckToolAdapterProvider.class, AdapterRegistry.class.getClassLoader())) {
+			if(!builtInProviderClasses.contains(provider.getClass())) {
+				addProvider(provider, providers, providersById);
+			}
+		}
+		
+		return Collections.unmodifiableList(providers);
+	}
+	
+	private static void addProvider(final StylecheckToolAdapterProvider provider, final List<StylecheckToolAdapterProvider> providers,
+			final Map<String, StylecheckToolAdapterProvider> providersById) {
+		final String toolId = provider.getToolId();
+		final StylecheckToolAdapterProvider existingProvider = providersById.putIfAbsent(toolId, provider);
+		
+		if(existingProvider != null) {
+			throw new ServiceConfigurationError("Tool id '" + toolId + "' is declared by both " + existingProvider.getClass().getName() + " and " + provider.getClass().getName() + ".");
+		}
+		
+		IssueType.register(toolId.toUpperCase(Locale.ROOT));
+		providers.add(provider);
+	}
+	
+	/**
+	 * Holder for the lazily loaded providers.
+	 */
+	private static class ProviderHolder {
+		
+		static final List<StylecheckToolAdapterProvider> PROVIDERS = loadProviders();
+		
+	}
+	
+}
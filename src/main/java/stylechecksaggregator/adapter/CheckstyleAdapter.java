@@ -1,22 +1,22 @@
 package stylechecksaggregator.adapter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
+import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
 import stylechecksaggregator.model.Issue;
 import stylechecksaggregator.model.IssueSeverity;
 import stylechecksaggregator.model.IssueType;
+import stylechecksaggregator.util.ObjectPool;
+import stylechecksaggregator.util.XMLUtil;
 
 /**
  * Adapter for CheckStyle.
@@ -32,31 +32,39 @@ public class CheckstyleAdapter extends XMLBasedToolAdapter {
 	 */
 	private static final String FILE_NAMES_PROPERTY = PREFIX + "fileNames";
 	
+	/**
+	 * Expression for the file nodes.
+	 */
+	private static final ObjectPool<XPathExpression> FILE_NODES_EXPRESSION = XMLUtil.compileXPathExpression("/checkstyle/file");
+	
+	/**
+	 * Mapping for the streaming processing of CheckStyle reports.
+	 */
+	private static final StreamingIssueMapping STREAMING_MAPPING = new CheckstyleStreamingMapping();
+	
 	public CheckstyleAdapter(final Properties properties) {
-		super(extractFileNames(FILE_NAMES_PROPERTY, properties));
+		super(extractFileNames(FILE_NAMES_PROPERTY, properties), properties);
 	}
 	
 	@Override
 	protected List<Issue> processDocument(final Document document) throws XPathExpressionException {
-		final XPath xPath = XPathFactory.newInstance().newXPath();
-		final NodeList fileNodes = (NodeList) xPath.evaluate("/checkstyle/file", document.getDocumentElement(), XPathConstants.NODESET);
+		final NodeList fileNodes = XMLUtil.evaluateNodes(FILE_NODES_EXPRESSION, document.getDocumentElement());
 	
 		final List<Issue> issues = new ArrayList<>();
 			
 		for(int fileIndex = 0; fileIndex < fileNodes.getLength(); fileIndex++) {
-			final Node fileNode = fileNodes.item(fileIndex);
-			
-			final NamedNodeMap fileAttributes = fileNode.getAttributes();
-			final String fileName = fileAttributes.getNamedItem("name").getTextContent();
+			final Element fileElement = (Element) fileNodes.item(fileIndex);
+			final String fileName = fileElement.getAttribute("name");
 			
-			final NodeList errorNodes = (NodeList) xPath.evaluate("error", fileNode, XPathConstants.NODESET);
-			for(int errorIndex = 0; errorIndex < errorNodes.getLength(); errorIndex++) {
-				 final Node errorNode = errorNodes.item(errorIndex);
-				 
-				 final NamedNodeMap errorAttributes = errorNode.getAttributes();
-				 final int lineNumber = Integer.parseInt(errorAttributes.getNamedItem("line").getTextContent());
-				 final String message = errorAttributes.getNamedItem("message").getTextContent();
-				 final IssueSeverity severity = parseCheckstyleSeverity(errorAttributes.getNamedItem("severity").getTextContent());
+			// Visit the child elements directly, as evaluating an XPath expression per file is expensive
+			for(Element errorElement = XMLUtil.firstChildElement(fileElement, "error"); errorElement != null; errorElement = XMLUtil.nextSiblingElement(errorElement, "error")) {
+				 final IssueSeverity severity = parseCheckstyleSeverity(errorElement.getAttribute("severity"));
+				 if(!this.hasMinSeverity(severity)) {
+					 continue;
+				 }
+				
+				 final int lineNumber = parseLineNumber(errorElement.getAttribute("line"), "line");
+				 final String message = errorElement.getAttribute("message");
 				 
 				 final Issue issue = new Issue(fileName, lineNumber, severity, IssueType.CHECKSTYLE, message);
 				 issues.add(issue);
@@ -66,17 +74,56 @@ public class CheckstyleAdapter extends XMLBasedToolAdapter {
 		return issues;
 	}
 	
+	@Override
+	protected StreamingIssueMapping getStreamingMapping() {
+		return STREAMING_MAPPING;
+	}
+	
 	private static IssueSeverity parseCheckstyleSeverity(final String value) {
 		switch(value) {
 		case "info":
 			return IssueSeverity.INFO;
 		case "warning":
 			return IssueSeverity.WARNING;
-		case "error":
-			return IssueSeverity.ERROR;
 		default:
+			// Errors and unknown severities
 			return IssueSeverity.ERROR;
 		}
 	}
+	
+	/**
+	 * Streaming mapping for CheckStyle reports.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class CheckstyleStreamingMapping extends StreamingIssueMapping {
+		
+		private static final int NAME_INDEX = 0;
+		
+		private static final int LINE_INDEX = 0;
+		
+		private static final int MESSAGE_INDEX = 1;
+		
+		private static final int SEVERITY_INDEX = 2;
+		
+		public CheckstyleStreamingMapping() {
+			super("checkstyle", "file", Arrays.asList("name"), "error", Arrays.asList("line", "message", "severity"), false);
+		}
+		
+		@Override
+		protected IssueSeverity getSeverity(final String[] groupAttributes, final String[] issueAttributes) {
+			return parseCheckstyleSeverity(issueAttributes[SEVERITY_INDEX]);
+		}
+		
+		@Override
+		protected Issue createIssue(final String[] groupAttributes, final String[] issueAttributes, final IssueSeverity severity, final String text) {
+			final String fileName = groupAttributes[NAME_INDEX];
+			final int lineNumber = parseLineNumber(issueAttributes[LINE_INDEX], "line");
+			final String message = issueAttributes[MESSAGE_INDEX];
+			
+			return new Issue(fileName, lineNumber, severity, IssueType.CHECKSTYLE, message);
+		}
+		
+	}
 
 }
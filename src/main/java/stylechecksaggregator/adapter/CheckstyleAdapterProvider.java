@@ -0,0 +1,22 @@
+package stylechecksaggregator.adapter;
+
+import java.util.Properties;
+
+/**
+ * Provider for the {@link CheckstyleAdapter adapter for CheckStyle}.
+ * 
+ * @author Holger Knoche
+ */
+public class CheckstyleAdapterProvider implements StylecheckToolAdapterProvider {
+	
+	@Override
+	public String getToolId() {
+		return "checkstyle";
+	}
+	
+	@Override
+	public StylecheckToolAdapter createAdapter(final Properties properties) {
+		return new CheckstyleAdapter(properties);
+	}
+	
+}
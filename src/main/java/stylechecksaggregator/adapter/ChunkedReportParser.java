@@ -0,0 +1,403 @@
+package stylechecksaggregator.adapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
+import stylechecksaggregator.util.ByteBufferInputStream;
+import stylechecksaggregator.util.XMLUtil;
+
+/**
+ * Parses a large report held in a (memory-mapped) buffer in several chunks at the same time. The report is split
+ * at the start tags of the group elements of a {@link StreamingIssueMapping}, and each chunk is wrapped into a root
+ * element, so that it can be parsed as a document of its own. This requires an ASCII-compatible encoding, no
+ * document type declaration and no nested group elements. Reports that do not meet these requirements are not
+ * chunked.
+ * <p>
+ * The calling thread parses chunks itself and is helped by threads of a pool shared by all parsers. Therefore, the
+ * number of threads does not grow with the number of reports that are parsed at the same time, and a report is
+ * still parsed (by the calling thread alone) if all threads of the pool are busy.
+ * 
+ * @author Holger Knoche
+ */
+class ChunkedReportParser {
+	
+	/**
+	 * Number of bytes at the beginning of a report that are checked for the XML declaration.
+	 */
+	private static final int PROLOG_LENGTH = 1024;
+	
+	private static final Pattern ENCODING_PATTERN = Pattern.compile("encoding\\s*=\\s*[\"']([^\"']+)[\"']");
+	
+	private static final byte[] DOCTYPE_BYTES = "<!DOCTYPE".getBytes(StandardCharsets.US_ASCII);
+	
+	/**
+	 * Threads helping to parse the chunks, one per processor. The threads are daemon threads, so they do not prevent
+	 * the JVM from exiting.
+	 */
+	private static final ExecutorService HELPER_EXECUTOR = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), ChunkedReportParser::createHelperThread);
+	
+	private final StreamingIssueMapping mapping;
+	
+	private final IssueSeverity minSeverity;
+	
+	private final int threadCount;
+	
+	private final int chunkSize;
+	
+	/**
+	 * Creates a new parser using the given data.
+	 * @param mapping The mapping defining the structure of the report
+	 * @param minSeverity The minimum severity of the extracted issues
+	 * @param threadCount The maximum number of threads parsing the chunks of a report, including the calling thread
+	 * @param chunkSize The minimum size of a chunk in bytes
+	 */
+	public ChunkedReportParser(final StreamingIssueMapping mapping, final IssueSeverity minSeverity, final int threadCount, final int chunkSize) {
+		this.mapping = mapping;
+		this.minSeverity = minSeverity;
+		this.threadCount = threadCount;
+		this.chunkSize = chunkSize;
+	}
+	
+	/**
+	 * Parses the report in the given buffer.
+	 * @param buffer The buffer containing the report
+	 * @return The issues in the report or {@code null} if the report cannot be parsed in chunks
+	 * @throws IOException If an I/O error occurs
+	 */
+	public List<Issue> parse(final ByteBuffer buffer) throws IOException {
+		final List<Integer> boundaries = this.determineChunkBoundaries(buffer);
+		if(boundaries == null) {
+			return null;
+		}
+		
+		final ChunkResults results = new ChunkResults(boundaries.size() - 1);
+		final int helperCount = Math.min(this.threadCount, results.chunkCount) - 1;
+		final List<Future<Void>> helpers = new ArrayList<>(helperCount);
+		
+		try {
+			for(int helperIndex = 0; helperIndex < helperCount; helperIndex++) {
+				helpers.add(HELPER_EXECUTOR.submit(() -> this.parseChunks(buffer, boundaries, results)));
+			}
+			
+			// Parse chunks on this thread as well, the helpers only take the chunks that have not been claimed yet
+			this.parseChunks(buffer, boundaries, results);
+			
+			// All chunks are claimed now, so only the chunks that are still parsed by helpers have to be awaited
+			results.completedChunks.await();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while parsing the chunks.");
+		} finally {
+			// Helpers that have not started yet are no longer needed
+			for(final Future<Void> helper : helpers) {
+				helper.cancel(false);
+			}
+		}
+		
+		final Throwable failure = results.failure.get();
+		if(failure instanceof IOException) {
+			throw (IOException) failure;
+		} else if(failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else if(failure != null) {
+			throw (Error) failure;
+		}
+		
+		// Concatenate the results in the order of the chunks
+		final List<Issue> issues = new ArrayList<>();
+		
+		for(int chunkIndex = 0; chunkIndex < results.chunkCount; chunkIndex++) {
+			final List<Issue> chunkIssues = results.issues.get(chunkIndex);
+			
+			if(chunkIssues == null) {
+				return null;
+			}
+			
+			issues.addAll(chunkIssues);
+		}
+		
+		return issues;
+	}
+	
+	private static Thread createHelperThread(final Runnable runnable) {
+		final Thread thread = new Thread(runnable, "chunk-parser");
+		thread.setDaemon(true);
+		
+		return thread;
+	}
+	
+	/**
+	 * Parses chunks that have not been claimed by another thread until all chunks are claimed. Each claimed chunk is
+	 * counted as completed, even if it is skipped because another chunk could not be parsed.
+	 */
+	private Void parseChunks(final ByteBuffer buffer, final List<Integer> boundaries, final ChunkResults results) {
+		final byte[] prefix = ("<" + this.mapping.getRootElementName() + ">").getBytes(StandardCharsets.US_ASCII);
+		final byte[] suffix = ("</" + this.mapping.getRootElementName() + ">").getBytes(StandardCharsets.US_ASCII);
+		
+		for(int chunkIndex = results.nextChunkIndex.getAndIncrement(); chunkIndex < results.chunkCount; chunkIndex = results.nextChunkIndex.getAndIncrement()) {
+			try {
+				// The report is parsed as a whole if any chunk cannot be parsed, so the remaining chunks can be skipped
+				if(results.failed) {
+					continue;
+				}
+				
+				final ByteBuffer chunk = slice(buffer, boundaries.get(chunkIndex), boundaries.get(chunkIndex + 1));
+				final List<Issue> chunkIssues = this.parseChunk(prefix, chunk, suffix);
+				
+				if(chunkIssues == null) {
+					results.failed = true;
+				} else {
+					results.issues.set(chunkIndex, chunkIssues);
+				}
+			} catch (final IOException | RuntimeException | Error e) {
+				results.failure.compareAndSet(null, e);
+				results.failed = true;
+			} finally {
+				results.completedChunks.countDown();
+			}
+		}
+		
+		return null;
+	}
+	
+	private List<Issue> parseChunk(final byte[] prefix, final ByteBuffer chunk, final byte[] suffix) throws IOException {
+		final List<InputStream> streams = new ArrayList<>(3);
+		streams.add(new ByteArrayInputStream(prefix));
+		streams.add(new ByteBufferInputStream(chunk));
+		streams.add(new ByteArrayInputStream(suffix));
+		
+		try (InputStream inputStream = new SequenceInputStream(Collections.enumeration(streams))) {
+			final List<Issue> issues = new ArrayList<>();
+			final XMLStreamReader reader = XMLUtil.createStreamReader(inputStream);
+			
+			try {
+				this.mapping.extractIssues(reader, this.minSeverity, issues::add);
+			} finally {
+				reader.close();
+			}
+			
+			return issues;
+		} catch (final XMLStreamException | RuntimeException e) {
+			// The chunk is not well-formed (e.g. it was split inside a comment), so the report must be parsed as a whole
+			return null;
+		}
+	}
+	
+	private List<Integer> determineChunkBoundaries(final ByteBuffer buffer) {
+		final int length = buffer.limit();
+		
+		if(!hasCompatibleProlog(buffer)) {
+			return null;
+		}
+		
+		// Determine the content of the root element
+		final byte[] rootStartTag = ("<" + this.mapping.getRootElementName()).getBytes(StandardCharsets.US_ASCII);
+		final int rootStart = indexOfTag(buffer, rootStartTag, 0, length);
+		if(rootStart < 0 || indexOf(buffer, DOCTYPE_BYTES, 0, rootStart) >= 0) {
+			return null;
+		}
+		
+		final int contentStart = endOfStartTag(buffer, rootStart + rootStartTag.length, length);
+		final int contentEnd = lastIndexOf(buffer, ("</" + this.mapping.getRootElementName()).getBytes(StandardCharsets.US_ASCII), contentStart, length);
+		if(contentStart < 0 || contentEnd < 0) {
+			return null;
+		}
+		
+		// Split the content at the start tags of the group elements
+		final byte[] groupStartTag = ("<" + this.mapping.getGroupElementName()).getBytes(StandardCharsets.US_ASCII);
+		final List<Integer> boundaries = new ArrayList<>();
+		boundaries.add(contentStart);
+		
+		int position = contentStart + this.chunkSize;
+		while(position < contentEnd) {
+			final int boundary = indexOfTag(buffer, groupStartTag, position, contentEnd);
+			if(boundary < 0) {
+				break;
+			}
+			
+			boundaries.add(boundary);
+			position = boundary + this.chunkSize;
+		}
+		
+		boundaries.add(contentEnd);
+		
+		// Splitting is pointless if there is only a single chunk
+		return (boundaries.size() > 2) ? boundaries : null;
+	}
+	
+	private static boolean hasCompatibleProlog(final ByteBuffer buffer) {
+		final int prologLength = Math.min(PROLOG_LENGTH, buffer.limit());
+		final byte[] prologBytes = new byte[prologLength];
+		
+		final ByteBuffer prologBuffer = buffer.duplicate();
+		((Buffer) prologBuffer).position(0);
+		prologBuffer.get(prologBytes);
+		
+		// Reject byte order marks other than the one for UTF-8
+		if(prologLength >= 2 && ((prologBytes[0] & 0xFF) == 0xFE || (prologBytes[0] & 0xFF) == 0xFF || prologBytes[0] == 0)) {
+			return false;
+		}
+		
+		final String prolog = new String(prologBytes, StandardCharsets.ISO_8859_1);
+		final int declarationEnd = prolog.indexOf("?>");
+		if(!prolog.startsWith("<?xml") && !prolog.startsWith("\u00EF\u00BB\u00BF<?xml")) {
+			return true;
+		}
+		if(declarationEnd < 0) {
+			return false;
+		}
+		
+		final Matcher matcher = ENCODING_PATTERN.matcher(prolog.substring(0, declarationEnd));
+		if(!matcher.find()) {
+			return true;
+		}
+		
+		final String encoding = matcher.group(1);
+		return ("UTF-8".equalsIgnoreCase(encoding) || "US-ASCII".equalsIgnoreCase(encoding));
+	}
+	
+	private static ByteBuffer slice(final ByteBuffer buffer, final int start, final int end) {
+		final ByteBuffer duplicate = buffer.duplicate();
+		// Invoke the methods of Buffer, as ByteBuffer only overrides them as of Java 9
+		((Buffer) duplicate).limit(end);
+		((Buffer) duplicate).position(start);
+		
+		return duplicate.slice();
+	}
+	
+	private static int indexOfTag(final ByteBuffer buffer, final byte[] tagStart, final int from, final int to) {
+		int position = from;
+		
+		while(true) {
+			final int index = indexOf(buffer, tagStart, position, to);
+			if(index < 0) {
+				return -1;
+			}
+			
+			// Make sure that the name is complete, i.e. it is not a prefix of another name
+			final int nextIndex = index + tagStart.length;
+			if(nextIndex < to && isNameDelimiter(buffer.get(nextIndex))) {
+				return index;
+			}
+			
+			position = index + 1;
+		}
+	}
+	
+	private static boolean isNameDelimiter(final byte value) {
+		return (value == ' ' || value == '\t' || value == '\r' || value == '\n' || value == '>' || value == '/');
+	}
+	
+	private static int endOfStartTag(final ByteBuffer buffer, final int from, final int to) {
+		byte quote = 0;
+		
+		for(int index = from; index < to; index++) {
+			final byte value = buffer.get(index);
+			
+			if(quote != 0) {
+				if(value == quote) {
+					quote = 0;
+				}
+			} else if(value == '"' || value == '\'') {
+				quote = value;
+			} else if(value == '>') {
+				// Empty root elements contain no chunks
+				return (buffer.get(index - 1) == '/') ? -1 : index + 1;
+			}
+		}
+		
+		return -1;
+	}
+	
+	private static int indexOf(final ByteBuffer buffer, final byte[] pattern, final int from, final int to) {
+		final int lastStart = to - pattern.length;
+		
+		for(int index = from; index <= lastStart; index++) {
+			if(matchesAt(buffer, pattern, index)) {
+				return index;
+			}
+		}
+		
+		return -1;
+	}
+	
+	private static int lastIndexOf(final ByteBuffer buffer, final byte[] pattern, final int from, final int to) {
+		for(int index = to - pattern.length; index >= from; index--) {
+			if(matchesAt(buffer, pattern, index)) {
+				return index;
+			}
+		}
+		
+		return -1;
+	}
+	
+	private static boolean matchesAt(final ByteBuffer buffer, final byte[] pattern, final int index) {
+		for(int patternIndex = 0; patternIndex < pattern.length; patternIndex++) {
+			if(buffer.get(index + patternIndex) != pattern[patternIndex]) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * The results of the chunks of a report, which are shared by the threads parsing the chunks.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class ChunkResults {
+		
+		public final int chunkCount;
+		
+		public final AtomicReferenceArray<List<Issue>> issues;
+		
+		public final AtomicInteger nextChunkIndex = new AtomicInteger();
+		
+		/**
+		 * Counts down the chunks that have not been completed yet.
+		 */
+		public final CountDownLatch completedChunks;
+		
+		/**
+		 * The first exception that occurred while parsing a chunk.
+		 */
+		public final AtomicReference<Throwable> failure = new AtomicReference<>();
+		
+		/**
+		 * Denotes whether a chunk could not be parsed.
+		 */
+		public volatile boolean failed = false;
+		
+		public ChunkResults(final int chunkCount) {
+			this.chunkCount = chunkCount;
+			this.issues = new AtomicReferenceArray<>(chunkCount);
+			this.completedChunks = new CountDownLatch(chunkCount);
+		}
+		
+	}
+	
+}
@@ -1,22 +1,22 @@
 package stylechecksaggregator.adapter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
+import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
 import stylechecksaggregator.model.Issue;
 import stylechecksaggregator.model.IssueSeverity;
 import stylechecksaggregator.model.IssueType;
+import stylechecksaggregator.util.ObjectPool;
+import stylechecksaggregator.util.XMLUtil;
 
 /**
  * Adapter for FindBugs.
@@ -31,32 +31,42 @@ public class FindBugsAdapter extends XMLBasedToolAdapter {
 	 * Property for the file names.
 	 */
 	private static final String FILE_NAMES_PROPERTY = PREFIX + "fileNames";
+	
+	/**
+	 * Expression for the bug instance nodes.
+	 */
+	private static final ObjectPool<XPathExpression> BUG_NODES_EXPRESSION = XMLUtil.compileXPathExpression("/BugCollection/BugInstance");
+	
+	/**
+	 * Mapping for the streaming processing of FindBugs reports.
+	 */
+	private static final StreamingIssueMapping STREAMING_MAPPING = new FindBugsStreamingMapping();
 
 	public FindBugsAdapter(final Properties properties) {
-		super(extractFileNames(FILE_NAMES_PROPERTY, properties));
+		super(extractFileNames(FILE_NAMES_PROPERTY, properties), properties);
 	}
 		
 	@Override
 	protected List<Issue> processDocument(final Document document) throws XPathExpressionException {
-		final XPath xPath = XPathFactory.newInstance().newXPath();
-		final NodeList bugNodes = (NodeList) xPath.evaluate("/BugCollection/BugInstance", document.getDocumentElement(), XPathConstants.NODESET);
+		final NodeList bugNodes = XMLUtil.evaluateNodes(BUG_NODES_EXPRESSION, document.getDocumentElement());
 	
 		final List<Issue> issues = new ArrayList<>();
 		
 		for(int bugIndex = 0; bugIndex < bugNodes.getLength(); bugIndex++) {
-			final Node bugNode = bugNodes.item(bugIndex);
+			final Element bugElement = (Element) bugNodes.item(bugIndex);
+			final IssueSeverity severity = parseFindBugsPriority(bugElement.getAttribute("priority"));
+			
+			// The severity applies to all source lines of the bug
+			if(!this.hasMinSeverity(severity)) {
+				continue;
+			}
 			
-			final NamedNodeMap bugAttributes = bugNode.getAttributes();
-			final String bugType = bugAttributes.getNamedItem("type").getTextContent();
-			final IssueSeverity severity = parseFindBugsPriority(bugAttributes.getNamedItem("priority").getTextContent());
+			final String bugType = bugElement.getAttribute("type");
 			
-			final NodeList sourceNodes = (NodeList) xPath.evaluate("SourceLine", bugNode, XPathConstants.NODESET);
-			for(int sourceIndex = 0; sourceIndex < sourceNodes.getLength(); sourceIndex++) {
-				 final Node sourceNode = sourceNodes.item(sourceIndex);
-				 
-				 final NamedNodeMap sourceAttributes = sourceNode.getAttributes();
-				 final int lineNumber = Integer.parseInt(sourceAttributes.getNamedItem("start").getTextContent());				 				 
-				 final String fileName = sourceAttributes.getNamedItem("sourcepath").getTextContent();				 
+			// Visit the child elements directly, as evaluating an XPath expression per bug is expensive
+			for(Element sourceElement = XMLUtil.firstChildElement(bugElement, "SourceLine"); sourceElement != null; sourceElement = XMLUtil.nextSiblingElement(sourceElement, "SourceLine")) {
+				 final int lineNumber = parseLineNumber(sourceElement.getAttribute("start"), "start");
+				 final String fileName = sourceElement.getAttribute("sourcepath");
 				 
 				 final Issue issue = new Issue(fileName, lineNumber, severity, IssueType.FINDBUGS, bugType);
 				 issues.add(issue);
@@ -66,9 +76,14 @@ public class FindBugsAdapter extends XMLBasedToolAdapter {
 		return issues;
 	}
 	
+	@Override
+	protected StreamingIssueMapping getStreamingMapping() {
+		return STREAMING_MAPPING;
+	}
+	
 	private static IssueSeverity parseFindBugsPriority(final String value) {
 		switch(value) {
-		case "1":				
+		case "1":
 			return IssueSeverity.ERROR;
 		case "2":
 			return IssueSeverity.WARNING;
@@ -79,4 +94,39 @@ public class FindBugsAdapter extends XMLBasedToolAdapter {
 		}
 	}
 	
+	/**
+	 * Streaming mapping for FindBugs reports.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class FindBugsStreamingMapping extends StreamingIssueMapping {
+		
+		private static final int TYPE_INDEX = 0;
+		
+		private static final int PRIORITY_INDEX = 1;
+		
+		private static final int START_INDEX = 0;
+		
+		private static final int SOURCE_PATH_INDEX = 1;
+		
+		public FindBugsStreamingMapping() {
+			super("BugCollection", "BugInstance", Arrays.asList("type", "priority"), "SourceLine", Arrays.asList("start", "sourcepath"), false);
+		}
+		
+		@Override
+		protected IssueSeverity getSeverity(final String[] groupAttributes, final String[] issueAttributes) {
+			return parseFindBugsPriority(groupAttributes[PRIORITY_INDEX]);
+		}
+		
+		@Override
+		protected Issue createIssue(final String[] groupAttributes, final String[] issueAttributes, final IssueSeverity severity, final String text) {
+			final String bugType = groupAttributes[TYPE_INDEX];
+			final int lineNumber = parseLineNumber(issueAttributes[START_INDEX], "start");
+			final String fileName = issueAttributes[SOURCE_PATH_INDEX];
+			
+			return new Issue(fileName, lineNumber, severity, IssueType.FINDBUGS, bugType);
+		}
+		
+	}
+	
 }
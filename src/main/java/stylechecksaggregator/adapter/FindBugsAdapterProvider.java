@@ -0,0 +1,22 @@
+package stylechecksaggregator.adapter;
+
+import java.util.Properties;
+
+/**
+ * Provider for the {@link FindBugsAdapter adapter for FindBugs}.
+ * 
+ * @author Holger Knoche
+ */
+public class FindBugsAdapterProvider implements StylecheckToolAdapterProvider {
+	
+	@Override
+	public String getToolId() {
+		return "findbugs";
+	}
+	
+	@Override
+	public StylecheckToolAdapter createAdapter(final Properties properties) {
+		return new FindBugsAdapter(properties);
+	}
+	
+}
@@ -1,22 +1,22 @@
 package stylechecksaggregator.adapter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 import org.w3c.dom.Document;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
+import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
 import stylechecksaggregator.model.Issue;
 import stylechecksaggregator.model.IssueSeverity;
 import stylechecksaggregator.model.IssueType;
+import stylechecksaggregator.util.ObjectPool;
+import stylechecksaggregator.util.XMLUtil;
 
 /**
  * Adapter for PMD.
@@ -32,32 +32,39 @@ public class PMDAdapter extends XMLBasedToolAdapter {
 	 */
 	private static final String FILE_NAMES_PROPERTY = PREFIX + "fileNames";
 	
+	/**
+	 * Expression for the file nodes.
+	 */
+	private static final ObjectPool<XPathExpression> FILE_NODES_EXPRESSION = XMLUtil.compileXPathExpression("/pmd/file");
+	
+	/**
+	 * Mapping for the streaming processing of PMD reports.
+	 */
+	private static final StreamingIssueMapping STREAMING_MAPPING = new PMDStreamingMapping();
+	
 	public PMDAdapter(final Properties properties) {
-		super(extractFileNames(FILE_NAMES_PROPERTY, properties));
+		super(extractFileNames(FILE_NAMES_PROPERTY, properties), properties);
 	}
 	
 	@Override
 	protected List<Issue> processDocument(final Document document) throws XPathExpressionException {
-		final XPath xPath = XPathFactory.newInstance().newXPath();
-		final NodeList fileNodes = (NodeList) xPath.evaluate("/pmd/file", document.getDocumentElement(), XPathConstants.NODESET);
+		final NodeList fileNodes = XMLUtil.evaluateNodes(FILE_NODES_EXPRESSION, document.getDocumentElement());
 	
 		final List<Issue> issues = new ArrayList<>();
 		
 		for(int fileIndex = 0; fileIndex < fileNodes.getLength(); fileIndex++) {
-			final Node fileNode = fileNodes.item(fileIndex);
-			
-			final NamedNodeMap fileAttributes = fileNode.getAttributes();
-			final String fileName = fileAttributes.getNamedItem("name").getTextContent();
+			final Element fileElement = (Element) fileNodes.item(fileIndex);
+			final String fileName = fileElement.getAttribute("name");
 			
-			final NodeList errorNodes = (NodeList) xPath.evaluate("violation", fileNode, XPathConstants.NODESET);
-			for(int errorIndex = 0; errorIndex < errorNodes.getLength(); errorIndex++) {
-				 final Node errorNode = errorNodes.item(errorIndex);
-				 
-				 final NamedNodeMap errorAttributes = errorNode.getAttributes();
-				 final int lineNumber = Integer.parseInt(errorAttributes.getNamedItem("beginline").getTextContent());				 
-				 final IssueSeverity severity = parsePMDPriority(errorAttributes.getNamedItem("priority").getTextContent());
-				 
-				 final String message = errorNode.getTextContent().trim();
+			// Visit the child elements directly, as evaluating an XPath expression per file is expensive
+			for(Element errorElement = XMLUtil.firstChildElement(fileElement, "violation"); errorElement != null; errorElement = XMLUtil.nextSiblingElement(errorElement, "violation")) {
+				 final IssueSeverity severity = parsePMDPriority(errorElement.getAttribute("priority"));
+				 if(!this.hasMinSeverity(severity)) {
+					 continue;
+				 }
+				
+				 final int lineNumber = parseLineNumber(errorElement.getAttribute("beginline"), "beginline");
+				 final String message = errorElement.getTextContent().trim();
 				 
 				 final Issue issue = new Issue(fileName, lineNumber, severity, IssueType.PMD, message);
 				 issues.add(issue);
@@ -67,10 +74,15 @@ public class PMDAdapter extends XMLBasedToolAdapter {
 		return issues;
 	}
 	
+	@Override
+	protected StreamingIssueMapping getStreamingMapping() {
+		return STREAMING_MAPPING;
+	}
+	
 	private static IssueSeverity parsePMDPriority(final String value) {
 		switch(value) {
 		case "1":
-		case "2":			
+		case "2":
 			return IssueSeverity.ERROR;
 		case "3":
 			return IssueSeverity.WARNING;
@@ -78,5 +90,37 @@ public class PMDAdapter extends XMLBasedToolAdapter {
 			return IssueSeverity.INFO;
 		}
 	}
+	
+	/**
+	 * Streaming mapping for PMD reports.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class PMDStreamingMapping extends StreamingIssueMapping {
+		
+		private static final int NAME_INDEX = 0;
+		
+		private static final int BEGIN_LINE_INDEX = 0;
+		
+		private static final int PRIORITY_INDEX = 1;
+		
+		public PMDStreamingMapping() {
+			super("pmd", "file", Arrays.asList("name"), "violation", Arrays.asList("beginline", "priority"), true);
+		}
+		
+		@Override
+		protected IssueSeverity getSeverity(final String[] groupAttributes, final String[] issueAttributes) {
+			return parsePMDPriority(issueAttributes[PRIORITY_INDEX]);
+		}
+		
+		@Override
+		protected Issue createIssue(final String[] groupAttributes, final String[] issueAttributes, final IssueSeverity severity, final String text) {
+			final String fileName = groupAttributes[NAME_INDEX];
+			final int lineNumber = parseLineNumber(issueAttributes[BEGIN_LINE_INDEX], "beginline");
+			
+			return new Issue(fileName, lineNumber, severity, IssueType.PMD, text);
+		}
+		
+	}
 
 }
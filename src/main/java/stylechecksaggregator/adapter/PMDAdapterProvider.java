@@ -0,0 +1,22 @@
+package stylechecksaggregator.adapter;
+
+import java.util.Properties;
+
+/**
+ * Provider for the {@link PMDAdapter adapter for PMD}.
+ * 
+ * @author Holger Knoche
+ */
+public class PMDAdapterProvider implements StylecheckToolAdapterProvider {
+	
+	@Override
+	public String getToolId() {
+		return "pmd";
+	}
+	
+	@Override
+	public StylecheckToolAdapter createAdapter(final Properties properties) {
+		return new PMDAdapter(properties);
+	}
+	
+}
@@ -0,0 +1,193 @@
+package stylechecksaggregator.adapter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
+
+/**
+ * Describes how issues are extracted from an XML report while it is being read, i.e. without building a DOM tree.
+ * The report is expected to consist of a root element containing group elements (such as {@code file}), which
+ * in turn contain the issue elements. Only the declared attributes are retained, so the memory required
+ * is bounded by a single element. The attribute values are passed to the mapping in arrays, which are indexed
+ * in the order of the declared attribute names and reused for all elements. The severity of an issue is determined
+ * from the attributes alone, so that issues below the minimum severity can be skipped without collecting their text.
+ * 
+ * @author Holger Knoche
+ */
+public abstract class StreamingIssueMapping {
+	
+	/**
+	 * Depth of the root element.
+	 */
+	private static final int ROOT_DEPTH = 1;
+	
+	/**
+	 * Depth of the group elements, which are direct children of the root element.
+	 */
+	private static final int GROUP_DEPTH = 2;
+	
+	/**
+	 * Depth of the issue elements, which are direct children of the group elements.
+	 */
+	private static final int ISSUE_DEPTH = 3;
+	
+	private final String rootElementName;
+	
+	private final String groupElementName;
+	
+	private final String[] groupAttributeNames;
+	
+	private final String issueElementName;
+	
+	private final String[] issueAttributeNames;
+	
+	private final boolean collectText;
+	
+	/**
+	 * Creates a new mapping using the given data.
+	 * @param rootElementName The name of the document's root element
+	 * @param groupElementName The name of the group elements below the root element
+	 * @param groupAttributeNames The names of the group attributes required to create an issue
+	 * @param issueElementName The name of the issue elements below the group elements
+	 * @param issueAttributeNames The names of the issue attributes required to create an issue
+	 * @param collectText Denotes whether the text content of the issue elements is required to create an issue
+	 */
+	protected StreamingIssueMapping(final String rootElementName, final String groupElementName, final List<String> groupAttributeNames,
+			final String issueElementName, final List<String> issueAttributeNames, final boolean collectText) {
+		this.rootElementName = rootElementName;
+		this.groupElementName = groupElementName;
+		this.groupAttributeNames = groupAttributeNames.toArray(new String[groupAttributeNames.size()]);
+		this.issueElementName = issueElementName;
+		this.issueAttributeNames = issueAttributeNames.toArray(new String[issueAttributeNames.size()]);
+		this.collectText = collectText;
+	}
+	
+	/**
+	 * Returns the name of the document's root element.
+	 * @return The name of the root element
+	 */
+	String getRootElementName() {
+		return this.rootElementName;
+	}
+	
+	/**
+	 * Returns the name of the group elements below the root element.
+	 * @return The name of the group elements
+	 */
+	String getGroupElementName() {
+		return this.groupElementName;
+	}
+	
+	/**
+	 * Determines the severity of an issue from the attributes of its element and the enclosing group element. The
+	 * attribute arrays are reused, so they must not be retained.
+	 * @param groupAttributes The values of the declared attributes of the enclosing group element in the declared order,
+	 *        which are empty for missing attributes
+	 * @param issueAttributes The values of the declared attributes of the issue element in the declared order
+	 * @return The severity of the issue
+	 */
+	protected abstract IssueSeverity getSeverity(String[] groupAttributes, String[] issueAttributes);
+	
+	/**
+	 * Creates an issue from the data of an issue element. The attribute arrays are reused, so they must not be retained.
+	 * @param groupAttributes The values of the declared attributes of the enclosing group element in the declared order,
+	 *        which are empty for missing attributes
+	 * @param issueAttributes The values of the declared attributes of the issue element in the declared order
+	 * @param severity The severity of the issue as determined by {@link #getSeverity(String[], String[])}
+	 * @param text The trimmed text content of the issue element, or {@code null} if the text is not collected
+	 * @return The issue
+	 */
+	protected abstract Issue createIssue(String[] groupAttributes, String[] issueAttributes, IssueSeverity severity, String text);
+	
+	/**
+	 * Reads the document from the given reader and passes the issues to the given consumer as soon as they are found.
+	 * @param reader The reader to read the document from
+	 * @param minSeverity The minimum severity of the issues to pass on
+	 * @param consumer The consumer for the found issues
+	 * @throws XMLStreamException If an error occurs while reading the document
+	 */
+	public void extractIssues(final XMLStreamReader reader, final IssueSeverity minSeverity, final Consumer<Issue> consumer) throws XMLStreamException {
+		final StringBuilder textBuilder = new StringBuilder();
+		
+		final String[] groupAttributes = new String[this.groupAttributeNames.length];
+		final String[] issueAttributes = new String[this.issueAttributeNames.length];
+		IssueSeverity severity = null;
+		boolean inRoot = false;
+		boolean inGroup = false;
+		boolean inIssue = false;
+		int depth = 0;
+		
+		while(reader.hasNext()) {
+			final int event = reader.next();
+			
+			switch(event) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				
+				if(depth == ROOT_DEPTH) {
+					inRoot = this.rootElementName.equals(reader.getLocalName());
+				} else if(depth == GROUP_DEPTH && inRoot && this.groupElementName.equals(reader.getLocalName())) {
+					inGroup = true;
+					extractAttributes(reader, this.groupAttributeNames, groupAttributes);
+				} else if(depth == ISSUE_DEPTH && inGroup && this.issueElementName.equals(reader.getLocalName())) {
+					extractAttributes(reader, this.issueAttributeNames, issueAttributes);
+					severity = this.getSeverity(groupAttributes, issueAttributes);
+					
+					// Issues below the minimum severity are skipped, i.e. neither their text is collected nor an issue is created
+					inIssue = (severity.compareTo(minSeverity) >= 0);
+					textBuilder.setLength(0);
+				}
+				break;
+			
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+				// Collect the text of the issue element and all its descendants
+				if(inIssue && this.collectText) {
+					textBuilder.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+				}
+				break;
+			
+			case XMLStreamConstants.END_ELEMENT:
+				if(depth == ISSUE_DEPTH && inIssue) {
+					final String text = (this.collectText) ? textBuilder.toString().trim() : null;
+					consumer.accept(this.createIssue(groupAttributes, issueAttributes, severity, text));
+					inIssue = false;
+				} else if(depth == GROUP_DEPTH) {
+					inGroup = false;
+				}
+				
+				depth--;
+				break;
+			
+			default:
+				// Ignore all other events
+				break;
+			}
+		}
+	}
+	
+	private static void extractAttributes(final XMLStreamReader reader, final String[] attributeNames, final String[] values) {
+		Arrays.fill(values, "");
+		
+		final int attributeCount = reader.getAttributeCount();
+		for(int attributeIndex = 0; attributeIndex < attributeCount; attributeIndex++) {
+			final String attributeName = reader.getAttributeLocalName(attributeIndex);
+			
+			// Store the value at the index of the declared attribute name, if any
+			for(int nameIndex = 0; nameIndex < attributeNames.length; nameIndex++) {
+				if(attributeNames[nameIndex].equals(attributeName)) {
+					values[nameIndex] = reader.getAttributeValue(attributeIndex);
+					break;
+				}
+			}
+		}
+	}
+	
+}
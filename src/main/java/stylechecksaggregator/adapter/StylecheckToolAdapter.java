@@ -1,13 +1,15 @@
 package stylechecksaggregator.adapter;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.function.Consumer;
 
+import stylechecksaggregator.discovery.ReportFileDiscovery;
+import stylechecksaggregator.discovery.ReportFilePattern;
 import stylechecksaggregator.model.Issue;
 
 /**
@@ -23,7 +25,8 @@ public abstract class StylecheckToolAdapter {
 	private static final String FILE_NAME_SEPARATOR = ";";
 	
 	/**
-	 * Contains the relative file names (to the given root path) to be analyzed by this adapter.
+	 * Contains the relative file names (to the given root path) to be analyzed by this adapter. The file names
+	 * may also be patterns, which are resolved when the files are processed.
 	 */
 	protected final List<String> relativeFileNames;
 	
@@ -44,9 +47,7 @@ public abstract class StylecheckToolAdapter {
 	public List<Issue> processPath(final String rootPath) throws IOException {
 		final List<Issue> allIssues = new ArrayList<>();
 		
-		for(final String relativeFileName : this.relativeFileNames) {
-			final String fileName = rootPath + File.separatorChar + relativeFileName;
-			
+		for(final String fileName : this.getFileNames(rootPath)) {
 			final List<Issue> issues = this.processFile(fileName);
 			allIssues.addAll(issues);
 		}
@@ -54,7 +55,54 @@ public abstract class StylecheckToolAdapter {
 		return allIssues;
 	}
 	
-	protected abstract List<Issue> processFile(String fileName) throws IOException;
+	/**
+	 * Returns the names of the files in the given root path to be analyzed by this adapter.
+	 * @param rootPath The root path in which the files are stored
+	 * @return The file names in the order in which they are configured, with the files matching a pattern sorted by name
+	 * @throws IOException If the root path cannot be searched for files matching a pattern
+	 */
+	public List<String> getFileNames(final String rootPath) throws IOException {
+		return ReportFileDiscovery.discover(rootPath, Collections.singletonList(this), (adapter, fileName) -> fileName);
+	}
+	
+	/**
+	 * Returns the configured file names relative to the root path, which may also be patterns
+	 * (see {@link ReportFilePattern}).
+	 * @return The relative file names
+	 */
+	public List<String> getRelativeFileNames() {
+		return Collections.unmodifiableList(this.relativeFileNames);
+	}
+	
+	/**
+	 * Returns a key identifying the issues this adapter extracts from a report. Adapters with the same key must yield
+	 * the same issues for the same report, as they share the entries of a report cache.
+	 * @return The key, which is the name of the adapter class by default
+	 */
+	public String getCacheKey() {
+		return this.getClass().getName();
+	}
+	
+	/**
+	 * Processes the given file and returns the found issues. Implementations must be thread-safe, as
+	 * several files may be processed at the same time.
+	 * @param fileName The name of the file to process
+	 * @return The issues from the file
+	 * @throws IOException If an I/O error occurs
+	 */
+	public abstract List<Issue> processFile(String fileName) throws IOException;
+	
+	/**
+	 * Processes the given file and passes the found issues to the given consumer in the order in which
+	 * they are found. Adapters may pass on issues before the file has been processed completely.
+	 * @param fileName The name of the file to process
+	 * @param consumer The consumer for the found issues
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void processFile(final String fileName, final Consumer<Issue> consumer) throws IOException {
+		final List<Issue> issues = this.processFile(fileName);
+		issues.forEach(consumer);
+	}
 
 	/**
 	 * Extracts file names from the property with the given name from the given properties.
@@ -0,0 +1,56 @@
+package stylechecksaggregator.adapter;
+
+import java.util.Locale;
+import java.util.Properties;
+
+import stylechecksaggregator.model.IssueType;
+
+/**
+ * Service provider interface for stylecheck tool adapters. Providers are found using a {@link java.util.ServiceLoader},
+ * so additional tools can be supported by adding a jar containing a provider and a
+ * {@code META-INF/services/stylechecksaggregator.adapter.StylecheckToolAdapterProvider} file to the class path.
+ * Providers should be lightweight, as the adapter is only created if the tool is configured.
+ * 
+ * @author Holger Knoche
+ */
+public interface StylecheckToolAdapterProvider {
+	
+	/**
+	 * Suffix of the property for the file names of a tool, which is appended to the tool id.
+	 */
+	String FILE_NAMES_PROPERTY_SUFFIX = ".fileNames";
+	
+	/**
+	 * Returns the id of the tool supported by the adapter (e.g. {@code checkstyle}). The id is used as the
+	 * prefix of the tool's properties and to select the tool in queries, and must be unique.
+	 * @return The tool id
+	 */
+	String getToolId();
+	
+	/**
+	 * Returns the issue type of the issues found by the adapter, which is named like the tool id in upper case. The
+	 * type is registered by the {@link AdapterRegistry} when the provider is loaded.
+	 * @return The issue type or {@code null} if the provider has not been loaded by the registry
+	 */
+	default IssueType getIssueType() {
+		return IssueType.forName(this.getToolId().toUpperCase(Locale.ROOT));
+	}
+	
+	/**
+	 * Denotes whether the tool is configured in the given properties. By default, a tool is configured if
+	 * the property {@code <tool id>.fileNames} is present.
+	 * @param properties The properties to check
+	 * @return {@code true} if the adapter is required
+	 */
+	default boolean isConfigured(final Properties properties) {
+		return (properties.getProperty(this.getToolId() + FILE_NAMES_PROPERTY_SUFFIX) != null);
+	}
+	
+	/**
+	 * Creates an adapter using the given properties.
+	 * @param properties The properties containing the settings of the adapter
+	 * @return The adapter
+	 */
+	StylecheckToolAdapter createAdapter(Properties properties);
+	
+}
@@ -2,14 +2,23 @@ package stylechecksaggregator.adapter;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.function.Consumer;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.xpath.XPathException;
 
 import org.w3c.dom.Document;
 
+import stylechecksaggregator.metrics.FileMetrics;
 import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
 import stylechecksaggregator.util.XMLUtil;
 
 /**
@@ -19,16 +28,105 @@ import stylechecksaggregator.util.XMLUtil;
  */
 public abstract class XMLBasedToolAdapter extends StylecheckToolAdapter {
 	
+	/**
+	 * Property to enable the streaming processing of the XML files.
+	 */
+	public static final String STREAMING_PROPERTY = "xml.streaming";
+	
+	/**
+	 * Property to set the number of threads used to parse large XML files in chunks when they are processed
+	 * by the streaming parser.
+	 */
+	public static final String CHUNK_THREADS_PROPERTY = "xml.chunkThreads";
+	
+	/**
+	 * Property to set the minimum severity of the extracted issues. Issues with a lower severity are skipped before
+	 * their messages are read, and no issues are created for them.
+	 */
+	public static final String MIN_SEVERITY_PROPERTY = "xml.minSeverity";
+	
+	/**
+	 * Minimum size of a file to be parsed in chunks.
+	 */
+	private static final long CHUNKING_THRESHOLD = 64L * 1024 * 1024;
+	
+	/**
+	 * Minimum size of a single chunk.
+	 */
+	private static final int CHUNK_SIZE = 16 * 1024 * 1024;
+	
+	/**
+	 * Denotes whether the XML files are processed by a streaming parser instead of via a DOM tree.
+	 */
+	private final boolean streaming;
+	
+	/**
+	 * Number of threads to parse large files in chunks. Chunking is disabled if there is only one thread.
+	 */
+	private final int chunkThreads;
+	
+	/**
+	 * Minimum severity of the extracted issues.
+	 */
+	private final IssueSeverity minSeverity;
+	
 	/**
 	 * Creates a new adapter using the given data.
 	 * @param relativeFileNames The relative file names to be analyzed by this adapter.
+	 * @param properties The properties containing the general settings for XML-based adapters
 	 */
-	protected XMLBasedToolAdapter(final List<String> relativeFileNames) {
+	protected XMLBasedToolAdapter(final List<String> relativeFileNames, final Properties properties) {
 		super(relativeFileNames);
+		
+		this.streaming = Boolean.parseBoolean(properties.getProperty(STREAMING_PROPERTY, "false"));
+		this.chunkThreads = Integer.parseInt(properties.getProperty(CHUNK_THREADS_PROPERTY, "1"));
+		this.minSeverity = IssueSeverity.valueOf(properties.getProperty(MIN_SEVERITY_PROPERTY, IssueSeverity.UNCLASSIFIED.name()).trim().toUpperCase(Locale.ROOT));
+	}
+	
+	/**
+	 * Returns the minimum severity of the issues extracted by this adapter.
+	 * @return The minimum severity
+	 */
+	public IssueSeverity getMinSeverity() {
+		return this.minSeverity;
+	}
+	
+	/**
+	 * Determines whether issues of the given severity are extracted by this adapter.
+	 * @param severity The severity to check
+	 * @return {@code true} if the severity is at least the minimum severity
+	 */
+	protected boolean hasMinSeverity(final IssueSeverity severity) {
+		return (severity.compareTo(this.minSeverity) >= 0);
+	}
+	
+	/**
+	 * Parses the value of the given attribute as a line number.
+	 * @param value The value of the attribute, which is empty if the attribute is missing
+	 * @param attributeName The name of the attribute
+	 * @return The line number
+	 * @throws IllegalArgumentException If the attribute is missing or does not contain a number
+	 */
+	protected static int parseLineNumber(final String value, final String attributeName) {
+		if(value.isEmpty()) {
+			throw new IllegalArgumentException("Missing line number attribute '" + attributeName + "'.");
+		}
+		
+		try {
+			return Integer.parseInt(value);
+		} catch (final NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid line number '" + value + "' in attribute '" + attributeName + "'.", e);
+		}
+	}
+	
+	@Override
+	public String getCacheKey() {
+		// Filtered issues must not be mixed up with the complete issues of a report
+		return (this.minSeverity == IssueSeverity.UNCLASSIFIED) ? super.getCacheKey() : super.getCacheKey() + ":" + this.minSeverity.name();
 	}
 
 	@Override
-	protected final List<Issue> processFile(final String fileName) throws IOException {
+	public final List<Issue> processFile(final String fileName) throws IOException {
 		final File file = new File(fileName);
 		
 		// Treat missing files as empty 
@@ -36,22 +134,168 @@ public abstract class XMLBasedToolAdapter extends StylecheckToolAdapter {
 			return Collections.emptyList();
 		}
 		
+		if (XMLUtil.isArchive(file)) {
+			final List<Issue> issues = new ArrayList<>();
+			this.processArchive(file, issues::add);
+			
+			return issues;
+		}
+		
+		if (this.streaming) {
+			final long startTime = System.nanoTime();
+			final List<Issue> issues = this.processFileStreaming(file);
+			
+			// Parsing and extraction cannot be told apart when streaming
+			FileMetrics.recordParsing(System.nanoTime() - startTime);
+			return issues;
+		}
+		
 		// Parse the XML file and pass the result to the appropriate method for analysis
+		final long parsingStartTime = System.nanoTime();
 		final Document document = XMLUtil.parseXMLFile(file);
+		final long extractionStartTime = System.nanoTime();
+		
+		FileMetrics.recordParsing(extractionStartTime - parsingStartTime);
 		
 		try {
-			return this.processDocument(document);
+			final List<Issue> issues = this.processDocument(document);
+			
+			FileMetrics.recordExtraction(System.nanoTime() - extractionStartTime);
+			return issues;
 		} catch (final XPathException e) {
 			throw new RuntimeException(e);
 		}
 	}
+	
+	@Override
+	public void processFile(final String fileName, final Consumer<Issue> consumer) throws IOException {
+		final File file = new File(fileName);
+		
+		// Pass on the issues as they are found if the file is processed by the streaming parser
+		if (this.streaming && file.exists()) {
+			if (XMLUtil.isArchive(file)) {
+				this.processArchive(file, consumer);
+			} else {
+				final long startTime = System.nanoTime();
+				this.processFileStreaming(file, consumer);
+				
+				FileMetrics.recordParsing(System.nanoTime() - startTime);
+			}
+		} else {
+			super.processFile(fileName, consumer);
+		}
+	}
+	
+	/**
+	 * Processes all reports contained in the given archive. Parsing and extraction are not told apart, so the
+	 * whole time is recorded as parsing time.
+	 */
+	private void processArchive(final File file, final Consumer<Issue> consumer) throws IOException {
+		final long startTime = System.nanoTime();
+		
+		XMLUtil.forEachArchivedReport(file, (entryName, systemId, inputStream) -> {
+			if (this.streaming) {
+				this.extractIssuesStreaming(inputStream, consumer);
+			} else {
+				try {
+					this.processDocument(XMLUtil.parseXMLStream(inputStream, systemId)).forEach(consumer);
+				} catch (final XPathException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+		
+		FileMetrics.recordParsing(System.nanoTime() - startTime);
+	}
+	
+	private List<Issue> processFileStreaming(final File file) throws IOException {
+		final List<Issue> chunkedIssues = this.tryProcessFileInChunks(file);
+		if (chunkedIssues != null) {
+			return chunkedIssues;
+		}
+		
+		final List<Issue> issues = new ArrayList<>();
+		this.processWholeFileStreaming(file, issues::add);
+		
+		return issues;
+	}
+	
+	private void processFileStreaming(final File file, final Consumer<Issue> consumer) throws IOException {
+		final List<Issue> chunkedIssues = this.tryProcessFileInChunks(file);
+		if (chunkedIssues != null) {
+			chunkedIssues.forEach(consumer);
+			return;
+		}
+		
+		this.processWholeFileStreaming(file, consumer);
+	}
+	
+	/**
+	 * Parses the given file in chunks if it is large enough and its chunks can be parsed on their own.
+	 * @return The issues of the file, or {@code null} if the file must be read as a whole
+	 */
+	private List<Issue> tryProcessFileInChunks(final File file) throws IOException {
+		if (!this.isChunkingCandidate(file)) {
+			return null;
+		}
+		
+		return this.processFileInChunks(file);
+	}
+	
+	private void processWholeFileStreaming(final File file, final Consumer<Issue> consumer) throws IOException {
+		// Extract the issues while the file is being read
+		try (InputStream inputStream = XMLUtil.openFile(file)) {
+			this.extractIssuesStreaming(inputStream, consumer);
+		}
+	}
+	
+	private void extractIssuesStreaming(final InputStream inputStream, final Consumer<Issue> consumer) {
+		final StreamingIssueMapping mapping = this.getStreamingMapping();
+		
+		try {
+			final XMLStreamReader reader = XMLUtil.createStreamReader(inputStream);
+			
+			try {
+				mapping.extractIssues(reader, this.minSeverity, consumer);
+			} finally {
+				reader.close();
+			}
+		} catch (final XMLStreamException e) {
+			throw new RuntimeException(e);
+		}
+	}
+	
+	boolean isChunkingCandidate(final File file) throws IOException {
+		// Compressed files cannot be split, as the chunks are located in the raw data
+		final long length = file.length();
+		return (this.chunkThreads > 1 && length >= CHUNKING_THRESHOLD && length <= Integer.MAX_VALUE && !XMLUtil.isCompressed(file));
+	}
+	
+	List<Issue> processFileInChunks(final File file) throws IOException {
+		final ChunkedReportParser parser = new ChunkedReportParser(this.getStreamingMapping(), this.minSeverity, this.chunkThreads, CHUNK_SIZE);
+		
+		try {
+			return parser.parse(XMLUtil.mapFile(file));
+		} catch (final InternalError e) {
+			// Reading a mapped file fails like this if the file is truncated while it is parsed, e.g. by the tool
+			throw new IOException("Report '" + file + "' changed while it was parsed.", e);
+		}
+	}
 
 	/**
-	 * Extracts issues from the given document.
+	 * Extracts issues from the given document. Implementations should skip issues below the minimum severity
+	 * (see {@link #hasMinSeverity(IssueSeverity)}) as early as possible.
 	 * @param document The document to process
 	 * @return The issues found in the document
 	 * @throws XPathException If an exception during XPath processing occurs
 	 */
 	protected abstract List<Issue> processDocument(Document document) throws XPathException;
 	
+	/**
+	 * Returns the mapping to extract issues when the XML files are processed by a streaming parser. The
+	 * mapping must yield the same issues as {@link #processDocument(Document)}.
+	 * @return The streaming mapping
+	 */
+	protected abstract StreamingIssueMapping getStreamingMapping();
+	
 }
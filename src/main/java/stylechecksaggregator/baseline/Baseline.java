@@ -0,0 +1,146 @@
+package stylechecksaggregator.baseline;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.util.IssueDataInput;
+
+/**
+ * Baseline of previously known issues, which is written by {@link BaselineWriter}. Only the fingerprints of the
+ * issues and their number of occurrences are kept in memory, so checking whether an issue is known takes constant
+ * time. The issues themselves are read from the file again only to report the fixed issues.
+ * <p>
+ * A baseline file consists of a header, the fingerprint table (see {@link FingerprintTable}) and the issues
+ * in the format of {@link stylechecksaggregator.util.IssueDataOutput}.
+ * 
+ * @author Holger Knoche
+ */
+public class Baseline {
+	
+	/**
+	 * Magic number identifying baseline files.
+	 */
+	static final int MAGIC_NUMBER = 0x53434142;
+	
+	/**
+	 * Version of the file format. Must be incremented whenever the format changes.
+	 */
+	static final int FORMAT_VERSION = 1;
+	
+	/**
+	 * Size of the header consisting of the magic number and the format version.
+	 */
+	private static final int HEADER_SIZE = 2 * Integer.BYTES;
+	
+	static final int BUFFER_SIZE = 65536;
+	
+	private final File file;
+	
+	private final IssueFingerprinter fingerprinter;
+	
+	private final FingerprintTable fingerprints;
+	
+	private Baseline(final File file, final IssueFingerprinter fingerprinter, final FingerprintTable fingerprints) {
+		this.file = file;
+		this.fingerprinter = fingerprinter;
+		this.fingerprints = fingerprints;
+	}
+	
+	/**
+	 * Reads the baseline from the given file.
+	 * @param file The file to read from
+	 * @param fingerprinter The fingerprinter to use, must be equivalent to the one used to write the baseline
+	 * @return The baseline
+	 * @throws IOException If an I/O error occurs or the file does not contain a baseline
+	 */
+	public static Baseline read(final File file, final IssueFingerprinter fingerprinter) throws IOException {
+		try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE)) {
+			final DataInputStream dataInputStream = openBaseline(file, inputStream);
+			return new Baseline(file, fingerprinter, FingerprintTable.read(dataInputStream, file.length() - HEADER_SIZE));
+		}
+	}
+	
+	private static DataInputStream openBaseline(final File file, final InputStream inputStream) throws IOException {
+		final DataInputStream dataInputStream = new DataInputStream(inputStream);
+		
+		if(dataInputStream.readInt() != MAGIC_NUMBER || dataInputStream.readInt() != FORMAT_VERSION) {
+			throw new IOException("File '" + file + "' does not contain a supported baseline.");
+		}
+		
+		return dataInputStream;
+	}
+	
+	/**
+	 * Returns the number of distinct fingerprints in this baseline.
+	 * @return The number of distinct fingerprints
+	 */
+	public int getFingerprintCount() {
+		return this.fingerprints.size();
+	}
+	
+	/**
+	 * Checks whether the given issue is contained in the baseline. If so, one occurrence of the issue is
+	 * removed, so that additional occurrences of the same issue are reported as new.
+	 * @param issue The issue to check
+	 * @return {@code true} if the issue is known, {@code false} if it is new
+	 */
+	public boolean removeIssue(final Issue issue) {
+		return this.fingerprints.removeOccurrence(this.fingerprinter.fingerprint(issue));
+	}
+	
+	/**
+	 * Passes all issues of the baseline that have not been removed, i.e., the fixed issues, to the given consumer.
+	 * The issues are passed in the order in which they were written, and they are removed afterwards.
+	 * @param consumer The consumer for the remaining issues
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void forEachRemainingIssue(final Consumer<Issue> consumer) throws IOException {
+		// Avoid reading the issues if all of them are still present
+		if(this.fingerprints.getOccurrenceCount() == 0) {
+			return;
+		}
+		
+		try (InputStream inputStream = new BufferedInputStream(new FileInputStream(this.file), BUFFER_SIZE)) {
+			final DataInputStream dataInputStream = openBaseline(this.file, inputStream);
+			
+			// Skip the fingerprint table, the issues follow directly afterwards
+			final long tableSize = FingerprintTable.serializedSize(FingerprintTable.readSize(dataInputStream, this.file.length() - HEADER_SIZE));
+			skipFully(dataInputStream, tableSize - Integer.BYTES);
+			
+			final IssueDataInput issueInput = new IssueDataInput(inputStream);
+			
+			// Stop reading as soon as all remaining issues have been found
+			Issue issue = issueInput.readIssue();
+			while(issue != null && this.fingerprints.getOccurrenceCount() > 0) {
+				if(this.removeIssue(issue)) {
+					consumer.accept(issue);
+				}
+				
+				issue = issueInput.readIssue();
+			}
+		}
+	}
+	
+	static void skipFully(final DataInputStream inputStream, final long byteCount) throws IOException {
+		long remainingBytes = byteCount;
+		
+		while(remainingBytes > 0) {
+			final long skippedBytes = inputStream.skip(remainingBytes);
+			
+			if(skippedBytes <= 0) {
+				// Read a single byte to detect the end of the file
+				inputStream.readByte();
+				remainingBytes--;
+			} else {
+				remainingBytes -= skippedBytes;
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,115 @@
+package stylechecksaggregator.baseline;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.util.IssueDataOutput;
+
+/**
+ * Writes a baseline that can be read using {@link Baseline}. The issues are written to a temporary file as they
+ * are added, so only their fingerprints are kept in memory. The baseline file is only replaced when the writer
+ * is committed.
+ * 
+ * @author Holger Knoche
+ */
+public class BaselineWriter implements Closeable {
+	
+	private static final int INITIAL_TABLE_SIZE = 1024;
+	
+	private final File file;
+	
+	private final IssueFingerprinter fingerprinter;
+	
+	private final FingerprintTable fingerprints = new FingerprintTable(INITIAL_TABLE_SIZE);
+	
+	private final File issueFile;
+	
+	private final IssueDataOutput issueOutput;
+	
+	/**
+	 * Creates a new writer for the given file.
+	 * @param file The file to write the baseline to
+	 * @param fingerprinter The fingerprinter to use
+	 * @throws IOException If the temporary file cannot be created
+	 */
+	public BaselineWriter(final File file, final IssueFingerprinter fingerprinter) throws IOException {
+		this.file = file.getAbsoluteFile();
+		this.fingerprinter = fingerprinter;
+		
+		this.issueFile = File.createTempFile("baseline", ".tmp", this.file.getParentFile());
+		this.issueOutput = new IssueDataOutput(new BufferedOutputStream(new FileOutputStream(this.issueFile), Baseline.BUFFER_SIZE));
+	}
+	
+	/**
+	 * Adds the given issue to the baseline.
+	 * @param issue The issue to add
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void addIssue(final Issue issue) throws IOException {
+		this.fingerprints.add(this.fingerprinter.fingerprint(issue), 1);
+		this.issueOutput.writeIssue(issue);
+	}
+	
+	/**
+	 * Writes the baseline file. No issues may be added afterwards.
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void commit() throws IOException {
+		this.issueOutput.writeEnd();
+		this.issueOutput.close();
+		
+		// Write to a temporary file first, so that an existing baseline is only replaced by a complete one
+		final File temporaryFile = File.createTempFile("baseline", ".tmp", this.file.getParentFile());
+		
+		try {
+			try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(temporaryFile), Baseline.BUFFER_SIZE)) {
+				final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+				
+				dataOutputStream.writeInt(Baseline.MAGIC_NUMBER);
+				dataOutputStream.writeInt(Baseline.FORMAT_VERSION);
+				this.fingerprints.write(dataOutputStream);
+				dataOutputStream.flush();
+				
+				copyFile(this.issueFile, outputStream);
+			}
+			
+			Files.move(temporaryFile.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporaryFile.toPath());
+		}
+	}
+	
+	private static void copyFile(final File file, final OutputStream outputStream) throws IOException {
+		final byte[] buffer = new byte[Baseline.BUFFER_SIZE];
+		
+		try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file), Baseline.BUFFER_SIZE)) {
+			int bytesRead = inputStream.read(buffer);
+			
+			while(bytesRead >= 0) {
+				outputStream.write(buffer, 0, bytesRead);
+				bytesRead = inputStream.read(buffer);
+			}
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		try {
+			this.issueOutput.close();
+		} finally {
+			Files.deleteIfExists(this.issueFile.toPath());
+		}
+	}
+	
+}
@@ -0,0 +1,215 @@
+package stylechecksaggregator.baseline;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Hash table counting the occurrences of issue fingerprints. The table uses open addressing with linear probing
+ * on primitive arrays, so each entry requires at most 24 bytes and no objects are allocated per entry.
+ * 
+ * @author Holger Knoche
+ */
+class FingerprintTable {
+	
+	/**
+	 * Marker for empty slots. The fingerprint 0 is stored as {@link #ZERO_REPLACEMENT} instead.
+	 */
+	private static final long EMPTY = 0;
+	
+	private static final long ZERO_REPLACEMENT = 1;
+	
+	private static final int MINIMUM_CAPACITY = 16;
+	
+	/**
+	 * Maximum number of entries, which keeps the capacity within the maximum size of an array.
+	 */
+	private static final int MAXIMUM_SIZE = 1 << 29;
+	
+	private long[] fingerprints;
+	
+	private int[] counts;
+	
+	private int size;
+	
+	private long occurrenceCount;
+	
+	/**
+	 * Creates a new table for the given number of entries.
+	 * @param expectedSize The expected number of distinct fingerprints
+	 */
+	public FingerprintTable(final int expectedSize) {
+		this.allocate(capacityFor(expectedSize));
+	}
+	
+	/**
+	 * Returns the capacity required for the given number of entries, keeping the load factor at or below 0.5.
+	 */
+	private static int capacityFor(final int size) {
+		final int requiredCapacity = Math.max(MINIMUM_CAPACITY, 2 * size);
+		return Integer.highestOneBit(requiredCapacity - 1) << 1;
+	}
+	
+	private void allocate(final int capacity) {
+		this.fingerprints = new long[capacity];
+		this.counts = new int[capacity];
+		this.size = 0;
+		this.occurrenceCount = 0;
+	}
+	
+	/**
+	 * Returns the number of distinct fingerprints in this table.
+	 * @return The number of distinct fingerprints
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * Returns the total number of occurrences of all fingerprints in this table.
+	 * @return The total number of occurrences
+	 */
+	public long getOccurrenceCount() {
+		return this.occurrenceCount;
+	}
+	
+	/**
+	 * Adds the given number of occurrences of the given fingerprint.
+	 * @param fingerprint The fingerprint
+	 * @param count The number of occurrences
+	 */
+	public void add(final long fingerprint, final int count) {
+		if(2 * (this.size + 1) > this.fingerprints.length) {
+			this.grow();
+		}
+		
+		final long storedFingerprint = toStoredFingerprint(fingerprint);
+		final int slot = this.findSlot(storedFingerprint);
+		
+		if(this.fingerprints[slot] == EMPTY) {
+			this.fingerprints[slot] = storedFingerprint;
+			this.size++;
+		}
+		
+		this.counts[slot] += count;
+		this.occurrenceCount += count;
+	}
+	
+	/**
+	 * Removes one occurrence of the given fingerprint if there are any left.
+	 * @param fingerprint The fingerprint
+	 * @return {@code true} if an occurrence was removed, {@code false} if there was none
+	 */
+	public boolean removeOccurrence(final long fingerprint) {
+		final int slot = this.findSlot(toStoredFingerprint(fingerprint));
+		
+		if(this.counts[slot] == 0) {
+			return false;
+		}
+		
+		this.counts[slot]--;
+		this.occurrenceCount--;
+		return true;
+	}
+	
+	private static long toStoredFingerprint(final long fingerprint) {
+		return (fingerprint == EMPTY) ? ZERO_REPLACEMENT : fingerprint;
+	}
+	
+	/**
+	 * Returns the slot containing the given fingerprint, or the empty slot where it would be inserted.
+	 */
+	private int findSlot(final long storedFingerprint) {
+		final int mask = this.fingerprints.length - 1;
+		int slot = (int) (storedFingerprint ^ (storedFingerprint >>> 32)) & mask;
+		
+		while(this.fingerprints[slot] != EMPTY && this.fingerprints[slot] != storedFingerprint) {
+			slot = (slot + 1) & mask;
+		}
+		
+		return slot;
+	}
+	
+	private void grow() {
+		final long[] oldFingerprints = this.fingerprints;
+		final int[] oldCounts = this.counts;
+		
+		this.allocate(2 * oldFingerprints.length);
+		
+		for(int slot = 0; slot < oldFingerprints.length; slot++) {
+			if(oldFingerprints[slot] != EMPTY) {
+				this.add(oldFingerprints[slot], oldCounts[slot]);
+			}
+		}
+	}
+	
+	/**
+	 * Writes the entries of this table to the given stream.
+	 * @param outputStream The stream to write to
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void write(final DataOutputStream outputStream) throws IOException {
+		outputStream.writeInt(this.size);
+		
+		for(int slot = 0; slot < this.fingerprints.length; slot++) {
+			if(this.fingerprints[slot] != EMPTY) {
+				outputStream.writeLong(this.fingerprints[slot]);
+				outputStream.writeInt(this.counts[slot]);
+			}
+		}
+	}
+	
+	/**
+	 * Reads a table from the given stream.
+	 * @param inputStream The stream to read from
+	 * @param availableBytes The maximum number of bytes that the table may occupy in the stream
+	 * @return The table
+	 * @throws IOException If an I/O error occurs or the stream does not contain a valid table
+	 */
+	public static FingerprintTable read(final DataInputStream inputStream, final long availableBytes) throws IOException {
+		final int size = readSize(inputStream, availableBytes);
+		final FingerprintTable table = new FingerprintTable(size);
+		
+		for(int entryIndex = 0; entryIndex < size; entryIndex++) {
+			final long fingerprint = inputStream.readLong();
+			final int count = inputStream.readInt();
+			
+			if(count <= 0) {
+				throw new IOException("Invalid occurrence count " + count + " in the fingerprint table.");
+			}
+			
+			table.add(fingerprint, count);
+		}
+		
+		return table;
+	}
+	
+	/**
+	 * Reads the number of entries of a table from the given stream, i.e., the first value written by
+	 * {@link #write(DataOutputStream)}.
+	 * @param inputStream The stream to read from
+	 * @param availableBytes The maximum number of bytes that the table may occupy in the stream
+	 * @return The number of entries
+	 * @throws IOException If an I/O error occurs or the number of entries is invalid
+	 */
+	public static int readSize(final DataInputStream inputStream, final long availableBytes) throws IOException {
+		final int size = inputStream.readInt();
+		
+		// Check the size before allocating the table, as it may be corrupt
+		if(size < 0 || size > MAXIMUM_SIZE || serializedSize(size) > availableBytes) {
+			throw new IOException("Invalid size " + size + " of the fingerprint table.");
+		}
+		
+		return size;
+	}
+	
+	/**
+	 * Returns the number of bytes written by {@link #write(DataOutputStream)} for a table of the given size.
+	 * @param size The number of entries
+	 * @return The number of bytes
+	 */
+	public static long serializedSize(final int size) {
+		return Integer.BYTES + (long) size * (Long.BYTES + Integer.BYTES);
+	}
+	
+}
@@ -0,0 +1,102 @@
+package stylechecksaggregator.baseline;
+
+import stylechecksaggregator.model.Issue;
+
+/**
+ * Computes the fingerprints of issues for the comparison with a baseline. A fingerprint is a 64-bit hash of the
+ * file name, the type and the message of an issue. The line number is deliberately not included, so that issues
+ * are still recognized when code above them is changed. File names are made relative to the root path, so that
+ * baselines can be compared across different checkouts.
+ * 
+ * @author Holger Knoche
+ */
+public class IssueFingerprinter {
+	
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	
+	private static final long FNV_PRIME = 0x100000001b3L;
+	
+	/**
+	 * Separator between the components of a fingerprint, so that e.g. file name "ab" and message "c" differ
+	 * from file name "a" and message "bc".
+	 */
+	private static final char SEPARATOR = '\u0000';
+	
+	private final String rootPrefix;
+	
+	/**
+	 * Creates a new fingerprinter for issues found below the given root path.
+	 * @param rootPath The root path to remove from the file names, may be {@code null}
+	 */
+	public IssueFingerprinter(final String rootPath) {
+		if(rootPath == null) {
+			this.rootPrefix = null;
+		} else {
+			final String normalizedRootPath = normalizeSeparators(rootPath);
+			this.rootPrefix = (normalizedRootPath.endsWith("/")) ? normalizedRootPath : normalizedRootPath + "/";
+		}
+	}
+	
+	/**
+	 * Computes the fingerprint of the given issue.
+	 * @param issue The issue
+	 * @return The fingerprint of the issue
+	 */
+	public long fingerprint(final Issue issue) {
+		long hash = FNV_OFFSET_BASIS;
+		
+		hash = update(hash, this.normalizeFileName(issue.fileName));
+		hash = update(hash, SEPARATOR);
+		hash = update(hash, issue.type.name());
+		hash = update(hash, SEPARATOR);
+		hash = update(hash, issue.message);
+		
+		return finish(hash);
+	}
+	
+	private String normalizeFileName(final String fileName) {
+		final String normalizedFileName = normalizeSeparators(fileName);
+		
+		if(this.rootPrefix != null && normalizedFileName.startsWith(this.rootPrefix)) {
+			return normalizedFileName.substring(this.rootPrefix.length());
+		}
+		
+		return normalizedFileName;
+	}
+	
+	private static String normalizeSeparators(final String path) {
+		return path.replace('\\', '/');
+	}
+	
+	private static long update(final long hash, final String value) {
+		long newHash = hash;
+		
+		for(int charIndex = 0; charIndex < value.length(); charIndex++) {
+			newHash = update(newHash, value.charAt(charIndex));
+		}
+		
+		return newHash;
+	}
+	
+	private static long update(final long hash, final char value) {
+		return (hash ^ value) * FNV_PRIME;
+	}
+	
+	/**
+	 * Mixes the bits of the given hash (finalizer of MurmurHash3), so that all bits depend on all input characters.
+	 * @param hash The hash to mix
+	 * @return The mixed hash
+	 */
+	private static long finish(final long hash) {
+		long mixedHash = hash;
+		
+		mixedHash ^= (mixedHash >>> 33);
+		mixedHash *= 0xff51afd7ed558ccdL;
+		mixedHash ^= (mixedHash >>> 33);
+		mixedHash *= 0xc4ceb9fe1a85ec53L;
+		mixedHash ^= (mixedHash >>> 33);
+		
+		return mixedHash;
+	}
+	
+}
@@ -0,0 +1,347 @@
+package stylechecksaggregator.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+import stylechecksaggregator.adapter.StylecheckToolAdapter;
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.util.IssueDataInput;
+import stylechecksaggregator.util.IssueDataOutput;
+
+/**
+ * On-disk cache for the issues of individual report files. An entry is identified by the cache key of the adapter
+ * (see {@link StylecheckToolAdapter#getCacheKey()}) and the path of the report, and it is only used if the size and
+ * content hash of the report are unchanged. The content hash is only computed if the modification time of the
+ * report differs from the one stored in the entry, or if the report was modified too shortly before the entry was
+ * created to detect later modifications by the modification time. The issues are stored in the compact binary form
+ * of {@link IssueDataOutput}. The cache may be used by several threads at the same time.
+ * 
+ * @author Holger Knoche
+ */
+public class ReportCache {
+	
+	/**
+	 * Magic number identifying cache entries.
+	 */
+	private static final int MAGIC_NUMBER = 0x53434331;
+	
+	/**
+	 * Version of the entry format. Must be incremented whenever the format changes.
+	 */
+	private static final int FORMAT_VERSION = 2;
+	
+	private static final String HASH_ALGORITHM = "SHA-256";
+	
+	private static final String ENTRY_SUFFIX = ".issues";
+	
+	private static final int BUFFER_SIZE = 65536;
+	
+	/**
+	 * Coarsest granularity of modification times (in milliseconds) to expect, which is the one of FAT file systems.
+	 * A report modified within this time before its fingerprint was taken may be modified again without changing its
+	 * modification time.
+	 */
+	private static final long MODIFICATION_TIME_GRANULARITY = 2000;
+	
+	private final File directory;
+	
+	/**
+	 * Creates a new cache storing its entries in the given directory. The directory is created if necessary.
+	 * @param directory The cache directory
+	 * @throws IOException If the directory cannot be created
+	 */
+	public ReportCache(final File directory) throws IOException {
+		this.directory = directory;
+		
+		Files.createDirectories(directory.toPath());
+	}
+	
+	/**
+	 * Returns the issues of the given report file, which are either taken from the cache or obtained from the
+	 * given adapter. In the latter case, the cache entry is updated.
+	 * @param adapter The adapter responsible for the report
+	 * @param fileName The name of the report file
+	 * @return The issues of the report
+	 * @throws IOException If an I/O error occurs
+	 */
+	public List<Issue> processFile(final StylecheckToolAdapter adapter, final String fileName) throws IOException {
+		final File reportFile = new File(fileName).getAbsoluteFile();
+		
+		// Missing reports are not cached, as they are cheap to process
+		if(!reportFile.isFile()) {
+			return adapter.processFile(fileName);
+		}
+		
+		final String adapterKey = adapter.getCacheKey();
+		final String reportPath = reportFile.getPath();
+		final File entryFile = new File(this.directory, hexString(hash((adapterKey + "\u0000" + reportPath).getBytes(StandardCharsets.UTF_8))) + ENTRY_SUFFIX);
+		
+		final ReportState state = new ReportState(reportFile);
+		
+		// Use the cached issues if the entry matches the current state of the report
+		final CacheEntry entry = readEntry(entryFile, adapterKey, reportPath, state);
+		if(entry != null) {
+			// Update the fingerprint if the content hash had to be checked, so that this is not necessary next time
+			if(!entry.fingerprint.isConclusiveFor(state) && state.isUnchanged()) {
+				this.writeEntry(entryFile, adapterKey, reportPath, state.toFingerprint(), entry.issues);
+			}
+			
+			return entry.issues;
+		}
+		
+		// Take the fingerprint before processing the report, so that modifications during processing are detected
+		final ReportFingerprint fingerprint = state.toFingerprint();
+		final List<Issue> issues = adapter.processFile(fileName);
+		
+		// Only store the entry if the report has not been modified while it was processed
+		if(state.isUnchanged()) {
+			this.writeEntry(entryFile, adapterKey, reportPath, fingerprint, issues);
+		}
+		
+		return issues;
+	}
+	
+	private static CacheEntry readEntry(final File entryFile, final String adapterKey, final String reportPath, final ReportState state) {
+		if(!entryFile.isFile()) {
+			return null;
+		}
+		
+		try (InputStream inputStream = new BufferedInputStream(new FileInputStream(entryFile), BUFFER_SIZE)) {
+			final DataInputStream dataInputStream = new DataInputStream(inputStream);
+			
+			if(dataInputStream.readInt() != MAGIC_NUMBER || dataInputStream.readInt() != FORMAT_VERSION) {
+				return null;
+			}
+			
+			// Check that the entry belongs to the report and matches its current state
+			final String entryAdapterKey = dataInputStream.readUTF();
+			final String entryReportPath = dataInputStream.readUTF();
+			final ReportFingerprint entryFingerprint = ReportFingerprint.read(dataInputStream);
+			
+			if(!adapterKey.equals(entryAdapterKey) || !reportPath.equals(entryReportPath) || !entryFingerprint.matches(state)) {
+				return null;
+			}
+			
+			final IssueDataInput issueInput = new IssueDataInput(inputStream);
+			return new CacheEntry(entryFingerprint, issueInput.readAllIssues());
+		} catch (final IOException e) {
+			// Treat unreadable entries as missing, they are overwritten afterwards
+			return null;
+		}
+	}
+	
+	private void writeEntry(final File entryFile, final String adapterKey, final String reportPath, final ReportFingerprint fingerprint, final List<Issue> issues) throws IOException {
+		// Write to a temporary file first, so that concurrent readers never see partial entries
+		final File temporaryFile = File.createTempFile("entry", ".tmp", this.directory);
+		
+		try {
+			try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(temporaryFile), BUFFER_SIZE)) {
+				final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+				
+				dataOutputStream.writeInt(MAGIC_NUMBER);
+				dataOutputStream.writeInt(FORMAT_VERSION);
+				dataOutputStream.writeUTF(adapterKey);
+				dataOutputStream.writeUTF(reportPath);
+				fingerprint.write(dataOutputStream);
+				
+				final IssueDataOutput issueOutput = new IssueDataOutput(outputStream);
+				for(final Issue issue : issues) {
+					issueOutput.writeIssue(issue);
+				}
+				
+				issueOutput.writeEnd();
+			}
+			
+			Files.move(temporaryFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporaryFile.toPath());
+		}
+	}
+	
+	private static byte[] hash(final byte[] data) {
+		final MessageDigest digest = createDigest();
+		return digest.digest(data);
+	}
+	
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+	
+	private static String hexString(final byte[] bytes) {
+		final StringBuilder builder = new StringBuilder(2 * bytes.length);
+		
+		for(final byte value : bytes) {
+			builder.append(Character.forDigit((value >> 4) & 0xF, 16));
+			builder.append(Character.forDigit(value & 0xF, 16));
+		}
+		
+		return builder.toString();
+	}
+	
+	/**
+	 * Current state of a report file. The content hash is only computed when it is required.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class ReportState {
+		
+		public final File file;
+		
+		public final long size;
+		
+		public final long lastModified;
+		
+		/**
+		 * Time at which the size and modification time were determined.
+		 */
+		public final long observedAt;
+		
+		private byte[] contentHash;
+		
+		public ReportState(final File file) {
+			// Determine the time first, so that it is never earlier than the modification time
+			this.observedAt = System.currentTimeMillis();
+			this.file = file;
+			this.size = file.length();
+			this.lastModified = file.lastModified();
+		}
+		
+		public byte[] getContentHash() throws IOException {
+			if(this.contentHash == null) {
+				final MessageDigest digest = createDigest();
+				final byte[] buffer = new byte[BUFFER_SIZE];
+				
+				try (InputStream inputStream = new FileInputStream(this.file)) {
+					int bytesRead = inputStream.read(buffer);
+					
+					while(bytesRead >= 0) {
+						digest.update(buffer, 0, bytesRead);
+						bytesRead = inputStream.read(buffer);
+					}
+				}
+				
+				this.contentHash = digest.digest();
+			}
+			
+			return this.contentHash;
+		}
+		
+		/**
+		 * Denotes whether the size and modification time of the report are still the same.
+		 */
+		public boolean isUnchanged() {
+			return (this.file.length() == this.size && this.file.lastModified() == this.lastModified);
+		}
+		
+		public ReportFingerprint toFingerprint() throws IOException {
+			return new ReportFingerprint(this.size, this.lastModified, this.observedAt, this.getContentHash());
+		}
+		
+	}
+	
+	/**
+	 * Fingerprint of a report file consisting of its size, modification time and content hash, which is stored in
+	 * the cache entry.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class ReportFingerprint {
+		
+		public final long size;
+		
+		public final long lastModified;
+		
+		/**
+		 * Time at which the size and modification time were determined.
+		 */
+		public final long observedAt;
+		
+		public final byte[] contentHash;
+		
+		public ReportFingerprint(final long size, final long lastModified, final long observedAt, final byte[] contentHash) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.observedAt = observedAt;
+			this.contentHash = contentHash;
+		}
+		
+		public static ReportFingerprint read(final DataInputStream inputStream) throws IOException {
+			final long size = inputStream.readLong();
+			final long lastModified = inputStream.readLong();
+			final long observedAt = inputStream.readLong();
+			
+			final byte[] contentHash = new byte[inputStream.readUnsignedByte()];
+			inputStream.readFully(contentHash);
+			
+			return new ReportFingerprint(size, lastModified, observedAt, contentHash);
+		}
+		
+		public void write(final DataOutputStream outputStream) throws IOException {
+			outputStream.writeLong(this.size);
+			outputStream.writeLong(this.lastModified);
+			outputStream.writeLong(this.observedAt);
+			outputStream.writeByte(this.contentHash.length);
+			outputStream.write(this.contentHash);
+		}
+		
+		/**
+		 * Denotes whether an unchanged size and modification time prove that the given report is unchanged. This is
+		 * not the case if the report was modified within the granularity of the modification time before the
+		 * fingerprint was taken, as it may have been modified again without changing the modification time.
+		 */
+		public boolean isConclusiveFor(final ReportState state) {
+			return (this.size == state.size && this.lastModified == state.lastModified && this.observedAt - this.lastModified >= MODIFICATION_TIME_GRANULARITY);
+		}
+		
+		/**
+		 * Denotes whether the report with the given state matches this fingerprint. The content hash is only
+		 * compared if the size and modification time are not conclusive.
+		 */
+		public boolean matches(final ReportState state) throws IOException {
+			if(this.size != state.size) {
+				return false;
+			}
+			
+			return (this.isConclusiveFor(state) || Arrays.equals(this.contentHash, state.getContentHash()));
+		}
+		
+	}
+	
+	/**
+	 * Entry of the cache that matches the current state of its report.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class CacheEntry {
+		
+		public final ReportFingerprint fingerprint;
+		
+		public final List<Issue> issues;
+		
+		public CacheEntry(final ReportFingerprint fingerprint, final List<Issue> issues) {
+			this.fingerprint = fingerprint;
+			this.issues = issues;
+		}
+		
+	}
+	
+}
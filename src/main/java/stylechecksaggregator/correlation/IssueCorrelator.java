@@ -0,0 +1,284 @@
+package stylechecksaggregator.correlation;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import stylechecksaggregator.model.Issue;
+
+/**
+ * Collapses duplicate and correlated issues into groups. Issues are correlated if they are located in the same
+ * file, have the same normalized message (regardless of the tool), and are at most a given number of lines apart
+ * from another issue of the group. For instance, FindBugs reports one issue per source line of a bug, and
+ * different tools may report the same problem.
+ * <p>
+ * As correlated issues are always located in the same file, the issues are partitioned by the hash of their
+ * file name, and the partitions are processed concurrently.
+ * 
+ * @author Holger Knoche
+ */
+public class IssueCorrelator {
+	
+	private final int lineWindow;
+	
+	private final int partitionCount;
+	
+	/**
+	 * Creates a new correlator using the given data.
+	 * @param lineWindow The maximum distance in lines between correlated issues
+	 * @param partitionCount The number of partitions to process concurrently
+	 */
+	public IssueCorrelator(final int lineWindow, final int partitionCount) {
+		this.lineWindow = lineWindow;
+		this.partitionCount = partitionCount;
+	}
+	
+	/**
+	 * Collapses the given issues into groups of correlated issues. The groups of each partition are ordered by the
+	 * first occurrence of their message in the respective file, so the result is deterministic.
+	 * @param issues The issues to correlate
+	 * @return The groups of correlated issues
+	 * @throws IOException If the correlation is interrupted
+	 */
+	public List<IssueGroup> correlate(final List<Issue> issues) throws IOException {
+		final List<List<Issue>> partitions = this.partition(issues);
+		
+		if(this.partitionCount == 1) {
+			return correlatePartition(partitions.get(0), this.lineWindow);
+		}
+		
+		final ExecutorService executor = Executors.newFixedThreadPool(this.partitionCount);
+		
+		try {
+			final List<Future<List<IssueGroup>>> futures = new ArrayList<>(partitions.size());
+			for(final List<Issue> partition : partitions) {
+				futures.add(executor.submit(() -> correlatePartition(partition, this.lineWindow)));
+			}
+			
+			final List<IssueGroup> groups = new ArrayList<>();
+			for(final Future<List<IssueGroup>> future : futures) {
+				groups.addAll(awaitResult(future));
+			}
+			
+			return groups;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private List<List<Issue>> partition(final List<Issue> issues) {
+		final List<List<Issue>> partitions = new ArrayList<>(this.partitionCount);
+		final int expectedPartitionSize = issues.size() / this.partitionCount + 1;
+		
+		for(int partitionIndex = 0; partitionIndex < this.partitionCount; partitionIndex++) {
+			partitions.add(new ArrayList<>(expectedPartitionSize));
+		}
+		
+		for(final Issue issue : issues) {
+			final int partitionIndex = (issue.fileName.hashCode() & Integer.MAX_VALUE) % this.partitionCount;
+			partitions.get(partitionIndex).add(issue);
+		}
+		
+		return partitions;
+	}
+	
+	private static List<IssueGroup> correlatePartition(final List<Issue> issues, final int lineWindow) {
+		// Messages are usually repeated many times, so they are only normalized once per partition
+		final Map<String, String> normalizedMessages = new HashMap<>();
+		final Map<GroupKey, Integer> keyIds = new HashMap<>();
+		
+		// Assign an ID to each key in the order of first occurrence and sort the issue indices by these IDs, so
+		// that the issues that may be correlated are adjacent without creating a list per key
+		final long[] keyedIndices = new long[issues.size()];
+		Issue previousIssue = null;
+		int keyId = 0;
+		
+		for(int issueIndex = 0; issueIndex < issues.size(); issueIndex++) {
+			final Issue issue = issues.get(issueIndex);
+			
+			// The issues of a file are usually adjacent and often have the same message, so the key of the previous issue is reused if possible
+			if(previousIssue == null || !issue.fileName.equals(previousIssue.fileName) || !issue.message.equals(previousIssue.message)) {
+				final String normalizedMessage = normalizedMessages.computeIfAbsent(issue.message, IssueCorrelator::normalizeMessage);
+				final GroupKey key = new GroupKey(issue.fileName, normalizedMessage);
+				
+				final Integer existingKeyId = keyIds.putIfAbsent(key, keyIds.size());
+				keyId = (existingKeyId != null) ? existingKeyId : keyIds.size() - 1;
+			}
+			
+			keyedIndices[issueIndex] = ((long) keyId << 32) | issueIndex;
+			previousIssue = issue;
+		}
+		
+		Arrays.sort(keyedIndices);
+		
+		final List<IssueGroup> groups = new ArrayList<>(keyIds.size());
+		int runStartIndex = 0;
+		
+		for(int index = 1; index <= keyedIndices.length; index++) {
+			if(index == keyedIndices.length || (keyedIndices[index] >>> 32) != (keyedIndices[runStartIndex] >>> 32)) {
+				splitByLineWindow(issues, keyedIndices, runStartIndex, index, lineWindow, groups);
+				runStartIndex = index;
+			}
+		}
+		
+		return groups;
+	}
+	
+	/**
+	 * Splits the issues with the same key in the given range into groups such that the lines of consecutive issues
+	 * in a group are at most the given window apart.
+	 */
+	private static void splitByLineWindow(final List<Issue> issues, final long[] keyedIndices, final int startIndex, final int endIndex, final int lineWindow,
+			final List<IssueGroup> groups) {
+		final int runLength = endIndex - startIndex;
+		
+		if(runLength == 1) {
+			final Issue issue = issues.get((int) keyedIndices[startIndex]);
+			groups.add(new IssueGroup(issue, Collections.singletonList(issue)));
+			return;
+		}
+		
+		// Sort the issues by line number, retaining the original order for equal line numbers
+		final long[] linedIndices = new long[runLength];
+		for(int index = 0; index < runLength; index++) {
+			final int issueIndex = (int) keyedIndices[startIndex + index];
+			linedIndices[index] = ((long) issues.get(issueIndex).lineNumber << 32) | issueIndex;
+		}
+		
+		Arrays.sort(linedIndices);
+		
+		int groupStartIndex = 0;
+		for(int index = 1; index <= runLength; index++) {
+			final boolean groupEnds = (index == runLength || (linedIndices[index] >> 32) - (linedIndices[index - 1] >> 32) > lineWindow);
+			
+			if(groupEnds) {
+				final Issue[] groupIssues = new Issue[index - groupStartIndex];
+				for(int groupIndex = 0; groupIndex < groupIssues.length; groupIndex++) {
+					groupIssues[groupIndex] = issues.get((int) linedIndices[groupStartIndex + groupIndex]);
+				}
+				
+				final List<Issue> groupIssueList = Arrays.asList(groupIssues);
+				groups.add(new IssueGroup(selectRepresentative(groupIssueList), groupIssueList));
+				groupStartIndex = index;
+			}
+		}
+	}
+	
+	private static Issue selectRepresentative(final List<Issue> issues) {
+		// The issues are sorted by line number, so the first issue with the highest severity is chosen
+		Issue representative = issues.get(0);
+		
+		for(final Issue issue : issues) {
+			if(issue.severity.compareTo(representative.severity) > 0) {
+				representative = issue;
+			}
+		}
+		
+		return representative;
+	}
+	
+	/**
+	 * Normalizes the given message, so that messages only differing in case, punctuation or numbers are treated
+	 * as equal. For instance, "Line is longer than 120 characters." and "line is longer than 100 characters"
+	 * have the same normalized message, as do the FindBugs bug type "UNUSED_IMPORT" and "Unused import".
+	 * @param message The message to normalize
+	 * @return The normalized message
+	 */
+	static String normalizeMessage(final String message) {
+		final StringBuilder builder = new StringBuilder(message.length());
+		boolean pendingSeparator = false;
+		
+		for(int charIndex = 0; charIndex < message.length(); charIndex++) {
+			final char currentChar = message.charAt(charIndex);
+			
+			if(Character.isLetter(currentChar)) {
+				appendSeparatorIfPending(builder, pendingSeparator);
+				builder.append(Character.toLowerCase(currentChar));
+				pendingSeparator = false;
+			} else if(Character.isDigit(currentChar)) {
+				// Collapse each number into a single placeholder
+				if(builder.length() == 0 || builder.charAt(builder.length() - 1) != '#' || pendingSeparator) {
+					appendSeparatorIfPending(builder, pendingSeparator);
+					builder.append('#');
+				}
+				pendingSeparator = false;
+			} else {
+				pendingSeparator = true;
+			}
+		}
+		
+		return builder.toString();
+	}
+	
+	private static void appendSeparatorIfPending(final StringBuilder builder, final boolean pendingSeparator) {
+		if(pendingSeparator && builder.length() > 0) {
+			builder.append(' ');
+		}
+	}
+	
+	private static <T> T awaitResult(final Future<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while correlating the issues.");
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			
+			// Rethrow the original exception if possible
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if(cause instanceof Error) {
+				throw (Error) cause;
+			}
+			
+			throw new RuntimeException(cause);
+		}
+	}
+	
+	/**
+	 * Key of the issues that may be correlated, consisting of the file name and the normalized message.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class GroupKey {
+		
+		private final String fileName;
+		
+		private final String normalizedMessage;
+		
+		private final int hashCode;
+		
+		public GroupKey(final String fileName, final String normalizedMessage) {
+			this.fileName = fileName;
+			this.normalizedMessage = normalizedMessage;
+			this.hashCode = 31 * fileName.hashCode() + normalizedMessage.hashCode();
+		}
+		
+		@Override
+		public boolean equals(final Object object) {
+			if(!(object instanceof GroupKey)) {
+				return false;
+			}
+			
+			final GroupKey other = (GroupKey) object;
+			return this.hashCode == other.hashCode && this.fileName.equals(other.fileName) && this.normalizedMessage.equals(other.normalizedMessage);
+		}
+		
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,44 @@
+package stylechecksaggregator.correlation;
+
+import java.util.Collections;
+import java.util.List;
+
+import stylechecksaggregator.model.Issue;
+
+/**
+ * Group of correlated issues, i.e. issues in the same file with the same normalized message on nearby lines.
+ * 
+ * @author Holger Knoche
+ */
+public class IssueGroup {
+	
+	/**
+	 * The issue representing the group, which is the issue with the highest severity (and the lowest line
+	 * number among those).
+	 */
+	public final Issue representative;
+	
+	/**
+	 * The issues of the group, sorted by line number.
+	 */
+	public final List<Issue> issues;
+	
+	/**
+	 * Creates a new group from the given data.
+	 * @param representative see {@link #representative}
+	 * @param issues see {@link #issues}
+	 */
+	public IssueGroup(final Issue representative, final List<Issue> issues) {
+		this.representative = representative;
+		this.issues = Collections.unmodifiableList(issues);
+	}
+	
+	/**
+	 * Returns the number of issues in this group.
+	 * @return The number of issues
+	 */
+	public int size() {
+		return this.issues.size();
+	}
+	
+}
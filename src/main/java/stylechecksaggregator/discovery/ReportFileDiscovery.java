@@ -0,0 +1,105 @@
+package stylechecksaggregator.discovery;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import stylechecksaggregator.adapter.StylecheckToolAdapter;
+import stylechecksaggregator.discovery.ReportFileFinder.FoundFileHandler;
+
+/**
+ * Discovers the report files of a set of adapters. The configured file names of the adapters may be patterns
+ * (see {@link ReportFilePattern}), which are resolved in a single walk of the root path.
+ * 
+ * @author Holger Knoche
+ */
+public class ReportFileDiscovery {
+	
+	private ReportFileDiscovery() {
+		// Only static methods
+	}
+	
+	/**
+	 * Discovers the report files of the given adapters and passes each of them to the given handler as soon as it
+	 * is known, so that the files can be processed while the walk is still running. The handler is invoked
+	 * concurrently for files matching patterns.
+	 * @param <T> The type of the results of the handler
+	 * @param rootPath The root path in which the files are stored
+	 * @param adapters The adapters whose files are discovered
+	 * @param handler The handler for the discovered files, receiving the responsible adapter and the file name
+	 * @return The results of the handler in a deterministic order, i.e. in the configured order of the adapters
+	 * and their file names, with the files matching a pattern sorted by name
+	 * @throws IOException If the root path cannot be searched
+	 */
+	public static <T> List<T> discover(final String rootPath, final List<StylecheckToolAdapter> adapters, final BiFunction<StylecheckToolAdapter, String, T> handler)
+			throws IOException {
+		return discover(rootPath, adapters, handler, (directory) -> {});
+	}
+	
+	/**
+	 * Discovers the report files of the given adapters like {@link #discover(String, List, BiFunction)} and
+	 * additionally passes each directory searched for files matching a pattern to the given directory handler.
+	 * @param <T> The type of the results of the handler
+	 * @param rootPath The root path in which the files are stored
+	 * @param adapters The adapters whose files are discovered
+	 * @param handler The handler for the discovered files, receiving the responsible adapter and the file name
+	 * @param directoryHandler The handler for the searched directories, which is invoked concurrently
+	 * @return The results of the handler in a deterministic order
+	 * @throws IOException If the root path cannot be searched
+	 */
+	public static <T> List<T> discover(final String rootPath, final List<StylecheckToolAdapter> adapters, final BiFunction<StylecheckToolAdapter, String, T> handler,
+			final Consumer<Path> directoryHandler) throws IOException {
+		final List<Collection<T>> entryResults = new ArrayList<>();
+		final List<ReportFilePattern> patterns = new ArrayList<>();
+		final List<StylecheckToolAdapter> patternAdapters = new ArrayList<>();
+		final List<ConcurrentSkipListMap<String, T>> patternResults = new ArrayList<>();
+		
+		for(final StylecheckToolAdapter adapter : adapters) {
+			for(final String relativeFileName : adapter.getRelativeFileNames()) {
+				if(ReportFilePattern.isPattern(relativeFileName)) {
+					final ConcurrentSkipListMap<String, T> results = new ConcurrentSkipListMap<>();
+					
+					patterns.add(new ReportFilePattern(relativeFileName));
+					patternAdapters.add(adapter);
+					patternResults.add(results);
+					entryResults.add(results.values());
+				} else {
+					// Explicitly named files are handled immediately, regardless of whether they exist
+					final String fileName = rootPath + File.separatorChar + relativeFileName;
+					entryResults.add(Collections.singletonList(handler.apply(adapter, fileName)));
+				}
+			}
+		}
+		
+		final ReportFileFinder finder = new ReportFileFinder(rootPath);
+		finder.findFiles(patterns, new FoundFileHandler() {
+			
+			@Override
+			public void fileFound(final int patternIndex, final String fileName) {
+				final T result = handler.apply(patternAdapters.get(patternIndex), fileName);
+				patternResults.get(patternIndex).put(fileName, result);
+			}
+			
+			@Override
+			public void directorySearched(final Path directory) {
+				directoryHandler.accept(directory);
+			}
+			
+		});
+		
+		final List<T> results = new ArrayList<>();
+		for(final Collection<T> currentResults : entryResults) {
+			results.addAll(currentResults);
+		}
+		
+		return results;
+	}
+	
+}
@@ -0,0 +1,227 @@
+package stylechecksaggregator.discovery;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Finds the report files matching a set of patterns below a root path. The directory tree is walked only once for
+ * all patterns, and the subdirectories are searched concurrently in the common fork-join pool. Directories that
+ * cannot contain matching files are not searched, and neither are ignored directories (such as {@code .git}) or
+ * symbolic links to directories.
+ * 
+ * @author Holger Knoche
+ */
+public class ReportFileFinder {
+	
+	/**
+	 * Names of the directories that are not searched unless they are named explicitly by a pattern.
+	 */
+	public static final Set<String> IGNORED_DIRECTORY_NAMES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(".git", ".hg", ".svn", "node_modules")));
+	
+	private static final String SEPARATOR = "/";
+	
+	private final Path rootDirectory;
+	
+	/**
+	 * Creates a new finder for the given root path.
+	 * @param rootPath The root path to search
+	 */
+	public ReportFileFinder(final String rootPath) {
+		this.rootDirectory = Paths.get(rootPath);
+	}
+	
+	/**
+	 * Searches the files matching the given patterns and passes them to the given handler as soon as they are found.
+	 * The handler may be invoked concurrently and in any order.
+	 * @param patterns The patterns to search for
+	 * @param handler The handler for the found files
+	 * @throws IOException If a directory cannot be read
+	 */
+	public void findFiles(final List<ReportFilePattern> patterns, final FoundFileHandler handler) throws IOException {
+		if(patterns.isEmpty() || !Files.isDirectory(this.rootDirectory)) {
+			return;
+		}
+		
+		final boolean[] activePatterns = new boolean[patterns.size()];
+		Arrays.fill(activePatterns, true);
+		
+		try {
+			ForkJoinPool.commonPool().invoke(new DirectoryWalk(patterns, handler, this.rootDirectory, "", 0, activePatterns));
+		} catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+	
+	/**
+	 * Searches the files matching the given patterns.
+	 * @param patterns The patterns to search for
+	 * @return The names of the found files for each pattern, sorted by name
+	 * @throws IOException If a directory cannot be read
+	 */
+	public List<List<String>> findFiles(final List<ReportFilePattern> patterns) throws IOException {
+		final List<Set<String>> foundFileNames = new ArrayList<>(patterns.size());
+		for(int patternIndex = 0; patternIndex < patterns.size(); patternIndex++) {
+			foundFileNames.add(new ConcurrentSkipListSet<>());
+		}
+		
+		this.findFiles(patterns, (patternIndex, fileName) -> foundFileNames.get(patternIndex).add(fileName));
+		
+		final List<List<String>> fileNames = new ArrayList<>(patterns.size());
+		for(final Set<String> patternFileNames : foundFileNames) {
+			fileNames.add(new ArrayList<>(patternFileNames));
+		}
+		
+		return fileNames;
+	}
+	
+	/**
+	 * Handler for the files found by a {@link ReportFileFinder}.
+	 * 
+	 * @author Holger Knoche
+	 */
+	@FunctionalInterface
+	public interface FoundFileHandler {
+		
+		/**
+		 * Invoked when a file matching a pattern is found. If a file matches several patterns, this method is
+		 * invoked once for each of them.
+		 * @param patternIndex The index of the matching pattern
+		 * @param fileName The name of the file, consisting of the root path and the relative path
+		 */
+		void fileFound(int patternIndex, String fileName);
+		
+		/**
+		 * Invoked for each directory that is searched, i.e. each directory in which files matching a pattern may be
+		 * located. This method may be invoked concurrently and in any order.
+		 * @param directory The searched directory
+		 */
+		default void directorySearched(final Path directory) {
+			// Directories are not of interest by default
+		}
+		
+	}
+	
+	/**
+	 * Task to search a single directory, which forks a task for each subdirectory that needs to be searched.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private class DirectoryWalk extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final List<ReportFilePattern> patterns;
+		
+		private final FoundFileHandler handler;
+		
+		private final Path directory;
+		
+		private final String relativePath;
+		
+		private final int depth;
+		
+		/**
+		 * Denotes for each pattern whether it can match files below this directory.
+		 */
+		private final boolean[] activePatterns;
+		
+		public DirectoryWalk(final List<ReportFilePattern> patterns, final FoundFileHandler handler, final Path directory, final String relativePath, final int depth,
+				final boolean[] activePatterns) {
+			this.patterns = patterns;
+			this.handler = handler;
+			this.directory = directory;
+			this.relativePath = relativePath;
+			this.depth = depth;
+			this.activePatterns = activePatterns;
+		}
+		
+		@Override
+		protected void compute() {
+			final List<DirectoryWalk> subdirectoryWalks = new ArrayList<>();
+			final FileSystem fileSystem = this.directory.getFileSystem();
+			
+			this.handler.directorySearched(this.directory);
+			
+			try (DirectoryStream<Path> entries = Files.newDirectoryStream(this.directory)) {
+				for(final Path entry : entries) {
+					final String name = entry.getFileName().toString();
+					final String entryRelativePath = (this.depth == 0) ? name : this.relativePath + SEPARATOR + name;
+					final BasicFileAttributes attributes = readAttributes(entry);
+					
+					if(attributes == null) {
+						continue;
+					}
+					
+					if(attributes.isDirectory()) {
+						final boolean[] subdirectoryPatterns = this.getSubdirectoryPatterns(name);
+						
+						if(subdirectoryPatterns != null) {
+							subdirectoryWalks.add(new DirectoryWalk(this.patterns, this.handler, entry, entryRelativePath, this.depth + 1, subdirectoryPatterns));
+						}
+					} else if(attributes.isRegularFile() || (attributes.isSymbolicLink() && Files.isRegularFile(entry))) {
+						// Symbolic links to files are treated like files, symbolic links to directories are not followed
+						this.matchFile(entry, entryRelativePath, name, fileSystem);
+					}
+				}
+			} catch (final AccessDeniedException | NoSuchFileException e) {
+				// Skip directories that cannot be read or have been deleted in the meantime
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			
+			invokeAll(subdirectoryWalks);
+		}
+		
+		private boolean[] getSubdirectoryPatterns(final String name) {
+			final boolean ignored = IGNORED_DIRECTORY_NAMES.contains(name);
+			final boolean[] subdirectoryPatterns = new boolean[this.activePatterns.length];
+			boolean anyActive = false;
+			
+			for(int patternIndex = 0; patternIndex < this.activePatterns.length; patternIndex++) {
+				if(this.activePatterns[patternIndex] && this.patterns.get(patternIndex).mayMatchBelow(this.depth + 1, name, ignored)) {
+					subdirectoryPatterns[patternIndex] = true;
+					anyActive = true;
+				}
+			}
+			
+			return (anyActive) ? subdirectoryPatterns : null;
+		}
+		
+		private void matchFile(final Path file, final String relativeFilePath, final String fileName, final FileSystem fileSystem) {
+			for(int patternIndex = 0; patternIndex < this.activePatterns.length; patternIndex++) {
+				if(this.activePatterns[patternIndex] && this.patterns.get(patternIndex).matches(relativeFilePath, fileName, fileSystem)) {
+					this.handler.fileFound(patternIndex, file.toString());
+				}
+			}
+		}
+		
+	}
+	
+	private static BasicFileAttributes readAttributes(final Path path) throws IOException {
+		try {
+			return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+		} catch (final NoSuchFileException e) {
+			// The entry has been deleted in the meantime
+			return null;
+		}
+	}
+	
+}
@@ -0,0 +1,147 @@
+package stylechecksaggregator.discovery;
+
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+
+/**
+ * Glob pattern for report files relative to the root path, such as {@code **}{@code /target/checkstyle-result.xml}.
+ * The syntax is that of {@link FileSystem#getPathMatcher(String)}, using {@code /} as separator. In addition,
+ * a leading {@code **}{@code /} also matches files directly in the root path.
+ * 
+ * @author Holger Knoche
+ */
+public class ReportFilePattern {
+	
+	private static final String GLOB_SYNTAX = "glob:";
+	
+	private static final String ANY_DIRECTORIES = "**";
+	
+	private static final String ANY_DIRECTORIES_PREFIX = ANY_DIRECTORIES + "/";
+	
+	private static final String CURRENT_DIRECTORY_PREFIX = "./";
+	
+	private static final String SEPARATOR = "/";
+	
+	private final String pattern;
+	
+	private final PathMatcher matcher;
+	
+	/**
+	 * Matcher for the pattern without a leading {@code **}{@code /}, or {@code null} if there is no such prefix.
+	 */
+	private final PathMatcher rootMatcher;
+	
+	/**
+	 * The leading segments of the pattern that do not contain any glob characters, excluding the file name.
+	 */
+	private final String[] literalSegments;
+	
+	/**
+	 * The name of the matching files if the last segment of the pattern does not contain any glob characters,
+	 * {@code null} otherwise.
+	 */
+	private final String literalFileName;
+	
+	/**
+	 * The maximum number of segments of a matching path.
+	 */
+	private final int maxDepth;
+	
+	/**
+	 * Creates a new pattern.
+	 * @param pattern The glob pattern
+	 */
+	public ReportFilePattern(final String pattern) {
+		String normalizedPattern = pattern.trim().replace('\\', '/');
+		while(normalizedPattern.startsWith(CURRENT_DIRECTORY_PREFIX)) {
+			normalizedPattern = normalizedPattern.substring(CURRENT_DIRECTORY_PREFIX.length());
+		}
+		
+		final FileSystem fileSystem = FileSystems.getDefault();
+		
+		this.pattern = normalizedPattern;
+		this.matcher = fileSystem.getPathMatcher(GLOB_SYNTAX + normalizedPattern);
+		this.rootMatcher = (normalizedPattern.startsWith(ANY_DIRECTORIES_PREFIX)) ? fileSystem.getPathMatcher(GLOB_SYNTAX + normalizedPattern.substring(ANY_DIRECTORIES_PREFIX.length())) : null;
+		
+		final String[] segments = normalizedPattern.split(SEPARATOR);
+		
+		int literalSegmentCount = 0;
+		while(literalSegmentCount < segments.length - 1 && !isPattern(segments[literalSegmentCount])) {
+			literalSegmentCount++;
+		}
+		
+		this.literalSegments = new String[literalSegmentCount];
+		System.arraycopy(segments, 0, this.literalSegments, 0, literalSegmentCount);
+		
+		final String lastSegment = segments[segments.length - 1];
+		this.literalFileName = (isPattern(lastSegment)) ? null : lastSegment;
+		this.maxDepth = (normalizedPattern.contains(ANY_DIRECTORIES)) ? Integer.MAX_VALUE : segments.length;
+	}
+	
+	/**
+	 * Determines whether the given relative file name is a pattern, i.e. whether it contains any glob characters.
+	 * @param relativeFileName The relative file name to check
+	 * @return {@code true} if the file name is a pattern, {@code false} if it denotes a single file
+	 */
+	public static boolean isPattern(final String relativeFileName) {
+		for(int charIndex = 0; charIndex < relativeFileName.length(); charIndex++) {
+			switch(relativeFileName.charAt(charIndex)) {
+			case '*':
+			case '?':
+			case '[':
+			case '{':
+				return true;
+			
+			default:
+				break;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Determines whether files below the given directory may match this pattern, provided that this is the case
+	 * for its parent directory.
+	 * @param depth The depth of the directory, i.e. the number of its segments relative to the root path
+	 * @param name The name of the directory
+	 * @param ignored Denotes whether the directory is ignored unless it is named explicitly by the pattern
+	 * @return {@code true} if the directory needs to be searched, {@code false} otherwise
+	 */
+	boolean mayMatchBelow(final int depth, final String name, final boolean ignored) {
+		if(depth >= this.maxDepth) {
+			return false;
+		}
+		
+		if(depth <= this.literalSegments.length) {
+			return this.literalSegments[depth - 1].equals(name);
+		}
+		
+		return !ignored;
+	}
+	
+	/**
+	 * Determines whether the given relative path matches this pattern.
+	 * @param relativePath The path relative to the root path, using {@code /} as separator
+	 * @param fileName The name of the file, i.e. the last segment of the path
+	 * @param fileSystem The file system of the path
+	 * @return {@code true} if the path matches, {@code false} otherwise
+	 */
+	boolean matches(final String relativePath, final String fileName, final FileSystem fileSystem) {
+		// Avoid matching the whole path if the file name already differs
+		if(this.literalFileName != null && !this.literalFileName.equals(fileName)) {
+			return false;
+		}
+		
+		final Path path = fileSystem.getPath(relativePath);
+		return this.matcher.matches(path) || (this.rootMatcher != null && this.rootMatcher.matches(path));
+	}
+	
+	@Override
+	public String toString() {
+		return this.pattern;
+	}
+	
+}
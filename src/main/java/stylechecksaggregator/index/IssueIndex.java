@@ -0,0 +1,318 @@
+package stylechecksaggregator.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
+import stylechecksaggregator.model.IssueType;
+import stylechecksaggregator.util.IssueConsumer;
+import stylechecksaggregator.util.IssueDataInput;
+import stylechecksaggregator.util.IssueDataOutput;
+
+/**
+ * In-memory index over aggregated issues, which answers queries by file path prefix, severity, type and line range
+ * (see {@link IssueQuery}) without scanning all issues. The issues are held sorted by file name and line number,
+ * so that the issues of a file and the files below a path are contiguous ranges. Line ranges are found by binary
+ * search in the line numbers of a file, and severities and types are filtered using bit sets. The index is
+ * immutable and may thus be queried by several threads at the same time.
+ * 
+ * @author Holger Knoche
+ */
+public class IssueIndex {
+	
+	/**
+	 * Magic number identifying persisted indexes.
+	 */
+	private static final int MAGIC_NUMBER = 0x53434958;
+	
+	/**
+	 * Version of the persisted format. Must be incremented whenever the format changes.
+	 */
+	private static final int FORMAT_VERSION = 1;
+	
+	private static final int BUFFER_SIZE = 65536;
+	
+	private static final Comparator<Issue> FILE_NAME_AND_LINE_NUMBER_ORDER = Comparator.<Issue, String> comparing((issue) -> issue.fileName).thenComparingInt((issue) -> issue.lineNumber);
+	
+	/**
+	 * The issues, sorted by file name and line number.
+	 */
+	private final Issue[] issues;
+	
+	/**
+	 * The line numbers of the issues, which are ascending within each file.
+	 */
+	private final int[] lineNumbers;
+	
+	/**
+	 * The distinct file names in ascending order.
+	 */
+	private final String[] fileNames;
+	
+	/**
+	 * The index of the first issue of each file. The last entry is the number of issues.
+	 */
+	private final int[] fileOffsets;
+	
+	/**
+	 * The issues of each severity, indexed by the ordinal of the severity.
+	 */
+	private final BitSet[] issuesBySeverity;
+	
+	private final Map<IssueType, BitSet> issuesByType;
+	
+	private final PathTrie pathTrie;
+	
+	private IssueIndex(final Issue[] issues) {
+		final int issueCount = issues.length;
+		
+		this.issues = issues;
+		this.lineNumbers = new int[issueCount];
+		this.issuesBySeverity = new BitSet[IssueSeverity.values().length];
+		this.issuesByType = new HashMap<>();
+		this.pathTrie = new PathTrie();
+		
+		for(int severityIndex = 0; severityIndex < this.issuesBySeverity.length; severityIndex++) {
+			this.issuesBySeverity[severityIndex] = new BitSet(issueCount);
+		}
+		
+		final List<String> distinctFileNames = new ArrayList<>();
+		final List<Integer> offsets = new ArrayList<>();
+		
+		for(int issueIndex = 0; issueIndex < issueCount; issueIndex++) {
+			final Issue issue = issues[issueIndex];
+			
+			// Start a new file range whenever the file name changes
+			if(issueIndex == 0 || !issue.fileName.equals(issues[issueIndex - 1].fileName)) {
+				this.pathTrie.add(issue.fileName, distinctFileNames.size());
+				distinctFileNames.add(issue.fileName);
+				offsets.add(issueIndex);
+			}
+			
+			this.lineNumbers[issueIndex] = issue.lineNumber;
+			this.issuesBySeverity[issue.severity.ordinal()].set(issueIndex);
+			this.issuesByType.computeIfAbsent(issue.type, (type) -> new BitSet(issueCount)).set(issueIndex);
+		}
+		
+		offsets.add(issueCount);
+		
+		this.fileNames = distinctFileNames.toArray(new String[distinctFileNames.size()]);
+		this.fileOffsets = offsets.stream().mapToInt(Integer::intValue).toArray();
+	}
+	
+	/**
+	 * Builds an index over the given issues.
+	 * @param issues The issues to index
+	 * @return The index
+	 */
+	public static IssueIndex build(final Collection<Issue> issues) {
+		final Issue[] sortedIssues = issues.toArray(new Issue[issues.size()]);
+		
+		// The sort is stable, so issues in the same line remain in the given order
+		Arrays.sort(sortedIssues, FILE_NAME_AND_LINE_NUMBER_ORDER);
+		
+		return new IssueIndex(sortedIssues);
+	}
+	
+	/**
+	 * Returns the number of indexed issues.
+	 * @return The number of issues
+	 */
+	public int size() {
+		return this.issues.length;
+	}
+	
+	/**
+	 * Returns the issues matching the given query, sorted by file name and line number.
+	 * @param query The query to execute
+	 * @return The matching issues
+	 */
+	public List<Issue> query(final IssueQuery query) {
+		final List<Issue> matchingIssues = new ArrayList<>();
+		
+		try {
+			this.forEachMatch(query, matchingIssues::add);
+		} catch (final IOException e) {
+			// Cannot occur, as adding to a list does not throw
+			throw new IllegalStateException(e);
+		}
+		
+		return matchingIssues;
+	}
+	
+	/**
+	 * Passes the issues matching the given query to the given consumer, sorted by file name and line number.
+	 * @param query The query to execute
+	 * @param consumer The consumer for the matching issues
+	 * @throws IOException If the consumer throws an exception
+	 */
+	public void forEachMatch(final IssueQuery query, final IssueConsumer consumer) throws IOException {
+		// Determine the files to examine
+		final int firstFile;
+		final int endFile;
+		
+		if(query.pathPrefix != null) {
+			final int[] fileRange = this.pathTrie.findFiles(query.pathPrefix);
+			if(fileRange == null) {
+				return;
+			}
+			
+			firstFile = fileRange[0];
+			endFile = fileRange[1];
+		} else {
+			firstFile = 0;
+			endFile = this.fileNames.length;
+		}
+		
+		final BitSet filter = this.createFilter(query);
+		
+		// Without a line range, the issues of all files form a single range
+		if(!query.hasLineRange()) {
+			this.forEachMatchInRange(this.fileOffsets[firstFile], this.fileOffsets[endFile], filter, consumer);
+			return;
+		}
+		
+		for(int fileIndex = firstFile; fileIndex < endFile; fileIndex++) {
+			final int fileStart = this.fileOffsets[fileIndex];
+			final int fileEnd = this.fileOffsets[fileIndex + 1];
+			
+			final int rangeStart = this.lowerBound(fileStart, fileEnd, query.firstLine);
+			final int rangeEnd = (query.lastLine == Integer.MAX_VALUE) ? fileEnd : this.lowerBound(rangeStart, fileEnd, query.lastLine + 1);
+			
+			this.forEachMatchInRange(rangeStart, rangeEnd, filter, consumer);
+		}
+	}
+	
+	private void forEachMatchInRange(final int start, final int end, final BitSet filter, final IssueConsumer consumer) throws IOException {
+		if(filter == null) {
+			for(int issueIndex = start; issueIndex < end; issueIndex++) {
+				consumer.accept(this.issues[issueIndex]);
+			}
+		} else {
+			// Skip directly to the next issue matching the filter
+			for(int issueIndex = filter.nextSetBit(start); issueIndex >= 0 && issueIndex < end; issueIndex = filter.nextSetBit(issueIndex + 1)) {
+				consumer.accept(this.issues[issueIndex]);
+			}
+		}
+	}
+	
+	/**
+	 * Creates the bit set of the issues matching the severity and type criteria of the given query.
+	 * @param query The query
+	 * @return The matching issues, or {@code null} if the query does not restrict severities or types
+	 */
+	private BitSet createFilter(final IssueQuery query) {
+		BitSet filter = null;
+		
+		if(query.severities != null) {
+			filter = new BitSet(this.issues.length);
+			
+			for(final IssueSeverity severity : query.severities) {
+				filter.or(this.issuesBySeverity[severity.ordinal()]);
+			}
+		}
+		
+		if(query.types != null) {
+			final BitSet typeFilter = new BitSet(this.issues.length);
+			
+			for(final IssueType type : query.types) {
+				final BitSet issuesOfType = this.issuesByType.get(type);
+				
+				if(issuesOfType != null) {
+					typeFilter.or(issuesOfType);
+				}
+			}
+			
+			if(filter == null) {
+				filter = typeFilter;
+			} else {
+				filter.and(typeFilter);
+			}
+		}
+		
+		return filter;
+	}
+	
+	/**
+	 * Returns the index of the first issue in the given range whose line number is at least the given line number.
+	 * @param start The start of the range (inclusive)
+	 * @param end The end of the range (exclusive)
+	 * @param lineNumber The line number to search for
+	 * @return The index of the issue, or the end of the range if there is no such issue
+	 */
+	private int lowerBound(final int start, final int end, final int lineNumber) {
+		int low = start;
+		int high = end;
+		
+		while(low < high) {
+			final int middle = (low + high) >>> 1;
+			
+			if(this.lineNumbers[middle] < lineNumber) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		
+		return low;
+	}
+	
+	/**
+	 * Writes this index to the given file, so that it can be loaded without processing the reports again.
+	 * @param file The file to write to
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void write(final File file) throws IOException {
+		try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE)) {
+			final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+			
+			dataOutputStream.writeInt(MAGIC_NUMBER);
+			dataOutputStream.writeInt(FORMAT_VERSION);
+			
+			// The issues are written in index order, so that they need not be sorted again when reading
+			final IssueDataOutput issueOutput = new IssueDataOutput(outputStream);
+			for(final Issue issue : this.issues) {
+				issueOutput.writeIssue(issue);
+			}
+			
+			issueOutput.writeEnd();
+		}
+	}
+	
+	/**
+	 * Reads an index from the given file.
+	 * @param file The file to read from
+	 * @return The index
+	 * @throws IOException If an I/O error occurs or the file does not contain an index
+	 */
+	public static IssueIndex read(final File file) throws IOException {
+		try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE)) {
+			final DataInputStream dataInputStream = new DataInputStream(inputStream);
+			
+			if(dataInputStream.readInt() != MAGIC_NUMBER || dataInputStream.readInt() != FORMAT_VERSION) {
+				throw new IOException("File '" + file + "' does not contain a supported index.");
+			}
+			
+			final List<Issue> issues = new IssueDataInput(inputStream).readAllIssues();
+			return new IssueIndex(issues.toArray(new Issue[issues.size()]));
+		}
+	}
+	
+}
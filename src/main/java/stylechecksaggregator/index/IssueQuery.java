@@ -0,0 +1,65 @@
+package stylechecksaggregator.index;
+
+import java.util.Set;
+
+import stylechecksaggregator.model.IssueSeverity;
+import stylechecksaggregator.model.IssueType;
+
+/**
+ * Query for the issues in an {@link IssueIndex}. All criteria are optional and must be satisfied at the same time.
+ * 
+ * @author Holger Knoche
+ */
+public class IssueQuery {
+	
+	/**
+	 * The path prefix of the files, which is matched by complete path segments (i.e. {@code src/main} matches
+	 * {@code src/main/Foo.java}, but not {@code src/mainframe/Foo.java}), or {@code null} for all files.
+	 */
+	public final String pathPrefix;
+	
+	/**
+	 * The severities of the issues, or {@code null} for all severities.
+	 */
+	public final Set<IssueSeverity> severities;
+	
+	/**
+	 * The types of the issues, or {@code null} for all types.
+	 */
+	public final Set<IssueType> types;
+	
+	/**
+	 * The first line of the line range (inclusive).
+	 */
+	public final int firstLine;
+	
+	/**
+	 * The last line of the line range (inclusive).
+	 */
+	public final int lastLine;
+	
+	/**
+	 * Creates a new query from the given data.
+	 * @param pathPrefix see {@link #pathPrefix}
+	 * @param severities see {@link #severities}
+	 * @param types see {@link #types}
+	 * @param firstLine see {@link #firstLine}
+	 * @param lastLine see {@link #lastLine}
+	 */
+	public IssueQuery(final String pathPrefix, final Set<IssueSeverity> severities, final Set<IssueType> types, final int firstLine, final int lastLine) {
+		this.pathPrefix = pathPrefix;
+		this.severities = severities;
+		this.types = types;
+		this.firstLine = firstLine;
+		this.lastLine = lastLine;
+	}
+	
+	/**
+	 * Denotes whether this query restricts the line numbers.
+	 * @return {@code true} if the line range does not include all lines
+	 */
+	public boolean hasLineRange() {
+		return (this.firstLine > Integer.MIN_VALUE || this.lastLine < Integer.MAX_VALUE);
+	}
+	
+}
@@ -0,0 +1,101 @@
+package stylechecksaggregator.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie of the path segments of sorted file names. As all names with a common prefix are adjacent in sorted
+ * order, each node only needs to store the range of the files below it.
+ * 
+ * @author Holger Knoche
+ */
+class PathTrie {
+	
+	private final Node root = new Node();
+	
+	/**
+	 * Adds the given file name. File names must be added in ascending order.
+	 * @param fileName The file name to add
+	 * @param fileIndex The index of the file in the sorted file names
+	 */
+	public void add(final String fileName, final int fileIndex) {
+		Node node = this.root;
+		node.addFile(fileIndex);
+		
+		for(final String segment : splitPath(fileName)) {
+			node = node.children.computeIfAbsent(segment, (name) -> new Node());
+			node.addFile(fileIndex);
+		}
+	}
+	
+	/**
+	 * Returns the range of the files below the given path prefix.
+	 * @param pathPrefix The path prefix, which is matched by complete segments
+	 * @return The index of the first file and the index after the last file, or {@code null} if no file matches
+	 */
+	public int[] findFiles(final String pathPrefix) {
+		Node node = this.root;
+		
+		for(final String segment : splitPath(pathPrefix)) {
+			node = node.children.get(segment);
+			
+			if(node == null) {
+				return null;
+			}
+		}
+		
+		if(node.endFile <= node.firstFile) {
+			return null;
+		}
+		
+		return new int[] {node.firstFile, node.endFile};
+	}
+	
+	/**
+	 * Splits the given path at slashes and backslashes. Trailing separators are ignored.
+	 * @param path The path to split
+	 * @return The segments of the path
+	 */
+	static List<String> splitPath(final String path) {
+		final List<String> segments = new ArrayList<>();
+		int segmentStart = 0;
+		
+		for(int charIndex = 0; charIndex < path.length(); charIndex++) {
+			final char character = path.charAt(charIndex);
+			
+			if(character == '/' || character == '\\') {
+				segments.add(path.substring(segmentStart, charIndex));
+				segmentStart = charIndex + 1;
+			}
+		}
+		
+		if(segmentStart < path.length()) {
+			segments.add(path.substring(segmentStart));
+		}
+		
+		return segments;
+	}
+	
+	/**
+	 * Node of the trie, representing a path segment.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class Node {
+		
+		public final Map<String, Node> children = new HashMap<>();
+		
+		public int firstFile = Integer.MAX_VALUE;
+		
+		public int endFile = 0;
+		
+		public void addFile(final int fileIndex) {
+			this.firstFile = Math.min(this.firstFile, fileIndex);
+			this.endFile = Math.max(this.endFile, fileIndex + 1);
+		}
+		
+	}
+	
+}
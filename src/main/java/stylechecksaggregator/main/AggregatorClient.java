@@ -0,0 +1,99 @@
+package stylechecksaggregator.main;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * Thin client passing its command line arguments to an {@link AggregatorDaemon} and printing the results. The
+ * client only uses the networking classes, so that it starts considerably faster than a full aggregator.
+ * 
+ * @author Holger Knoche
+ */
+public class AggregatorClient {
+	
+	private static final int BUFFER_SIZE = 65536;
+	
+	public static void main(final String[] arguments) throws IOException {
+		if(arguments.length < 1) {
+			System.err.println("Usage: " + AggregatorClient.class.getName() + " <port> <aggregator arguments>");
+			return;
+		}
+		
+		final String[] aggregatorArguments = new String[arguments.length - 1];
+		System.arraycopy(arguments, 1, aggregatorArguments, 0, aggregatorArguments.length);
+		
+		final int exitCode = run(DaemonProtocol.parsePort(arguments[0]), aggregatorArguments);
+		if(exitCode != 0) {
+			System.exit(exitCode);
+		}
+	}
+	
+	/**
+	 * Passes the given arguments to the daemon listening on the given port and prints the results to the standard
+	 * output and error streams. The token of the daemon is read from its token file.
+	 * @param port The port of the daemon
+	 * @param arguments The arguments for the aggregator
+	 * @return The exit code of the aggregation
+	 * @throws IOException If an I/O error occurs
+	 */
+	static int run(final int port, final String[] arguments) throws IOException {
+		final byte[] token = DaemonProtocol.readToken(port);
+		
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+			final DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			
+			// Send the request, relative paths are resolved against the working directory of the client
+			outputStream.writeInt(DaemonProtocol.MAGIC_NUMBER);
+			outputStream.writeInt(DaemonProtocol.PROTOCOL_VERSION);
+			outputStream.write(token);
+			outputStream.writeUTF(System.getProperty("user.dir"));
+			outputStream.writeInt(arguments.length);
+			for(final String argument : arguments) {
+				outputStream.writeUTF(argument);
+			}
+			outputStream.flush();
+			
+			// Print the frames of the response until the exit code arrives
+			final DataInputStream inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE));
+			final byte[] buffer = new byte[BUFFER_SIZE];
+			
+			try {
+				while(true) {
+					final byte channel = inputStream.readByte();
+					final int length = inputStream.readInt();
+					
+					if(channel == DaemonProtocol.EXIT_CHANNEL) {
+						System.out.flush();
+						return length;
+					}
+					
+					final OutputStream targetStream = (channel == DaemonProtocol.ERROR_CHANNEL) ? System.err : System.out;
+					copy(inputStream, targetStream, length, buffer);
+				}
+			} catch (final EOFException e) {
+				throw new IOException("The daemon closed the connection unexpectedly.", e);
+			}
+		}
+	}
+	
+	private static void copy(final DataInputStream inputStream, final OutputStream outputStream, final int length, final byte[] buffer) throws IOException {
+		int remainingBytes = length;
+		
+		while(remainingBytes > 0) {
+			final int bytesToRead = Math.min(remainingBytes, buffer.length);
+			
+			inputStream.readFully(buffer, 0, bytesToRead);
+			outputStream.write(buffer, 0, bytesToRead);
+			
+			remainingBytes -= bytesToRead;
+		}
+	}
+	
+}
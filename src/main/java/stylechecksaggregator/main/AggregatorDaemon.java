@@ -0,0 +1,237 @@
+package stylechecksaggregator.main;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+
+import stylechecksaggregator.adapter.StylecheckToolAdapter;
+import stylechecksaggregator.main.DaemonProtocol.FrameOutputStream;
+import stylechecksaggregator.main.StylechecksAggregator.AdapterFactory;
+import stylechecksaggregator.main.StylechecksAggregator.StylechecksAggregatorParams;
+import stylechecksaggregator.metrics.AggregationMetrics;
+import stylechecksaggregator.metrics.AggregatorStatistics;
+
+/**
+ * Long-running aggregator accepting requests from {@link AggregatorClient}s on a local port. Only requests carrying
+ * the token of the daemon are processed (see {@link DaemonProtocol}). As the daemon
+ * keeps running, the classes of the XML stack stay loaded and compiled, the parser objects of the worker
+ * threads are reused and the adapters of each configuration are only created once. Requests are processed
+ * concurrently, and the latency of each request is logged to the error stream of the daemon. The accumulated
+ * metrics of all requests are available via JMX (see {@link AggregatorStatistics}). Watch mode is not supported,
+ * as a watching request would never finish.
+ * 
+ * @author Holger Knoche
+ */
+public class AggregatorDaemon {
+	
+	/**
+	 * Exit code signaling that the request failed with an exception.
+	 */
+	private static final int EXIT_CODE_ERROR = 2;
+	
+	private static final String WATCH_OPTION = "--watch";
+	
+	private static final int CONNECTION_BACKLOG = 50;
+	
+	private static final int BUFFER_SIZE = 65536;
+	
+	private static final double NANOSECONDS_PER_MILLISECOND = 1000000.0;
+	
+	private final int port;
+	
+	private final int workerCount;
+	
+	private final AdapterFactory adapterFactory = new CachingAdapterFactory();
+	
+	private final AtomicLong requestCounter = new AtomicLong();
+	
+	private final AggregatorStatistics statistics = new AggregatorStatistics();
+	
+	private byte[] token;
+	
+	/**
+	 * Creates a new daemon listening on the given port of the loopback interface. The number of concurrent
+	 * requests is limited by the number of available processors.
+	 * @param port The port to listen on
+	 */
+	public AggregatorDaemon(final int port) {
+		this(port, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Creates a new daemon listening on the given port of the loopback interface.
+	 * @param port The port to listen on
+	 * @param workerCount The maximum number of concurrently processed requests
+	 */
+	public AggregatorDaemon(final int port, final int workerCount) {
+		this.port = port;
+		this.workerCount = workerCount;
+	}
+	
+	/**
+	 * Accepts and processes requests until the daemon is terminated.
+	 * @throws IOException If the port cannot be opened or the token cannot be stored
+	 */
+	public void run() throws IOException {
+		this.token = DaemonProtocol.createToken(this.port);
+		
+		// Use a fixed set of workers, so that their parser objects are reused across requests
+		final ExecutorService executor = Executors.newFixedThreadPool(this.workerCount);
+		
+		try {
+			this.statistics.register();
+		} catch (final JMException e) {
+			// The daemon is still usable without monitoring
+			System.err.println("Could not register the statistics: " + e);
+		}
+		
+		// Only accept local connections
+		try (ServerSocket serverSocket = new ServerSocket(this.port, CONNECTION_BACKLOG, InetAddress.getLoopbackAddress())) {
+			System.err.println("Listening on port " + serverSocket.getLocalPort() + ", token stored in '" + DaemonProtocol.getTokenFile(this.port) + "'.");
+			
+			while(true) {
+				final Socket socket = serverSocket.accept();
+				executor.execute(() -> this.processRequest(socket));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private void processRequest(final Socket socket) {
+		final long requestNumber = this.requestCounter.incrementAndGet();
+		final long startTime = System.nanoTime();
+		
+		final AggregationMetrics metrics = new AggregationMetrics();
+		String[] arguments = new String[0];
+		int exitCode = EXIT_CODE_ERROR;
+		
+		try (Socket connection = socket) {
+			final DataInputStream inputStream = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+			
+			if(inputStream.readInt() != DaemonProtocol.MAGIC_NUMBER || inputStream.readInt() != DaemonProtocol.PROTOCOL_VERSION) {
+				System.err.println("Request " + requestNumber + " rejected due to an unsupported protocol.");
+				return;
+			}
+			
+			if(!DaemonProtocol.checkToken(inputStream, this.token)) {
+				System.err.println("Request " + requestNumber + " rejected due to an invalid token.");
+				return;
+			}
+			
+			// Read the request
+			final File workingDirectory = new File(inputStream.readUTF());
+			arguments = new String[inputStream.readInt()];
+			for(int argumentIndex = 0; argumentIndex < arguments.length; argumentIndex++) {
+				arguments[argumentIndex] = inputStream.readUTF();
+			}
+			
+			// Process the request and pass the output to the client as frames
+			final DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream(), BUFFER_SIZE));
+			final OutputStream issueStream = new FrameOutputStream(outputStream, DaemonProtocol.OUTPUT_CHANNEL);
+			final PrintStream errorStream = new PrintStream(new FrameOutputStream(outputStream, DaemonProtocol.ERROR_CHANNEL), true);
+			
+			try {
+				// Watch mode never finishes, so it would occupy a request thread forever
+				if(Arrays.asList(arguments).contains(WATCH_OPTION)) {
+					errorStream.println("Watch mode is not supported by the daemon.");
+					exitCode = EXIT_CODE_ERROR;
+				} else {
+					exitCode = StylechecksAggregator.run(arguments, workingDirectory, this.adapterFactory, metrics, issueStream, errorStream);
+				}
+			} catch (final Throwable e) {
+				// Report any failure (including errors such as an OutOfMemoryError) to the client, the daemon itself keeps running
+				e.printStackTrace(errorStream);
+				exitCode = EXIT_CODE_ERROR;
+			}
+			
+			errorStream.flush();
+			synchronized (outputStream) {
+				outputStream.writeByte(DaemonProtocol.EXIT_CHANNEL);
+				outputStream.writeInt(exitCode);
+				outputStream.flush();
+			}
+		} catch (final IOException | RuntimeException e) {
+			System.err.println("Request " + requestNumber + " failed: " + e);
+		}
+		
+		final long requestTime = System.nanoTime() - startTime;
+		this.statistics.record(metrics, requestTime, (exitCode == EXIT_CODE_ERROR));
+		
+		final double latency = requestTime / NANOSECONDS_PER_MILLISECOND;
+		System.err.println(String.format(Locale.ROOT, "Request %d (%s) finished with exit code %d in %.1f ms.", requestNumber, String.join(" ", arguments), exitCode, latency));
+	}
+	
+	/**
+	 * Adapter factory reusing the adapters of a configuration as long as the configuration file is unchanged.
+	 * This is possible as the adapters are thread-safe.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class CachingAdapterFactory implements AdapterFactory {
+		
+		private final ConcurrentMap<String, CachedAdapters> cachedAdapters = new ConcurrentHashMap<>();
+		
+		@Override
+		public List<StylecheckToolAdapter> createAdapters(final StylechecksAggregatorParams parameters) throws IOException {
+			// The adapters depend on the configuration as well as on the command line settings
+			final String key = parameters.fromClasspath + ":" + parameters.streaming + ":" + parameters.threadCount + ":" + parameters.getExtractionSeverity() + ":" + parameters.configFileName;
+			
+			final File configFile = new File(parameters.configFileName);
+			final long lastModified = (parameters.fromClasspath) ? 0 : configFile.lastModified();
+			final long size = (parameters.fromClasspath) ? 0 : configFile.length();
+			
+			final CachedAdapters cachedEntry = this.cachedAdapters.get(key);
+			if(cachedEntry != null && cachedEntry.lastModified == lastModified && cachedEntry.size == size) {
+				return cachedEntry.adapters;
+			}
+			
+			// Concurrent requests may create the adapters at the same time, but this is harmless
+			final List<StylecheckToolAdapter> adapters = StylechecksAggregator.initializeAdapters(parameters);
+			this.cachedAdapters.put(key, new CachedAdapters(lastModified, size, adapters));
+			
+			return adapters;
+		}
+		
+	}
+	
+	/**
+	 * Adapters created for a specific state of a configuration file.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class CachedAdapters {
+		
+		public final long lastModified;
+		
+		public final long size;
+		
+		public final List<StylecheckToolAdapter> adapters;
+		
+		public CachedAdapters(final long lastModified, final long size, final List<StylecheckToolAdapter> adapters) {
+			this.lastModified = lastModified;
+			this.size = size;
+			this.adapters = adapters;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,231 @@
+package stylechecksaggregator.main;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Constants and helpers for the protocol between {@link AggregatorClient} and {@link AggregatorDaemon}. A request
+ * consists of the magic number, the protocol version, the token of the daemon, the client's working directory and
+ * the command line arguments. The response is a sequence of frames, each of which consists of a channel byte, the length and the
+ * data. The response ends with a frame on the exit channel, which contains the exit code instead of data.
+ * <p>
+ * As any local user can connect to the port of the daemon, the daemon creates a random token on startup and stores it
+ * in a file that only its owner can read (see {@link #getTokenFile(int)}). Requests without this token are rejected,
+ * so only the user running the daemon can pass requests to it.
+ * 
+ * @author Holger Knoche
+ */
+class DaemonProtocol {
+	
+	/**
+	 * Magic number at the beginning of each request.
+	 */
+	public static final int MAGIC_NUMBER = 0x53434144;
+	
+	/**
+	 * Version of the protocol. Must be incremented whenever the protocol changes.
+	 */
+	public static final int PROTOCOL_VERSION = 2;
+	
+	/**
+	 * Length of the token in bytes.
+	 */
+	public static final int TOKEN_LENGTH = 32;
+	
+	/**
+	 * Directory containing the token files, relative to the home directory of the user.
+	 */
+	private static final String TOKEN_DIRECTORY_NAME = ".stylechecks-aggregator";
+	
+	private static final Set<PosixFilePermission> OWNER_ONLY_DIRECTORY_PERMISSIONS = EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE,
+			PosixFilePermission.OWNER_EXECUTE);
+	
+	private static final Set<PosixFilePermission> OWNER_ONLY_FILE_PERMISSIONS = EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE);
+	
+	/**
+	 * Channel of the frame carrying the exit code.
+	 */
+	public static final byte EXIT_CHANNEL = 0;
+	
+	/**
+	 * Channel of the frames carrying the standard output.
+	 */
+	public static final byte OUTPUT_CHANNEL = 1;
+	
+	/**
+	 * Channel of the frames carrying the error output.
+	 */
+	public static final byte ERROR_CHANNEL = 2;
+	
+	private DaemonProtocol() {
+		// Constants and helpers only
+	}
+	
+	/**
+	 * Parses the given port number.
+	 * @param value The value to parse
+	 * @return The port number
+	 * @throws IllegalArgumentException If the value is not a valid port number
+	 */
+	public static int parsePort(final String value) {
+		final int port;
+		
+		try {
+			port = Integer.parseInt(value);
+		} catch (final NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid port: " + value);
+		}
+		
+		if(port < 1 || port > 65535) {
+			throw new IllegalArgumentException("Invalid port: " + value);
+		}
+		
+		return port;
+	}
+	
+	/**
+	 * Returns the file containing the token of the daemon listening on the given port.
+	 * @param port The port of the daemon
+	 * @return The token file
+	 */
+	public static File getTokenFile(final int port) {
+		return new File(new File(System.getProperty("user.home"), TOKEN_DIRECTORY_NAME), "daemon-" + port + ".token");
+	}
+	
+	/**
+	 * Creates a new random token for the daemon listening on the given port and stores it in the token file, which
+	 * is only accessible by the current user. An existing token file is replaced.
+	 * @param port The port of the daemon
+	 * @return The new token
+	 * @throws IOException If the token file cannot be written
+	 */
+	public static byte[] createToken(final int port) throws IOException {
+		final byte[] token = new byte[TOKEN_LENGTH];
+		new SecureRandom().nextBytes(token);
+		
+		final Path tokenFile = getTokenFile(port).toPath();
+		final Path tokenDirectory = tokenFile.getParent();
+		final boolean posix = (Files.getFileAttributeView(tokenDirectory.getParent(), PosixFileAttributeView.class) != null);
+		
+		if(posix) {
+			try {
+				Files.createDirectory(tokenDirectory, PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIRECTORY_PERMISSIONS));
+			} catch (final FileAlreadyExistsException e) {
+				// Fails if the directory belongs to another user
+				Files.setPosixFilePermissions(tokenDirectory, OWNER_ONLY_DIRECTORY_PERMISSIONS);
+			}
+		} else {
+			Files.createDirectories(tokenDirectory);
+		}
+		
+		// Create a new file, so that the permissions are set before the token is written
+		Files.deleteIfExists(tokenFile);
+		if(posix) {
+			Files.createFile(tokenFile, PosixFilePermissions.asFileAttribute(OWNER_ONLY_FILE_PERMISSIONS));
+		} else {
+			// Without POSIX permissions (i.e. on Windows), the file is protected by the access rights of the home directory
+			Files.createFile(tokenFile);
+		}
+		
+		Files.write(tokenFile, token);
+		return token;
+	}
+	
+	/**
+	 * Reads the token of the daemon listening on the given port.
+	 * @param port The port of the daemon
+	 * @return The token
+	 * @throws IOException If the token file cannot be read
+	 */
+	public static byte[] readToken(final int port) throws IOException {
+		final File tokenFile = getTokenFile(port);
+		if(!tokenFile.isFile()) {
+			throw new IOException("No daemon token found in '" + tokenFile + "'. The daemon must be run by the same user.");
+		}
+		
+		final byte[] token = Files.readAllBytes(tokenFile.toPath());
+		if(token.length != TOKEN_LENGTH) {
+			throw new IOException("Invalid daemon token in '" + tokenFile + "'.");
+		}
+		
+		return token;
+	}
+	
+	/**
+	 * Reads the token of a request and checks it against the token of the daemon.
+	 * @param inputStream The stream to read the token from
+	 * @param token The token of the daemon
+	 * @return {@code true} if the request contains the token of the daemon
+	 * @throws IOException If an I/O error occurs
+	 */
+	public static boolean checkToken(final DataInputStream inputStream, final byte[] token) throws IOException {
+		final byte[] requestToken = new byte[TOKEN_LENGTH];
+		inputStream.readFully(requestToken);
+		
+		// Compare in constant time, so that the token cannot be guessed from the response times
+		return MessageDigest.isEqual(requestToken, token);
+	}
+	
+	/**
+	 * Output stream writing its data as frames on a single channel. Several streams may write to the same
+	 * underlying stream, as the frames are written atomically.
+	 * 
+	 * @author Holger Knoche
+	 */
+	public static class FrameOutputStream extends OutputStream {
+		
+		private final DataOutputStream outputStream;
+		
+		private final byte channel;
+		
+		/**
+		 * Creates a new stream writing frames on the given channel.
+		 * @param outputStream The stream to write the frames to
+		 * @param channel The channel of the frames
+		 */
+		public FrameOutputStream(final DataOutputStream outputStream, final byte channel) {
+			this.outputStream = outputStream;
+			this.channel = channel;
+		}
+		
+		@Override
+		public void write(final int value) throws IOException {
+			this.write(new byte[] {(byte) value}, 0, 1);
+		}
+		
+		@Override
+		public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+			if(length == 0) {
+				return;
+			}
+			
+			synchronized (this.outputStream) {
+				this.outputStream.writeByte(this.channel);
+				this.outputStream.writeInt(length);
+				this.outputStream.write(bytes, offset, length);
+			}
+		}
+		
+		@Override
+		public void flush() throws IOException {
+			synchronized (this.outputStream) {
+				this.outputStream.flush();
+			}
+		}
+		
+	}
+	
+}
@@ -0,0 +1,335 @@
+package stylechecksaggregator.main;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+import stylechecksaggregator.model.Issue;
+
+/**
+ * Pipeline in which several producers (usually one per report file) run on a thread pool and pass their issues
+ * through a bounded queue to a consumer on the calling thread. Issues are transferred in batches to reduce the
+ * synchronization overhead. The batches of a single producer are consumed in the order in which the producer
+ * created them, whereas batches of different producers may be interleaved arbitrarily. Producers are started as soon
+ * as they are submitted, and their batches are consumed right away, so they can be submitted while the report files
+ * are still being discovered.
+ * <p>
+ * The producers run in a {@link ReportTaskScope}, so the first producer that fails cancels all other producers,
+ * and its failure is thrown as soon as the consumer reaches it.
+ * 
+ * @author Holger Knoche
+ */
+class IssuePipeline {
+	
+	/**
+	 * Maximum number of issues transferred in a single batch.
+	 */
+	private static final int BATCH_SIZE = 256;
+	
+	/**
+	 * Maximum number of batches waiting in the queue. Producers are blocked if the queue is full.
+	 */
+	private static final int QUEUE_CAPACITY = 64;
+	
+	/**
+	 * Producer index of the signal denoting that the source has submitted all producers.
+	 */
+	private static final int SOURCE_INDEX = -1;
+	
+	private final int threadCount;
+	
+	/**
+	 * Creates a new pipeline using the given number of producer threads.
+	 * @param threadCount The number of producer threads
+	 */
+	public IssuePipeline(final int threadCount) {
+		this.threadCount = threadCount;
+	}
+	
+	/**
+	 * Runs the producers submitted by the given source and passes their issues to the given consumer on the calling
+	 * thread. The source runs on a separate thread, and each producer is started as soon as it is submitted, so the
+	 * batches are consumed while the source is still submitting producers. This method returns after the source and
+	 * all producers have finished and all issues have been consumed, or as soon as the source or a producer has failed.
+	 * @param source The source submitting the producers to run
+	 * @param consumer The consumer for the batches
+	 * @throws IOException If an I/O error occurs in the source, a producer or the consumer
+	 */
+	public void run(final ProducerSource source, final BatchConsumer consumer) throws IOException {
+		final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		
+		// Closing the scope cancels the producers that are still running, e.g. if the source or the consumer fails
+		try (ReportTaskScope scope = new ReportTaskScope(this.threadCount, false)) {
+			final List<Future<Void>> futures = new ArrayList<>();
+			
+			// Producers may be submitted concurrently, e.g. by the discovery of the report files
+			final ProducerSubmitter submitter = (producer) -> {
+				synchronized (futures) {
+					final int producerIndex = futures.size();
+					
+					futures.add(scope.fork(() -> runProducer(producer, producerIndex, queue)));
+					return producerIndex;
+				}
+			};
+			
+			final FutureTask<Void> sourceTask = new FutureTask<>(() -> runSource(source, submitter, queue));
+			final Thread sourceThread = new Thread(sourceTask, "producer-source");
+			sourceThread.setDaemon(true);
+			sourceThread.start();
+			
+			try {
+				consumeBatches(scope, futures, sourceTask, queue, consumer);
+			} finally {
+				// Stop the source if the pipeline has failed
+				sourceTask.cancel(true);
+			}
+			
+			// Propagate errors of the producers
+			for(final Future<Void> future : getFutures(futures)) {
+				scope.join(future);
+			}
+		}
+	}
+	
+	/**
+	 * Consumes batches until the source has signaled its completion and all submitted producers have signaled theirs.
+	 */
+	private static void consumeBatches(final ReportTaskScope scope, final List<Future<Void>> futures, final Future<Void> sourceTask, final BlockingQueue<Batch> queue,
+			final BatchConsumer consumer) throws IOException {
+		boolean sourceCompleted = false;
+		int completedProducers = 0;
+		
+		while(!sourceCompleted || completedProducers < getFutures(futures).size()) {
+			final Batch batch = takeBatch(queue);
+			
+			if(batch.issues != null) {
+				consumer.accept(batch.producerIndex, batch.issues);
+				continue;
+			}
+			
+			if(batch.producerIndex == SOURCE_INDEX) {
+				// Throw the failure of the source
+				if(batch.failed) {
+					StylechecksAggregator.awaitResult(sourceTask);
+				}
+				
+				sourceCompleted = true;
+				continue;
+			}
+			
+			// A failed producer has cancelled the other producers, which may therefore never signal their completion
+			if(batch.failed) {
+				scope.join(getFutures(futures).get(batch.producerIndex));
+			}
+			
+			completedProducers++;
+		}
+	}
+	
+	private static List<Future<Void>> getFutures(final List<Future<Void>> futures) {
+		synchronized (futures) {
+			return new ArrayList<>(futures);
+		}
+	}
+	
+	private static Void runSource(final ProducerSource source, final ProducerSubmitter submitter, final BlockingQueue<Batch> queue) throws IOException {
+		try {
+			source.submitProducers(submitter);
+		} catch (final IOException | RuntimeException | Error e) {
+			// Always signal the completion, otherwise the consumer would wait forever
+			signalCompletion(queue, SOURCE_INDEX, true);
+			throw e;
+		}
+		
+		signalCompletion(queue, SOURCE_INDEX, false);
+		return null;
+	}
+	
+	private static Void runProducer(final IssueProducer producer, final int producerIndex, final BlockingQueue<Batch> queue) throws IOException {
+		try {
+			final BatchingConsumer batchingConsumer = new BatchingConsumer(producerIndex, queue);
+			
+			producer.produce(batchingConsumer);
+			batchingConsumer.flush();
+		} catch (final IOException | RuntimeException | Error e) {
+			// Always signal the completion, otherwise the consumer would wait forever
+			signalCompletion(queue, producerIndex, true);
+			throw e;
+		}
+		
+		signalCompletion(queue, producerIndex, false);
+		return null;
+	}
+	
+	private static Batch takeBatch(final BlockingQueue<Batch> queue) throws IOException {
+		try {
+			return queue.take();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for issues.");
+		}
+	}
+	
+	private static void putBatch(final BlockingQueue<Batch> queue, final Batch batch) {
+		try {
+			queue.put(batch);
+		} catch (final InterruptedException e) {
+			// The pipeline is being shut down, so the producer can stop
+			Thread.currentThread().interrupt();
+			throw new CancellationException("The pipeline has been shut down.");
+		}
+	}
+	
+	private static void signalCompletion(final BlockingQueue<Batch> queue, final int producerIndex, final boolean failed) {
+		try {
+			queue.put(new Batch(producerIndex, null, failed));
+		} catch (final InterruptedException e) {
+			// The pipeline is being shut down, so nobody waits for the signal
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * A producer of issues.
+	 * 
+	 * @author Holger Knoche
+	 */
+	@FunctionalInterface
+	public interface IssueProducer {
+		
+		/**
+		 * Produces issues and passes them to the given consumer.
+		 * @param consumer The consumer for the produced issues
+		 * @throws IOException If an I/O error occurs
+		 */
+		void produce(Consumer<Issue> consumer) throws IOException;
+		
+	}
+	
+	/**
+	 * Source of the producers run by a pipeline.
+	 * 
+	 * @author Holger Knoche
+	 */
+	@FunctionalInterface
+	public interface ProducerSource {
+		
+		/**
+		 * Passes all producers to the given submitter.
+		 * @param submitter The submitter starting the producers
+		 * @throws IOException If an I/O error occurs
+		 */
+		void submitProducers(ProducerSubmitter submitter) throws IOException;
+		
+	}
+	
+	/**
+	 * Starts the producers of a pipeline. The submitter is thread-safe.
+	 * 
+	 * @author Holger Knoche
+	 */
+	@FunctionalInterface
+	public interface ProducerSubmitter {
+		
+		/**
+		 * Starts the given producer.
+		 * @param producer The producer to start
+		 * @return The index of the producer, which identifies its batches
+		 */
+		int submit(IssueProducer producer);
+		
+	}
+	
+	/**
+	 * Consumer for the batches of issues passed through the pipeline.
+	 * 
+	 * @author Holger Knoche
+	 */
+	@FunctionalInterface
+	public interface BatchConsumer {
+		
+		/**
+		 * Consumes the given batch.
+		 * @param producerIndex The index of the producer that created the batch
+		 * @param issues The issues of the batch
+		 * @throws IOException If an I/O error occurs
+		 */
+		void accept(int producerIndex, List<Issue> issues) throws IOException;
+		
+	}
+	
+	/**
+	 * A batch of issues of a single producer. A batch without issues denotes that the producer (or the source, see
+	 * {@link #SOURCE_INDEX}) has finished.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class Batch {
+		
+		public final int producerIndex;
+		
+		public final List<Issue> issues;
+		
+		/**
+		 * Denotes whether the producer has failed (only for batches without issues).
+		 */
+		public final boolean failed;
+		
+		public Batch(final int producerIndex, final List<Issue> issues) {
+			this(producerIndex, issues, false);
+		}
+		
+		public Batch(final int producerIndex, final List<Issue> issues, final boolean failed) {
+			this.producerIndex = producerIndex;
+			this.issues = issues;
+			this.failed = failed;
+		}
+		
+	}
+	
+	/**
+	 * Consumer that collects issues into batches and puts full batches into the queue.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class BatchingConsumer implements Consumer<Issue> {
+		
+		private final int producerIndex;
+		
+		private final BlockingQueue<Batch> queue;
+		
+		private List<Issue> currentIssues = new ArrayList<>(BATCH_SIZE);
+		
+		public BatchingConsumer(final int producerIndex, final BlockingQueue<Batch> queue) {
+			this.producerIndex = producerIndex;
+			this.queue = queue;
+		}
+		
+		@Override
+		public void accept(final Issue issue) {
+			this.currentIssues.add(issue);
+			
+			if(this.currentIssues.size() >= BATCH_SIZE) {
+				this.flush();
+			}
+		}
+		
+		public void flush() {
+			if(this.currentIssues.isEmpty()) {
+				return;
+			}
+			
+			putBatch(this.queue, new Batch(this.producerIndex, this.currentIssues));
+			this.currentIssues = new ArrayList<>(BATCH_SIZE);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,147 @@
+package stylechecksaggregator.main;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Scope in which reports are processed concurrently. The first task that fails cancels all other tasks of the scope,
+ * and the scope is only left after all tasks have ended. Its failure is then reported instead of the failures
+ * caused by the cancellation.
+ * <p>
+ * Reports may be processed on virtual threads, one per report (see {@link VirtualThreads}). As each virtual thread is
+ * only used for a single report, the parsers are borrowed from shared pools instead of being kept per thread (see
+ * {@link stylechecksaggregator.util.ObjectPool}). On JDKs without virtual threads, a thread pool is used instead.
+ * 
+ * @author Holger Knoche
+ */
+class ReportTaskScope implements Closeable {
+	
+	private final ExecutorService executor;
+	
+	private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+	
+	/**
+	 * Creates a new scope using the given data.
+	 * @param threadCount The number of threads of the thread pool
+	 * @param virtualThreads Denotes whether each task should run on its own virtual thread if possible
+	 */
+	public ReportTaskScope(final int threadCount, final boolean virtualThreads) {
+		this.executor = createExecutor(threadCount, virtualThreads);
+	}
+	
+	/**
+	 * Creates an executor for processing reports. If virtual threads are requested, but not available, a thread pool
+	 * with the given number of threads is used, which defaults to the number of processors.
+	 * @param threadCount The number of threads of the thread pool
+	 * @param virtualThreads Denotes whether each task should run on its own virtual thread if possible
+	 * @return The executor
+	 */
+	static ExecutorService createExecutor(final int threadCount, final boolean virtualThreads) {
+		if(!virtualThreads) {
+			return Executors.newFixedThreadPool(threadCount);
+		}
+		
+		final ExecutorService virtualThreadExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+		if(virtualThreadExecutor != null) {
+			return virtualThreadExecutor;
+		}
+		
+		return Executors.newFixedThreadPool((threadCount > 1) ? threadCount : Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Starts the given task in this scope. If the task fails, all other tasks of the scope are cancelled.
+	 * @param task The task to start
+	 * @return The future of the task, which is already cancelled if another task has failed
+	 */
+	public <T> Future<T> fork(final Callable<T> task) {
+		try {
+			return this.executor.submit(() -> {
+				try {
+					return task.call();
+				} catch (final Exception | Error e) {
+					this.fail(e);
+					throw e;
+				}
+			});
+		} catch (final RejectedExecutionException e) {
+			// The scope has been shut down due to a failure
+			final FutureTask<T> cancelledTask = new FutureTask<>(task);
+			cancelledTask.cancel(false);
+			return cancelledTask;
+		}
+	}
+	
+	/**
+	 * Waits for the given task of this scope and returns its result. If any task of the scope has failed, its
+	 * failure is thrown instead of the failure of the given task.
+	 * @param future The future of the task
+	 * @return The result of the task
+	 * @throws IOException If a task has failed with an I/O error or the current thread has been interrupted
+	 */
+	public <T> T join(final Future<T> future) throws IOException {
+		try {
+			return StylechecksAggregator.awaitResult(future);
+		} catch (final IOException | RuntimeException | Error e) {
+			final Throwable failure = this.firstFailure.get();
+			
+			// Failures of cancelled tasks are only a consequence of the first failure
+			if(failure == null || failure == e || (e instanceof InterruptedIOException && Thread.currentThread().isInterrupted())) {
+				throw e;
+			}
+			
+			throw rethrow(failure);
+		}
+	}
+	
+	private void fail(final Throwable failure) {
+		if(!this.firstFailure.compareAndSet(null, failure)) {
+			return;
+		}
+		
+		// Interrupt the running tasks and cancel the tasks that have not been started yet
+		for(final Runnable pendingTask : this.executor.shutdownNow()) {
+			if(pendingTask instanceof Future) {
+				((Future<?>) pendingTask).cancel(false);
+			}
+		}
+	}
+	
+	private static RuntimeException rethrow(final Throwable failure) throws IOException {
+		if(failure instanceof IOException) {
+			throw (IOException) failure;
+		} else if(failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else if(failure instanceof Error) {
+			throw (Error) failure;
+		}
+		
+		return new RuntimeException(failure);
+	}
+	
+	/**
+	 * Cancels all tasks that are still running and waits until they have ended.
+	 * @throws IOException If the current thread is interrupted while waiting
+	 */
+	@Override
+	public void close() throws IOException {
+		this.executor.shutdownNow();
+		
+		try {
+			this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the tasks to end.");
+		}
+	}
+	
+}
@@ -0,0 +1,427 @@
+package stylechecksaggregator.main;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import stylechecksaggregator.adapter.StylecheckToolAdapter;
+import stylechecksaggregator.cache.ReportCache;
+import stylechecksaggregator.discovery.ReportFileDiscovery;
+import stylechecksaggregator.main.StylechecksAggregator.SortIssueByFileNameAndLineNumberComparator;
+import stylechecksaggregator.main.StylechecksAggregator.StylechecksAggregatorParams;
+import stylechecksaggregator.metrics.AggregationMetrics;
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
+import stylechecksaggregator.output.IssuePrinter;
+import stylechecksaggregator.output.OutputFormat;
+import stylechecksaggregator.sort.IssueMerger;
+
+/**
+ * Watches the report files of an aggregation and prints the updated issues whenever reports change. The
+ * filtered and sorted issues of each report are kept in memory, so that only the changed reports have to be
+ * processed again. The output is then produced by merging the issues of all reports, which yields the same
+ * result as a complete aggregation. Changes are debounced, i.e. the reports are only processed once no further
+ * changes have occurred for a short time, as tools usually write their reports in several steps.
+ * <p>
+ * The watcher watches the directories of the reports and all directories searched for reports matching a pattern.
+ * Directories that do not exist (yet) are represented by their nearest existing ancestor. Whenever files or
+ * directories are created or deleted in a watched directory, or a watched directory becomes inaccessible (e.g. because
+ * it has been deleted by a clean build), the reports are discovered again and the watched directories are updated.
+ * Newly found reports and reports whose files have changed in the meantime are processed again, and the issues of
+ * reports that no longer exist are dropped.
+ * 
+ * @author Holger Knoche
+ */
+class ReportWatcher implements Closeable {
+	
+	/**
+	 * Time in milliseconds without further changes after which the changed reports are processed.
+	 */
+	private static final long DEBOUNCE_MILLIS = 100;
+	
+	private static final double NANOS_PER_MILLISECOND = 1000000.0;
+	
+	private final StylechecksAggregatorParams parameters;
+	
+	private final IssueSeverity minSeverity;
+	
+	private final ReportCache cache;
+	
+	private final Comparator<Issue> comparator = new SortIssueByFileNameAndLineNumberComparator();
+	
+	private final List<StylecheckToolAdapter> adapters;
+	
+	/**
+	 * The watched reports in the configured order.
+	 */
+	private List<WatchedReport> reports = Collections.emptyList();
+	
+	/**
+	 * The watched reports by their normalized paths. A report may be configured for several tools.
+	 */
+	private final Map<Path, List<WatchedReport>> reportsByPath = new HashMap<>();
+	
+	/**
+	 * The keys of the watched directories by their normalized paths.
+	 */
+	private final Map<Path, WatchKey> watchKeys = new HashMap<>();
+	
+	private final WatchService watchService;
+	
+	/**
+	 * Creates a new watcher for the reports of the given adapters and registers the directories containing the reports.
+	 * @param parameters The parameters of the aggregator
+	 * @param adapters The adapters whose reports are watched
+	 * @param minSeverity The minimum severity of the printed issues
+	 * @throws IOException If the reports cannot be found or watched
+	 */
+	public ReportWatcher(final StylechecksAggregatorParams parameters, final List<StylecheckToolAdapter> adapters, final IssueSeverity minSeverity) throws IOException {
+		this.parameters = parameters;
+		this.minSeverity = minSeverity;
+		this.cache = (parameters.cacheDirectory != null) ? new ReportCache(new File(parameters.cacheDirectory)) : null;
+		this.adapters = adapters;
+		this.watchService = FileSystems.getDefault().newWatchService();
+		
+		try {
+			this.discoverReports();
+		} catch (final IOException | RuntimeException e) {
+			this.watchService.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Discovers the reports and updates the watched directories. Known reports are retained along with their issues.
+	 * @return The reports that are new or whose files have changed since they were processed, in the configured order
+	 * @throws IOException If the reports cannot be found or watched
+	 */
+	private List<WatchedReport> discoverReports() throws IOException {
+		final Map<StylecheckToolAdapter, Map<String, WatchedReport>> knownReports = new HashMap<>();
+		for(final WatchedReport report : this.reports) {
+			knownReports.computeIfAbsent(report.adapter, (adapter) -> new HashMap<>()).put(report.fileName, report);
+		}
+		
+		// The handlers are invoked concurrently for reports matching patterns
+		final Set<Path> directories = ConcurrentHashMap.newKeySet();
+		final List<WatchedReport> reports = ReportFileDiscovery.discover(this.parameters.rootPath, this.adapters, (adapter, fileName) -> {
+			final WatchedReport knownReport = knownReports.getOrDefault(adapter, Collections.emptyMap()).get(fileName);
+			return (knownReport != null) ? knownReport : new WatchedReport(adapter, fileName);
+		}, (directory) -> directories.add(directory.toAbsolutePath().normalize()));
+		
+		// Reports may also be created in directories that do not exist yet, which are created below their nearest existing ancestor
+		directories.add(findExistingDirectory(Paths.get(this.parameters.rootPath).toAbsolutePath().normalize()));
+		
+		this.reportsByPath.clear();
+		for(final WatchedReport report : reports) {
+			this.reportsByPath.computeIfAbsent(report.path, (path) -> new ArrayList<>()).add(report);
+			directories.add(findExistingDirectory(report.path.getParent()));
+		}
+		
+		this.watchDirectories(directories);
+		this.reports = reports;
+		
+		final List<WatchedReport> changedReports = new ArrayList<>();
+		for(final WatchedReport report : reports) {
+			if(report.hasChanged()) {
+				changedReports.add(report);
+			}
+		}
+		
+		return changedReports;
+	}
+	
+	private static Path findExistingDirectory(final Path path) {
+		Path directory = path;
+		
+		while(directory.getParent() != null && !Files.isDirectory(directory)) {
+			directory = directory.getParent();
+		}
+		
+		return directory;
+	}
+	
+	private void watchDirectories(final Set<Path> directories) throws IOException {
+		// Stop watching directories that are no longer needed
+		final Iterator<Map.Entry<Path, WatchKey>> entries = this.watchKeys.entrySet().iterator();
+		while(entries.hasNext()) {
+			final Map.Entry<Path, WatchKey> entry = entries.next();
+			
+			if(!directories.contains(entry.getKey())) {
+				entry.getValue().cancel();
+				entries.remove();
+			}
+		}
+		
+		for(final Path directory : directories) {
+			if(this.watchKeys.containsKey(directory)) {
+				continue;
+			}
+			
+			try {
+				final WatchKey key = directory.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+						StandardWatchEventKinds.ENTRY_DELETE);
+				this.watchKeys.put(directory, key);
+			} catch (final NoSuchFileException e) {
+				// The directory has been deleted in the meantime, which triggers a new discovery via its parent
+			}
+		}
+	}
+	
+	/**
+	 * Processes all reports and prints the issues, and then prints the updated issues whenever reports change.
+	 * This method only returns if the watcher is closed or the current thread is interrupted.
+	 * @param outputFormat The format in which the issues are printed
+	 * @param outputStream The stream to print the issues to
+	 * @param errorStream The stream to print the progress and errors to
+	 * @throws IOException If an I/O error occurs while printing the issues
+	 */
+	public void run(final OutputFormat outputFormat, final OutputStream outputStream, final PrintStream errorStream) throws IOException {
+		final long startTime = System.nanoTime();
+		this.processReports(this.reports, errorStream);
+		this.printIssues(outputFormat, outputStream, errorStream, this.reports.size(), startTime);
+		
+		try {
+			while(true) {
+				final Changes changes = new Changes();
+				this.collectChanges(this.watchService.take(), changes);
+				
+				// Wait until no further changes occur
+				WatchKey key;
+				while((key = this.watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+					this.collectChanges(key, changes);
+				}
+				
+				final long updateStartTime = System.nanoTime();
+				boolean reportsRemoved = false;
+				
+				if(changes.rediscover) {
+					final Set<WatchedReport> previousReports = new HashSet<>(this.reports);
+					changes.reports.addAll(this.discoverReports());
+					
+					// Changes of reports that no longer exist are irrelevant
+					previousReports.removeAll(this.reports);
+					changes.reports.removeAll(previousReports);
+					reportsRemoved = !previousReports.isEmpty();
+				}
+				
+				if(!changes.reports.isEmpty() || reportsRemoved) {
+					this.processReports(changes.reports, errorStream);
+					this.printIssues(outputFormat, outputStream, errorStream, changes.reports.size(), updateStartTime);
+				}
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while watching the reports.");
+		} catch (final ClosedWatchServiceException e) {
+			// The watcher has been closed
+		}
+	}
+	
+	private void collectChanges(final WatchKey key, final Changes changes) {
+		final Path directory = (Path) key.watchable();
+		
+		for(final WatchEvent<?> event : key.pollEvents()) {
+			// Events may have been lost, so all reports must be processed again
+			if(event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				changes.reports.addAll(this.reports);
+				changes.rediscover = true;
+				continue;
+			}
+			
+			final List<WatchedReport> reports = this.reportsByPath.get(directory.resolve((Path) event.context()));
+			if(reports != null) {
+				changes.reports.addAll(reports);
+			}
+			
+			// Created or deleted entries may be reports or directories that contain reports
+			if(event.kind() != StandardWatchEventKinds.ENTRY_MODIFY) {
+				changes.rediscover = true;
+			}
+		}
+		
+		// The key becomes invalid if the directory is no longer accessible, e.g. because it has been deleted
+		if(!key.reset()) {
+			this.watchKeys.remove(directory);
+			changes.rediscover = true;
+		}
+	}
+	
+	/**
+	 * Processes the given reports and replaces their issues. If a report cannot be processed (e.g. because it is only
+	 * partially written), an error is printed and its previous issues are retained until it changes again.
+	 */
+	private void processReports(final Collection<WatchedReport> reports, final PrintStream errorStream) throws IOException {
+		final AggregationMetrics metrics = new AggregationMetrics();
+		
+		// Record the state of the files before processing them, so that changes during the processing are detected
+		for(final WatchedReport report : reports) {
+			report.recordState();
+		}
+		
+		final boolean concurrent = (this.parameters.threadCount > 1 || this.parameters.virtualThreads) && reports.size() > 1;
+		final ExecutorService executor = (concurrent) ? ReportTaskScope.createExecutor(this.parameters.threadCount, this.parameters.virtualThreads) : null;
+		
+		try {
+			final List<Future<List<Issue>>> futures = new ArrayList<>(reports.size());
+			
+			if(executor != null) {
+				for(final WatchedReport report : reports) {
+					futures.add(executor.submit(() -> this.processReport(report, metrics)));
+				}
+			}
+			
+			int reportIndex = 0;
+			for(final WatchedReport report : reports) {
+				try {
+					report.issues = (executor != null) ? StylechecksAggregator.awaitResult(futures.get(reportIndex)) : this.processReport(report, metrics);
+				} catch (final InterruptedIOException e) {
+					throw e;
+				} catch (final IOException | RuntimeException e) {
+					errorStream.println("Could not process " + report.fileName + ": " + e);
+				}
+				
+				reportIndex++;
+			}
+		} finally {
+			if(executor != null) {
+				executor.shutdownNow();
+			}
+		}
+	}
+	
+	private List<Issue> processReport(final WatchedReport report, final AggregationMetrics metrics) throws IOException {
+		final List<Issue> issues = StylechecksAggregator.processFile(report.adapter, report.fileName, this.cache, metrics);
+		return StylechecksAggregator.filterAndSortIssues(issues, this.minSeverity);
+	}
+	
+	/**
+	 * Prints the issues of all reports by merging the sorted issues of the single reports. Issues at the same position
+	 * are printed in the order of their reports, which is the order of a stable sort of all issues.
+	 */
+	private void printIssues(final OutputFormat outputFormat, final OutputStream outputStream, final PrintStream errorStream, final int reportCount, final long startTime)
+			throws IOException {
+		final IssuePrinter printer = outputFormat.createPrinter(outputStream);
+		
+		final List<IssueMerger.IssueSource> sources = new ArrayList<>(this.reports.size());
+		for(int reportIndex = 0; reportIndex < this.reports.size(); reportIndex++) {
+			sources.add(IssueMerger.listSource(this.reports.get(reportIndex).issues, reportIndex));
+		}
+		
+		IssueMerger.merge(sources, this.comparator, printer);
+		
+		printer.finish();
+		
+		final double duration = (System.nanoTime() - startTime) / NANOS_PER_MILLISECOND;
+		errorStream.println(String.format(Locale.ROOT, "Processed %d report(s) and printed %d issue(s) in %.1f ms.", reportCount, printer.getIssueCount(), duration));
+	}
+	
+	@Override
+	public void close() throws IOException {
+		this.watchService.close();
+	}
+	
+	/**
+	 * A watched report and its current issues.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class WatchedReport {
+		
+		public final StylecheckToolAdapter adapter;
+		
+		public final String fileName;
+		
+		public final Path path;
+		
+		/**
+		 * The filtered and sorted issues of the report.
+		 */
+		public List<Issue> issues = new ArrayList<>();
+		
+		/**
+		 * The modification time of the file when it was last processed, which is {@code 0} if the file did not exist.
+		 */
+		private long lastModified = -1;
+		
+		/**
+		 * The size of the file when it was last processed.
+		 */
+		private long size = -1;
+		
+		public WatchedReport(final StylecheckToolAdapter adapter, final String fileName) {
+			this.adapter = adapter;
+			this.fileName = fileName;
+			this.path = Paths.get(fileName).toAbsolutePath().normalize();
+		}
+		
+		/**
+		 * Records the current state of the file, which is compared by {@link #hasChanged()}.
+		 */
+		public void recordState() {
+			final File file = this.path.toFile();
+			
+			this.lastModified = file.lastModified();
+			this.size = file.length();
+		}
+		
+		/**
+		 * Determines whether the file has changed since its state was recorded. This is always the case for reports
+		 * that have never been processed.
+		 * @return {@code true} if the file has changed
+		 */
+		public boolean hasChanged() {
+			final File file = this.path.toFile();
+			return (file.lastModified() != this.lastModified || file.length() != this.size);
+		}
+		
+	}
+	
+	/**
+	 * The changes collected while waiting for further changes.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class Changes {
+		
+		/**
+		 * The changed reports in the order in which the changes were noticed.
+		 */
+		public final Set<WatchedReport> reports = new LinkedHashSet<>();
+		
+		/**
+		 * Denotes whether the reports need to be discovered again.
+		 */
+		public boolean rediscover = false;
+		
+	}
+	
+}
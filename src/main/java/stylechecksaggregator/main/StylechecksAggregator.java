@@ -1,56 +1,254 @@
 package stylechecksaggregator.main;
 
+import java.io.File;
+import java.io.FileDescriptor;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Properties;
-import java.util.function.Function;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import stylechecksaggregator.adapter.CheckstyleAdapter;
-import stylechecksaggregator.adapter.FindBugsAdapter;
-import stylechecksaggregator.adapter.PMDAdapter;
+import stylechecksaggregator.adapter.AdapterRegistry;
 import stylechecksaggregator.adapter.StylecheckToolAdapter;
+import stylechecksaggregator.adapter.StylecheckToolAdapterProvider;
+import stylechecksaggregator.adapter.XMLBasedToolAdapter;
+import stylechecksaggregator.baseline.Baseline;
+import stylechecksaggregator.baseline.BaselineWriter;
+import stylechecksaggregator.baseline.IssueFingerprinter;
+import stylechecksaggregator.cache.ReportCache;
+import stylechecksaggregator.correlation.IssueCorrelator;
+import stylechecksaggregator.correlation.IssueGroup;
+import stylechecksaggregator.discovery.ReportFileDiscovery;
+import stylechecksaggregator.index.IssueIndex;
+import stylechecksaggregator.index.IssueQuery;
+import stylechecksaggregator.main.IssuePipeline.IssueProducer;
+import stylechecksaggregator.main.IssuePipeline.ProducerSubmitter;
+import stylechecksaggregator.metrics.AggregationMetrics;
+import stylechecksaggregator.metrics.FileMetrics;
+import stylechecksaggregator.metrics.PhaseMetrics;
 import stylechecksaggregator.model.Issue;
 import stylechecksaggregator.model.IssueSeverity;
+import stylechecksaggregator.model.IssueType;
+import stylechecksaggregator.output.IssuePrinter;
+import stylechecksaggregator.output.OutputFormat;
+import stylechecksaggregator.shard.PartialResultMerger;
+import stylechecksaggregator.shard.PartialResultWriter;
+import stylechecksaggregator.sort.ExternalIssueSorter;
+import stylechecksaggregator.sort.FileGroupingSorter;
+import stylechecksaggregator.store.IssueStore;
 
 public class StylechecksAggregator {	
 	
+	private static final Class<?> THIS_CLASS = StylechecksAggregator.class;
+	
+	private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+	
 	/**
-	 * Contains constructors for all registered tool adapters.
+	 * Exit code signaling that issues were found (if requested).
 	 */
-	private static final List<Function<Properties, StylecheckToolAdapter>> KNOWN_ADAPTER_CONSTRUCTORS = Arrays.asList(CheckstyleAdapter::new, FindBugsAdapter::new, PMDAdapter::new);
+	private static final int EXIT_CODE_ISSUES_FOUND = 1;
 	
-	private static final Class<?> THIS_CLASS = StylechecksAggregator.class;
+	/**
+	 * Option to run the aggregator as a daemon listening on the given port.
+	 */
+	private static final String DAEMON_OPTION = "--daemon";
+	
+	/**
+	 * Option to pass the remaining arguments to a daemon listening on the given port.
+	 */
+	private static final String CONNECT_OPTION = "--connect";
+	
+	/**
+	 * Default maximum distance in lines between correlated issues.
+	 */
+	private static final int DEFAULT_DEDUP_WINDOW = 2;
+	
+	/**
+	 * Window denoting that issues are not correlated.
+	 */
+	private static final int NO_DEDUP = -1;
+	
+	private static final double NANOS_PER_MILLISECOND = 1000000.0;
+	
+	/**
+	 * Name for the statistics file denoting that the statistics are printed to stderr.
+	 */
+	private static final String STATS_TO_STDERR = "-";
+	
+	private static final String CONFIGURATION_PHASE = "configuration";
+	
+	private static final String AGGREGATION_PHASE = "aggregation";
+	
+	private static final String FILTER_PHASE = "filter";
+	
+	private static final String SORT_PHASE = "sort";
+	
+	private static final String PRINT_PHASE = "print";
+	
+	/**
+	 * Phase for sorting and printing the issues in modes where these steps are combined.
+	 */
+	private static final String OUTPUT_PHASE = "output";
+	
+	private static final String LOAD_INDEX_PHASE = "loadIndex";
+	
+	private static final String INDEX_PHASE = "index";
+	
+	private static final String SAVE_INDEX_PHASE = "saveIndex";
+	
+	private static final String QUERY_PHASE = "query";
+	
+	private static final String DEDUP_PHASE = "dedup";
+	
+	private static final String LOAD_BASELINE_PHASE = "loadBaseline";
+	
+	private static final String SAVE_BASELINE_PHASE = "saveBaseline";
+	
+	/**
+	 * Phase for determining the issues of the baseline that have been fixed.
+	 */
+	private static final String FIXED_ISSUES_PHASE = "fixedIssues";
+	
+	private static final String SAVE_PARTIAL_PHASE = "savePartial";
+	
+	private static final String MERGE_PHASE = "merge";
 	
 	public static void main(final String[] arguments) throws IOException {		
+		final int exitCode;
+		
+		// Run as a daemon or as a client of a daemon if requested
+		if(arguments.length == 2 && DAEMON_OPTION.equals(arguments[0])) {
+			final AggregatorDaemon daemon = new AggregatorDaemon(DaemonProtocol.parsePort(arguments[1]));
+			daemon.run();
+			return;
+		} else if(arguments.length >= 2 && CONNECT_OPTION.equals(arguments[0])) {
+			exitCode = AggregatorClient.run(DaemonProtocol.parsePort(arguments[1]), Arrays.copyOfRange(arguments, 2, arguments.length));
+		} else {
+			exitCode = run(arguments, null, StylechecksAggregator::initializeAdapters, new AggregationMetrics(), new FileOutputStream(FileDescriptor.out), System.err);
+		}
+		
+		if(exitCode != 0) {
+			System.exit(exitCode);
+		}
+	}
+	
+	/**
+	 * Performs a single aggregation with the given arguments.
+	 * @param arguments The command line arguments
+	 * @param workingDirectory The directory to resolve relative paths against, or {@code null} to use the current directory
+	 * @param adapterFactory The factory to obtain the adapters from
+	 * @param metrics The metrics to record the aggregation in
+	 * @param outputStream The stream to print the issues to
+	 * @param errorStream The stream to print error messages to
+	 * @return The exit code of the aggregation
+	 * @throws IOException If an I/O error occurs
+	 */
+	static int run(final String[] arguments, final File workingDirectory, final AdapterFactory adapterFactory, final AggregationMetrics metrics, final OutputStream outputStream,
+			final PrintStream errorStream) throws IOException {
 		final StylechecksAggregatorParams parameters;
 		
 		// Parse the command line parameters
 		try {
-			parameters = parseParameters(arguments);
+			parameters = parseParameters(arguments).resolvePaths(workingDirectory);
 		} catch (final IllegalArgumentException e) {
-			System.err.println(e.getMessage());
-			printUsage();
-			return;
+			errorStream.println(e.getMessage());
+			printUsage(errorStream);
+			return 0;
 		}		
 	
 		// Initialize the adapters
-		final List<StylecheckToolAdapter> adapters = initializeAdapters(parameters);
+		final PhaseMetrics configurationPhase = metrics.startPhase(CONFIGURATION_PHASE);
+		final List<StylecheckToolAdapter> adapters = (parameters.loadIndexFileName != null || parameters.mergeFileNames != null) ? Collections.emptyList() :
+				adapterFactory.createAdapters(parameters);
+		configurationPhase.end();
 		
-		// Aggregate the issues using the adapters
-		final List<Issue> issues = aggregateIssues(parameters, adapters);
-
-		// Filter and output the issues
-		outputIssues(issues, IssueSeverity.ERROR);
+		// The partial result of a shard is saved instead of printing the issues
+		if(parameters.savePartialFileName != null) {
+			final int issueCount = aggregateAndSavePartialResult(parameters, adapters, errorStream, metrics);
+			metrics.end(issueCount);
+			
+			if(parameters.statsFileName != null) {
+				writeStatistics(metrics, parameters.statsFileName, errorStream);
+			}
+			
+			return 0;
+		}
+		
+		// In watch mode, the issues are printed anew after each change until the aggregator is terminated
+		if(parameters.watch) {
+			try (ReportWatcher watcher = new ReportWatcher(parameters, adapters, parameters.minSeverity)) {
+				watcher.run(parameters.outputFormat, outputStream, errorStream);
+			}
+			
+			return 0;
+		}
+		
+		final IssuePrinter printer = parameters.outputFormat.createPrinter(outputStream);
+		
+		if(parameters.mergeFileNames != null) {
+			// Merge the partial results of all shards instead of processing the reports
+			mergePartialResults(parameters, printer, metrics);
+		} else if(parameters.query != null) {
+			// Answer the query using an index of the issues
+			queryIssues(parameters, adapters, printer, errorStream, metrics);
+		} else if(parameters.baselineFileName != null || parameters.saveBaselineFileName != null) {
+			// Compare the issues with a baseline and/or save them as a new baseline
+			aggregateAndOutputIssuesWithBaseline(parameters, adapters, parameters.minSeverity, printer, errorStream, metrics);
+		} else if(parameters.pipelined) {
+			// Process and output the issues concurrently
+			aggregateAndOutputIssuesPipelined(parameters, adapters, parameters.minSeverity, printer, metrics);
+		} else if(parameters.sortMemory > 0) {
+			// Use an external sort if the memory for sorting is limited
+			aggregateAndOutputIssuesWithExternalSort(parameters, adapters, parameters.minSeverity, printer, metrics);
+		} else if(parameters.compactStore) {
+			// Keep the issues in a compact store to reduce the memory usage
+			aggregateAndOutputIssuesWithCompactStore(parameters, adapters, parameters.minSeverity, printer, metrics);
+		} else {
+			// Aggregate the issues using the adapters
+			final PhaseMetrics aggregationPhase = metrics.startPhase(AGGREGATION_PHASE);
+			final List<Issue> issues = new ArrayList<>();
+			aggregateIssues(parameters, adapters, issues::addAll, metrics);
+			aggregationPhase.end();
+			
+			// Filter and output the issues, collapsing correlated issues if requested
+			outputIssues(correlateIssuesIfRequested(parameters, issues, errorStream, metrics), parameters.minSeverity, printer, metrics);
+		}
+		
+		printer.finish();
+		metrics.end(printer.getIssueCount());
+		
+		if(parameters.statsFileName != null) {
+			writeStatistics(metrics, parameters.statsFileName, errorStream);
+		}
+		
+		// Signal found issues by the exit code if desired
+		if(parameters.failOnIssues && printer.getIssueCount() > 0) {
+			return EXIT_CODE_ISSUES_FOUND;
+		}
+		
+		return 0;
 	}
 
-	private static List<StylecheckToolAdapter> initializeAdapters(final StylechecksAggregatorParams parameters) throws IOException {
+	static List<StylecheckToolAdapter> initializeAdapters(final StylechecksAggregatorParams parameters) throws IOException {
 		final boolean fromClasspath = parameters.fromClasspath;
 		final String configFileName = parameters.configFileName;
 				
@@ -66,60 +264,560 @@ public class StylechecksAggregator {
 		
 		// Load properties from the given stream
 		final Properties properties = new Properties();
-		properties.load(inputStream);
-		
-		// Initialize all adapters with the loaded properties
-		final List<Function<Properties, StylecheckToolAdapter>> constructors = KNOWN_ADAPTER_CONSTRUCTORS;
-		final List<StylecheckToolAdapter> adapters = new ArrayList<>(constructors.size());
+		try {
+			properties.load(inputStream);
+		} finally {
+			inputStream.close();
+		}
 		
-		for(final Function<Properties, StylecheckToolAdapter> constructor : constructors) {
-			final StylecheckToolAdapter adapter = constructor.apply(properties);
-			adapters.add(adapter);
+		// Command line settings take precedence over the loaded properties
+		if(parameters.streaming) {
+			properties.setProperty(XMLBasedToolAdapter.STREAMING_PROPERTY, "true");
+		}
+		if(parameters.threadCount > 1) {
+			properties.setProperty(XMLBasedToolAdapter.CHUNK_THREADS_PROPERTY, String.valueOf(parameters.threadCount));
 		}
 		
-		return adapters;
+		// Skip issues below the minimum severity while extracting them, unless all issues are required
+		properties.setProperty(XMLBasedToolAdapter.MIN_SEVERITY_PROPERTY, parameters.getExtractionSeverity().name());
+		
+		// Initialize the adapters of all configured tools with the loaded properties
+		return AdapterRegistry.createAdapters(properties);
 	}
 	
-	private static List<Issue> aggregateIssues(final StylechecksAggregatorParams parameters, final List<StylecheckToolAdapter> adapters) throws IOException {
-		final String rootPath = parameters.rootPath;
+	static List<Issue> aggregateIssues(final StylechecksAggregatorParams parameters, final List<StylecheckToolAdapter> adapters) throws IOException {
 		final List<Issue> allIssues = new ArrayList<>();
-
-		// Aggregate issues from all adapters
-		for(final StylecheckToolAdapter adapter : adapters) {
-			final List<Issue> issues = adapter.processPath(rootPath);
-			allIssues.addAll(issues);
-		} 
+		
+		aggregateIssues(parameters, adapters, allIssues::addAll, new AggregationMetrics());
 		
 		return allIssues;
 	}
 	
-	private static void outputIssues(final List<Issue> issues, final IssueSeverity minSeverity) {
-		// Filter issues by severity
-		final List<Issue> filteredIssues = 
-				issues
-				.stream()
-				.filter((issue) -> (issue.severity.compareTo(minSeverity) >= 0))
-				.collect(Collectors.toCollection(ArrayList::new));
+	/**
+	 * Processes the files of all adapters and passes the issues of each file to the given consumer. The consumer is
+	 * always invoked in the configured order of the adapters and files, and the issues of a file do not need
+	 * to be retained after they have been consumed.
+	 * @param parameters The parameters of the aggregator
+	 * @param adapters The adapters to use
+	 * @param consumer The consumer for the issues of each file
+	 * @param metrics The metrics to record the processed files in
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static void aggregateIssues(final StylechecksAggregatorParams parameters, final List<StylecheckToolAdapter> adapters, final FileIssuesConsumer consumer,
+			final AggregationMetrics metrics) throws IOException {
+		final String rootPath = parameters.rootPath;
+		final ReportCache cache = createCache(parameters);
 		
-		// Sort the filtered issues by file name and line number
-		Collections.sort(filteredIssues, new SortIssueByFileNameAndLineNumberComparator());
+		// The first file that cannot be processed cancels the processing of all other files. Without additional threads,
+		// the files are processed by a single worker, which already starts while the files are discovered
+		try (ReportTaskScope scope = new ReportTaskScope(parameters.threadCount, parameters.virtualThreads)) {
+			// Process all files of all adapters at the same time, starting with each file as soon as it is discovered
+			final List<Future<List<Issue>>> futures = ReportFileDiscovery.discover(rootPath, adapters,
+					(adapter, fileName) -> scope.fork(() -> processFile(adapter, fileName, cache, metrics)));
+			
+			// Consume the results in the configured order, so that the result does not depend on the number of threads
+			for(final Future<List<Issue>> future : futures) {
+				final List<Issue> issues = scope.join(future);
+				consumer.accept(issues);
+			}
+		}
+	}
+	
+	/**
+	 * Processes the reports of the shard given by the parameters and saves their issues as a partial result. The
+	 * reports are distributed to the shards round-robin in the deterministic order of their discovery, so that
+	 * each shard processes a similar number of reports, and all shards must use the same configuration and reports.
+	 * @param parameters The parameters of the aggregator
+	 * @param adapters The adapters to use
+	 * @param errorStream The stream to report the saved partial result to
+	 * @param metrics The metrics to record the aggregation in
+	 * @return The number of saved issues
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static int aggregateAndSavePartialResult(final StylechecksAggregatorParams parameters, final List<StylecheckToolAdapter> adapters, final PrintStream errorStream,
+			final AggregationMetrics metrics) throws IOException {
+		final IssueSeverity minSeverity = parameters.minSeverity;
+		final ReportCache cache = createCache(parameters);
+		
+		final PhaseMetrics aggregationPhase = metrics.startPhase(AGGREGATION_PHASE);
+		final List<ReportFile> reportFiles = ReportFileDiscovery.discover(parameters.rootPath, adapters, ReportFile::new);
+		final long memoryBudget = (parameters.sortMemory > 0) ? parameters.sortMemory * BYTES_PER_MEGABYTE : PartialResultWriter.UNLIMITED_MEMORY;
+		
+		final List<Integer> reportIndices = new ArrayList<>();
+		for(int reportIndex = parameters.shardNumber - 1; reportIndex < reportFiles.size(); reportIndex += parameters.shardCount) {
+			reportIndices.add(reportIndex);
+		}
+		
+		try (PartialResultWriter writer = new PartialResultWriter(new File(parameters.savePartialFileName), new SortIssueByFileNameAndLineNumberComparator(),
+				parameters.shardNumber, parameters.shardCount, reportFiles.size(), minSeverity, memoryBudget)) {
+			// The issues of each report are filtered and sorted right away, so that the partial result only has to merge them.
+			// As the order of the issues does not depend on the order in which the reports are added, each report is added
+			// as soon as it has been processed, so that the writer can limit the memory used for the issues
+			if(parameters.threadCount > 1 || parameters.virtualThreads) {
+				try (ReportTaskScope scope = new ReportTaskScope(parameters.threadCount, parameters.virtualThreads)) {
+					final List<Future<Void>> futures = new ArrayList<>(reportIndices.size());
+					for(final int reportIndex : reportIndices) {
+						final ReportFile reportFile = reportFiles.get(reportIndex);
+						
+						futures.add(scope.fork(() -> {
+							final List<Issue> issues = filterAndSortIssues(processFile(reportFile.adapter, reportFile.fileName, cache, metrics), minSeverity);
+							synchronized (writer) {
+								writer.addReport(reportIndex, issues);
+							}
+							return null;
+						}));
+					}
+					
+					for(final Future<Void> future : futures) {
+						scope.join(future);
+					}
+				}
+			} else {
+				for(final int reportIndex : reportIndices) {
+					final ReportFile reportFile = reportFiles.get(reportIndex);
+					writer.addReport(reportIndex, filterAndSortIssues(processFile(reportFile.adapter, reportFile.fileName, cache, metrics), minSeverity));
+				}
+			}
+			aggregationPhase.end();
+			
+			final PhaseMetrics savePhase = metrics.startPhase(SAVE_PARTIAL_PHASE);
+			writer.commit();
+			savePhase.end();
+			
+			errorStream.println(String.format(Locale.ROOT, "Saved %d issue(s) of %d of %d report(s) as shard %d/%d.", writer.getIssueCount(), reportIndices.size(), reportFiles.size(),
+					parameters.shardNumber, parameters.shardCount));
+			return writer.getIssueCount();
+		}
+	}
+	
+	private static void mergePartialResults(final StylechecksAggregatorParams parameters, final IssuePrinter printer, final AggregationMetrics metrics) throws IOException {
+		final List<File> files = new ArrayList<>(parameters.mergeFileNames.size());
+		for(final String fileName : parameters.mergeFileNames) {
+			files.add(new File(fileName));
+		}
+		
+		// The partial results are already sorted, so the merged issues can be printed right away
+		final PhaseMetrics mergePhase = metrics.startPhase(MERGE_PHASE);
+		PartialResultMerger.merge(files, new SortIssueByFileNameAndLineNumberComparator(), parameters.minSeverity, printer);
+		printer.flush();
+		mergePhase.end();
+	}
+	
+	private static ReportCache createCache(final StylechecksAggregatorParams parameters) throws IOException {
+		if(parameters.cacheDirectory == null) {
+			return null;
+		}
+		
+		return new ReportCache(new File(parameters.cacheDirectory));
+	}
+	
+	static List<Issue> processFile(final StylecheckToolAdapter adapter, final String fileName, final ReportCache cache, final AggregationMetrics metrics) throws IOException {
+		final FileMetrics fileMetrics = metrics.startFile(adapter.getClass().getSimpleName(), fileName);
+		
+		try {
+			// Use the cache if available
+			final List<Issue> issues = (cache != null) ? cache.processFile(adapter, fileName) : adapter.processFile(fileName);
+			
+			fileMetrics.setIssueCount(issues.size());
+			return issues;
+		} finally {
+			fileMetrics.end();
+		}
+	}
+	
+	static <T> T awaitResult(final Future<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the results.");
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			
+			// Rethrow the original exception if possible
+			if(cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if(cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if(cause instanceof Error) {
+				throw (Error) cause;
+			}
+			
+			throw new RuntimeException(cause);
+		}
+	}
+	
+	private static void outputIssues(final List<Issue> issues, final IssueSeverity minSeverity, final IssuePrinter printer, final AggregationMetrics metrics) throws IOException {
+		final PhaseMetrics filterPhase = metrics.startPhase(FILTER_PHASE);
+		final List<Issue> filteredIssues = filterIssues(issues, minSeverity);
+		filterPhase.end();
+		
+		final PhaseMetrics sortPhase = metrics.startPhase(SORT_PHASE);
+		FileGroupingSorter.sortByFileNameAndLineNumber(filteredIssues);
+		sortPhase.end();
 		
 		// Print the issues to stdout
+		final PhaseMetrics printPhase = metrics.startPhase(PRINT_PHASE);
 		for(final Issue issue : filteredIssues) {
-			System.out.println(issue);
+			printer.accept(issue);
+		}
+		printer.flush();
+		printPhase.end();
+	}
+	
+	private static void queryIssues(final StylechecksAggregatorParams parameters, final List<StylecheckToolAdapter> adapters, final IssuePrinter printer, final PrintStream errorStream,
+			final AggregationMetrics metrics) throws IOException {
+		final IssueIndex index;
+		
+		// Load a previously saved index or build the index from the reports
+		if(parameters.loadIndexFileName != null) {
+			final PhaseMetrics loadPhase = metrics.startPhase(LOAD_INDEX_PHASE);
+			index = IssueIndex.read(new File(parameters.loadIndexFileName));
+			loadPhase.end();
+		} else {
+			final PhaseMetrics aggregationPhase = metrics.startPhase(AGGREGATION_PHASE);
+			final List<Issue> issues = new ArrayList<>();
+			aggregateIssues(parameters, adapters, issues::addAll, metrics);
+			aggregationPhase.end();
+			
+			final List<Issue> correlatedIssues = correlateIssuesIfRequested(parameters, issues, errorStream, metrics);
+			
+			final PhaseMetrics indexPhase = metrics.startPhase(INDEX_PHASE);
+			index = IssueIndex.build(correlatedIssues);
+			indexPhase.end();
+		}
+		
+		if(parameters.saveIndexFileName != null) {
+			final PhaseMetrics savePhase = metrics.startPhase(SAVE_INDEX_PHASE);
+			index.write(new File(parameters.saveIndexFileName));
+			savePhase.end();
 		}
+		
+		final PhaseMetrics queryPhase = metrics.startPhase(QUERY_PHASE);
+		final List<Issue> matchingIssues = index.query(parameters.query);
+		queryPhase.end();
+		
+		// Print the issues to stdout
+		final PhaseMetrics printPhase = metrics.startPhase(PRINT_PHASE);
+		for(final Issue issue : matchingIssues) {
+			printer.accept(issue);
+		}
+		printer.flush();
+		printPhase.end();
 	}
 	
-	private static void printUsage() {
+	private static void aggregateAndOutputIssuesWithBaseline(final StylechecksAggregatorParams parameters, final List<StylecheckToolAdapter> adapters, final IssueSeverity minSeverity,
+			final IssuePrinter printer, final PrintStream errorStream, final AggregationMetrics metrics) throws IOException {
+		final IssueFingerprinter fingerprinter = new IssueFingerprinter(parameters.rootPath);
+		Baseline baseline = null;
+		
+		if(parameters.baselineFileName != null) {
+			final PhaseMetrics loadPhase = metrics.startPhase(LOAD_BASELINE_PHASE);
+			baseline = Baseline.read(new File(parameters.baselineFileName), fingerprinter);
+			loadPhase.end();
+		}
+		
+		final List<Issue> newIssues = new ArrayList<>();
+		
+		try (BaselineWriter baselineWriter = (parameters.saveBaselineFileName != null) ? new BaselineWriter(new File(parameters.saveBaselineFileName), fingerprinter) : null) {
+			final Baseline knownIssues = baseline;
+			
+			// Compare the issues of each file with the baseline as soon as they are available, so that only new issues are retained
+			final PhaseMetrics aggregationPhase = metrics.startPhase(AGGREGATION_PHASE);
+			aggregateIssues(parameters, adapters, (issues) -> {
+				for(final Issue issue : issues) {
+					// All issues are saved, so that the baseline does not depend on the severity filter
+					if(baselineWriter != null) {
+						baselineWriter.addIssue(issue);
+					}
+					
+					if((knownIssues == null || !knownIssues.removeIssue(issue)) && hasMinSeverity(issue, minSeverity)) {
+						newIssues.add(issue);
+					}
+				}
+			}, metrics);
+			aggregationPhase.end();
+			
+			if(baselineWriter != null) {
+				final PhaseMetrics savePhase = metrics.startPhase(SAVE_BASELINE_PHASE);
+				baselineWriter.commit();
+				savePhase.end();
+			}
+		}
+		
+		// Only the new issues are printed
+		outputIssues(newIssues, minSeverity, printer, metrics);
+		
+		if(baseline == null) {
+			return;
+		}
+		
+		// Issues that remain in the baseline have been fixed, they are reported on stderr
+		final PhaseMetrics fixedIssuesPhase = metrics.startPhase(FIXED_ISSUES_PHASE);
+		final List<Issue> fixedIssues = new ArrayList<>();
+		baseline.forEachRemainingIssue((issue) -> {
+			if(hasMinSeverity(issue, minSeverity)) {
+				fixedIssues.add(issue);
+			}
+		});
+		
+		FileGroupingSorter.sortByFileNameAndLineNumber(fixedIssues);
+		for(final Issue issue : fixedIssues) {
+			errorStream.println("Fixed: " + issue);
+		}
+		
+		errorStream.println(String.format(Locale.ROOT, "%d new and %d fixed issue(s) compared to the baseline.", printer.getIssueCount(), fixedIssues.size()));
+		fixedIssuesPhase.end();
+	}
+	
+	/**
+	 * Collapses correlated issues if requested, and returns the given issues otherwise.
+	 * @param parameters The parameters of the aggregator
+	 * @param issues The issues to correlate
+	 * @param errorStream The stream to report the reduction to
+	 * @param metrics The metrics to record the correlation in
+	 * @return The representatives of the groups of correlated issues, or the given issues
+	 * @throws IOException If the correlation is interrupted
+	 */
+	private static List<Issue> correlateIssuesIfRequested(final StylechecksAggregatorParams parameters, final List<Issue> issues, final PrintStream errorStream,
+			final AggregationMetrics metrics) throws IOException {
+		if(parameters.dedupWindow == NO_DEDUP) {
+			return issues;
+		}
+		
+		final PhaseMetrics dedupPhase = metrics.startPhase(DEDUP_PHASE);
+		final long startTime = System.nanoTime();
+		
+		final IssueCorrelator correlator = new IssueCorrelator(parameters.dedupWindow, parameters.threadCount);
+		final List<IssueGroup> groups = correlator.correlate(issues);
+		
+		final List<Issue> representatives = new ArrayList<>(groups.size());
+		for(final IssueGroup group : groups) {
+			representatives.add(group.representative);
+		}
+		
+		final long duration = System.nanoTime() - startTime;
+		dedupPhase.end();
+		
+		if(parameters.dedupReport) {
+			final double reduction = (issues.isEmpty()) ? 0.0 : 100.0 * (issues.size() - groups.size()) / issues.size();
+			errorStream.println(String.format(Locale.ROOT, "Deduplication collapsed %d issue(s) into %d group(s) (%.1f%% reduction) in %.1f ms.", issues.size(), groups.size(), reduction,
+					duration / NANOS_PER_MILLISECOND));
+		}
+		
+		return representatives;
+	}
+	
+	private static void writeStatistics(final AggregationMetrics metrics, final String statsFileName, final PrintStream errorStream) throws IOException {
+		final String statistics = metrics.toJson();
+		
+		if(STATS_TO_STDERR.equals(statsFileName)) {
+			errorStream.println(statistics);
+		} else {
+			Files.write(Paths.get(statsFileName), statistics.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+	
+	private static void aggregateAndOutputIssuesWithExternalSort(final StylechecksAggregatorParams parameters, final List<StylecheckToolAdapter> adapters, final IssueSeverity minSeverity,
+			final IssuePrinter printer, final AggregationMetrics metrics) throws IOException {
+		final long memoryBudget = parameters.sortMemory * BYTES_PER_MEGABYTE;
+		
+		try (ExternalIssueSorter sorter = new ExternalIssueSorter(new SortIssueByFileNameAndLineNumberComparator(), memoryBudget)) {
+			// Filter the issues of each file as soon as they are available, so that only the sorter retains issues
+			final PhaseMetrics aggregationPhase = metrics.startPhase(AGGREGATION_PHASE);
+			aggregateIssues(parameters, adapters, (issues) -> {
+				for(final Issue issue : issues) {
+					if(hasMinSeverity(issue, minSeverity)) {
+						sorter.add(issue);
+					}
+				}
+			}, metrics);
+			aggregationPhase.end();
+			
+			// Print the sorted issues to stdout
+			final PhaseMetrics outputPhase = metrics.startPhase(OUTPUT_PHASE);
+			sorter.forEachSorted(printer);
+			printer.flush();
+			outputPhase.end();
+		}
+	}
+	
+	private static void aggregateAndOutputIssuesWithCompactStore(final StylechecksAggregatorParams parameters, final List<StylecheckToolAdapter> adapters, final IssueSeverity minSeverity,
+			final IssuePrinter printer, final AggregationMetrics metrics) throws IOException {
+		final IssueStore store = new IssueStore();
+		
+		// Filter the issues of each file as soon as they are available, so that only the store retains issues
+		final PhaseMetrics aggregationPhase = metrics.startPhase(AGGREGATION_PHASE);
+		aggregateIssues(parameters, adapters, (issues) -> {
+			for(final Issue issue : issues) {
+				if(hasMinSeverity(issue, minSeverity)) {
+					store.add(issue);
+				}
+			}
+		}, metrics);
+		aggregationPhase.end();
+		
+		// Print the sorted issues to stdout
+		final PhaseMetrics outputPhase = metrics.startPhase(OUTPUT_PHASE);
+		store.forEachSortedByFileNameAndLineNumber(printer);
+		printer.flush();
+		outputPhase.end();
+	}
+	
+	private static void aggregateAndOutputIssuesPipelined(final StylechecksAggregatorParams parameters, final List<StylecheckToolAdapter> adapters, final IssueSeverity minSeverity,
+			final IssuePrinter printer, final AggregationMetrics metrics) throws IOException {
+		final ReportCache cache = createCache(parameters);
+		final IssuePipeline pipeline = new IssuePipeline(parameters.threadCount);
+		
+		// Print the issues as soon as they arrive if no sorting is required
+		if(parameters.unsorted) {
+			final PhaseMetrics aggregationPhase = metrics.startPhase(AGGREGATION_PHASE);
+			pipeline.run((submitter) -> submitProducers(parameters, adapters, cache, metrics, submitter), (producerIndex, issues) -> {
+				for(final Issue issue : issues) {
+					if(hasMinSeverity(issue, minSeverity)) {
+						printer.accept(issue);
+					}
+				}
+			});
+			aggregationPhase.end();
+			
+			return;
+		}
+		
+		// Otherwise, collect the filtered issues per file, so that they can be sorted in the same way as in the sequential case.
+		// The producers are indexed in the order of their discovery, which is mapped to the configured order afterwards
+		final List<Integer> producerIndexes = new ArrayList<>();
+		final List<List<Issue>> issuesPerFile = new ArrayList<>();
+		
+		final PhaseMetrics aggregationPhase = metrics.startPhase(AGGREGATION_PHASE);
+		pipeline.run((submitter) -> producerIndexes.addAll(submitProducers(parameters, adapters, cache, metrics, submitter)), (producerIndex, issues) -> {
+			while(issuesPerFile.size() <= producerIndex) {
+				issuesPerFile.add(new ArrayList<>());
+			}
+			
+			final List<Issue> fileIssues = issuesPerFile.get(producerIndex);
+			
+			for(final Issue issue : issues) {
+				if(hasMinSeverity(issue, minSeverity)) {
+					fileIssues.add(issue);
+				}
+			}
+		});
+		aggregationPhase.end();
+		
+		final PhaseMetrics sortPhase = metrics.startPhase(SORT_PHASE);
+		final List<Issue> filteredIssues = new ArrayList<>();
+		for(final int producerIndex : producerIndexes) {
+			if(producerIndex < issuesPerFile.size()) {
+				filteredIssues.addAll(issuesPerFile.get(producerIndex));
+			}
+		}
+		
+		FileGroupingSorter.sortByFileNameAndLineNumber(filteredIssues);
+		sortPhase.end();
+		
+		// Print the issues to stdout
+		final PhaseMetrics printPhase = metrics.startPhase(PRINT_PHASE);
+		for(final Issue issue : filteredIssues) {
+			printer.accept(issue);
+		}
+		printer.flush();
+		printPhase.end();
+	}
+	
+	/**
+	 * Discovers the files of all adapters and submits a producer for each file as soon as it is found.
+	 * @return The indexes of the producers in the configured order of the adapters and files
+	 */
+	private static List<Integer> submitProducers(final StylechecksAggregatorParams parameters, final List<StylecheckToolAdapter> adapters, final ReportCache cache,
+			final AggregationMetrics metrics, final ProducerSubmitter submitter) throws IOException {
+		return ReportFileDiscovery.discover(parameters.rootPath, adapters, (adapter, fileName) -> submitter.submit(createProducer(adapter, fileName, cache, metrics)));
+	}
+	
+	private static IssueProducer createProducer(final StylecheckToolAdapter adapter, final String fileName, final ReportCache cache, final AggregationMetrics metrics) {
+		return (consumer) -> {
+			final FileMetrics fileMetrics = metrics.startFile(adapter.getClass().getSimpleName(), fileName);
+			final Consumer<Issue> countingConsumer = (issue) -> {
+				fileMetrics.countIssue();
+				consumer.accept(issue);
+			};
+			
+			try {
+				if(cache != null) {
+					cache.processFile(adapter, fileName).forEach(countingConsumer);
+				} else {
+					adapter.processFile(fileName, countingConsumer);
+				}
+			} finally {
+				fileMetrics.end();
+			}
+		};
+	}
+	
+	private static boolean hasMinSeverity(final Issue issue, final IssueSeverity minSeverity) {
+		return (issue.severity.compareTo(minSeverity) >= 0);
+	}
+	
+	static List<Issue> filterAndSortIssues(final List<Issue> issues, final IssueSeverity minSeverity) {
+		final List<Issue> filteredIssues = filterIssues(issues, minSeverity);
+		
+		// Sort the filtered issues by file name and line number
+		FileGroupingSorter.sortByFileNameAndLineNumber(filteredIssues);
+		
+		return filteredIssues;
+	}
+	
+	private static List<Issue> filterIssues(final List<Issue> issues, final IssueSeverity minSeverity) {
+		// Filter issues by severity
+		return issues
+				.stream()
+				.filter((issue) -> hasMinSeverity(issue, minSeverity))
+				.collect(Collectors.toCollection(ArrayList::new));
+	}
+	
+	private static void printUsage(final PrintStream errorStream) {
 		final String className = THIS_CLASS.getName();
 		
-		System.err.println("Usage: " + className + " [--from-classpath] -config <config file name> <root path>");
+		errorStream.println("Usage: " + className + " [--connect <port>] [--from-classpath] [--streaming] [--threads <number of threads>] [--virtual-threads] [--cache-dir <cache directory>] [--sort-memory <megabytes>] [--compact-store] [--pipeline] [--unsorted] [--fail-on-issues] [--min-severity <severity>] [--format text|ndjson|sarif|binary] [--stats <file name>|-]" +
+				" [--path <path prefix>] [--severity <severity>,...] [--tool <tool>,...] [--lines <first line>[-<last line>]] [--save-index <index file name>]" +
+				" [--baseline <baseline file name>] [--save-baseline <baseline file name>] [--dedup] [--dedup-window <lines>] [--dedup-report] [--watch] [--shard <number>/<count>] [--save-partial <partial result file name>]" +
+				" -config <config file name> <root path>");
+		errorStream.println("       " + className + " --load-index <index file name> [--path <path prefix>] [--severity <severity>,...] [--tool <tool>,...] [--lines <first line>[-<last line>]]");
+		errorStream.println("       " + className + " --merge <partial result file name> [--merge <partial result file name> ...] [--fail-on-issues] [--min-severity <severity>] [--format text|ndjson|sarif|binary] [--stats <file name>|-]");
+		errorStream.println("       " + className + " --daemon <port>");
 	}
 	
-	private static StylechecksAggregatorParams parseParameters(final String[] arguments) {
+	static StylechecksAggregatorParams parseParameters(final String[] arguments) {
 		String configFileName = null;
 		String rootPath = null;
 		boolean fromClasspath = false;
+		boolean streaming = false;
+		int threadCount = 1;
+		boolean virtualThreads = false;
+		String cacheDirectory = null;
+		long sortMemory = 0;
+		boolean compactStore = false;
+		boolean pipelined = false;
+		boolean unsorted = false;
+		boolean failOnIssues = false;
+		IssueSeverity minSeverity = null;
+		OutputFormat outputFormat = OutputFormat.TEXT;
+		String statsFileName = null;
+		String pathPrefix = null;
+		Set<IssueSeverity> severities = null;
+		Set<IssueType> types = null;
+		int[] lineRange = null;
+		String saveIndexFileName = null;
+		String loadIndexFileName = null;
+		String baselineFileName = null;
+		String saveBaselineFileName = null;
+		boolean dedup = false;
+		int dedupWindow = DEFAULT_DEDUP_WINDOW;
+		boolean dedupReport = false;
+		boolean watch = false;
+		int[] shard = null;
+		String savePartialFileName = null;
+		List<String> mergeFileNames = null;
 		
 		// Parse arguments
 		int argumentIndex = 0;
@@ -134,6 +832,113 @@ public class StylechecksAggregator {
 			case "--from-classpath":
 				fromClasspath = true;
 				break;
+			case "--streaming":
+				streaming = true;
+				break;
+			case "--threads":
+				argumentIndex++;
+				threadCount = parseThreadCount(arguments[argumentIndex]);
+				break;
+			case "--virtual-threads":
+				virtualThreads = true;
+				break;
+			case "--cache-dir":
+				argumentIndex++;
+				cacheDirectory = arguments[argumentIndex];
+				break;
+			case "--sort-memory":
+				argumentIndex++;
+				sortMemory = parseSortMemory(arguments[argumentIndex]);
+				break;
+			case "--compact-store":
+				compactStore = true;
+				break;
+			case "--pipeline":
+				pipelined = true;
+				break;
+			case "--unsorted":
+				// Unsorted output is only supported by the pipeline
+				pipelined = true;
+				unsorted = true;
+				break;
+			case "--fail-on-issues":
+				failOnIssues = true;
+				break;
+			case "--min-severity":
+				argumentIndex++;
+				minSeverity = parseSeverity(arguments[argumentIndex]);
+				break;
+			case "--format":
+				argumentIndex++;
+				outputFormat = OutputFormat.fromName(arguments[argumentIndex]);
+				break;
+			case "--path":
+				argumentIndex++;
+				pathPrefix = arguments[argumentIndex];
+				break;
+			case "--severity":
+				argumentIndex++;
+				severities = parseSeverities(arguments[argumentIndex]);
+				break;
+			case "--tool":
+				argumentIndex++;
+				types = parseTypes(arguments[argumentIndex]);
+				break;
+			case "--lines":
+				argumentIndex++;
+				lineRange = parseLineRange(arguments[argumentIndex]);
+				break;
+			case "--save-index":
+				argumentIndex++;
+				saveIndexFileName = arguments[argumentIndex];
+				break;
+			case "--load-index":
+				argumentIndex++;
+				loadIndexFileName = arguments[argumentIndex];
+				break;
+			case "--baseline":
+				argumentIndex++;
+				baselineFileName = arguments[argumentIndex];
+				break;
+			case "--save-baseline":
+				argumentIndex++;
+				saveBaselineFileName = arguments[argumentIndex];
+				break;
+			case "--dedup":
+				dedup = true;
+				break;
+			case "--dedup-window":
+				// Setting the window or reporting the reduction implies the deduplication
+				argumentIndex++;
+				dedup = true;
+				dedupWindow = parseDedupWindow(arguments[argumentIndex]);
+				break;
+			case "--dedup-report":
+				dedup = true;
+				dedupReport = true;
+				break;
+			case "--watch":
+				watch = true;
+				break;
+			case "--shard":
+				argumentIndex++;
+				shard = parseShard(arguments[argumentIndex]);
+				break;
+			case "--save-partial":
+				argumentIndex++;
+				savePartialFileName = arguments[argumentIndex];
+				break;
+			case "--merge":
+				argumentIndex++;
+				if(mergeFileNames == null) {
+					mergeFileNames = new ArrayList<>();
+				}
+				mergeFileNames.add(arguments[argumentIndex]);
+				break;
+			case "--stats":
+				argumentIndex++;
+				statsFileName = arguments[argumentIndex];
+				break;
 			default:
 				if(rootPath == null) {
 					rootPath = currentArgument;
@@ -146,15 +951,193 @@ public class StylechecksAggregator {
 			argumentIndex++;
 		}
 		
-		// Check if all required arguments were supplied
-		if(configFileName == null) {
+		// Check if all required arguments were supplied, which are not required if a saved index is queried or partial results are merged
+		if(configFileName == null && loadIndexFileName == null && mergeFileNames == null) {
 			throw new IllegalArgumentException("No configuration file was given.");
 		}
-		if(rootPath == null) {
+		if(rootPath == null && loadIndexFileName == null && mergeFileNames == null) {
 			throw new IllegalArgumentException("No root path was given.");
 		}
+		if((pipelined ? 1 : 0) + (sortMemory > 0 ? 1 : 0) + (compactStore ? 1 : 0) > 1) {
+			throw new IllegalArgumentException("Only one of --pipeline, --sort-memory and --compact-store may be used.");
+		}
+		if(virtualThreads && pipelined) {
+			throw new IllegalArgumentException("Virtual threads cannot be combined with --pipeline, which uses the number of threads given by --threads.");
+		}
 		
-		return new StylechecksAggregatorParams(fromClasspath, configFileName, rootPath);
+		// Any of the query options results in a query, which only returns errors unless other severities are given
+		IssueQuery query = null;
+		if(pathPrefix != null || severities != null || types != null || lineRange != null || saveIndexFileName != null || loadIndexFileName != null) {
+			if(pipelined || sortMemory > 0 || compactStore || minSeverity != null) {
+				throw new IllegalArgumentException("Queries cannot be combined with --pipeline, --sort-memory, --compact-store or --min-severity.");
+			}
+			
+			final Set<IssueSeverity> querySeverities = (severities != null) ? severities : EnumSet.of(IssueSeverity.ERROR);
+			final int firstLine = (lineRange != null) ? lineRange[0] : Integer.MIN_VALUE;
+			final int lastLine = (lineRange != null) ? lineRange[1] : Integer.MAX_VALUE;
+			
+			query = new IssueQuery(pathPrefix, querySeverities, types, firstLine, lastLine);
+		}
+		
+		if(baselineFileName != null || saveBaselineFileName != null) {
+			if(query != null || pipelined || sortMemory > 0 || compactStore) {
+				throw new IllegalArgumentException("Baselines cannot be combined with queries, --pipeline, --sort-memory or --compact-store.");
+			}
+		}
+		if(dedup) {
+			if(loadIndexFileName != null || baselineFileName != null || saveBaselineFileName != null || pipelined || sortMemory > 0 || compactStore) {
+				throw new IllegalArgumentException("Deduplication cannot be combined with --load-index, baselines, --pipeline, --sort-memory or --compact-store.");
+			}
+		}
+		if(watch) {
+			if(query != null || baselineFileName != null || saveBaselineFileName != null || dedup || pipelined || sortMemory > 0 || compactStore || statsFileName != null) {
+				throw new IllegalArgumentException("Watch mode cannot be combined with queries, baselines, deduplication, --pipeline, --sort-memory, --compact-store or --stats.");
+			}
+		}
+		
+		if(shard != null && savePartialFileName == null) {
+			throw new IllegalArgumentException("A shard can only be processed with --save-partial.");
+		}
+		if(savePartialFileName != null) {
+			if(query != null || baselineFileName != null || saveBaselineFileName != null || dedup || watch || pipelined || compactStore || mergeFileNames != null) {
+				throw new IllegalArgumentException("Partial results cannot be combined with queries, baselines, deduplication, --watch, --pipeline, --compact-store or --merge.");
+			}
+		}
+		if(mergeFileNames != null) {
+			if(configFileName != null || rootPath != null || query != null || baselineFileName != null || saveBaselineFileName != null || dedup || watch || pipelined || sortMemory > 0 || compactStore) {
+				throw new IllegalArgumentException("Merging partial results cannot be combined with a configuration, a root path, queries, baselines, deduplication, --watch, --pipeline, --sort-memory or --compact-store.");
+			}
+		}
+		
+		return new StylechecksAggregatorParams(fromClasspath, streaming, threadCount, virtualThreads, cacheDirectory, sortMemory, compactStore, pipelined, unsorted, failOnIssues,
+				(minSeverity != null) ? minSeverity : IssueSeverity.ERROR, outputFormat, statsFileName, query,
+				saveIndexFileName, loadIndexFileName, baselineFileName, saveBaselineFileName, (dedup) ? dedupWindow : NO_DEDUP, dedupReport, watch,
+				(shard != null) ? shard[0] : 1, (shard != null) ? shard[1] : 1, savePartialFileName, mergeFileNames, configFileName, rootPath);
+	}
+	
+	private static Set<IssueSeverity> parseSeverities(final String value) {
+		final Set<IssueSeverity> severities = EnumSet.noneOf(IssueSeverity.class);
+		
+		for(final String name : value.split(",")) {
+			severities.add(parseSeverity(name));
+		}
+		
+		return severities;
+	}
+	
+	private static IssueSeverity parseSeverity(final String name) {
+		try {
+			return IssueSeverity.valueOf(name.trim().toUpperCase(Locale.ROOT));
+		} catch (final IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid severity: " + name);
+		}
+	}
+	
+	private static Set<IssueType> parseTypes(final String value) {
+		final Set<IssueType> types = new HashSet<>();
+		
+		for(final String name : value.split(",")) {
+			final StylecheckToolAdapterProvider provider = AdapterRegistry.getProvider(name.trim().toLowerCase(Locale.ROOT));
+			
+			if(provider == null) {
+				throw new IllegalArgumentException("Invalid tool: " + name);
+			}
+			
+			types.add(provider.getIssueType());
+		}
+		
+		return types;
+	}
+	
+	private static int[] parseLineRange(final String value) {
+		final int separatorIndex = value.indexOf('-');
+		
+		try {
+			// A single line number denotes a range consisting of a single line
+			if(separatorIndex < 0) {
+				final int lineNumber = Integer.parseInt(value);
+				return new int[] {lineNumber, lineNumber};
+			}
+			
+			final int firstLine = Integer.parseInt(value.substring(0, separatorIndex));
+			final int lastLine = Integer.parseInt(value.substring(separatorIndex + 1));
+			
+			if(firstLine > lastLine) {
+				throw new IllegalArgumentException("Invalid line range: " + value);
+			}
+			
+			return new int[] {firstLine, lastLine};
+		} catch (final NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid line range: " + value);
+		}
+	}
+	
+	private static int parseDedupWindow(final String value) {
+		final int dedupWindow;
+		
+		try {
+			dedupWindow = Integer.parseInt(value);
+		} catch (final NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid deduplication window: " + value);
+		}
+		
+		if(dedupWindow < 0) {
+			throw new IllegalArgumentException("Invalid deduplication window: " + value);
+		}
+		
+		return dedupWindow;
+	}
+	
+	private static int[] parseShard(final String value) {
+		final int separatorIndex = value.indexOf('/');
+		if(separatorIndex < 0) {
+			throw new IllegalArgumentException("Invalid shard: " + value);
+		}
+		
+		try {
+			final int shardNumber = Integer.parseInt(value.substring(0, separatorIndex));
+			final int shardCount = Integer.parseInt(value.substring(separatorIndex + 1));
+			
+			if(shardCount < 1 || shardNumber < 1 || shardNumber > shardCount) {
+				throw new IllegalArgumentException("Invalid shard: " + value);
+			}
+			
+			return new int[] {shardNumber, shardCount};
+		} catch (final NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid shard: " + value);
+		}
+	}
+	
+	private static long parseSortMemory(final String value) {
+		final long sortMemory;
+		
+		try {
+			sortMemory = Long.parseLong(value);
+		} catch (final NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid sort memory: " + value);
+		}
+		
+		if(sortMemory < 1) {
+			throw new IllegalArgumentException("Invalid sort memory: " + value);
+		}
+		
+		return sortMemory;
+	}
+	
+	private static int parseThreadCount(final String value) {
+		final int threadCount;
+		
+		try {
+			threadCount = Integer.parseInt(value);
+		} catch (final NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid number of threads: " + value);
+		}
+		
+		if(threadCount < 1) {
+			throw new IllegalArgumentException("Invalid number of threads: " + value);
+		}
+		
+		return threadCount;
 	}
 	
 	/**
@@ -162,28 +1145,229 @@ public class StylechecksAggregator {
 	 * 
 	 * @author Holger Knoche
 	 */
-	private static class StylechecksAggregatorParams {
+	static class StylechecksAggregatorParams {
 		
 		public final boolean fromClasspath;
 		
+		public final boolean streaming;
+		
+		public final int threadCount;
+		
+		/**
+		 * Denotes whether each report is processed on its own virtual thread (if available).
+		 */
+		public final boolean virtualThreads;
+		
+		public final String cacheDirectory;
+		
+		public final long sortMemory;
+		
+		public final boolean compactStore;
+		
+		public final boolean pipelined;
+		
+		public final boolean unsorted;
+		
+		public final boolean failOnIssues;
+		
+		/**
+		 * The minimum severity of the printed issues.
+		 */
+		public final IssueSeverity minSeverity;
+		
+		public final OutputFormat outputFormat;
+		
+		public final String statsFileName;
+		
+		/**
+		 * The query to answer, or {@code null} if the issues are not queried.
+		 */
+		public final IssueQuery query;
+		
+		public final String saveIndexFileName;
+		
+		public final String loadIndexFileName;
+		
+		/**
+		 * The baseline to compare the issues with, or {@code null} if the issues are not compared.
+		 */
+		public final String baselineFileName;
+		
+		public final String saveBaselineFileName;
+		
+		/**
+		 * The maximum distance in lines between correlated issues, or {@code -1} if issues are not correlated.
+		 */
+		public final int dedupWindow;
+		
+		public final boolean dedupReport;
+		
+		/**
+		 * Denotes whether the reports are watched and the issues are printed again after each change.
+		 */
+		public final boolean watch;
+		
+		/**
+		 * The number of the shard whose reports are processed, starting with 1.
+		 */
+		public final int shardNumber;
+		
+		/**
+		 * The number of shards the reports are distributed to.
+		 */
+		public final int shardCount;
+		
+		/**
+		 * The file to save the partial result of the shard to, or {@code null} if the issues are printed.
+		 */
+		public final String savePartialFileName;
+		
+		/**
+		 * The partial results to merge instead of processing the reports, or {@code null} if no results are merged.
+		 */
+		public final List<String> mergeFileNames;
+		
 		public final String configFileName;
 		
 		public final String rootPath;
 
-		public StylechecksAggregatorParams(final boolean fromClasspath, final String configFileName, final String rootPath) {
+		public StylechecksAggregatorParams(final boolean fromClasspath, final boolean streaming, final int threadCount, final boolean virtualThreads, final String cacheDirectory, final long sortMemory, final boolean compactStore,
+				final boolean pipelined, final boolean unsorted, final boolean failOnIssues, final IssueSeverity minSeverity, final OutputFormat outputFormat, final String statsFileName,
+				final IssueQuery query, final String saveIndexFileName, final String loadIndexFileName, final String baselineFileName, final String saveBaselineFileName,
+				final int dedupWindow, final boolean dedupReport, final boolean watch, final int shardNumber, final int shardCount, final String savePartialFileName,
+				final List<String> mergeFileNames, final String configFileName, final String rootPath) {
 			this.fromClasspath = fromClasspath;
+			this.streaming = streaming;
+			this.threadCount = threadCount;
+			this.virtualThreads = virtualThreads;
+			this.cacheDirectory = cacheDirectory;
+			this.sortMemory = sortMemory;
+			this.compactStore = compactStore;
+			this.pipelined = pipelined;
+			this.unsorted = unsorted;
+			this.failOnIssues = failOnIssues;
+			this.minSeverity = minSeverity;
+			this.outputFormat = outputFormat;
+			this.statsFileName = statsFileName;
+			this.query = query;
+			this.saveIndexFileName = saveIndexFileName;
+			this.loadIndexFileName = loadIndexFileName;
+			this.baselineFileName = baselineFileName;
+			this.saveBaselineFileName = saveBaselineFileName;
+			this.dedupWindow = dedupWindow;
+			this.dedupReport = dedupReport;
+			this.watch = watch;
+			this.shardNumber = shardNumber;
+			this.shardCount = shardCount;
+			this.savePartialFileName = savePartialFileName;
+			this.mergeFileNames = mergeFileNames;
 			this.configFileName = configFileName;
 			this.rootPath = rootPath;
 		}
+		
+		/**
+		 * Returns the minimum severity of the issues extracted from the reports. Issues below the minimum severity
+		 * are skipped by the adapters, unless all issues are required, i.e. for queries, baselines and deduplication.
+		 * @return The minimum severity of the extracted issues
+		 */
+		public IssueSeverity getExtractionSeverity() {
+			if(this.query != null || this.baselineFileName != null || this.saveBaselineFileName != null || this.dedupWindow != NO_DEDUP) {
+				return IssueSeverity.UNCLASSIFIED;
+			}
+			
+			return this.minSeverity;
+		}
+		
+		/**
+		 * Resolves the relative paths in these parameters against the given directory.
+		 * @param workingDirectory The directory to resolve the paths against, may be {@code null}
+		 * @return The parameters with the resolved paths, or these parameters if no directory is given
+		 */
+		public StylechecksAggregatorParams resolvePaths(final File workingDirectory) {
+			if(workingDirectory == null) {
+				return this;
+			}
+			
+			// Configuration files on the classpath are not resolved
+			final String resolvedConfigFileName = (this.fromClasspath) ? this.configFileName : resolvePath(workingDirectory, this.configFileName);
+			final String resolvedCacheDirectory = resolvePath(workingDirectory, this.cacheDirectory);
+			final String resolvedStatsFileName = (STATS_TO_STDERR.equals(this.statsFileName)) ? this.statsFileName : resolvePath(workingDirectory, this.statsFileName);
+			
+			List<String> resolvedMergeFileNames = null;
+			if(this.mergeFileNames != null) {
+				resolvedMergeFileNames = new ArrayList<>(this.mergeFileNames.size());
+				for(final String fileName : this.mergeFileNames) {
+					resolvedMergeFileNames.add(resolvePath(workingDirectory, fileName));
+				}
+			}
+			
+			return new StylechecksAggregatorParams(this.fromClasspath, this.streaming, this.threadCount, this.virtualThreads, resolvedCacheDirectory, this.sortMemory, this.compactStore, this.pipelined, this.unsorted,
+					this.failOnIssues, this.minSeverity, this.outputFormat, resolvedStatsFileName, this.query, resolvePath(workingDirectory, this.saveIndexFileName),
+					resolvePath(workingDirectory, this.loadIndexFileName), resolvePath(workingDirectory, this.baselineFileName), resolvePath(workingDirectory, this.saveBaselineFileName),
+					this.dedupWindow, this.dedupReport, this.watch, this.shardNumber, this.shardCount, resolvePath(workingDirectory, this.savePartialFileName), resolvedMergeFileNames,
+					resolvedConfigFileName, resolvePath(workingDirectory, this.rootPath));
+		}
+		
+		private static String resolvePath(final File workingDirectory, final String path) {
+			// Missing paths remain missing
+			if(path == null) {
+				return null;
+			}
+			
+			final File file = new File(path);
+			return (file.isAbsolute()) ? path : new File(workingDirectory, path).getPath();
+		}
 				
 	}
 	
+	/**
+	 * Factory for the adapters used by an aggregation.
+	 * 
+	 * @author Holger Knoche
+	 */
+	@FunctionalInterface
+	interface AdapterFactory {
+		
+		List<StylecheckToolAdapter> createAdapters(StylechecksAggregatorParams parameters) throws IOException;
+		
+	}
+	
+	/**
+	 * Report file to be processed by an adapter.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class ReportFile {
+		
+		public final StylecheckToolAdapter adapter;
+		
+		public final String fileName;
+		
+		public ReportFile(final StylecheckToolAdapter adapter, final String fileName) {
+			this.adapter = adapter;
+			this.fileName = fileName;
+		}
+		
+	}
+	
+	/**
+	 * Consumer for the issues found in a single file.
+	 * 
+	 * @author Holger Knoche
+	 */
+	@FunctionalInterface
+	private interface FileIssuesConsumer {
+		
+		void accept(List<Issue> issues) throws IOException;
+		
+	}
+	
 	/**
 	 * Comparator to sort issues by file name and line number.
 	 * 
 	 * @author Holger Knoche
 	 */
-	private static class SortIssueByFileNameAndLineNumberComparator implements Comparator<Issue> {
+	static class SortIssueByFileNameAndLineNumberComparator implements Comparator<Issue> {
 
 		@Override
 		public int compare(final Issue issue1, final Issue issue2) {
@@ -0,0 +1,50 @@
+package stylechecksaggregator.main;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Provides access to virtual threads, which are only available as of Java 21. As the aggregator is compiled for
+ * Java 8, this implementation obtains them by reflection.
+ * 
+ * @author Holger Knoche
+ */
+class VirtualThreads {
+	
+	/**
+	 * Factory method for an executor running each task on a new virtual thread, or {@code null} if virtual threads
+	 * are not available.
+	 */
+	private static final Method EXECUTOR_FACTORY = findExecutorFactory();
+	
+	private VirtualThreads() {
+		// Only static methods
+	}
+	
+	private static Method findExecutorFactory() {
+		try {
+			return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		} catch (final NoSuchMethodException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Creates an executor running each task on a new virtual thread.
+	 * @return The executor, or {@code null} if virtual threads are not available
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		if(EXECUTOR_FACTORY == null) {
+			return null;
+		}
+		
+		try {
+			return (ExecutorService) EXECUTOR_FACTORY.invoke(null);
+		} catch (final ReflectiveOperationException e) {
+			// Virtual threads are a preview feature that is not enabled
+			return null;
+		}
+	}
+	
+}
@@ -0,0 +1,238 @@
+package stylechecksaggregator.metrics;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Metrics of a single aggregation, consisting of the metrics of its phases and of all processed report files as
+ * well as the garbage collection activity during the aggregation. The files may be processed by several threads
+ * at the same time. All times are measured in nanoseconds, except for garbage collection times, which the JVM
+ * only reports in milliseconds.
+ * 
+ * @author Holger Knoche
+ */
+public class AggregationMetrics {
+	
+	private final long startTime;
+	
+	private final long startGarbageCollectionCount;
+	
+	private final long startGarbageCollectionTime;
+	
+	private final List<PhaseMetrics> phases = new ArrayList<>();
+	
+	private final List<FileMetrics> files = new ArrayList<>();
+	
+	private long time;
+	
+	private long garbageCollectionCount;
+	
+	private long garbageCollectionTime;
+	
+	private long printedIssueCount;
+	
+	/**
+	 * Creates new metrics and starts the measurement of the aggregation.
+	 */
+	public AggregationMetrics() {
+		this.startTime = System.nanoTime();
+		this.startGarbageCollectionCount = ResourceUsage.garbageCollectionCount();
+		this.startGarbageCollectionTime = ResourceUsage.garbageCollectionTime();
+	}
+	
+	/**
+	 * Starts a phase of the aggregation on the current thread.
+	 * @param name The name of the phase
+	 * @return The metrics of the phase, which must be ended when the phase is complete
+	 */
+	public PhaseMetrics startPhase(final String name) {
+		return new PhaseMetrics(this, name);
+	}
+	
+	/**
+	 * Starts the processing of a report file on the current thread.
+	 * @param adapterName The name of the adapter processing the file
+	 * @param fileName The name of the file
+	 * @return The metrics of the file, which must be ended by the current thread when the file is processed
+	 */
+	public FileMetrics startFile(final String adapterName, final String fileName) {
+		final File file = new File(fileName);
+		final long size = (file.isFile()) ? file.length() : 0;
+		
+		return new FileMetrics(this, adapterName, fileName, size);
+	}
+	
+	synchronized void addPhase(final PhaseMetrics phase) {
+		this.phases.add(phase);
+	}
+	
+	synchronized void addFile(final FileMetrics file) {
+		this.files.add(file);
+	}
+	
+	/**
+	 * Ends the measurement of the aggregation.
+	 * @param printedIssueCount The number of issues printed by the aggregation
+	 */
+	public synchronized void end(final long printedIssueCount) {
+		this.time = System.nanoTime() - this.startTime;
+		this.garbageCollectionCount = ResourceUsage.garbageCollectionCount() - this.startGarbageCollectionCount;
+		this.garbageCollectionTime = ResourceUsage.garbageCollectionTime() - this.startGarbageCollectionTime;
+		this.printedIssueCount = printedIssueCount;
+	}
+	
+	/**
+	 * Returns the total time of the aggregation.
+	 * @return The time in nanoseconds
+	 */
+	public synchronized long getTime() {
+		return this.time;
+	}
+	
+	public synchronized List<PhaseMetrics> getPhases() {
+		return new ArrayList<>(this.phases);
+	}
+	
+	/**
+	 * Returns the metrics of all processed files, ordered by adapter and file name.
+	 * @return The file metrics
+	 */
+	public synchronized List<FileMetrics> getFiles() {
+		final List<FileMetrics> sortedFiles = new ArrayList<>(this.files);
+		sortedFiles.sort(Comparator.comparing(FileMetrics::getAdapterName).thenComparing(FileMetrics::getFileName));
+		
+		return sortedFiles;
+	}
+	
+	public synchronized long getGarbageCollectionCount() {
+		return this.garbageCollectionCount;
+	}
+	
+	/**
+	 * Returns the time spent in garbage collections during the aggregation.
+	 * @return The time in milliseconds
+	 */
+	public synchronized long getGarbageCollectionTime() {
+		return this.garbageCollectionTime;
+	}
+	
+	public synchronized long getPrintedIssueCount() {
+		return this.printedIssueCount;
+	}
+	
+	/**
+	 * Returns these metrics as a JSON document.
+	 * @return The JSON representation of these metrics
+	 */
+	public String toJson() {
+		final List<FileMetrics> sortedFiles = this.getFiles();
+		final JsonWriter writer = new JsonWriter();
+		
+		writer.beginObject();
+		writer.name("timeNanos").value(this.getTime());
+		writer.name("printedIssues").value(this.getPrintedIssueCount());
+		
+		writer.name("garbageCollection").beginObject();
+		writer.name("count").value(this.getGarbageCollectionCount());
+		writer.name("timeMillis").value(this.getGarbageCollectionTime());
+		writer.endObject();
+		
+		writer.name("phases").beginArray();
+		for(final PhaseMetrics phase : this.getPhases()) {
+			writer.beginObject();
+			writer.name("name").value(phase.getName());
+			writer.name("timeNanos").value(phase.getTime());
+			writer.name("allocatedBytes").value(phase.getAllocatedBytes());
+			writer.endObject();
+		}
+		writer.endArray();
+		
+		writer.name("adapters").beginArray();
+		for(final Map.Entry<String, AdapterTotals> entry : aggregateByAdapter(sortedFiles).entrySet()) {
+			final AdapterTotals totals = entry.getValue();
+			
+			writer.beginObject();
+			writer.name("name").value(entry.getKey());
+			writer.name("files").value(totals.fileCount);
+			writer.name("bytes").value(totals.size);
+			writer.name("issues").value(totals.issueCount);
+			writer.name("timeNanos").value(totals.time);
+			writer.name("parsingTimeNanos").value(totals.parsingTime);
+			writer.name("extractionTimeNanos").value(totals.extractionTime);
+			writer.name("allocatedBytes").value(totals.allocatedBytes);
+			writer.endObject();
+		}
+		writer.endArray();
+		
+		writer.name("files").beginArray();
+		for(final FileMetrics file : sortedFiles) {
+			writer.beginObject();
+			writer.name("adapter").value(file.getAdapterName());
+			writer.name("fileName").value(file.getFileName());
+			writer.name("bytes").value(file.getSize());
+			writer.name("issues").value(file.getIssueCount());
+			writer.name("timeNanos").value(file.getTime());
+			writer.name("parsingTimeNanos").value(file.getParsingTime());
+			writer.name("extractionTimeNanos").value(file.getExtractionTime());
+			writer.name("allocatedBytes").value(file.getAllocatedBytes());
+			writer.endObject();
+		}
+		writer.endArray();
+		
+		writer.endObject();
+		
+		return writer.toString();
+	}
+	
+	private static Map<String, AdapterTotals> aggregateByAdapter(final List<FileMetrics> files) {
+		final Map<String, AdapterTotals> totalsPerAdapter = new TreeMap<>();
+		
+		for(final FileMetrics file : files) {
+			totalsPerAdapter.computeIfAbsent(file.getAdapterName(), (name) -> new AdapterTotals()).add(file);
+		}
+		
+		return totalsPerAdapter;
+	}
+	
+	/**
+	 * Totals of the file metrics of a single adapter.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class AdapterTotals {
+		
+		public long fileCount;
+		
+		public long size;
+		
+		public long issueCount;
+		
+		public long time;
+		
+		public long parsingTime;
+		
+		public long extractionTime;
+		
+		public long allocatedBytes;
+		
+		public void add(final FileMetrics file) {
+			this.fileCount++;
+			this.size += file.getSize();
+			this.issueCount += file.getIssueCount();
+			this.time += file.getTime();
+			this.parsingTime += file.getParsingTime();
+			this.extractionTime += file.getExtractionTime();
+			
+			// Once a measurement is unsupported, the total is unknown as well
+			if(this.allocatedBytes != ResourceUsage.UNSUPPORTED) {
+				this.allocatedBytes = (file.getAllocatedBytes() == ResourceUsage.UNSUPPORTED) ? ResourceUsage.UNSUPPORTED : this.allocatedBytes + file.getAllocatedBytes();
+			}
+		}
+		
+	}
+	
+}
@@ -0,0 +1,153 @@
+package stylechecksaggregator.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Accumulates the metrics of all aggregations of a long-running aggregator, so that they can be monitored via JMX.
+ * 
+ * @author Holger Knoche
+ */
+public class AggregatorStatistics implements AggregatorStatisticsMXBean {
+	
+	/**
+	 * Name under which the statistics are registered in the platform MBean server.
+	 */
+	public static final String OBJECT_NAME = "stylechecksaggregator:type=AggregatorStatistics";
+	
+	private long requestCount;
+	
+	private long failedRequestCount;
+	
+	private long totalRequestTime;
+	
+	private long maxRequestTime;
+	
+	private long lastRequestTime;
+	
+	private long processedFileCount;
+	
+	private long processedBytes;
+	
+	private long foundIssueCount;
+	
+	private long printedIssueCount;
+	
+	private long totalParsingTime;
+	
+	private long totalExtractionTime;
+	
+	private long totalGarbageCollectionTime;
+	
+	private String lastRequestMetrics = "";
+	
+	/**
+	 * Registers these statistics in the platform MBean server.
+	 * @throws JMException If the registration fails
+	 */
+	public void register() throws JMException {
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+	}
+	
+	/**
+	 * Adds the metrics of an aggregation to these statistics.
+	 * @param metrics The metrics of the aggregation
+	 * @param requestTime The total time of the request in nanoseconds
+	 * @param failed Denotes whether the request failed
+	 */
+	public synchronized void record(final AggregationMetrics metrics, final long requestTime, final boolean failed) {
+		this.requestCount++;
+		if(failed) {
+			this.failedRequestCount++;
+		}
+		
+		this.totalRequestTime += requestTime;
+		this.maxRequestTime = Math.max(this.maxRequestTime, requestTime);
+		this.lastRequestTime = requestTime;
+		
+		for(final FileMetrics file : metrics.getFiles()) {
+			this.processedFileCount++;
+			this.processedBytes += file.getSize();
+			this.foundIssueCount += file.getIssueCount();
+			this.totalParsingTime += file.getParsingTime();
+			this.totalExtractionTime += file.getExtractionTime();
+		}
+		
+		this.printedIssueCount += metrics.getPrintedIssueCount();
+		this.totalGarbageCollectionTime += metrics.getGarbageCollectionTime();
+		this.lastRequestMetrics = metrics.toJson();
+	}
+	
+	private static long toMillis(final long nanoseconds) {
+		return TimeUnit.NANOSECONDS.toMillis(nanoseconds);
+	}
+	
+	@Override
+	public synchronized long getRequestCount() {
+		return this.requestCount;
+	}
+	
+	@Override
+	public synchronized long getFailedRequestCount() {
+		return this.failedRequestCount;
+	}
+	
+	@Override
+	public synchronized long getTotalRequestTimeMillis() {
+		return toMillis(this.totalRequestTime);
+	}
+	
+	@Override
+	public synchronized long getMaxRequestTimeMillis() {
+		return toMillis(this.maxRequestTime);
+	}
+	
+	@Override
+	public synchronized long getLastRequestTimeMillis() {
+		return toMillis(this.lastRequestTime);
+	}
+	
+	@Override
+	public synchronized long getProcessedFileCount() {
+		return this.processedFileCount;
+	}
+	
+	@Override
+	public synchronized long getProcessedBytes() {
+		return this.processedBytes;
+	}
+	
+	@Override
+	public synchronized long getFoundIssueCount() {
+		return this.foundIssueCount;
+	}
+	
+	@Override
+	public synchronized long getPrintedIssueCount() {
+		return this.printedIssueCount;
+	}
+	
+	@Override
+	public synchronized long getTotalParsingTimeMillis() {
+		return toMillis(this.totalParsingTime);
+	}
+	
+	@Override
+	public synchronized long getTotalExtractionTimeMillis() {
+		return toMillis(this.totalExtractionTime);
+	}
+	
+	@Override
+	public synchronized long getTotalGarbageCollectionTimeMillis() {
+		return this.totalGarbageCollectionTime;
+	}
+	
+	@Override
+	public synchronized String getLastRequestMetrics() {
+		return this.lastRequestMetrics;
+	}
+	
+}
@@ -0,0 +1,40 @@
+package stylechecksaggregator.metrics;
+
+/**
+ * Management interface exposing the accumulated metrics of all aggregations of a long-running aggregator.
+ * 
+ * @author Holger Knoche
+ */
+public interface AggregatorStatisticsMXBean {
+	
+	long getRequestCount();
+	
+	long getFailedRequestCount();
+	
+	long getTotalRequestTimeMillis();
+	
+	long getMaxRequestTimeMillis();
+	
+	long getLastRequestTimeMillis();
+	
+	long getProcessedFileCount();
+	
+	long getProcessedBytes();
+	
+	long getFoundIssueCount();
+	
+	long getPrintedIssueCount();
+	
+	long getTotalParsingTimeMillis();
+	
+	long getTotalExtractionTimeMillis();
+	
+	long getTotalGarbageCollectionTimeMillis();
+	
+	/**
+	 * Returns the metrics of the last aggregation as a JSON document (see {@link AggregationMetrics#toJson()}).
+	 * @return The metrics of the last aggregation, or an empty string if there was none yet
+	 */
+	String getLastRequestMetrics();
+	
+}
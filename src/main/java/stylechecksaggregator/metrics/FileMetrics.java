@@ -0,0 +1,147 @@
+package stylechecksaggregator.metrics;
+
+/**
+ * Metrics of the processing of a single report file. While a file is processed, its metrics are associated
+ * with the processing thread, so that the adapters can record the parsing and extraction times via
+ * {@link #recordParsing(long)} and {@link #recordExtraction(long)} without knowing about the metrics.
+ * 
+ * @author Holger Knoche
+ */
+public class FileMetrics {
+	
+	/**
+	 * Metrics of the file currently processed by each thread.
+	 */
+	private static final ThreadLocal<FileMetrics> CURRENT_METRICS = new ThreadLocal<>();
+	
+	private final AggregationMetrics aggregationMetrics;
+	
+	private final String adapterName;
+	
+	private final String fileName;
+	
+	private final long size;
+	
+	private final long startTime;
+	
+	private final long startAllocatedBytes;
+	
+	private long issueCount;
+	
+	private long time;
+	
+	private long parsingTime;
+	
+	private long extractionTime;
+	
+	private long allocatedBytes;
+	
+	FileMetrics(final AggregationMetrics aggregationMetrics, final String adapterName, final String fileName, final long size) {
+		this.aggregationMetrics = aggregationMetrics;
+		this.adapterName = adapterName;
+		this.fileName = fileName;
+		this.size = size;
+		this.startTime = System.nanoTime();
+		this.startAllocatedBytes = ResourceUsage.allocatedBytesOfCurrentThread();
+		
+		CURRENT_METRICS.set(this);
+	}
+	
+	/**
+	 * Records the time spent to parse the file currently processed by this thread, if any.
+	 * @param nanoseconds The parsing time in nanoseconds
+	 */
+	public static void recordParsing(final long nanoseconds) {
+		final FileMetrics metrics = CURRENT_METRICS.get();
+		
+		if(metrics != null) {
+			metrics.parsingTime += nanoseconds;
+		}
+	}
+	
+	/**
+	 * Records the time spent to extract the issues of the file currently processed by this thread, if any.
+	 * @param nanoseconds The extraction time in nanoseconds
+	 */
+	public static void recordExtraction(final long nanoseconds) {
+		final FileMetrics metrics = CURRENT_METRICS.get();
+		
+		if(metrics != null) {
+			metrics.extractionTime += nanoseconds;
+		}
+	}
+	
+	public void setIssueCount(final long issueCount) {
+		this.issueCount = issueCount;
+	}
+	
+	/**
+	 * Counts a single issue found in the file.
+	 */
+	public void countIssue() {
+		this.issueCount++;
+	}
+	
+	/**
+	 * Ends the processing of this file and records it in the metrics of the aggregation. This method must
+	 * be invoked by the processing thread.
+	 */
+	public void end() {
+		CURRENT_METRICS.remove();
+		
+		this.time = System.nanoTime() - this.startTime;
+		this.allocatedBytes = ResourceUsage.delta(this.startAllocatedBytes, ResourceUsage.allocatedBytesOfCurrentThread());
+		
+		this.aggregationMetrics.addFile(this);
+	}
+	
+	public String getAdapterName() {
+		return this.adapterName;
+	}
+	
+	public String getFileName() {
+		return this.fileName;
+	}
+	
+	/**
+	 * Returns the size of the file.
+	 * @return The size in bytes, 0 if the file does not exist
+	 */
+	public long getSize() {
+		return this.size;
+	}
+	
+	public long getIssueCount() {
+		return this.issueCount;
+	}
+	
+	/**
+	 * Returns the total processing time of the file.
+	 * @return The time in nanoseconds
+	 */
+	public long getTime() {
+		return this.time;
+	}
+	
+	/**
+	 * Returns the time spent to parse the file. If the file is processed by a streaming parser, this includes
+	 * the extraction of the issues.
+	 * @return The time in nanoseconds
+	 */
+	public long getParsingTime() {
+		return this.parsingTime;
+	}
+	
+	/**
+	 * Returns the time spent to extract the issues from the parsed file.
+	 * @return The time in nanoseconds
+	 */
+	public long getExtractionTime() {
+		return this.extractionTime;
+	}
+	
+	public long getAllocatedBytes() {
+		return this.allocatedBytes;
+	}
+	
+}
@@ -0,0 +1,132 @@
+package stylechecksaggregator.metrics;
+
+/**
+ * Minimal writer for JSON documents, which takes care of separators and escaping.
+ * 
+ * @author Holger Knoche
+ */
+class JsonWriter {
+	
+	private final StringBuilder builder = new StringBuilder();
+	
+	/**
+	 * Denotes whether the next value is the first one in the current object or array.
+	 */
+	private boolean firstValue = true;
+	
+	public JsonWriter beginObject() {
+		this.separate();
+		this.builder.append('{');
+		this.firstValue = true;
+		
+		return this;
+	}
+	
+	public JsonWriter endObject() {
+		this.builder.append('}');
+		this.firstValue = false;
+		
+		return this;
+	}
+	
+	public JsonWriter beginArray() {
+		this.separate();
+		this.builder.append('[');
+		this.firstValue = true;
+		
+		return this;
+	}
+	
+	public JsonWriter endArray() {
+		this.builder.append(']');
+		this.firstValue = false;
+		
+		return this;
+	}
+	
+	/**
+	 * Writes the name of the next member of the current object.
+	 * @param name The name of the member
+	 * @return This writer
+	 */
+	public JsonWriter name(final String name) {
+		this.separate();
+		this.appendString(name);
+		this.builder.append(':');
+		
+		// The value follows without a separator
+		this.firstValue = true;
+		
+		return this;
+	}
+	
+	public JsonWriter value(final String value) {
+		this.separate();
+		this.appendString(value);
+		
+		return this;
+	}
+	
+	public JsonWriter value(final long value) {
+		this.separate();
+		this.builder.append(value);
+		
+		return this;
+	}
+	
+	public JsonWriter value(final boolean value) {
+		this.separate();
+		this.builder.append(value);
+		
+		return this;
+	}
+	
+	private void separate() {
+		if(!this.firstValue) {
+			this.builder.append(',');
+		}
+		
+		this.firstValue = false;
+	}
+	
+	private void appendString(final String value) {
+		this.builder.append('"');
+		
+		for(int charIndex = 0; charIndex < value.length(); charIndex++) {
+			final char character = value.charAt(charIndex);
+			
+			switch(character) {
+			case '"':
+				this.builder.append("\\\"");
+				break;
+			case '\\':
+				this.builder.append("\\\\");
+				break;
+			case '\n':
+				this.builder.append("\\n");
+				break;
+			case '\r':
+				this.builder.append("\\r");
+				break;
+			case '\t':
+				this.builder.append("\\t");
+				break;
+			default:
+				if(character < 0x20) {
+					this.builder.append(String.format("\\u%04x", (int) character));
+				} else {
+					this.builder.append(character);
+				}
+				break;
+			}
+		}
+		
+		this.builder.append('"');
+	}
+	
+	@Override
+	public String toString() {
+		return this.builder.toString();
+	}
+	
+}
@@ -0,0 +1,56 @@
+package stylechecksaggregator.metrics;
+
+/**
+ * Metrics of a single phase of an aggregation, such as loading the configuration or sorting the issues. The
+ * allocated memory is measured on the thread executing the phase.
+ * 
+ * @author Holger Knoche
+ */
+public class PhaseMetrics {
+	
+	private final AggregationMetrics aggregationMetrics;
+	
+	private final String name;
+	
+	private final long startTime;
+	
+	private final long startAllocatedBytes;
+	
+	private long time;
+	
+	private long allocatedBytes;
+	
+	PhaseMetrics(final AggregationMetrics aggregationMetrics, final String name) {
+		this.aggregationMetrics = aggregationMetrics;
+		this.name = name;
+		this.startTime = System.nanoTime();
+		this.startAllocatedBytes = ResourceUsage.allocatedBytesOfCurrentThread();
+	}
+	
+	/**
+	 * Ends this phase and records it in the metrics of the aggregation.
+	 */
+	public void end() {
+		this.time = System.nanoTime() - this.startTime;
+		this.allocatedBytes = ResourceUsage.delta(this.startAllocatedBytes, ResourceUsage.allocatedBytesOfCurrentThread());
+		
+		this.aggregationMetrics.addPhase(this);
+	}
+	
+	public String getName() {
+		return this.name;
+	}
+	
+	/**
+	 * Returns the duration of this phase.
+	 * @return The duration in nanoseconds
+	 */
+	public long getTime() {
+		return this.time;
+	}
+	
+	public long getAllocatedBytes() {
+		return this.allocatedBytes;
+	}
+	
+}
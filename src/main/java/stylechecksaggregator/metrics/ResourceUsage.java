@@ -0,0 +1,100 @@
+package stylechecksaggregator.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Provides access to the resource usage reported by the platform MXBeans. Values that are not supported by the
+ * running JVM are reported as {@code -1}.
+ * 
+ * @author Holger Knoche
+ */
+class ResourceUsage {
+	
+	/**
+	 * Value reported if a measurement is not supported.
+	 */
+	public static final long UNSUPPORTED = -1;
+	
+	private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+	
+	/**
+	 * Denotes whether the memory allocated by a thread can be determined, which requires the HotSpot-specific
+	 * extension of the thread MXBean.
+	 */
+	private static final boolean ALLOCATION_SUPPORTED = isAllocationSupported();
+	
+	private ResourceUsage() {
+		// Static methods only
+	}
+	
+	private static boolean isAllocationSupported() {
+		try {
+			if(!(THREAD_BEAN instanceof com.sun.management.ThreadMXBean)) {
+				return false;
+			}
+			
+			final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) THREAD_BEAN;
+			return (threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+		} catch (final LinkageError e) {
+			// The extension is not available on this platform
+			return false;
+		}
+	}
+	
+	/**
+	 * Returns the number of bytes allocated by the current thread so far.
+	 * @return The number of allocated bytes or {@link #UNSUPPORTED}
+	 */
+	public static long allocatedBytesOfCurrentThread() {
+		if(!ALLOCATION_SUPPORTED) {
+			return UNSUPPORTED;
+		}
+		
+		return ((com.sun.management.ThreadMXBean) THREAD_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+	
+	/**
+	 * Returns the total number of garbage collections performed by the JVM so far.
+	 * @return The number of garbage collections
+	 */
+	public static long garbageCollectionCount() {
+		long count = 0;
+		
+		for(final GarbageCollectorMXBean collectorBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, collectorBean.getCollectionCount());
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Returns the total time spent in garbage collections by the JVM so far.
+	 * @return The garbage collection time in milliseconds
+	 */
+	public static long garbageCollectionTime() {
+		long time = 0;
+		
+		for(final GarbageCollectorMXBean collectorBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			time += Math.max(0, collectorBean.getCollectionTime());
+		}
+		
+		return time;
+	}
+	
+	/**
+	 * Returns the difference of the given measurements, taking unsupported measurements into account.
+	 * @param startValue The value at the start of the measurement
+	 * @param endValue The value at the end of the measurement
+	 * @return The difference or {@link #UNSUPPORTED}
+	 */
+	public static long delta(final long startValue, final long endValue) {
+		if(startValue == UNSUPPORTED || endValue == UNSUPPORTED) {
+			return UNSUPPORTED;
+		}
+		
+		return (endValue - startValue);
+	}
+	
+}
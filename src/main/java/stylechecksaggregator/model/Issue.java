@@ -50,7 +50,9 @@ public class Issue {
 
 	@Override
 	public String toString() {
-		return String.format("%s (%s) - %s, line %d: %s", this.severity, this.type, this.fileName, this.lineNumber, this.message);
+		// This method is used to print the issues, so it uses a concatenation instead of a format string. The class is
+		// compiled again for Java 17 (see pom.xml), where the concatenation is considerably faster
+		return this.severity + " (" + this.type + ") - " + this.fileName + ", line " + this.lineNumber + ": " + this.message;
 	}
 	
 }
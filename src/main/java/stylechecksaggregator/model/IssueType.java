@@ -1,21 +1,72 @@
 package stylechecksaggregator.model;
 
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
- * This enumeration contains all known issue types, i.e. tools that are supported.
+ * Represents an issue type, i.e. the tool that found an issue. Besides the types of the built-in tools, types
+ * are registered for the tools of additional adapters when their providers are loaded (see
+ * {@code AdapterRegistry}). Issue types are unique by their name, so they can be compared by identity.
  * 
  * @author Holger Knoche
  */
-public enum IssueType {
+public final class IssueType {
+	
+	private static final ConcurrentMap<String, IssueType> TYPES_BY_NAME = new ConcurrentHashMap<>();
+	
 	/**
 	 * Represents CheckStyle.
 	 */
-	CHECKSTYLE,
+	public static final IssueType CHECKSTYLE = register("CHECKSTYLE");
+	
 	/**
 	 * Represents FindBugs.
 	 */
-	FINDBUGS,
+	public static final IssueType FINDBUGS = register("FINDBUGS");
+	
 	/**
 	 * Represents PMD.
 	 */
-	PMD;
+	public static final IssueType PMD = register("PMD");
+	
+	private final String name;
+	
+	private IssueType(final String name) {
+		this.name = name;
+	}
+	
+	/**
+	 * Returns the registered issue type with the given name.
+	 * @param name The name of the issue type
+	 * @return The issue type or {@code null} if there is no such type
+	 */
+	public static IssueType forName(final String name) {
+		return TYPES_BY_NAME.get(Objects.requireNonNull(name, "name"));
+	}
+	
+	/**
+	 * Registers the issue type with the given name, unless it already exists. Types are only registered for the
+	 * built-in tools and by the {@code AdapterRegistry} for the tools of the providers it loads, so that the
+	 * number of types is bounded. By convention, names are written in upper case.
+	 * @param name The name of the issue type
+	 * @return The (possibly existing) issue type
+	 */
+	public static IssueType register(final String name) {
+		return TYPES_BY_NAME.computeIfAbsent(Objects.requireNonNull(name, "name"), IssueType::new);
+	}
+	
+	/**
+	 * Returns the name of this issue type.
+	 * @return The name
+	 */
+	public String name() {
+		return this.name;
+	}
+	
+	@Override
+	public String toString() {
+		return this.name;
+	}
+	
 }
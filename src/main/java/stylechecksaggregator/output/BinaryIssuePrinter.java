@@ -0,0 +1,93 @@
+package stylechecksaggregator.output;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.util.IssueDataInput;
+import stylechecksaggregator.util.IssueDataOutput;
+
+/**
+ * Prints issues in a compact binary format. The output starts with the magic number and the format version (as
+ * 32-bit big-endian integers), followed by the issues as written by {@link IssueDataOutput}, i.e. with
+ * length-prefixed strings that are only written once per block. The strings are forgotten after each block of
+ * {@value #BLOCK_SIZE} issues, so that the memory of the printer and of a reader does not grow with the number of
+ * issues. The issues can be read using {@link IssueDataInput} after skipping the header.
+ * 
+ * @author Holger Knoche
+ */
+public class BinaryIssuePrinter implements IssuePrinter {
+	
+	/**
+	 * Magic number at the beginning of the output.
+	 */
+	public static final int MAGIC_NUMBER = 0x53434149;
+	
+	/**
+	 * Version of the format. Must be incremented whenever the format changes.
+	 */
+	public static final int FORMAT_VERSION = 2;
+	
+	/**
+	 * Number of issues after which the strings are written again.
+	 */
+	public static final int BLOCK_SIZE = 16384;
+	
+	private static final int BUFFER_SIZE = 1 << 16;
+	
+	private final OutputStream outputStream;
+	
+	private final IssueDataOutput output;
+	
+	private boolean headerWritten = false;
+	
+	private long issueCount = 0;
+	
+	/**
+	 * Creates a new printer writing to the given stream.
+	 * @param outputStream The stream to write to
+	 */
+	public BinaryIssuePrinter(final OutputStream outputStream) {
+		this.outputStream = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+		this.output = new IssueDataOutput(this.outputStream, BLOCK_SIZE);
+	}
+	
+	@Override
+	public void accept(final Issue issue) throws IOException {
+		this.writeHeaderIfNecessary();
+		this.output.writeIssue(issue);
+		
+		this.issueCount++;
+	}
+	
+	private void writeHeaderIfNecessary() throws IOException {
+		if(this.headerWritten) {
+			return;
+		}
+		
+		final DataOutputStream dataOutputStream = new DataOutputStream(this.outputStream);
+		dataOutputStream.writeInt(MAGIC_NUMBER);
+		dataOutputStream.writeInt(FORMAT_VERSION);
+		
+		this.headerWritten = true;
+	}
+	
+	@Override
+	public long getIssueCount() {
+		return this.issueCount;
+	}
+	
+	@Override
+	public void flush() throws IOException {
+		this.outputStream.flush();
+	}
+	
+	@Override
+	public void finish() throws IOException {
+		this.writeHeaderIfNecessary();
+		this.output.writeEnd();
+	}
+	
+}
@@ -0,0 +1,29 @@
+package stylechecksaggregator.output;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+import stylechecksaggregator.util.IssueConsumer;
+
+/**
+ * Prints issues in a specific output format. Printers write the issues as they are passed, i.e. they never
+ * retain the issues themselves.
+ * 
+ * @author Holger Knoche
+ */
+public interface IssuePrinter extends IssueConsumer, Flushable {
+	
+	/**
+	 * Returns the number of issues printed so far.
+	 * @return The number of printed issues
+	 */
+	long getIssueCount();
+	
+	/**
+	 * Completes the output, e.g. by writing the end of the document, and flushes it. No issues may be
+	 * printed afterwards.
+	 * @throws IOException If an I/O error occurs
+	 */
+	void finish() throws IOException;
+	
+}
@@ -0,0 +1,113 @@
+package stylechecksaggregator.output;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes JSON values directly to a writer, i.e. without creating intermediate strings.
+ * 
+ * @author Holger Knoche
+ */
+class JsonOutput {
+	
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	
+	private final Writer writer;
+	
+	/**
+	 * Buffer for the digits of numbers, which is large enough for any int value.
+	 */
+	private final char[] digitBuffer = new char[11];
+	
+	public JsonOutput(final Writer writer) {
+		this.writer = writer;
+	}
+	
+	/**
+	 * Writes the given text as is.
+	 * @param text The text to write
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void writeRaw(final String text) throws IOException {
+		this.writer.write(text);
+	}
+	
+	/**
+	 * Writes the given value as a quoted and escaped JSON string.
+	 * @param value The value to write
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void writeString(final String value) throws IOException {
+		final Writer writer = this.writer;
+		final int length = value.length();
+		int unescapedStart = 0;
+		
+		writer.write('"');
+		
+		// Write runs of characters that need no escaping at once
+		for(int charIndex = 0; charIndex < length; charIndex++) {
+			final char character = value.charAt(charIndex);
+			
+			if(character >= 0x20 && character != '"' && character != '\\') {
+				continue;
+			}
+			
+			writer.write(value, unescapedStart, charIndex - unescapedStart);
+			unescapedStart = charIndex + 1;
+			
+			switch(character) {
+			case '"':
+				writer.write("\\\"");
+				break;
+			case '\\':
+				writer.write("\\\\");
+				break;
+			case '\n':
+				writer.write("\\n");
+				break;
+			case '\r':
+				writer.write("\\r");
+				break;
+			case '\t':
+				writer.write("\\t");
+				break;
+			default:
+				writer.write("\\u00");
+				writer.write(HEX_DIGITS[character >> 4]);
+				writer.write(HEX_DIGITS[character & 0xF]);
+				break;
+			}
+		}
+		
+		writer.write(value, unescapedStart, length - unescapedStart);
+		writer.write('"');
+	}
+	
+	/**
+	 * Writes the given value as a JSON number.
+	 * @param value The value to write
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void writeNumber(final int value) throws IOException {
+		if(value == Integer.MIN_VALUE) {
+			this.writer.write(Integer.toString(value));
+			return;
+		}
+		
+		// Fill the digit buffer from the end
+		int remainingValue = Math.abs(value);
+		int position = this.digitBuffer.length;
+		
+		do {
+			this.digitBuffer[--position] = (char) ('0' + remainingValue % 10);
+			remainingValue /= 10;
+		} while(remainingValue != 0);
+		
+		if(value < 0) {
+			this.digitBuffer[--position] = '-';
+		}
+		
+		this.writer.write(this.digitBuffer, position, this.digitBuffer.length - position);
+	}
+	
+}
@@ -0,0 +1,72 @@
+package stylechecksaggregator.output;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import stylechecksaggregator.model.Issue;
+
+/**
+ * Prints issues as newline-delimited JSON, i.e. one JSON object per line, encoded in UTF-8. The members of the
+ * objects are named like the fields of {@link Issue}.
+ * 
+ * @author Holger Knoche
+ */
+public class NdjsonIssuePrinter implements IssuePrinter {
+	
+	private static final int BUFFER_SIZE = 1 << 16;
+	
+	private final Writer writer;
+	
+	private final JsonOutput output;
+	
+	private long issueCount = 0;
+	
+	/**
+	 * Creates a new printer writing to the given stream.
+	 * @param outputStream The stream to write to
+	 */
+	public NdjsonIssuePrinter(final OutputStream outputStream) {
+		this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+		this.output = new JsonOutput(this.writer);
+	}
+	
+	@Override
+	public void accept(final Issue issue) throws IOException {
+		final JsonOutput output = this.output;
+		
+		output.writeRaw("{\"fileName\":");
+		output.writeString(issue.fileName);
+		output.writeRaw(",\"lineNumber\":");
+		output.writeNumber(issue.lineNumber);
+		output.writeRaw(",\"severity\":\"");
+		output.writeRaw(issue.severity.name());
+		output.writeRaw("\",\"type\":");
+		// Types of additional tools are named by their providers, so the name may need escaping
+		output.writeString(issue.type.name());
+		output.writeRaw(",\"message\":");
+		output.writeString(issue.message);
+		output.writeRaw("}\n");
+		
+		this.issueCount++;
+	}
+	
+	@Override
+	public long getIssueCount() {
+		return this.issueCount;
+	}
+	
+	@Override
+	public void flush() throws IOException {
+		this.writer.flush();
+	}
+	
+	@Override
+	public void finish() throws IOException {
+		this.flush();
+	}
+	
+}
@@ -0,0 +1,72 @@
+package stylechecksaggregator.output;
+
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * This enumeration contains all supported output formats.
+ * 
+ * @author Holger Knoche
+ */
+public enum OutputFormat {
+	/**
+	 * One line of text per issue (see {@link TextIssuePrinter}).
+	 */
+	TEXT {
+		@Override
+		public IssuePrinter createPrinter(final OutputStream outputStream) {
+			return new TextIssuePrinter(outputStream);
+		}
+	},
+	/**
+	 * One JSON object per line (see {@link NdjsonIssuePrinter}).
+	 */
+	NDJSON {
+		@Override
+		public IssuePrinter createPrinter(final OutputStream outputStream) {
+			return new NdjsonIssuePrinter(outputStream);
+		}
+	},
+	/**
+	 * A SARIF 2.1.0 log (see {@link SarifIssuePrinter}).
+	 */
+	SARIF {
+		@Override
+		public IssuePrinter createPrinter(final OutputStream outputStream) {
+			return new SarifIssuePrinter(outputStream);
+		}
+	},
+	/**
+	 * A compact binary stream (see {@link BinaryIssuePrinter}).
+	 */
+	BINARY {
+		@Override
+		public IssuePrinter createPrinter(final OutputStream outputStream) {
+			return new BinaryIssuePrinter(outputStream);
+		}
+	};
+	
+	/**
+	 * Creates a printer for this format writing to the given stream.
+	 * @param outputStream The stream to write to
+	 * @return The printer
+	 */
+	public abstract IssuePrinter createPrinter(OutputStream outputStream);
+	
+	/**
+	 * Returns the format with the given (case-insensitive) name.
+	 * @param name The name of the format
+	 * @return The format
+	 * @throws IllegalArgumentException If there is no format with the given name
+	 */
+	public static OutputFormat fromName(final String name) {
+		for(final OutputFormat format : values()) {
+			if(format.name().equals(name.toUpperCase(Locale.ROOT))) {
+				return format;
+			}
+		}
+		
+		throw new IllegalArgumentException("Unknown output format: " + name);
+	}
+	
+}
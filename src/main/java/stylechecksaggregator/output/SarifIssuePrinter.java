@@ -0,0 +1,173 @@
+package stylechecksaggregator.output;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
+
+/**
+ * Prints issues as a SARIF 2.1.0 log, encoded in UTF-8. All issues are written as results of a single run, and the
+ * tool that found an issue is given by the {@code type} property of the result. The log is written while the issues
+ * are passed, so {@link #finish()} must be invoked to complete it.
+ * 
+ * @author Holger Knoche
+ */
+public class SarifIssuePrinter implements IssuePrinter {
+	
+	private static final String LOG_START = "{\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\",\"version\":\"2.1.0\",\"runs\":[{\"tool\":{\"driver\":" +
+			"{\"name\":\"stylechecks-aggregator\",\"informationUri\":\"https://github.com/holgerknoche/stylechecks-aggregator\"}},\"results\":[\n";
+	
+	private static final String LOG_END = "\n]}]}\n";
+	
+	private static final String UNRESERVED_URI_CHARACTERS = "-._~!$&'()*+,;=:@/";
+	
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+	
+	private static final int BUFFER_SIZE = 1 << 16;
+	
+	private final Writer writer;
+	
+	private final JsonOutput output;
+	
+	private final StringBuilder uriBuilder = new StringBuilder();
+	
+	/**
+	 * File name of the previous issue, whose URI is reused as the issues are usually sorted by file name.
+	 */
+	private String previousFileName;
+	
+	private String previousUri;
+	
+	private boolean logStarted = false;
+	
+	private long issueCount = 0;
+	
+	/**
+	 * Creates a new printer writing to the given stream.
+	 * @param outputStream The stream to write to
+	 */
+	public SarifIssuePrinter(final OutputStream outputStream) {
+		this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+		this.output = new JsonOutput(this.writer);
+	}
+	
+	@Override
+	public void accept(final Issue issue) throws IOException {
+		final JsonOutput output = this.output;
+		
+		if(this.logStarted) {
+			output.writeRaw(",\n");
+		} else {
+			this.startLog();
+		}
+		
+		output.writeRaw("{\"level\":\"");
+		output.writeRaw(levelOf(issue.severity));
+		output.writeRaw("\",\"message\":{\"text\":");
+		output.writeString(issue.message);
+		output.writeRaw("},\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":");
+		output.writeString(this.toUri(issue.fileName));
+		output.writeRaw("}");
+		
+		// SARIF line numbers start at 1, so unknown lines are omitted
+		if(issue.lineNumber > 0) {
+			output.writeRaw(",\"region\":{\"startLine\":");
+			output.writeNumber(issue.lineNumber);
+			output.writeRaw("}");
+		}
+		
+		output.writeRaw("}}],\"properties\":{\"type\":");
+		// Types of additional tools are named by their providers, so the name may need escaping
+		output.writeString(issue.type.name());
+		output.writeRaw(",\"severity\":\"");
+		output.writeRaw(issue.severity.name());
+		output.writeRaw("\"}}");
+		
+		this.issueCount++;
+	}
+	
+	private void startLog() throws IOException {
+		this.output.writeRaw(LOG_START);
+		this.logStarted = true;
+	}
+	
+	private static String levelOf(final IssueSeverity severity) {
+		switch(severity) {
+		case ERROR:
+			return "error";
+		case WARNING:
+			return "warning";
+		case INFO:
+			return "note";
+		default:
+			return "none";
+		}
+	}
+	
+	/**
+	 * Converts the given file name into a URI reference. Absolute paths are converted into file URIs, and
+	 * characters that are not allowed in URIs are percent-encoded.
+	 * @param fileName The file name to convert
+	 * @return The URI reference
+	 */
+	private String toUri(final String fileName) {
+		if(fileName.equals(this.previousFileName)) {
+			return this.previousUri;
+		}
+		
+		final StringBuilder builder = this.uriBuilder;
+		builder.setLength(0);
+		
+		if(fileName.startsWith("/")) {
+			builder.append("file://");
+		} else if(fileName.length() > 1 && fileName.charAt(1) == ':') {
+			// Windows path with a drive letter
+			builder.append("file:///");
+		}
+		
+		final byte[] bytes = fileName.getBytes(StandardCharsets.UTF_8);
+		for(final byte value : bytes) {
+			final char character = (char) (value & 0xFF);
+			
+			if(character == '\\') {
+				builder.append('/');
+			} else if((character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z') || (character >= '0' && character <= '9') ||
+					UNRESERVED_URI_CHARACTERS.indexOf(character) >= 0) {
+				builder.append(character);
+			} else {
+				builder.append('%').append(HEX_DIGITS[character >> 4]).append(HEX_DIGITS[character & 0xF]);
+			}
+		}
+		
+		this.previousFileName = fileName;
+		this.previousUri = builder.toString();
+		
+		return this.previousUri;
+	}
+	
+	@Override
+	public long getIssueCount() {
+		return this.issueCount;
+	}
+	
+	@Override
+	public void flush() throws IOException {
+		this.writer.flush();
+	}
+	
+	@Override
+	public void finish() throws IOException {
+		if(!this.logStarted) {
+			this.startLog();
+		}
+		
+		this.output.writeRaw(LOG_END);
+		this.flush();
+	}
+	
+}
@@ -0,0 +1,58 @@
+package stylechecksaggregator.output;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+import stylechecksaggregator.model.Issue;
+
+/**
+ * Prints issues as text lines (see {@link Issue#toString()}) to an output stream. The output is written through
+ * a large buffer and is only flushed when the buffer is full or {@link #flush()} is invoked, so that printing
+ * many issues does not result in a write per line.
+ * 
+ * @author Holger Knoche
+ */
+public class TextIssuePrinter implements IssuePrinter {
+	
+	private static final int BUFFER_SIZE = 1 << 16;
+	
+	private final Writer writer;
+	
+	private long issueCount = 0;
+	
+	/**
+	 * Creates a new printer writing to the given stream using the platform's default charset.
+	 * @param outputStream The stream to write to
+	 */
+	public TextIssuePrinter(final OutputStream outputStream) {
+		this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, Charset.defaultCharset()), BUFFER_SIZE);
+	}
+	
+	@Override
+	public void accept(final Issue issue) throws IOException {
+		this.writer.write(issue.toString());
+		this.writer.write(System.lineSeparator());
+		
+		this.issueCount++;
+	}
+	
+	@Override
+	public long getIssueCount() {
+		return this.issueCount;
+	}
+	
+	@Override
+	public void flush() throws IOException {
+		this.writer.flush();
+	}
+	
+	@Override
+	public void finish() throws IOException {
+		this.flush();
+	}
+	
+}
@@ -0,0 +1,97 @@
+package stylechecksaggregator.shard;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
+import stylechecksaggregator.sort.IssueMerger;
+import stylechecksaggregator.util.IssueConsumer;
+
+/**
+ * Merges the partial results of all shards of an aggregation. As the issues of each partial result are already
+ * sorted, they are merged with a k-way merge (see {@link IssueMerger}), which only keeps the current issue and the
+ * strings of the current block of each partial result in memory.
+ * Issues at the same position are ordered by the index of their report, so the result is the same as if all
+ * reports had been aggregated at once.
+ * 
+ * @author Holger Knoche
+ */
+public class PartialResultMerger {
+	
+	private PartialResultMerger() {
+		// Only static methods
+	}
+	
+	/**
+	 * Merges the partial results in the given files and passes the issues with the minimum severity to the given
+	 * consumer in sorted order. The files must contain the partial results of all shards of the same aggregation.
+	 * @param files The files containing the partial results
+	 * @param comparator The comparator the partial results were sorted with
+	 * @param minSeverity The minimum severity of the issues to consume
+	 * @param consumer The consumer for the merged issues
+	 * @throws IOException If an I/O error occurs or the partial results do not belong together
+	 */
+	public static void merge(final List<File> files, final Comparator<Issue> comparator, final IssueSeverity minSeverity, final IssueConsumer consumer) throws IOException {
+		final List<PartialResultReader> readers = new ArrayList<>(files.size());
+		
+		try {
+			for(final File file : files) {
+				readers.add(new PartialResultReader(file));
+			}
+			
+			checkShards(readers, minSeverity);
+			mergeIssues(readers, comparator, minSeverity, consumer);
+		} finally {
+			for(final PartialResultReader reader : readers) {
+				reader.close();
+			}
+		}
+	}
+	
+	private static void checkShards(final List<PartialResultReader> readers, final IssueSeverity minSeverity) throws IOException {
+		if(readers.isEmpty()) {
+			throw new IOException("No partial results were given.");
+		}
+		
+		final PartialResultReader firstReader = readers.get(0);
+		final PartialResultReader[] shards = new PartialResultReader[firstReader.getShardCount()];
+		
+		for(final PartialResultReader reader : readers) {
+			if(reader.getShardCount() != firstReader.getShardCount() || reader.getReportCount() != firstReader.getReportCount()) {
+				throw new IOException("Partial results '" + firstReader.getFile() + "' and '" + reader.getFile() + "' belong to different aggregations.");
+			}
+			
+			// Issues below the minimum severity of a shard were not saved, so they cannot be printed
+			if(reader.getMinSeverity().compareTo(minSeverity) > 0) {
+				throw new IOException("Partial result '" + reader.getFile() + "' only contains issues with a severity of at least " + reader.getMinSeverity() + ".");
+			}
+			
+			final int shardIndex = reader.getShardNumber() - 1;
+			if(shards[shardIndex] != null) {
+				throw new IOException("Partial results '" + shards[shardIndex].getFile() + "' and '" + reader.getFile() + "' belong to the same shard.");
+			}
+			
+			shards[shardIndex] = reader;
+		}
+		
+		for(int shardIndex = 0; shardIndex < shards.length; shardIndex++) {
+			if(shards[shardIndex] == null) {
+				throw new IOException("The partial result of shard " + (shardIndex + 1) + "/" + shards.length + " is missing.");
+			}
+		}
+	}
+	
+	private static void mergeIssues(final List<PartialResultReader> readers, final Comparator<Issue> comparator, final IssueSeverity minSeverity, final IssueConsumer consumer)
+			throws IOException {
+		IssueMerger.merge(readers, comparator, (issue) -> {
+			if(issue.severity.compareTo(minSeverity) >= 0) {
+				consumer.accept(issue);
+			}
+		});
+	}
+	
+}
@@ -0,0 +1,184 @@
+package stylechecksaggregator.shard;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
+import stylechecksaggregator.sort.IssueMerger;
+import stylechecksaggregator.util.IssueDataInput;
+
+/**
+ * Reads a partial result written by {@link PartialResultWriter}. The issues are read one at a time in the order
+ * in which they were written. As the issues are divided into blocks, only the current issue and the strings of
+ * the current block are kept in memory.
+ * <p>
+ * A partial result file consists of a header describing the shard and the issues in the format of
+ * {@link stylechecksaggregator.util.IssueDataOutput}, each followed by the index of the report it originates from.
+ * When partial results are merged, the report index is used as the rank of the issue.
+ * 
+ * @author Holger Knoche
+ */
+public class PartialResultReader implements IssueMerger.IssueSource, Closeable {
+	
+	/**
+	 * Magic number identifying partial result files.
+	 */
+	static final int MAGIC_NUMBER = 0x53434150;
+	
+	/**
+	 * Version of the file format. Must be incremented whenever the format changes.
+	 */
+	static final int FORMAT_VERSION = 2;
+	
+	static final int BUFFER_SIZE = 65536;
+	
+	private final File file;
+	
+	private final int shardNumber;
+	
+	private final int shardCount;
+	
+	private final int reportCount;
+	
+	private final IssueSeverity minSeverity;
+	
+	private final IssueDataInput issueInput;
+	
+	private Issue issue;
+	
+	private int reportIndex;
+	
+	/**
+	 * Opens the partial result in the given file and reads its header.
+	 * @param file The file to read from
+	 * @throws IOException If an I/O error occurs or the file does not contain a partial result
+	 */
+	public PartialResultReader(final File file) throws IOException {
+		final InputStream inputStream = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+		
+		try {
+			final DataInputStream dataInputStream = new DataInputStream(inputStream);
+			
+			if(dataInputStream.readInt() != MAGIC_NUMBER || dataInputStream.readInt() != FORMAT_VERSION) {
+				throw new IOException("File '" + file + "' does not contain a supported partial result.");
+			}
+			
+			this.file = file;
+			this.shardNumber = dataInputStream.readInt();
+			this.shardCount = dataInputStream.readInt();
+			this.reportCount = dataInputStream.readInt();
+			this.minSeverity = readSeverity(file, dataInputStream.readUTF());
+			this.issueInput = new IssueDataInput(inputStream);
+		} catch (final IOException | RuntimeException e) {
+			inputStream.close();
+			throw e;
+		}
+		
+		if(this.shardCount < 1 || this.shardNumber < 1 || this.shardNumber > this.shardCount || this.reportCount < 0) {
+			this.close();
+			throw new IOException("File '" + file + "' contains an invalid shard.");
+		}
+	}
+	
+	private static IssueSeverity readSeverity(final File file, final String name) throws IOException {
+		try {
+			return IssueSeverity.valueOf(name);
+		} catch (final IllegalArgumentException e) {
+			throw new IOException("File '" + file + "' contains an invalid severity.", e);
+		}
+	}
+	
+	/**
+	 * Returns the file of this partial result.
+	 * @return The file
+	 */
+	public File getFile() {
+		return this.file;
+	}
+	
+	/**
+	 * Returns the number of the shard of this partial result, starting with 1.
+	 * @return The shard number
+	 */
+	public int getShardNumber() {
+		return this.shardNumber;
+	}
+	
+	/**
+	 * Returns the number of shards the reports were distributed to.
+	 * @return The number of shards
+	 */
+	public int getShardCount() {
+		return this.shardCount;
+	}
+	
+	/**
+	 * Returns the number of reports of all shards.
+	 * @return The number of reports
+	 */
+	public int getReportCount() {
+		return this.reportCount;
+	}
+	
+	/**
+	 * Returns the minimum severity of the issues in this partial result.
+	 * @return The minimum severity
+	 */
+	public IssueSeverity getMinSeverity() {
+		return this.minSeverity;
+	}
+	
+	/**
+	 * Advances to the next issue.
+	 * @return {@code true} if there is a next issue, {@code false} if the end has been reached
+	 * @throws IOException If an I/O error occurs or the data is malformed
+	 */
+	@Override
+	public boolean next() throws IOException {
+		this.issue = this.issueInput.readIssue();
+		if(this.issue == null) {
+			return false;
+		}
+		
+		this.reportIndex = this.issueInput.readVarInt();
+		if(this.reportIndex < 0 || this.reportIndex >= this.reportCount) {
+			throw new IOException("Invalid report index " + this.reportIndex + " in '" + this.file + "'.");
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Returns the current issue.
+	 * @return The current issue, or {@code null} if the end has been reached
+	 */
+	@Override
+	public Issue getIssue() {
+		return this.issue;
+	}
+	
+	/**
+	 * Returns the index of the report of the current issue in the order of all reports.
+	 * @return The report index
+	 */
+	public int getReportIndex() {
+		return this.reportIndex;
+	}
+	
+	@Override
+	public int getRank() {
+		return this.reportIndex;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		this.issueInput.close();
+	}
+	
+}
@@ -0,0 +1,256 @@
+package stylechecksaggregator.shard;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
+import stylechecksaggregator.sort.ExternalIssueSorter;
+import stylechecksaggregator.sort.IssueMerger;
+import stylechecksaggregator.util.IssueDataOutput;
+
+/**
+ * Writes the partial result of a shard, i.e. the sorted issues of a subset of the reports, which can be read using
+ * {@link PartialResultReader}. The sorted issues of the single reports are merged when the partial result is
+ * committed. Each issue is written together with the index of its report, so that partial results can be merged
+ * into the same order as a stable sort of the issues of all reports (see {@link PartialResultMerger}).
+ * <p>
+ * The added reports are kept in memory until the partial result is committed, unless a memory budget is given. If
+ * the issues of the added reports exceed this budget, they are merged into a temporary partial result (a "run"),
+ * and the runs are merged when the partial result is committed. As each issue carries the index of its report,
+ * the runs may be merged in any order. Runs that remain after a failure are deleted when the writer is closed.
+ * 
+ * @author Holger Knoche
+ */
+public class PartialResultWriter implements Closeable {
+	
+	/**
+	 * Memory budget denoting that all reports are kept in memory until the partial result is committed.
+	 */
+	public static final long UNLIMITED_MEMORY = Long.MAX_VALUE;
+	
+	private final File file;
+	
+	private final Comparator<Issue> comparator;
+	
+	private final int shardNumber;
+	
+	private final int shardCount;
+	
+	private final int reportCount;
+	
+	private final IssueSeverity minSeverity;
+	
+	private final long memoryBudget;
+	
+	private final List<IssueMerger.IssueSource> reports = new ArrayList<>();
+	
+	private final List<File> runFiles = new ArrayList<>();
+	
+	private long bufferedBytes = 0;
+	
+	private int issueCount = 0;
+	
+	/**
+	 * Creates a new writer for the given file.
+	 * @param file The file to write the partial result to
+	 * @param comparator The comparator defining the order of the issues
+	 * @param shardNumber The number of the shard, starting with 1
+	 * @param shardCount The number of shards the reports are distributed to
+	 * @param reportCount The number of reports of all shards
+	 * @param minSeverity The minimum severity of the issues of the partial result
+	 * @param memoryBudget The (approximate) number of bytes that may be used for keeping the added reports, or
+	 *        {@link #UNLIMITED_MEMORY}
+	 */
+	public PartialResultWriter(final File file, final Comparator<Issue> comparator, final int shardNumber, final int shardCount, final int reportCount,
+			final IssueSeverity minSeverity, final long memoryBudget) {
+		this.file = file.getAbsoluteFile();
+		this.comparator = comparator;
+		this.shardNumber = shardNumber;
+		this.shardCount = shardCount;
+		this.reportCount = reportCount;
+		this.minSeverity = minSeverity;
+		this.memoryBudget = memoryBudget;
+	}
+	
+	/**
+	 * Adds the issues of the given report to the partial result.
+	 * @param reportIndex The index of the report in the order of all reports
+	 * @param issues The issues of the report, which must be sorted by the comparator of this writer
+	 * @throws IOException If an I/O error occurs while writing a run
+	 */
+	public void addReport(final int reportIndex, final List<Issue> issues) throws IOException {
+		if(reportIndex < 0 || reportIndex >= this.reportCount) {
+			throw new IllegalArgumentException("Invalid report index " + reportIndex + ".");
+		}
+		
+		if(issues.isEmpty()) {
+			return;
+		}
+		
+		this.reports.add(IssueMerger.listSource(issues, reportIndex));
+		for(final Issue issue : issues) {
+			this.bufferedBytes += ExternalIssueSorter.estimateSize(issue);
+		}
+		
+		if(this.bufferedBytes >= this.memoryBudget) {
+			this.writeRun();
+		}
+	}
+	
+	/**
+	 * Returns the number of issues written by {@link #commit()}.
+	 * @return The number of issues
+	 */
+	public int getIssueCount() {
+		return this.issueCount;
+	}
+	
+	/**
+	 * Writes the partial result file. No reports may be added afterwards.
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void commit() throws IOException {
+		// Write to a temporary file first, so that an existing partial result is only replaced by a complete one
+		final File temporaryFile = File.createTempFile("partial", ".tmp", this.file.getParentFile());
+		
+		try {
+			if(this.runFiles.isEmpty()) {
+				this.issueCount = this.writePartialResult(temporaryFile, this.reports);
+			} else {
+				if(!this.reports.isEmpty()) {
+					this.writeRun();
+				}
+				
+				// Merge groups of runs until they can be merged at once
+				while(this.runFiles.size() > ExternalIssueSorter.MAX_MERGED_RUNS) {
+					this.mergeIntermediateRuns();
+				}
+				
+				this.issueCount = this.mergeRuns(this.runFiles, temporaryFile);
+			}
+			
+			Files.move(temporaryFile.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temporaryFile.toPath());
+			this.close();
+		}
+	}
+	
+	private void writeRun() throws IOException {
+		final File runFile = File.createTempFile("partial", ".run");
+		this.runFiles.add(runFile);
+		
+		this.writePartialResult(runFile, this.reports);
+		this.reports.clear();
+		this.bufferedBytes = 0;
+	}
+	
+	/**
+	 * Performs an intermediate pass, which replaces each group of {@value ExternalIssueSorter#MAX_MERGED_RUNS} runs by
+	 * a single merged run.
+	 */
+	private void mergeIntermediateRuns() throws IOException {
+		final List<File> mergedRunFiles = new ArrayList<>();
+		
+		try {
+			for(int firstRunIndex = 0; firstRunIndex < this.runFiles.size(); firstRunIndex += ExternalIssueSorter.MAX_MERGED_RUNS) {
+				final List<File> group = this.runFiles.subList(firstRunIndex, Math.min(firstRunIndex + ExternalIssueSorter.MAX_MERGED_RUNS, this.runFiles.size()));
+				
+				final File mergedRunFile = File.createTempFile("partial", ".run");
+				mergedRunFiles.add(mergedRunFile);
+				this.mergeRuns(group, mergedRunFile);
+			}
+		} catch (final IOException | RuntimeException e) {
+			deleteFiles(mergedRunFiles);
+			throw e;
+		}
+		
+		deleteFiles(this.runFiles);
+		this.runFiles.addAll(mergedRunFiles);
+	}
+	
+	private int mergeRuns(final List<File> runFiles, final File targetFile) throws IOException {
+		final List<PartialResultReader> readers = new ArrayList<>(runFiles.size());
+		
+		try {
+			for(final File runFile : runFiles) {
+				readers.add(new PartialResultReader(runFile));
+			}
+			
+			return this.writePartialResult(targetFile, readers);
+		} finally {
+			for(final PartialResultReader reader : readers) {
+				reader.close();
+			}
+		}
+	}
+	
+	/**
+	 * Writes a partial result by merging the issues of the given sources, whose ranks are the indexes of the reports
+	 * of their current issues. Issues at the same position are written in the order of their reports.
+	 * @return The number of written issues
+	 */
+	private int writePartialResult(final File targetFile, final Collection<? extends IssueMerger.IssueSource> sources) throws IOException {
+		try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(targetFile), PartialResultReader.BUFFER_SIZE)) {
+			final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+			
+			dataOutputStream.writeInt(PartialResultReader.MAGIC_NUMBER);
+			dataOutputStream.writeInt(PartialResultReader.FORMAT_VERSION);
+			dataOutputStream.writeInt(this.shardNumber);
+			dataOutputStream.writeInt(this.shardCount);
+			dataOutputStream.writeInt(this.reportCount);
+			dataOutputStream.writeUTF(this.minSeverity.name());
+			
+			// Divide the issues into blocks, so that the reader only has to retain the strings of the current block
+			final IssueDataOutput issueOutput = new IssueDataOutput(outputStream, IssueDataOutput.DEFAULT_BLOCK_SIZE);
+			final IssueCounter counter = new IssueCounter();
+			
+			IssueMerger.mergeSources(sources, this.comparator, (source) -> {
+				issueOutput.writeIssue(source.getIssue());
+				issueOutput.writeVarInt(source.getRank());
+				counter.count++;
+			});
+			
+			issueOutput.writeEnd();
+			return counter.count;
+		}
+	}
+	
+	private static void deleteFiles(final List<File> files) {
+		for(final File file : files) {
+			file.delete();
+		}
+		
+		files.clear();
+	}
+	
+	@Override
+	public void close() {
+		deleteFiles(this.runFiles);
+		this.reports.clear();
+	}
+	
+	/**
+	 * Counter for the issues written by a merge.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class IssueCounter {
+		
+		public int count = 0;
+		
+	}
+	
+}
@@ -0,0 +1,235 @@
+package stylechecksaggregator.sort;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.util.IssueConsumer;
+import stylechecksaggregator.util.IssueDataInput;
+import stylechecksaggregator.util.IssueDataOutput;
+
+/**
+ * Sorts an arbitrary number of issues within a given memory budget. Issues are collected in memory until the
+ * budget is exhausted, at which point they are sorted and written to a temporary file (a "run"). The sorted
+ * issues are obtained by merging all runs. The sort is stable, i.e. it yields the same order as
+ * {@link Collections#sort(List, Comparator)}.
+ * <p>
+ * The runs are divided into blocks (see {@link IssueDataOutput}), and at most {@value #MAX_MERGED_RUNS} runs are
+ * merged at once, so that the memory and the number of open files required by the merge do not depend on the
+ * number of issues. If there are more runs, consecutive runs are merged into larger runs in intermediate passes.
+ * 
+ * @author Holger Knoche
+ */
+public class ExternalIssueSorter implements Closeable {
+	
+	/**
+	 * Estimated memory required by an issue in addition to the characters of its strings.
+	 */
+	private static final long ISSUE_OVERHEAD = 128;
+	
+	private static final int BUFFER_SIZE = 65536;
+	
+	/**
+	 * Maximum number of runs that are merged at once.
+	 */
+	public static final int MAX_MERGED_RUNS = 32;
+	
+	private final Comparator<Issue> comparator;
+	
+	private final long memoryBudget;
+	
+	private final List<Issue> buffer = new ArrayList<>();
+	
+	private final List<File> runFiles = new ArrayList<>();
+	
+	private long bufferedBytes = 0;
+	
+	/**
+	 * Creates a new sorter using the given data.
+	 * @param comparator The comparator defining the order of the issues
+	 * @param memoryBudget The (approximate) number of bytes that may be used for buffering issues
+	 */
+	public ExternalIssueSorter(final Comparator<Issue> comparator, final long memoryBudget) {
+		this.comparator = comparator;
+		this.memoryBudget = memoryBudget;
+	}
+	
+	/**
+	 * Adds the given issue to the issues to sort.
+	 * @param issue The issue to add
+	 * @throws IOException If an I/O error occurs while writing a run
+	 */
+	public void add(final Issue issue) throws IOException {
+		this.buffer.add(issue);
+		this.bufferedBytes += estimateSize(issue);
+		
+		if(this.bufferedBytes >= this.memoryBudget) {
+			this.writeRun();
+		}
+	}
+	
+	/**
+	 * Passes all added issues to the given consumer in sorted order.
+	 * @param consumer The consumer for the sorted issues
+	 * @throws IOException If an I/O error occurs while reading the runs
+	 */
+	public void forEachSorted(final IssueConsumer consumer) throws IOException {
+		// If all issues fit into memory, no runs are necessary
+		if(this.runFiles.isEmpty()) {
+			Collections.sort(this.buffer, this.comparator);
+			
+			for(final Issue issue : this.buffer) {
+				consumer.accept(issue);
+			}
+			return;
+		}
+		
+		if(!this.buffer.isEmpty()) {
+			this.writeRun();
+		}
+		
+		// Merge consecutive runs until they can be merged at once. As the merged runs are consecutive, ties are
+		// still resolved by the order in which the issues were added
+		while(this.runFiles.size() > MAX_MERGED_RUNS) {
+			this.mergeIntermediateRuns();
+		}
+		
+		this.mergeRuns(this.runFiles, consumer);
+	}
+	
+	/**
+	 * Estimates the memory required by the given issue.
+	 * @param issue The issue to estimate the size of
+	 * @return The estimated number of bytes
+	 */
+	public static long estimateSize(final Issue issue) {
+		return ISSUE_OVERHEAD + 2L * (issue.fileName.length() + issue.message.length());
+	}
+	
+	private void writeRun() throws IOException {
+		Collections.sort(this.buffer, this.comparator);
+		
+		final File runFile = File.createTempFile("issues", ".run");
+		this.runFiles.add(runFile);
+		
+		try (IssueDataOutput output = createRunOutput(runFile)) {
+			for(final Issue issue : this.buffer) {
+				output.writeIssue(issue);
+			}
+			
+			output.writeEnd();
+		}
+		
+		this.buffer.clear();
+		this.bufferedBytes = 0;
+	}
+	
+	private static IssueDataOutput createRunOutput(final File runFile) throws IOException {
+		return new IssueDataOutput(new BufferedOutputStream(new FileOutputStream(runFile), BUFFER_SIZE), IssueDataOutput.DEFAULT_BLOCK_SIZE);
+	}
+	
+	/**
+	 * Performs an intermediate pass, which replaces each group of {@value #MAX_MERGED_RUNS} consecutive runs by a
+	 * single merged run.
+	 */
+	private void mergeIntermediateRuns() throws IOException {
+		final List<File> mergedRunFiles = new ArrayList<>();
+		
+		try {
+			for(int firstRunIndex = 0; firstRunIndex < this.runFiles.size(); firstRunIndex += MAX_MERGED_RUNS) {
+				final List<File> group = this.runFiles.subList(firstRunIndex, Math.min(firstRunIndex + MAX_MERGED_RUNS, this.runFiles.size()));
+				
+				final File mergedRunFile = File.createTempFile("issues", ".run");
+				mergedRunFiles.add(mergedRunFile);
+				
+				try (IssueDataOutput output = createRunOutput(mergedRunFile)) {
+					this.mergeRuns(group, output::writeIssue);
+					output.writeEnd();
+				}
+			}
+		} catch (final IOException | RuntimeException e) {
+			deleteFiles(mergedRunFiles);
+			throw e;
+		}
+		
+		deleteFiles(this.runFiles);
+		this.runFiles.addAll(mergedRunFiles);
+	}
+	
+	private void mergeRuns(final List<File> runFiles, final IssueConsumer consumer) throws IOException {
+		final List<RunSource> sources = new ArrayList<>(runFiles.size());
+		
+		try {
+			// Ties are resolved by the run index, as earlier runs contain the earlier issues
+			for(int runIndex = 0; runIndex < runFiles.size(); runIndex++) {
+				sources.add(new RunSource(new IssueDataInput(new BufferedInputStream(new FileInputStream(runFiles.get(runIndex)), BUFFER_SIZE)), runIndex));
+			}
+			
+			IssueMerger.merge(sources, this.comparator, consumer);
+		} finally {
+			for(final RunSource source : sources) {
+				source.input.close();
+			}
+		}
+	}
+	
+	private static void deleteFiles(final List<File> files) {
+		for(final File file : files) {
+			file.delete();
+		}
+		
+		files.clear();
+	}
+	
+	@Override
+	public void close() {
+		deleteFiles(this.runFiles);
+		this.buffer.clear();
+	}
+	
+	/**
+	 * Source for the issues of a run.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class RunSource implements IssueMerger.IssueSource {
+		
+		public final IssueDataInput input;
+		
+		private final int runIndex;
+		
+		private Issue issue;
+		
+		public RunSource(final IssueDataInput input, final int runIndex) {
+			this.input = input;
+			this.runIndex = runIndex;
+		}
+		
+		@Override
+		public boolean next() throws IOException {
+			this.issue = this.input.readIssue();
+			return (this.issue != null);
+		}
+		
+		@Override
+		public Issue getIssue() {
+			return this.issue;
+		}
+		
+		@Override
+		public int getRank() {
+			return this.runIndex;
+		}
+		
+	}
+	
+}
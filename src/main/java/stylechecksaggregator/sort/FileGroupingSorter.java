@@ -0,0 +1,131 @@
+package stylechecksaggregator.sort;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import stylechecksaggregator.model.Issue;
+
+/**
+ * Sorts issues by file name and line number without comparing file names per issue. The issues are first grouped
+ * by their file names, so that each distinct file name is only compared when the groups are ranked. The issues are
+ * then distributed into buckets by the rank of their file name, and the buckets are sorted by line number using
+ * primitive keys. The result is the same as a stable sort by file name and line number, i.e. issues with the same
+ * file name and line number retain their order. The sorting of the {@link stylechecksaggregator.store.IssueStore} is
+ * based on {@link #sortIndices(String[], int[], int[], int)}.
+ * 
+ * @author Holger Knoche
+ */
+public class FileGroupingSorter {
+	
+	/**
+	 * Minimum number of issues for the buckets to be sorted in parallel.
+	 */
+	private static final int PARALLEL_THRESHOLD = 1 << 16;
+	
+	private FileGroupingSorter() {
+		// Only static methods
+	}
+	
+	/**
+	 * Sorts the given issues by file name and line number.
+	 * @param issues The issues to sort, which must be modifiable
+	 */
+	public static void sortByFileNameAndLineNumber(final List<Issue> issues) {
+		final int size = issues.size();
+		final Issue[] issueArray = issues.toArray(new Issue[size]);
+		
+		// Assign an id to each distinct file name. Consecutive issues often belong to the same file, so the id of the
+		// previous issue is reused if possible
+		final Map<String, Integer> fileNameIds = new HashMap<>();
+		final int[] issueFileNameIds = new int[size];
+		final int[] lineNumbers = new int[size];
+		String previousFileName = null;
+		int previousFileNameId = -1;
+		
+		for(int index = 0; index < size; index++) {
+			final Issue issue = issueArray[index];
+			
+			if(!issue.fileName.equals(previousFileName)) {
+				final Integer existingId = fileNameIds.putIfAbsent(issue.fileName, fileNameIds.size());
+				previousFileName = issue.fileName;
+				previousFileNameId = (existingId != null) ? existingId : fileNameIds.size() - 1;
+			}
+			
+			issueFileNameIds[index] = previousFileNameId;
+			lineNumbers[index] = issue.lineNumber;
+		}
+		
+		final String[] fileNames = new String[fileNameIds.size()];
+		for(final Map.Entry<String, Integer> entry : fileNameIds.entrySet()) {
+			fileNames[entry.getValue()] = entry.getKey();
+		}
+		
+		final int[] sortedIndices = sortIndices(fileNames, issueFileNameIds, lineNumbers, size);
+		
+		final ListIterator<Issue> iterator = issues.listIterator();
+		for(int position = 0; position < size; position++) {
+			iterator.next();
+			iterator.set(issueArray[sortedIndices[position]]);
+		}
+	}
+	
+	/**
+	 * Sorts issues given by the ids of their file names and their line numbers. Issues with the same file name and
+	 * line number retain their order.
+	 * @param fileNames The distinct file names, indexed by their ids
+	 * @param fileNameIds The ids of the file names of the issues
+	 * @param lineNumbers The line numbers of the issues
+	 * @param size The number of issues, i.e. the number of valid entries in the arrays of the issues
+	 * @return The indices of the issues in sorted order
+	 */
+	public static int[] sortIndices(final String[] fileNames, final int[] fileNameIds, final int[] lineNumbers, final int size) {
+		// Determine the rank of each file name in the sort order
+		final int fileNameCount = fileNames.length;
+		final String[] sortedFileNames = Arrays.copyOf(fileNames, fileNameCount);
+		Arrays.parallelSort(sortedFileNames);
+		
+		final Map<String, Integer> ranksByFileName = new HashMap<>();
+		for(int rank = 0; rank < fileNameCount; rank++) {
+			ranksByFileName.put(sortedFileNames[rank], rank);
+		}
+		
+		final int[] ranks = new int[fileNameCount];
+		for(int fileNameId = 0; fileNameId < fileNameCount; fileNameId++) {
+			ranks[fileNameId] = ranksByFileName.get(fileNames[fileNameId]);
+		}
+		
+		// Determine the start of each bucket
+		final int[] bucketStarts = new int[fileNameCount + 1];
+		for(int index = 0; index < size; index++) {
+			bucketStarts[ranks[fileNameIds[index]] + 1]++;
+		}
+		for(int rank = 0; rank < fileNameCount; rank++) {
+			bucketStarts[rank + 1] += bucketStarts[rank];
+		}
+		
+		// Distribute the issues into the buckets. The key contains the line number in the upper and the index in the
+		// lower half, so that sorting the keys sorts by line number and retains the original order of equal lines
+		final long[] keys = new long[size];
+		final int[] nextPositions = Arrays.copyOf(bucketStarts, fileNameCount);
+		for(int index = 0; index < size; index++) {
+			final int position = nextPositions[ranks[fileNameIds[index]]]++;
+			keys[position] = ((long) lineNumbers[index] << 32) | index;
+		}
+		
+		// Sort the buckets concurrently, large buckets are additionally sorted in parallel themselves
+		final IntStream ranksToSort = IntStream.range(0, fileNameCount);
+		(size >= PARALLEL_THRESHOLD ? ranksToSort.parallel() : ranksToSort).forEach((rank) -> Arrays.parallelSort(keys, bucketStarts[rank], bucketStarts[rank + 1]));
+		
+		final int[] sortedIndices = new int[size];
+		for(int position = 0; position < size; position++) {
+			sortedIndices[position] = (int) keys[position];
+		}
+		
+		return sortedIndices;
+	}
+	
+}
@@ -0,0 +1,163 @@
+package stylechecksaggregator.sort;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.util.IssueConsumer;
+
+/**
+ * Merges several sorted sequences of issues (k-way merge). Only the current issue of each sequence is kept in the
+ * merge, so the sequences may be read from files one issue at a time. Issues at the same position are ordered by
+ * the rank of their sequences, e.g. the index of the run or report they originate from, so that the merge yields
+ * the same order as a stable sort of all issues.
+ * 
+ * @author Holger Knoche
+ */
+public class IssueMerger {
+	
+	private IssueMerger() {
+		// Only static methods
+	}
+	
+	/**
+	 * Merges the given sources and passes each issue to the given consumer in sorted order.
+	 * @param sources The sources to merge, which must be sorted by the given comparator
+	 * @param comparator The comparator defining the order of the issues
+	 * @param consumer The consumer for the merged issues
+	 * @throws IOException If an I/O error occurs while reading a source
+	 */
+	public static void merge(final Collection<? extends IssueSource> sources, final Comparator<Issue> comparator, final IssueConsumer consumer) throws IOException {
+		mergeSources(sources, comparator, (source) -> consumer.accept(source.getIssue()));
+	}
+	
+	/**
+	 * Merges the given sources and passes the source of each issue to the given consumer in sorted order. The
+	 * consumer is invoked while the source is positioned at the issue, so it may obtain additional data from the
+	 * source.
+	 * @param <S> The type of the sources
+	 * @param sources The sources to merge, which must be sorted by the given comparator
+	 * @param comparator The comparator defining the order of the issues
+	 * @param consumer The consumer for the sources of the merged issues
+	 * @throws IOException If an I/O error occurs while reading a source
+	 */
+	public static <S extends IssueSource> void mergeSources(final Collection<? extends S> sources, final Comparator<Issue> comparator, final SourceConsumer<? super S> consumer)
+			throws IOException {
+		final PriorityQueue<S> heads = new PriorityQueue<>(Math.max(1, sources.size()), (source1, source2) -> {
+			final int result = comparator.compare(source1.getIssue(), source2.getIssue());
+			return (result != 0) ? result : Integer.compare(source1.getRank(), source2.getRank());
+		});
+		
+		for(final S source : sources) {
+			if(source.next()) {
+				heads.add(source);
+			}
+		}
+		
+		// Repeatedly consume the smallest head and replace it by the next issue of its source
+		while(!heads.isEmpty()) {
+			final S source = heads.poll();
+			consumer.accept(source);
+			
+			if(source.next()) {
+				heads.add(source);
+			}
+		}
+	}
+	
+	/**
+	 * Creates a source for the given sorted list of issues.
+	 * @param issues The issues of the source
+	 * @param rank The rank of the source
+	 * @return The source
+	 */
+	public static IssueSource listSource(final List<Issue> issues, final int rank) {
+		return new ListSource(issues, rank);
+	}
+	
+	/**
+	 * Sorted sequence of issues to be merged, which is read one issue at a time.
+	 * 
+	 * @author Holger Knoche
+	 */
+	public interface IssueSource {
+		
+		/**
+		 * Advances to the next issue. Initially, the source is positioned before the first issue.
+		 * @return {@code true} if there is a next issue, {@code false} if the end has been reached
+		 * @throws IOException If an I/O error occurs
+		 */
+		boolean next() throws IOException;
+		
+		/**
+		 * Returns the current issue.
+		 * @return The current issue
+		 */
+		Issue getIssue();
+		
+		/**
+		 * Returns the rank of the current issue, which orders issues at the same position.
+		 * @return The rank
+		 */
+		int getRank();
+		
+	}
+	
+	/**
+	 * Consumer for the sources of merged issues.
+	 * 
+	 * @author Holger Knoche
+	 * @param <S> The type of the sources
+	 */
+	@FunctionalInterface
+	public interface SourceConsumer<S extends IssueSource> {
+		
+		/**
+		 * Consumes the current issue of the given source.
+		 * @param source The source positioned at the issue to consume
+		 * @throws IOException If an I/O error occurs
+		 */
+		void accept(S source) throws IOException;
+		
+	}
+	
+	/**
+	 * Source for a list of issues.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class ListSource implements IssueSource {
+		
+		private final List<Issue> issues;
+		
+		private final int rank;
+		
+		private int position = -1;
+		
+		public ListSource(final List<Issue> issues, final int rank) {
+			this.issues = issues;
+			this.rank = rank;
+		}
+		
+		@Override
+		public boolean next() {
+			this.position++;
+			return (this.position < this.issues.size());
+		}
+		
+		@Override
+		public Issue getIssue() {
+			return this.issues.get(this.position);
+		}
+		
+		@Override
+		public int getRank() {
+			return this.rank;
+		}
+		
+	}
+	
+}
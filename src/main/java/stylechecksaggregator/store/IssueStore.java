@@ -0,0 +1,147 @@
+package stylechecksaggregator.store;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
+import stylechecksaggregator.model.IssueType;
+import stylechecksaggregator.sort.FileGroupingSorter;
+import stylechecksaggregator.util.IssueConsumer;
+
+/**
+ * Compact, column-oriented store for large numbers of issues. File names and messages are kept in dictionaries,
+ * so that repeated strings are only stored once, and all other data is kept in primitive arrays. Issue objects
+ * are only created when issues are read from the store.
+ * 
+ * @author Holger Knoche
+ */
+public class IssueStore {
+	
+	private static final int INITIAL_CAPACITY = 1024;
+	
+	private static final IssueSeverity[] SEVERITIES = IssueSeverity.values();
+	
+	/**
+	 * Maximum number of distinct issue types, as the types are referenced by a single byte.
+	 */
+	private static final int MAX_TYPE_COUNT = 256;
+	
+	private final StringDictionary fileNames = new StringDictionary();
+	
+	private final StringDictionary messages = new StringDictionary();
+	
+	private final List<IssueType> types = new ArrayList<>();
+	
+	private int[] fileNameIds = new int[INITIAL_CAPACITY];
+	
+	private int[] lineNumbers = new int[INITIAL_CAPACITY];
+	
+	private byte[] severityOrdinals = new byte[INITIAL_CAPACITY];
+	
+	private byte[] typeOrdinals = new byte[INITIAL_CAPACITY];
+	
+	private int[] messageIds = new int[INITIAL_CAPACITY];
+	
+	private int size = 0;
+	
+	/**
+	 * Adds the given issue to the store.
+	 * @param issue The issue to add
+	 */
+	public void add(final Issue issue) {
+		if(this.size == this.lineNumbers.length) {
+			this.grow();
+		}
+		
+		final int index = this.size;
+		this.fileNameIds[index] = this.fileNames.intern(issue.fileName);
+		this.lineNumbers[index] = issue.lineNumber;
+		this.severityOrdinals[index] = (byte) issue.severity.ordinal();
+		this.typeOrdinals[index] = (byte) this.typeOrdinal(issue.type);
+		this.messageIds[index] = this.messages.intern(issue.message);
+		
+		this.size++;
+	}
+	
+	/**
+	 * Returns the ordinal of the given type within this store. As there are only few types, they are looked up
+	 * linearly by identity.
+	 */
+	private int typeOrdinal(final IssueType type) {
+		final List<IssueType> types = this.types;
+		
+		for(int ordinal = 0; ordinal < types.size(); ordinal++) {
+			if(types.get(ordinal) == type) {
+				return ordinal;
+			}
+		}
+		
+		if(types.size() == MAX_TYPE_COUNT) {
+			throw new IllegalStateException("Too many issue types.");
+		}
+		
+		types.add(type);
+		return types.size() - 1;
+	}
+	
+	/**
+	 * Returns the number of issues in this store.
+	 * @return The number of issues
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * Returns the issue at the given index. A new issue object is created on each invocation.
+	 * @param index The index of the issue, i.e. the number of issues added before it
+	 * @return The issue
+	 */
+	public Issue get(final int index) {
+		if(index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Invalid index " + index + ".");
+		}
+		
+		return new Issue(this.fileNames.get(this.fileNameIds[index]), this.lineNumbers[index], SEVERITIES[this.severityOrdinals[index]], this.types.get(this.typeOrdinals[index] & 0xFF),
+				this.messages.get(this.messageIds[index]));
+	}
+	
+	/**
+	 * Passes all issues to the given consumer, sorted by file name and line number. Issues with the same file name
+	 * and line number retain the order in which they were added.
+	 * @param consumer The consumer for the sorted issues
+	 * @throws IOException If an I/O error occurs in the consumer
+	 */
+	public void forEachSortedByFileNameAndLineNumber(final IssueConsumer consumer) throws IOException {
+		for(final int index : this.sortByFileNameAndLineNumber()) {
+			consumer.accept(this.get(index));
+		}
+	}
+	
+	/**
+	 * Returns the indices of the issues sorted by file name and line number (see {@link FileGroupingSorter}).
+	 * @return The sorted indices
+	 */
+	int[] sortByFileNameAndLineNumber() {
+		final String[] fileNames = new String[this.fileNames.size()];
+		for(int fileNameId = 0; fileNameId < fileNames.length; fileNameId++) {
+			fileNames[fileNameId] = this.fileNames.get(fileNameId);
+		}
+		
+		return FileGroupingSorter.sortIndices(fileNames, this.fileNameIds, this.lineNumbers, this.size);
+	}
+	
+	private void grow() {
+		final int newCapacity = 2 * this.lineNumbers.length;
+		
+		this.fileNameIds = Arrays.copyOf(this.fileNameIds, newCapacity);
+		this.lineNumbers = Arrays.copyOf(this.lineNumbers, newCapacity);
+		this.severityOrdinals = Arrays.copyOf(this.severityOrdinals, newCapacity);
+		this.typeOrdinals = Arrays.copyOf(this.typeOrdinals, newCapacity);
+		this.messageIds = Arrays.copyOf(this.messageIds, newCapacity);
+	}
+	
+}
@@ -0,0 +1,54 @@
+package stylechecksaggregator.store;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary that assigns consecutive ids to distinct strings, so that each distinct string is only stored once.
+ * 
+ * @author Holger Knoche
+ */
+public class StringDictionary {
+	
+	private final Map<String, Integer> ids = new HashMap<>();
+	
+	private final List<String> strings = new ArrayList<>();
+	
+	/**
+	 * Returns the id of the given string, adding it to the dictionary if necessary.
+	 * @param string The string to look up
+	 * @return The id of the string
+	 */
+	public int intern(final String string) {
+		final Integer existingId = this.ids.get(string);
+		if(existingId != null) {
+			return existingId;
+		}
+		
+		final int id = this.strings.size();
+		this.ids.put(string, id);
+		this.strings.add(string);
+		
+		return id;
+	}
+	
+	/**
+	 * Returns the string with the given id.
+	 * @param id The id of the string
+	 * @return The string
+	 */
+	public String get(final int id) {
+		return this.strings.get(id);
+	}
+	
+	/**
+	 * Returns the number of distinct strings in this dictionary.
+	 * @return The number of strings
+	 */
+	public int size() {
+		return this.strings.size();
+	}
+	
+}
@@ -0,0 +1,90 @@
+package stylechecksaggregator.util;
+
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Input stream reading the remaining bytes of a byte buffer, e.g. of a memory-mapped file. The position of the
+ * given buffer is not changed. As reading from the buffer never blocks, the interruption of the reading thread is
+ * checked explicitly, so that cancelled tasks stop reading large files.
+ * 
+ * @author Holger Knoche
+ */
+public class ByteBufferInputStream extends InputStream {
+	
+	private final ByteBuffer buffer;
+	
+	private int markedPosition;
+	
+	/**
+	 * Creates a new stream reading from the given buffer.
+	 * @param buffer The buffer to read from
+	 */
+	public ByteBufferInputStream(final ByteBuffer buffer) {
+		this.buffer = buffer.slice();
+		this.markedPosition = 0;
+	}
+	
+	@Override
+	public int read() {
+		if(!this.buffer.hasRemaining()) {
+			return -1;
+		}
+		
+		return (this.buffer.get() & 0xFF);
+	}
+	
+	@Override
+	public int read(final byte[] bytes, final int offset, final int length) throws InterruptedIOException {
+		if(Thread.currentThread().isInterrupted()) {
+			throw new InterruptedIOException("Interrupted while reading the buffer.");
+		}
+		if(length == 0) {
+			return 0;
+		}
+		if(!this.buffer.hasRemaining()) {
+			return -1;
+		}
+		
+		final int bytesToRead = Math.min(length, this.buffer.remaining());
+		this.buffer.get(bytes, offset, bytesToRead);
+		
+		return bytesToRead;
+	}
+	
+	@Override
+	public long skip(final long count) {
+		if(count <= 0) {
+			return 0;
+		}
+		
+		final int bytesToSkip = (int) Math.min(count, this.buffer.remaining());
+		// Invoke the methods of Buffer, as ByteBuffer only overrides them as of Java 9
+		((Buffer) this.buffer).position(this.buffer.position() + bytesToSkip);
+		
+		return bytesToSkip;
+	}
+	
+	@Override
+	public int available() {
+		return this.buffer.remaining();
+	}
+	
+	@Override
+	public boolean markSupported() {
+		return true;
+	}
+	
+	@Override
+	public synchronized void mark(final int readLimit) {
+		this.markedPosition = this.buffer.position();
+	}
+	
+	@Override
+	public synchronized void reset() {
+		((Buffer) this.buffer).position(this.markedPosition);
+	}
+	
+}
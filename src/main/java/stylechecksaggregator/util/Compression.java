@@ -0,0 +1,106 @@
+package stylechecksaggregator.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Compression formats of report files, which are recognized by the first bytes of the file.
+ * 
+ * @author Holger Knoche
+ */
+enum Compression {
+	
+	/**
+	 * Uncompressed data.
+	 */
+	NONE,
+	
+	/**
+	 * Data compressed by gzip (RFC 1952), e.g. {@code .xml.gz} files.
+	 */
+	GZIP,
+	
+	/**
+	 * Data compressed by zlib (RFC 1950), e.g. {@code .xml.zz} files. As XML documents cannot start with the
+	 * zlib header, such data can be recognized reliably.
+	 */
+	ZLIB,
+	
+	/**
+	 * Zip archive, which may contain several files.
+	 */
+	ZIP;
+	
+	/**
+	 * Number of bytes required to recognize the compression.
+	 */
+	private static final int HEADER_SIZE = 4;
+	
+	private static final int GZIP_MAGIC_1 = 0x1F;
+	
+	private static final int GZIP_MAGIC_2 = 0x8B;
+	
+	/**
+	 * Compression method of zlib data using deflate, stored in the lower bits of the first byte.
+	 */
+	private static final int ZLIB_DEFLATE_METHOD = 8;
+	
+	private static final int ZLIB_CHECK_DIVISOR = 31;
+	
+	private static final int ZIP_MAGIC_1 = 'P';
+	
+	private static final int ZIP_MAGIC_2 = 'K';
+	
+	/**
+	 * Recognizes the compression of the data in the given stream. The stream must support marks, and its
+	 * position is not changed.
+	 * @param inputStream The stream to examine
+	 * @return The compression of the data
+	 * @throws IOException If an I/O error occurs
+	 */
+	public static Compression detect(final InputStream inputStream) throws IOException {
+		final byte[] header = new byte[HEADER_SIZE];
+		int headerLength = 0;
+		
+		inputStream.mark(HEADER_SIZE);
+		try {
+			int bytesRead = inputStream.read(header, 0, HEADER_SIZE);
+			
+			while(bytesRead > 0) {
+				headerLength += bytesRead;
+				bytesRead = (headerLength < HEADER_SIZE) ? inputStream.read(header, headerLength, HEADER_SIZE - headerLength) : -1;
+			}
+		} finally {
+			inputStream.reset();
+		}
+		
+		return detect(header, headerLength);
+	}
+	
+	private static Compression detect(final byte[] header, final int headerLength) {
+		if(headerLength < 2) {
+			return NONE;
+		}
+		
+		final int firstByte = header[0] & 0xFF;
+		final int secondByte = header[1] & 0xFF;
+		
+		if(firstByte == GZIP_MAGIC_1 && secondByte == GZIP_MAGIC_2) {
+			return GZIP;
+		} else if((firstByte & 0x0F) == ZLIB_DEFLATE_METHOD && ((firstByte << 8) | secondByte) % ZLIB_CHECK_DIVISOR == 0) {
+			return ZLIB;
+		} else if(headerLength == HEADER_SIZE && firstByte == ZIP_MAGIC_1 && secondByte == ZIP_MAGIC_2 && isZipSignature(header[2], header[3])) {
+			return ZIP;
+		}
+		
+		return NONE;
+	}
+	
+	/**
+	 * Determines whether the given bytes complete the signature of a local file header or of an empty archive.
+	 */
+	private static boolean isZipSignature(final byte thirdByte, final byte fourthByte) {
+		return (thirdByte == 3 && fourthByte == 4) || (thirdByte == 5 && fourthByte == 6);
+	}
+	
+}
@@ -0,0 +1,22 @@
+package stylechecksaggregator.util;
+
+import java.io.IOException;
+
+import stylechecksaggregator.model.Issue;
+
+/**
+ * Consumer for issues that may perform I/O operations.
+ * 
+ * @author Holger Knoche
+ */
+@FunctionalInterface
+public interface IssueConsumer {
+	
+	/**
+	 * Consumes the given issue.
+	 * @param issue The issue to consume
+	 * @throws IOException If an I/O error occurs
+	 */
+	void accept(Issue issue) throws IOException;
+	
+}
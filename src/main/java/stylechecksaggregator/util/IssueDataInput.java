@@ -0,0 +1,164 @@
+package stylechecksaggregator.util;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import stylechecksaggregator.adapter.AdapterRegistry;
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
+import stylechecksaggregator.model.IssueType;
+
+/**
+ * Reads issues written by {@link IssueDataOutput}.
+ * 
+ * @author Holger Knoche
+ */
+public class IssueDataInput implements Closeable {
+	
+	private final DataInputStream inputStream;
+	
+	private final List<String> strings = new ArrayList<>();
+	
+	private boolean endReached = false;
+	
+	/**
+	 * Creates a new input reading from the given stream.
+	 * @param inputStream The stream to read from
+	 */
+	public IssueDataInput(final InputStream inputStream) {
+		this.inputStream = new DataInputStream(inputStream);
+	}
+	
+	/**
+	 * Reads the next issue from the stream.
+	 * @return The issue or {@code null} if the end of the stream has been reached
+	 * @throws IOException If an I/O error occurs or the data is malformed
+	 */
+	public Issue readIssue() throws IOException {
+		if(this.endReached) {
+			return null;
+		}
+		
+		int tag = this.inputStream.readUnsignedByte();
+		
+		// The strings of the previous block are no longer referenced
+		while(tag == IssueDataOutput.BLOCK_TAG) {
+			this.strings.clear();
+			tag = this.inputStream.readUnsignedByte();
+		}
+		
+		if(tag == IssueDataOutput.END_TAG) {
+			this.endReached = true;
+			return null;
+		} else if(tag != IssueDataOutput.ISSUE_TAG) {
+			throw new IOException("Invalid tag " + tag + ".");
+		}
+		
+		final String fileName = this.readString();
+		final int lineNumber = this.readVarInt();
+		final String severityName = this.readString();
+		final String typeName = this.readString();
+		final String message = this.readString();
+		
+		return new Issue(fileName, lineNumber, toSeverity(severityName), toType(typeName), message);
+	}
+	
+	private static IssueSeverity toSeverity(final String name) throws IOException {
+		try {
+			return IssueSeverity.valueOf(name);
+		} catch (final IllegalArgumentException e) {
+			throw new IOException("Unknown severity '" + name + "'.", e);
+		}
+	}
+	
+	private static IssueType toType(final String name) throws IOException {
+		IssueType type = IssueType.forName(name);
+		
+		// The types of additional tools are only registered when the adapter providers are loaded
+		if(type == null) {
+			AdapterRegistry.getProviders();
+			type = IssueType.forName(name);
+		}
+		
+		if(type == null) {
+			throw new IOException("Unknown issue type '" + name + "'.");
+		}
+		
+		return type;
+	}
+	
+	/**
+	 * Reads all remaining issues from the stream.
+	 * @return The issues in the order in which they were written
+	 * @throws IOException If an I/O error occurs or the data is malformed
+	 */
+	public List<Issue> readAllIssues() throws IOException {
+		final List<Issue> issues = new ArrayList<>();
+		
+		Issue issue = this.readIssue();
+		while(issue != null) {
+			issues.add(issue);
+			issue = this.readIssue();
+		}
+		
+		return issues;
+	}
+	
+	private String readString() throws IOException {
+		final int reference = this.readVarInt();
+		
+		if(reference != IssueDataOutput.NEW_STRING_REFERENCE) {
+			final int index = reference - 1;
+			
+			if(index < 0 || index >= this.strings.size()) {
+				throw new IOException("Invalid string reference " + reference + ".");
+			}
+			
+			return this.strings.get(index);
+		}
+		
+		final int length = this.readVarInt();
+		if(length < 0) {
+			throw new IOException("Invalid string length " + length + ".");
+		}
+		
+		final byte[] bytes = new byte[length];
+		this.inputStream.readFully(bytes);
+		
+		final String value = new String(bytes, StandardCharsets.UTF_8);
+		this.strings.add(value);
+		
+		return value;
+	}
+	
+	/**
+	 * Reads a number written by {@link IssueDataOutput#writeVarInt(int)}.
+	 * @return The number
+	 * @throws IOException If an I/O error occurs or the data is malformed
+	 */
+	public int readVarInt() throws IOException {
+		int value = 0;
+		
+		for(int shift = 0; shift < 35; shift += 7) {
+			final int currentByte = this.inputStream.readUnsignedByte();
+			value |= (currentByte & 0x7F) << shift;
+			
+			if((currentByte & 0x80) == 0) {
+				return value;
+			}
+		}
+		
+		throw new IOException("Malformed variable-length integer.");
+	}
+	
+	@Override
+	public void close() throws IOException {
+		this.inputStream.close();
+	}
+	
+}
@@ -0,0 +1,153 @@
+package stylechecksaggregator.util;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import stylechecksaggregator.model.Issue;
+
+/**
+ * Writes issues in a compact binary form, which can be read using {@link IssueDataInput}. Strings are only
+ * written once per stream and referenced by their index afterwards, as file names and messages are usually
+ * repeated many times. Numbers are written as variable-length integers.
+ * <p>
+ * As the writer and the reader have to retain all strings of the stream, long streams may be divided into blocks
+ * of a fixed number of issues. The strings are then only referenced within their block, so only the strings of
+ * a single block are retained.
+ * 
+ * @author Holger Knoche
+ */
+public class IssueDataOutput implements Closeable {
+	
+	/**
+	 * Tag denoting that an issue follows.
+	 */
+	static final int ISSUE_TAG = 1;
+	
+	/**
+	 * Tag denoting the end of the stream.
+	 */
+	static final int END_TAG = 0;
+	
+	/**
+	 * Tag denoting the start of a new block, i.e. that previously written strings are no longer referenced.
+	 */
+	static final int BLOCK_TAG = 2;
+	
+	/**
+	 * Block size denoting that the stream is not divided into blocks.
+	 */
+	public static final int NO_BLOCKS = 0;
+	
+	/**
+	 * Default number of issues per block for long streams.
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 1024;
+	
+	/**
+	 * Reference denoting that a new string follows.
+	 */
+	static final int NEW_STRING_REFERENCE = 0;
+	
+	private final DataOutputStream outputStream;
+	
+	private final Map<String, Integer> stringIndices = new HashMap<>();
+	
+	private final int blockSize;
+	
+	private int blockIssueCount = 0;
+	
+	/**
+	 * Creates a new output writing to the given stream, which is not divided into blocks.
+	 * @param outputStream The stream to write to
+	 */
+	public IssueDataOutput(final OutputStream outputStream) {
+		this(outputStream, NO_BLOCKS);
+	}
+	
+	/**
+	 * Creates a new output writing to the given stream, which is divided into blocks of the given size.
+	 * @param outputStream The stream to write to
+	 * @param blockSize The number of issues per block, or {@link #NO_BLOCKS}
+	 */
+	public IssueDataOutput(final OutputStream outputStream, final int blockSize) {
+		this.outputStream = new DataOutputStream(outputStream);
+		this.blockSize = blockSize;
+	}
+	
+	/**
+	 * Writes the given issue.
+	 * @param issue The issue to write
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void writeIssue(final Issue issue) throws IOException {
+		// Start a new block if the current one is full, so that its strings can be discarded
+		if(this.blockSize != NO_BLOCKS && this.blockIssueCount == this.blockSize) {
+			this.outputStream.writeByte(BLOCK_TAG);
+			this.stringIndices.clear();
+			this.blockIssueCount = 0;
+		}
+		
+		this.blockIssueCount++;
+		this.outputStream.writeByte(ISSUE_TAG);
+		
+		this.writeString(issue.fileName);
+		this.writeVarInt(issue.lineNumber);
+		this.writeString(issue.severity.name());
+		this.writeString(issue.type.name());
+		this.writeString(issue.message);
+	}
+	
+	/**
+	 * Writes the end marker of the stream. No issues may be written afterwards.
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void writeEnd() throws IOException {
+		this.outputStream.writeByte(END_TAG);
+		this.outputStream.flush();
+	}
+	
+	private void writeString(final String value) throws IOException {
+		final Integer index = this.stringIndices.get(value);
+		
+		// Strings that have been written before are referenced by their index (offset by one)
+		if(index != null) {
+			this.writeVarInt(index + 1);
+			return;
+		}
+		
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		
+		this.writeVarInt(NEW_STRING_REFERENCE);
+		this.writeVarInt(bytes.length);
+		this.outputStream.write(bytes);
+		
+		this.stringIndices.put(value, this.stringIndices.size());
+	}
+	
+	/**
+	 * Writes the given non-negative number as a variable-length integer, e.g. to attach additional data to an issue.
+	 * @param value The number to write
+	 * @throws IOException If an I/O error occurs
+	 */
+	public void writeVarInt(final int value) throws IOException {
+		int remainingValue = value;
+		
+		while((remainingValue & ~0x7F) != 0) {
+			this.outputStream.writeByte((remainingValue & 0x7F) | 0x80);
+			remainingValue >>>= 7;
+		}
+		
+		this.outputStream.writeByte(remainingValue);
+	}
+	
+	@Override
+	public void close() throws IOException {
+		this.outputStream.close();
+	}
+	
+}
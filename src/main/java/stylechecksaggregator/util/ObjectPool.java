@@ -0,0 +1,46 @@
+package stylechecksaggregator.util;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Pool of objects that are expensive to create and not thread-safe, such as parsers. In contrast to a thread-local
+ * variable, pooled objects are also reused across threads, which is required if each report is processed on a new
+ * (virtual) thread. The pool never holds more objects than have been in use at the same time.
+ * 
+ * @author Holger Knoche
+ * @param <T> The type of the pooled objects
+ */
+public class ObjectPool<T> {
+	
+	private final ConcurrentLinkedQueue<T> idleObjects = new ConcurrentLinkedQueue<>();
+	
+	private final Supplier<T> factory;
+	
+	/**
+	 * Creates a new pool using the given factory.
+	 * @param factory The factory creating new objects if no idle object is available
+	 */
+	public ObjectPool(final Supplier<T> factory) {
+		this.factory = factory;
+	}
+	
+	/**
+	 * Takes an idle object from the pool or creates a new one. The object must be returned to the pool using
+	 * {@link #release(Object)} after use.
+	 * @return The object
+	 */
+	public T borrow() {
+		final T object = this.idleObjects.poll();
+		return (object != null) ? object : this.factory.get();
+	}
+	
+	/**
+	 * Returns the given object to the pool. The object must not be used by the caller afterwards.
+	 * @param object The object to return
+	 */
+	public void release(final T object) {
+		this.idleObjects.offer(object);
+	}
+	
+}
@@ -0,0 +1,242 @@
+package stylechecksaggregator.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Input stream that reads its source on a separate thread, so that e.g. decompressing the data overlaps
+ * with parsing it. The data is passed in a fixed number of buffers, which are reused, so the memory
+ * required is bounded. The source is closed by the reading thread when it has been read completely or
+ * when this stream is closed.
+ * 
+ * @author Holger Knoche
+ */
+public class ReadAheadInputStream extends InputStream {
+	
+	/**
+	 * Number of buffers that may be filled ahead of the consumer.
+	 */
+	private static final int BUFFER_COUNT = 4;
+	
+	/**
+	 * Threads reading the sources. The threads are daemon threads, so they do not prevent the JVM from exiting.
+	 */
+	private static final ExecutorService READER_EXECUTOR = Executors.newCachedThreadPool(ReadAheadInputStream::createReaderThread);
+	
+	/**
+	 * Marker denoting the end of the source.
+	 */
+	private static final Chunk END_OF_STREAM = new Chunk(new byte[0]);
+	
+	private final InputStream source;
+	
+	/**
+	 * Denotes whether the source has been claimed by either the reading thread or {@link #close()}, whichever comes first.
+	 */
+	private final AtomicBoolean sourceClaimed = new AtomicBoolean();
+	
+	/**
+	 * Filled buffers, followed by the end marker or a failure. The capacity suffices for all buffers and the
+	 * final element, so the reading thread only blocks while waiting for empty buffers.
+	 */
+	private final BlockingQueue<Chunk> filledChunks = new ArrayBlockingQueue<>(BUFFER_COUNT + 1);
+	
+	private final BlockingQueue<Chunk> emptyChunks = new ArrayBlockingQueue<>(BUFFER_COUNT);
+	
+	private final Future<?> reader;
+	
+	private Chunk currentChunk;
+	
+	private int position;
+	
+	private boolean endReached;
+	
+	/**
+	 * Creates a new stream reading the given source ahead.
+	 * @param source The source to read, which is closed by this stream
+	 * @param bufferSize The size of each buffer
+	 */
+	public ReadAheadInputStream(final InputStream source, final int bufferSize) {
+		this.source = source;
+		
+		for(int bufferIndex = 0; bufferIndex < BUFFER_COUNT; bufferIndex++) {
+			this.emptyChunks.add(new Chunk(new byte[bufferSize]));
+		}
+		
+		this.reader = READER_EXECUTOR.submit(this::readAhead);
+	}
+	
+	private static Thread createReaderThread(final Runnable runnable) {
+		final Thread thread = new Thread(runnable, "read-ahead");
+		thread.setDaemon(true);
+		
+		return thread;
+	}
+	
+	private void readAhead() {
+		// Do not read the source if this stream has already been closed
+		if(!this.sourceClaimed.compareAndSet(false, true)) {
+			return;
+		}
+		
+		try (InputStream inputStream = this.source) {
+			while(true) {
+				final Chunk chunk = this.emptyChunks.take();
+				chunk.length = readFully(inputStream, chunk.data);
+				
+				if(chunk.length > 0) {
+					this.filledChunks.put(chunk);
+				}
+				
+				if(chunk.length < chunk.data.length) {
+					this.filledChunks.put(END_OF_STREAM);
+					return;
+				}
+			}
+		} catch (final InterruptedException e) {
+			// This stream has been closed
+		} catch (final IOException | RuntimeException | Error e) {
+			this.filledChunks.offer(new Chunk(e));
+		}
+	}
+	
+	private static int readFully(final InputStream inputStream, final byte[] buffer) throws IOException {
+		int length = 0;
+		
+		while(length < buffer.length) {
+			final int bytesRead = inputStream.read(buffer, length, buffer.length - length);
+			
+			if(bytesRead < 0) {
+				break;
+			}
+			
+			length += bytesRead;
+		}
+		
+		return length;
+	}
+	
+	/**
+	 * Makes sure that there is a current chunk with remaining data.
+	 * @return {@code true} if there is remaining data, {@code false} if the end of the source has been reached
+	 */
+	private boolean ensureData() throws IOException {
+		if(this.currentChunk != null && this.position < this.currentChunk.length) {
+			return true;
+		} else if(this.endReached) {
+			return false;
+		}
+		
+		// Return the consumed buffer to the reading thread
+		if(this.currentChunk != null) {
+			this.emptyChunks.add(this.currentChunk);
+			this.currentChunk = null;
+		}
+		
+		final Chunk chunk;
+		try {
+			chunk = this.filledChunks.take();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for data.");
+		}
+		
+		if(chunk == END_OF_STREAM) {
+			this.endReached = true;
+			return false;
+		} else if(chunk.failure != null) {
+			this.endReached = true;
+			throw rethrow(chunk.failure);
+		}
+		
+		this.currentChunk = chunk;
+		this.position = 0;
+		return true;
+	}
+	
+	private static IOException rethrow(final Throwable failure) {
+		if(failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else if(failure instanceof Error) {
+			throw (Error) failure;
+		}
+		
+		// Wrap the exception so that the stack trace of the consumer is retained
+		return new IOException(failure.getMessage(), failure);
+	}
+	
+	@Override
+	public int read() throws IOException {
+		if(!this.ensureData()) {
+			return -1;
+		}
+		
+		return (this.currentChunk.data[this.position++] & 0xFF);
+	}
+	
+	@Override
+	public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+		if(length == 0) {
+			return 0;
+		} else if(!this.ensureData()) {
+			return -1;
+		}
+		
+		final int bytesRead = Math.min(length, this.currentChunk.length - this.position);
+		System.arraycopy(this.currentChunk.data, this.position, bytes, offset, bytesRead);
+		this.position += bytesRead;
+		
+		return bytesRead;
+	}
+	
+	@Override
+	public int available() {
+		return (this.currentChunk != null) ? this.currentChunk.length - this.position : 0;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		this.endReached = true;
+		this.currentChunk = null;
+		
+		// Close the source directly if the reading thread has not started yet, and stop it otherwise
+		if(this.sourceClaimed.compareAndSet(false, true)) {
+			this.source.close();
+		}
+		
+		this.reader.cancel(true);
+	}
+	
+	/**
+	 * Buffer passed from the reading thread to the consumer, or a failure of the reading thread.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class Chunk {
+		
+		public final byte[] data;
+		
+		public final Throwable failure;
+		
+		public int length;
+		
+		public Chunk(final byte[] data) {
+			this.data = data;
+			this.failure = null;
+		}
+		
+		public Chunk(final Throwable failure) {
+			this.data = null;
+			this.failure = failure;
+		}
+		
+	}
+	
+}
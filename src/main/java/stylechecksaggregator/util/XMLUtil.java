@@ -1,13 +1,40 @@
 package stylechecksaggregator.util;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
 
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
 /**
@@ -16,6 +43,49 @@ import org.xml.sax.SAXException;
  * @author Holger Knoche
  */
 public class XMLUtil {
+	
+	private static final int BUFFER_SIZE = 65536;
+	
+	/**
+	 * Suffixes of the archive entries that are treated as reports.
+	 */
+	private static final String[] ARCHIVED_REPORT_SUFFIXES = {".xml", ".xml.gz", ".xml.zz"};
+	
+	/**
+	 * Factories for streaming readers. The factories are configured like the default document builder, i.e. they
+	 * are not namespace-aware. As factories are not guaranteed to be thread-safe, each factory is borrowed from a
+	 * pool while a reader is created. Pools are used instead of thread-locals, so that the factories are also reused
+	 * if each report is processed on a new virtual thread.
+	 */
+	private static final ObjectPool<XMLInputFactory> INPUT_FACTORIES = new ObjectPool<>(XMLUtil::createInputFactory);
+	
+	/**
+	 * Document builders for the DOM parser. As document builders are not thread-safe, each builder is borrowed from
+	 * a pool for a single parse and reset afterwards.
+	 */
+	private static final ObjectPool<DocumentBuilder> DOCUMENT_BUILDERS = new ObjectPool<>(XMLUtil::createDocumentBuilder);
+	
+	/**
+	 * XPath objects for compiling expressions. As XPath objects are not thread-safe, each object is borrowed from a
+	 * pool for a single compilation.
+	 */
+	private static final ObjectPool<XPath> XPATHS = new ObjectPool<>(() -> XPathFactory.newInstance().newXPath());
+	
+	private static DocumentBuilder createDocumentBuilder() {
+		try {
+			final DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
+			return builderFactory.newDocumentBuilder();
+		} catch (final ParserConfigurationException e) {
+			throw new RuntimeException(e);
+		}
+	}
+	
+	private static XMLInputFactory createInputFactory() {
+		final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+		inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+		
+		return inputFactory;
+	}
 
 	/**
 	 * Parses the given XML file and returns the contained DOM tree.
@@ -34,15 +104,276 @@ public class XMLUtil {
 	 * @throws IOException If an I/O error occurs
 	 */
 	public static Document parseXMLFile(final File file) throws IOException {
-		try {			
-			final DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
-			final DocumentBuilder documentBuilder = builderFactory.newDocumentBuilder();
-			final Document document = documentBuilder.parse(file);
-			
-			return document;
-		} catch (ParserConfigurationException | SAXException e) {
+		try (InputStream inputStream = openFile(file)) {
+			return parseXMLStream(inputStream, file.toURI().toString());
+		}
+	}
+	
+	/**
+	 * Parses the XML document in the given stream and returns the contained DOM tree. The caller is responsible
+	 * for closing the stream.
+	 * @param inputStream The stream to read the document from
+	 * @param systemId The system ID of the document, which is used to resolve relative URIs
+	 * @return The DOM tree
+	 * @throws IOException If an I/O error occurs
+	 */
+	public static Document parseXMLStream(final InputStream inputStream, final String systemId) throws IOException {
+		final DocumentBuilder documentBuilder = DOCUMENT_BUILDERS.borrow();
+		
+		try {
+			return documentBuilder.parse(inputStream, systemId);
+		} catch (final SAXException e) {
 			throw new RuntimeException(e);
+		} finally {
+			documentBuilder.reset();
+			DOCUMENT_BUILDERS.release(documentBuilder);
 		}
 	}
 
+	/**
+	 * Opens the given file for reading. Compressed files (gzip or zlib) are decompressed on a separate thread while
+	 * they are read.
+	 * <p>
+	 * The file is not memory-mapped, as a mapping is only released by the garbage collector, which prevents the tools
+	 * from replacing their reports on some platforms, and reading a mapped file that is truncated concurrently fails
+	 * with an {@link InternalError} instead of an {@link IOException}.
+	 * @param file The file to open
+	 * @return A stream to read the file's (decompressed) contents
+	 * @throws IOException If an I/O error occurs or the file is an archive (see {@link #isArchive(File)})
+	 */
+	public static InputStream openFile(final File file) throws IOException {
+		final InputStream inputStream = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+		return decompress(inputStream, file.getPath());
+	}
+	
+	/**
+	 * Returns a stream decompressing the data of the given stream if it is compressed. The given stream is
+	 * closed if an exception occurs.
+	 * @param inputStream The stream to read, which must support marks
+	 * @param name The name of the data for error messages
+	 * @return The given stream if the data is not compressed, or a stream decompressing it on a separate thread
+	 * @throws IOException If an I/O error occurs or the data is an archive
+	 */
+	private static InputStream decompress(final InputStream inputStream, final String name) throws IOException {
+		try {
+			return decompressUnsafe(inputStream, name);
+		} catch (final IOException | RuntimeException e) {
+			inputStream.close();
+			throw e;
+		}
+	}
+	
+	private static InputStream decompressUnsafe(final InputStream inputStream, final String name) throws IOException {
+		switch(Compression.detect(inputStream)) {
+		case GZIP:
+			return new ReadAheadInputStream(new GZIPInputStream(inputStream, BUFFER_SIZE), BUFFER_SIZE);
+		
+		case ZLIB:
+			return new ReadAheadInputStream(new InflaterInputStream(inputStream), BUFFER_SIZE);
+		
+		case ZIP:
+			throw new IOException("'" + name + "' is an archive containing several files.");
+		
+		default:
+			return inputStream;
+		}
+	}
+	
+	/**
+	 * Determines whether the given file is compressed, i.e. whether it needs to be decompressed when reading it.
+	 * Archives are also considered compressed.
+	 * @param file The file to examine
+	 * @return {@code true} if the file is compressed, {@code false} otherwise
+	 * @throws IOException If an I/O error occurs
+	 */
+	public static boolean isCompressed(final File file) throws IOException {
+		return (detectCompression(file) != Compression.NONE);
+	}
+	
+	/**
+	 * Determines whether the given file is a zip archive, which may contain several reports.
+	 * @param file The file to examine
+	 * @return {@code true} if the file is an archive, {@code false} otherwise
+	 * @throws IOException If an I/O error occurs
+	 */
+	public static boolean isArchive(final File file) throws IOException {
+		return (detectCompression(file) == Compression.ZIP);
+	}
+	
+	private static Compression detectCompression(final File file) throws IOException {
+		try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+			return Compression.detect(inputStream);
+		}
+	}
+	
+	/**
+	 * Passes the (decompressed) contents of each report in the given zip archive to the given handler, in the
+	 * order of the entry names. Reports are entries named {@code *.xml}, {@code *.xml.gz} or {@code *.xml.zz};
+	 * all other entries are ignored. The entries are read directly from the archive and decompressed on a
+	 * separate thread.
+	 * @param file The archive to read
+	 * @param handler The handler for the reports
+	 * @throws IOException If an I/O error occurs
+	 */
+	public static void forEachArchivedReport(final File file, final ArchivedReportHandler handler) throws IOException {
+		try (ZipFile zipFile = new ZipFile(file)) {
+			final List<ZipEntry> reportEntries = new ArrayList<>();
+			
+			final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while(entries.hasMoreElements()) {
+				final ZipEntry entry = entries.nextElement();
+				
+				if(!entry.isDirectory() && isArchivedReport(entry.getName())) {
+					reportEntries.add(entry);
+				}
+			}
+			
+			reportEntries.sort(Comparator.comparing(ZipEntry::getName));
+			
+			for(final ZipEntry entry : reportEntries) {
+				final String systemId = "jar:" + file.toURI() + "!/" + entry.getName();
+				final InputStream entryStream = new BufferedInputStream(new ReadAheadInputStream(zipFile.getInputStream(entry), BUFFER_SIZE), BUFFER_SIZE);
+				
+				// Entries may be compressed themselves
+				try (InputStream inputStream = decompress(entryStream, systemId)) {
+					handler.processReport(entry.getName(), systemId, inputStream);
+				}
+			}
+		}
+	}
+	
+	private static boolean isArchivedReport(final String entryName) {
+		final String lowerCaseName = entryName.toLowerCase(Locale.ROOT);
+		
+		for(final String suffix : ARCHIVED_REPORT_SUFFIXES) {
+			if(lowerCaseName.endsWith(suffix)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Maps the given file into memory. The file must not be larger than 2 GB. The mapping is only released by the
+	 * garbage collector, and reading the buffer throws an {@link InternalError} if the file has been truncated in
+	 * the meantime, so callers should only map files that are processed in parallel (see
+	 * {@code ChunkedReportParser}).
+	 * @param file The file to map
+	 * @return The mapped contents of the file
+	 * @throws IOException If an I/O error occurs
+	 */
+	public static MappedByteBuffer mapFile(final File file) throws IOException {
+		// The mapping remains valid after the channel has been closed
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			return channel.map(MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+	
+	/**
+	 * Returns a pool of compiled instances of the given XPath expression. As compiled expressions are not
+	 * thread-safe, an instance must be borrowed from the pool for each evaluation. The expression is only
+	 * compiled if no idle instance is available.
+	 * @param expression The expression to compile
+	 * @return A pool of compiled instances of the expression
+	 */
+	public static ObjectPool<XPathExpression> compileXPathExpression(final String expression) {
+		return new ObjectPool<>(() -> {
+			final XPath xPath = XPATHS.borrow();
+			
+			try {
+				return xPath.compile(expression);
+			} catch (final XPathExpressionException e) {
+				throw new RuntimeException(e);
+			} finally {
+				XPATHS.release(xPath);
+			}
+		});
+	}
+	
+	/**
+	 * Returns the first child element of the given node with the given name. In contrast to a relative XPath
+	 * expression, only the children of the node are visited, which is considerably faster in large documents.
+	 * @param node The node whose children are searched
+	 * @param name The name of the desired element
+	 * @return The first matching child element or {@code null} if there is no such element
+	 */
+	public static Element firstChildElement(final Node node, final String name) {
+		return nextElement(node.getFirstChild(), name);
+	}
+	
+	/**
+	 * Returns the next sibling element of the given element with the given name.
+	 * @param element The element whose following siblings are searched
+	 * @param name The name of the desired element
+	 * @return The next matching sibling element or {@code null} if there is no such element
+	 */
+	public static Element nextSiblingElement(final Element element, final String name) {
+		return nextElement(element.getNextSibling(), name);
+	}
+	
+	private static Element nextElement(final Node firstCandidate, final String name) {
+		for(Node node = firstCandidate; node != null; node = node.getNextSibling()) {
+			if(node.getNodeType() == Node.ELEMENT_NODE && name.equals(node.getNodeName())) {
+				return (Element) node;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Handler for the reports contained in an archive.
+	 * 
+	 * @author Holger Knoche
+	 */
+	@FunctionalInterface
+	public interface ArchivedReportHandler {
+		
+		/**
+		 * Processes a single report. The stream is closed after this method returns.
+		 * @param entryName The name of the report within the archive
+		 * @param systemId The system ID of the report
+		 * @param inputStream The stream to read the report's contents from
+		 * @throws IOException If an I/O error occurs
+		 */
+		void processReport(String entryName, String systemId, InputStream inputStream) throws IOException;
+		
+	}
+	
+	/**
+	 * Evaluates the given XPath expression on the given node, borrowing a compiled instance from the pool.
+	 * @param expression The pool of compiled instances of the expression (see {@link #compileXPathExpression(String)})
+	 * @param node The node to evaluate the expression on
+	 * @return The resulting nodes
+	 * @throws XPathExpressionException If the expression cannot be evaluated
+	 */
+	public static NodeList evaluateNodes(final ObjectPool<XPathExpression> expression, final Node node) throws XPathExpressionException {
+		final XPathExpression compiledExpression = expression.borrow();
+		
+		try {
+			return (NodeList) compiledExpression.evaluate(node, XPathConstants.NODESET);
+		} finally {
+			expression.release(compiledExpression);
+		}
+	}
+	
+	/**
+	 * Creates a streaming reader for the XML document in the given stream. The caller is responsible for
+	 * closing both the reader and the stream.
+	 * @param inputStream The stream to read the document from
+	 * @return The streaming reader
+	 */
+	public static XMLStreamReader createStreamReader(final InputStream inputStream) {
+		final XMLInputFactory inputFactory = INPUT_FACTORIES.borrow();
+		
+		try {
+			return inputFactory.createXMLStreamReader(inputStream);
+		} catch (final XMLStreamException e) {
+			throw new RuntimeException(e);
+		} finally {
+			INPUT_FACTORIES.release(inputFactory);
+		}
+	}
+	
 }
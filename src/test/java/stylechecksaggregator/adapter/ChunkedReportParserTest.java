@@ -0,0 +1,258 @@
+package stylechecksaggregator.adapter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
+import stylechecksaggregator.util.XMLUtil;
+
+/**
+ * Test cases for the {@link ChunkedReportParser}, which must produce the same issues as parsing the whole report.
+ * 
+ * @author Holger Knoche
+ */
+public class ChunkedReportParserTest {
+	
+	private static final int CHUNK_SIZE = 512;
+	
+	private static final int THREAD_COUNT = 4;
+	
+	private static final String[] FINDBUGS_PRIORITIES = { "1", "2", "3", "4" };
+	
+	private static final String[] CHECKSTYLE_SEVERITIES = { "error", "warning", "info", "ignore" };
+	
+	@TempDir
+	Path temporaryDirectory;
+	
+	/**
+	 * Chunked parsing of a FindBugs report must yield the same issues as parsing the whole report, regardless of the
+	 * elements before the first and after the last bug instance.
+	 */
+	@Test
+	public void findBugsReport() throws IOException, XMLStreamException {
+		final Properties properties = new Properties();
+		final String report = createFindBugsReport(300);
+		
+		this.assertSameIssues(new FindBugsAdapter(properties), report, IssueSeverity.UNCLASSIFIED);
+	}
+	
+	/**
+	 * Chunked parsing must apply the minimum severity like parsing the whole report.
+	 */
+	@Test
+	public void findBugsReportWithMinSeverity() throws IOException, XMLStreamException {
+		final Properties properties = new Properties();
+		properties.setProperty(XMLBasedToolAdapter.MIN_SEVERITY_PROPERTY, IssueSeverity.WARNING.name());
+		final String report = createFindBugsReport(300);
+		
+		this.assertSameIssues(new FindBugsAdapter(properties), report, IssueSeverity.WARNING);
+	}
+	
+	/**
+	 * Chunked parsing of a Checkstyle report must yield the same issues as parsing the whole report, including
+	 * issues of files that are split across chunks.
+	 */
+	@Test
+	public void checkstyleReport() throws IOException, XMLStreamException {
+		final Properties properties = new Properties();
+		final String report = createCheckstyleReport(40, 8);
+		
+		this.assertSameIssues(new CheckstyleAdapter(properties), report, IssueSeverity.UNCLASSIFIED);
+	}
+	
+	/**
+	 * A report whose chunks are not well-formed on their own (here due to a bug element within a CDATA section) must
+	 * be rejected by the chunked parser, so that the caller falls back to parsing the whole report.
+	 */
+	@Test
+	public void malformedChunksAreRejected() throws IOException {
+		final StringBuilder trailer = new StringBuilder("<BugPattern type=\"T\"><Details><![CDATA[");
+		for(int index = 0; index < 50; index++) {
+			trailer.append("Example: <BugInstance type=\"X\" priority=\"1\"> ");
+		}
+		trailer.append("]]></Details></BugPattern>");
+		
+		final String report = createFindBugsReport(50).replace("</BugCollection>", trailer + "</BugCollection>");
+		final FindBugsAdapter adapter = new FindBugsAdapter(new Properties());
+		final ChunkedReportParser parser = new ChunkedReportParser(adapter.getStreamingMapping(), IssueSeverity.UNCLASSIFIED, THREAD_COUNT, CHUNK_SIZE);
+		
+		assertNull(parser.parse(ByteBuffer.wrap(report.getBytes(StandardCharsets.UTF_8))));
+	}
+	
+	/**
+	 * If the chunks of a report are rejected, the adapter must read the report as a whole, attempting to parse it in
+	 * chunks only once, regardless of whether the issues are returned or passed to a consumer.
+	 */
+	@Test
+	public void rejectedChunksFallBackToWholeReport() throws IOException {
+		final String report = createCheckstyleReport(40, 8).replace("<checkstyle ", "<!DOCTYPE checkstyle>\n<checkstyle ");
+		final File file = this.temporaryDirectory.resolve("doctype.xml").toFile();
+		Files.write(file.toPath(), report.getBytes(StandardCharsets.UTF_8));
+		
+		final List<Issue> documentIssues = new CheckstyleAdapter(new Properties()).processFile(file.getPath());
+		assertTrue(!documentIssues.isEmpty());
+		
+		final Properties properties = new Properties();
+		properties.setProperty(XMLBasedToolAdapter.STREAMING_PROPERTY, "true");
+		properties.setProperty(XMLBasedToolAdapter.CHUNK_THREADS_PROPERTY, String.valueOf(THREAD_COUNT));
+		
+		final CountingCheckstyleAdapter listAdapter = new CountingCheckstyleAdapter(properties);
+		assertEquals(toStrings(documentIssues), toStrings(listAdapter.processFile(file.getPath())));
+		assertEquals(1, listAdapter.chunkAttempts);
+		
+		final CountingCheckstyleAdapter consumerAdapter = new CountingCheckstyleAdapter(properties);
+		final List<Issue> consumedIssues = new ArrayList<>();
+		consumerAdapter.processFile(file.getPath(), consumedIssues::add);
+		assertEquals(toStrings(documentIssues), toStrings(consumedIssues));
+		assertEquals(1, consumerAdapter.chunkAttempts);
+	}
+	
+	private void assertSameIssues(final XMLBasedToolAdapter adapter, final String report, final IssueSeverity minSeverity) throws IOException, XMLStreamException {
+		final byte[] data = report.getBytes(StandardCharsets.UTF_8);
+		assertTrue(data.length > 8 * CHUNK_SIZE, "The report is too small to be split into several chunks.");
+		
+		final StreamingIssueMapping mapping = adapter.getStreamingMapping();
+		final ChunkedReportParser parser = new ChunkedReportParser(mapping, minSeverity, THREAD_COUNT, CHUNK_SIZE);
+		final List<Issue> chunkedIssues = parser.parse(ByteBuffer.wrap(data));
+		assertNotNull(chunkedIssues, "The report was not parsed in chunks.");
+		
+		// Compare with streaming the whole report
+		final List<Issue> streamedIssues = new ArrayList<>();
+		final XMLStreamReader reader = XMLUtil.createStreamReader(new ByteArrayInputStream(data));
+		try {
+			mapping.extractIssues(reader, minSeverity, streamedIssues::add);
+		} finally {
+			reader.close();
+		}
+		
+		// Compare with the document-based processing of the adapter
+		final File file = this.temporaryDirectory.resolve("report.xml").toFile();
+		Files.write(file.toPath(), data);
+		final List<Issue> documentIssues = adapter.processFile(file.getPath());
+		
+		assertTrue(!streamedIssues.isEmpty());
+		assertEquals(toStrings(streamedIssues), toStrings(chunkedIssues));
+		assertEquals(toStrings(documentIssues), toStrings(chunkedIssues));
+	}
+	
+	private static List<String> toStrings(final List<Issue> issues) {
+		final List<String> strings = new ArrayList<>(issues.size());
+		for(final Issue issue : issues) {
+			strings.add(issue.toString());
+		}
+		
+		return strings;
+	}
+	
+	private static String createFindBugsReport(final int bugCount) {
+		final StringBuilder builder = new StringBuilder();
+		
+		builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		builder.append("<BugCollection version=\"3.0.1\" sequence=\"0\" timestamp=\"1500000000000\" analysisTimestamp=\"1500000000000\" release=\"\">\n");
+		builder.append("  <Project projectName=\"test\">\n");
+		builder.append("    <Jar>/work/test/target/classes</Jar>\n");
+		builder.append("    <SrcDir>/work/test/src/main/java</SrcDir>\n");
+		builder.append("  </Project>\n");
+		
+		for(int bugIndex = 0; bugIndex < bugCount; bugIndex++) {
+			final String className = "test.Class" + (bugIndex % 17);
+			final String sourcePath = "test/Class" + (bugIndex % 17) + ".java";
+			
+			builder.append("  <BugInstance type=\"BUG_TYPE_").append(bugIndex % 5).append("\" priority=\"").append(FINDBUGS_PRIORITIES[bugIndex % FINDBUGS_PRIORITIES.length]);
+			builder.append("\" rank=\"15\" abbrev=\"B\" category=\"BAD_PRACTICE\">\n");
+			builder.append("    <Class classname=\"").append(className).append("\"><SourceLine classname=\"").append(className);
+			builder.append("\" sourcefile=\"X.java\" sourcepath=\"").append(sourcePath).append("\"/></Class>\n");
+			builder.append("    <Method classname=\"").append(className).append("\" name=\"m\" signature=\"()V\" isStatic=\"false\"/>\n");
+			
+			// Some bugs have several source lines
+			for(int lineIndex = 0; lineIndex <= bugIndex % 3; lineIndex++) {
+				builder.append("    <SourceLine classname=\"").append(className).append("\" start=\"").append(bugIndex + lineIndex).append("\" end=\"");
+				builder.append(bugIndex + lineIndex + 2).append("\" sourcefile=\"X.java\" sourcepath=\"").append(sourcePath).append("\"/>\n");
+			}
+			
+			builder.append("  </BugInstance>\n");
+		}
+		
+		// Elements after the last bug instance, which end up in the last chunk
+		builder.append("  <Errors errors=\"0\" missingClasses=\"0\"></Errors>\n");
+		builder.append("  <FindBugsSummary timestamp=\"Fri, 14 Jul 2017 04:26:40 +0200\" total_classes=\"17\" total_bugs=\"").append(bugCount).append("\">\n");
+		builder.append("    <FileStats path=\"test/Class0.java\" bugCount=\"1\" bugHash=\"abc\"/>\n");
+		builder.append("    <PackageStats package=\"test\" total_bugs=\"").append(bugCount).append("\"><ClassStats class=\"test.Class0\" bugs=\"1\"/></PackageStats>\n");
+		builder.append("  </FindBugsSummary>\n");
+		builder.append("  <ClassFeatures></ClassFeatures>\n");
+		builder.append("  <History></History>\n");
+		builder.append("</BugCollection>\n");
+		
+		return builder.toString();
+	}
+	
+	private static String createCheckstyleReport(final int fileCount, final int errorsPerFile) {
+		final StringBuilder builder = new StringBuilder();
+		
+		builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		builder.append("<checkstyle version=\"8.0\">\n");
+		
+		for(int fileIndex = 0; fileIndex < fileCount; fileIndex++) {
+			builder.append("<file name=\"/work/test/src/File").append(fileIndex).append(".java\">\n");
+			
+			for(int errorIndex = 0; errorIndex < errorsPerFile; errorIndex++) {
+				final int number = fileIndex * errorsPerFile + errorIndex;
+				builder.append("<error line=\"").append(number + 1).append("\" column=\"5\" severity=\"").append(CHECKSTYLE_SEVERITIES[number % CHECKSTYLE_SEVERITIES.length]);
+				builder.append("\" message=\"Message &lt;").append(number).append("&gt; &amp; more\" source=\"com.puppycrawl.tools.checkstyle.checks.Check\"/>\n");
+			}
+			
+			builder.append("</file>\n");
+		}
+		
+		builder.append("</checkstyle>\n");
+		return builder.toString();
+	}
+	
+	/**
+	 * Checkstyle adapter that treats all reports as candidates for chunking and counts the attempts to parse them in
+	 * chunks.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class CountingCheckstyleAdapter extends CheckstyleAdapter {
+		
+		public int chunkAttempts = 0;
+		
+		public CountingCheckstyleAdapter(final Properties properties) {
+			super(properties);
+		}
+		
+		@Override
+		boolean isChunkingCandidate(final File file) {
+			return true;
+		}
+		
+		@Override
+		List<Issue> processFileInChunks(final File file) throws IOException {
+			this.chunkAttempts++;
+			return super.processFileInChunks(file);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,244 @@
+package stylechecksaggregator.baseline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
+import stylechecksaggregator.model.IssueType;
+
+/**
+ * Test cases for the {@link Baseline} and its {@link FingerprintTable}.
+ * 
+ * @author Holger Knoche
+ */
+public class BaselineTest {
+	
+	private static final IssueFingerprinter FINGERPRINTER = new IssueFingerprinter("/root");
+	
+	@TempDir
+	Path temporaryDirectory;
+	
+	/**
+	 * A table must contain the same fingerprints and counts after it has been written and read again, including the
+	 * fingerprint 0, which is stored differently.
+	 */
+	@Test
+	public void fingerprintTableRoundTrip() throws IOException {
+		final FingerprintTable table = new FingerprintTable(1);
+		
+		// Add enough fingerprints to make the table grow
+		for(long fingerprint = -50; fingerprint < 50; fingerprint++) {
+			table.add(fingerprint * 0x9E3779B97F4A7C15L, 1);
+		}
+		table.add(0, 2);
+		
+		final byte[] data = write(table);
+		assertEquals(FingerprintTable.serializedSize(table.size()), data.length);
+		
+		final FingerprintTable readTable = FingerprintTable.read(new DataInputStream(new ByteArrayInputStream(data)), data.length);
+		assertEquals(table.size(), readTable.size());
+		assertEquals(table.getOccurrenceCount(), readTable.getOccurrenceCount());
+		
+		// The fingerprint 0 has three occurrences (the loop adds it once)
+		for(int occurrence = 0; occurrence < 3; occurrence++) {
+			assertTrue(readTable.removeOccurrence(0));
+		}
+		assertFalse(readTable.removeOccurrence(0));
+		
+		for(long fingerprint = 1; fingerprint < 50; fingerprint++) {
+			assertTrue(readTable.removeOccurrence(fingerprint * 0x9E3779B97F4A7C15L));
+		}
+		assertFalse(readTable.removeOccurrence(42));
+	}
+	
+	/**
+	 * Corrupt table sizes and counts must be rejected with an I/O exception before any memory is allocated for them.
+	 */
+	@Test
+	public void invalidFingerprintTableIsRejected() throws IOException {
+		for(final int size : new int[] { -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 1000 }) {
+			final byte[] data = intBytes(size);
+			assertThrows(IOException.class, () -> FingerprintTable.read(new DataInputStream(new ByteArrayInputStream(data)), 1024));
+		}
+		
+		final FingerprintTable table = new FingerprintTable(1);
+		table.add(1234, -5);
+		final byte[] data = write(table);
+		assertThrows(IOException.class, () -> FingerprintTable.read(new DataInputStream(new ByteArrayInputStream(data)), data.length));
+	}
+	
+	/**
+	 * A baseline file with a corrupt table size must be rejected with an I/O exception.
+	 */
+	@Test
+	public void corruptBaselineIsRejected() throws IOException {
+		final File file = this.temporaryDirectory.resolve("corrupt.bin").toFile();
+		
+		final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+		final DataOutputStream outputStream = new DataOutputStream(byteStream);
+		outputStream.writeInt(Baseline.MAGIC_NUMBER);
+		outputStream.writeInt(Baseline.FORMAT_VERSION);
+		outputStream.writeInt(0x7FFFFFF0);
+		Files.write(file.toPath(), byteStream.toByteArray());
+		
+		assertThrows(IOException.class, () -> Baseline.read(file, FINGERPRINTER));
+	}
+	
+	/**
+	 * Issues contained in the baseline must be recognized regardless of their line numbers, and additional
+	 * occurrences of the same issue must be reported as new. Issues that are no longer present must be reported as
+	 * fixed, in the order in which they were written.
+	 */
+	@Test
+	public void newAndFixedIssues() throws IOException {
+		final File file = this.writeBaseline(Arrays.asList(
+				issue("/root/A.java", 1, "Duplicate"),
+				issue("/root/A.java", 5, "Duplicate"),
+				issue("/root/A.java", 7, "Fixed first"),
+				issue("/root/B.java", 3, "Unchanged"),
+				issue("/root/C.java", 9, "Fixed second")));
+		
+		final Baseline baseline = Baseline.read(file, FINGERPRINTER);
+		assertEquals(4, baseline.getFingerprintCount());
+		
+		// Three occurrences of the duplicate issue, one of them is new
+		assertTrue(baseline.removeIssue(issue("/root/A.java", 2, "Duplicate")));
+		assertTrue(baseline.removeIssue(issue("/root/A.java", 6, "Duplicate")));
+		assertFalse(baseline.removeIssue(issue("/root/A.java", 8, "Duplicate")));
+		
+		// The line number is not relevant, but the file name, type and message are
+		assertFalse(baseline.removeIssue(issue("/other/B.java", 3, "Unchanged")));
+		assertTrue(baseline.removeIssue(issue("/root/B.java", 30, "Unchanged")));
+		assertFalse(baseline.removeIssue(new Issue("/root/B.java", 3, IssueSeverity.WARNING, IssueType.PMD, "Unchanged")));
+		assertFalse(baseline.removeIssue(issue("/root/D.java", 1, "New")));
+		
+		final List<Issue> fixedIssues = new ArrayList<>();
+		baseline.forEachRemainingIssue(fixedIssues::add);
+		
+		assertEquals(2, fixedIssues.size());
+		assertEquals("Fixed first", fixedIssues.get(0).message);
+		assertEquals(7, fixedIssues.get(0).lineNumber);
+		assertEquals("Fixed second", fixedIssues.get(1).message);
+	}
+	
+	/**
+	 * The issues following a large fingerprint table must be found even if the stream skips fewer bytes than
+	 * requested, as buffered streams do at the end of their buffer.
+	 */
+	@Test
+	public void skipFullySkipsExactlyTheGivenNumberOfBytes() throws IOException {
+		final byte[] data = new byte[100_000];
+		for(int index = 0; index < data.length; index++) {
+			data[index] = (byte) index;
+		}
+		
+		final int offset = 70_001;
+		final DataInputStream inputStream = new DataInputStream(new ReluctantInputStream(new ByteArrayInputStream(data)));
+		
+		Baseline.skipFully(inputStream, offset);
+		assertEquals((byte) offset, inputStream.readByte());
+		
+		// Skipping past the end of the stream must fail
+		assertThrows(IOException.class, () -> Baseline.skipFully(inputStream, data.length));
+	}
+	
+	/**
+	 * The fixed issues of a baseline with many fingerprints must be found after skipping the table.
+	 */
+	@Test
+	public void fixedIssuesAfterLargeTable() throws IOException {
+		final List<Issue> issues = new ArrayList<>();
+		for(int issueIndex = 0; issueIndex < 20_000; issueIndex++) {
+			issues.add(issue("/root/File" + (issueIndex % 100) + ".java", issueIndex, "Message " + issueIndex));
+		}
+		
+		final Baseline baseline = Baseline.read(this.writeBaseline(issues), FINGERPRINTER);
+		for(final Issue issue : issues) {
+			if(issue.lineNumber != 12_345) {
+				assertTrue(baseline.removeIssue(issue));
+			}
+		}
+		
+		final List<Issue> fixedIssues = new ArrayList<>();
+		baseline.forEachRemainingIssue(fixedIssues::add);
+		
+		assertEquals(1, fixedIssues.size());
+		assertEquals("Message 12345", fixedIssues.get(0).message);
+	}
+	
+	private File writeBaseline(final List<Issue> issues) throws IOException {
+		final File file = Files.createTempFile(this.temporaryDirectory, "baseline", ".bin").toFile();
+		
+		try (BaselineWriter writer = new BaselineWriter(file, FINGERPRINTER)) {
+			for(final Issue issue : issues) {
+				writer.addIssue(issue);
+			}
+			
+			writer.commit();
+		}
+		
+		return file;
+	}
+	
+	private static Issue issue(final String fileName, final int lineNumber, final String message) {
+		return new Issue(fileName, lineNumber, IssueSeverity.ERROR, IssueType.CHECKSTYLE, message);
+	}
+	
+	private static byte[] write(final FingerprintTable table) throws IOException {
+		final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+		final DataOutputStream outputStream = new DataOutputStream(byteStream);
+		
+		table.write(outputStream);
+		outputStream.flush();
+		
+		return byteStream.toByteArray();
+	}
+	
+	private static byte[] intBytes(final int value) throws IOException {
+		final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+		new DataOutputStream(byteStream).writeInt(value);
+		return byteStream.toByteArray();
+	}
+	
+	/**
+	 * Input stream that skips at most 1000 bytes at a time and refuses to skip every other time.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class ReluctantInputStream extends FilterInputStream {
+		
+		private boolean refuse = false;
+		
+		public ReluctantInputStream(final InputStream inputStream) {
+			super(inputStream);
+		}
+		
+		@Override
+		public long skip(final long byteCount) throws IOException {
+			this.refuse = !this.refuse;
+			return (this.refuse) ? 0 : super.skip(Math.min(byteCount, 1000));
+		}
+		
+	}
+	
+}
@@ -0,0 +1,186 @@
+package stylechecksaggregator.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import stylechecksaggregator.adapter.StylecheckToolAdapter;
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
+import stylechecksaggregator.model.IssueType;
+
+/**
+ * Test cases for the invalidation of the entries of the {@link ReportCache}.
+ * 
+ * @author Holger Knoche
+ */
+public class ReportCacheTest {
+	
+	/**
+	 * Modification time of reports that were written long before they are processed.
+	 */
+	private static final long OLD_MODIFICATION_TIME = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+	
+	@TempDir
+	Path temporaryDirectory;
+	
+	private ReportCache cache;
+	
+	private CountingAdapter adapter;
+	
+	private File reportFile;
+	
+	@BeforeEach
+	public void createCache() throws IOException {
+		this.cache = new ReportCache(this.temporaryDirectory.resolve("cache").toFile());
+		this.adapter = new CountingAdapter("counting");
+		this.reportFile = this.temporaryDirectory.resolve("report.txt").toFile();
+	}
+	
+	/**
+	 * The issues of an unchanged report must be taken from the cache.
+	 */
+	@Test
+	public void unchangedReportIsCached() throws IOException {
+		this.writeReport("first", OLD_MODIFICATION_TIME);
+		
+		assertEquals(Collections.singletonList("first"), this.processReport());
+		assertEquals(Collections.singletonList("first"), this.processReport());
+		assertEquals(1, this.adapter.processedFileCount);
+		
+		// Another cache instance must use the same entries
+		final ReportCache otherCache = new ReportCache(this.temporaryDirectory.resolve("cache").toFile());
+		assertEquals(Collections.singletonList("first"), messages(otherCache.processFile(this.adapter, this.reportFile.getPath())));
+		assertEquals(1, this.adapter.processedFileCount);
+	}
+	
+	/**
+	 * A report whose size has changed must be processed again.
+	 */
+	@Test
+	public void changedSizeInvalidatesEntry() throws IOException {
+		this.writeReport("first", OLD_MODIFICATION_TIME);
+		this.processReport();
+		
+		this.writeReport("first\nsecond", OLD_MODIFICATION_TIME);
+		assertEquals(Arrays.asList("first", "second"), this.processReport());
+		assertEquals(2, this.adapter.processedFileCount);
+	}
+	
+	/**
+	 * A report with the same size but a different modification time must be checked by its content, so that a
+	 * report that was rewritten with the same content is not processed again, while a changed one is.
+	 */
+	@Test
+	public void changedModificationTimeChecksContent() throws IOException {
+		this.writeReport("first", OLD_MODIFICATION_TIME);
+		this.processReport();
+		
+		// Same content, newer modification time
+		this.writeReport("first", OLD_MODIFICATION_TIME + 10_000);
+		assertEquals(Collections.singletonList("first"), this.processReport());
+		assertEquals(1, this.adapter.processedFileCount);
+		
+		// Same size, different content
+		this.writeReport("other", OLD_MODIFICATION_TIME + 20_000);
+		assertEquals(Collections.singletonList("other"), this.processReport());
+		assertEquals(2, this.adapter.processedFileCount);
+	}
+	
+	/**
+	 * A report that was modified shortly before its entry was created may be modified again without changing its
+	 * modification time, so its content must be checked even if its size and modification time are unchanged.
+	 */
+	@Test
+	public void recentlyModifiedReportChecksContent() throws IOException {
+		final long modificationTime = System.currentTimeMillis();
+		
+		this.writeReport("first", modificationTime);
+		this.processReport();
+		
+		this.writeReport("other", modificationTime);
+		assertEquals(Collections.singletonList("other"), this.processReport());
+		assertEquals(2, this.adapter.processedFileCount);
+	}
+	
+	/**
+	 * Entries must be separate for adapters with different cache keys.
+	 */
+	@Test
+	public void entriesDependOnCacheKey() throws IOException {
+		this.writeReport("first", OLD_MODIFICATION_TIME);
+		this.processReport();
+		
+		final CountingAdapter otherAdapter = new CountingAdapter("other");
+		assertEquals(Collections.singletonList("first"), messages(this.cache.processFile(otherAdapter, this.reportFile.getPath())));
+		assertEquals(1, otherAdapter.processedFileCount);
+	}
+	
+	private void writeReport(final String content, final long modificationTime) throws IOException {
+		Files.write(this.reportFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		this.reportFile.setLastModified(modificationTime);
+	}
+	
+	private List<String> processReport() throws IOException {
+		return messages(this.cache.processFile(this.adapter, this.reportFile.getPath()));
+	}
+	
+	private static List<String> messages(final List<Issue> issues) {
+		final List<String> messages = new ArrayList<>(issues.size());
+		for(final Issue issue : issues) {
+			messages.add(issue.message);
+		}
+		
+		return messages;
+	}
+	
+	/**
+	 * Adapter creating an issue for each line of a report, which counts the processed reports.
+	 * 
+	 * @author Holger Knoche
+	 */
+	private static class CountingAdapter extends StylecheckToolAdapter {
+		
+		private final String cacheKey;
+		
+		public int processedFileCount = 0;
+		
+		public CountingAdapter(final String cacheKey) {
+			super(Collections.emptyList());
+			
+			this.cacheKey = cacheKey;
+		}
+		
+		@Override
+		public String getCacheKey() {
+			return this.cacheKey;
+		}
+		
+		@Override
+		public List<Issue> processFile(final String fileName) throws IOException {
+			this.processedFileCount++;
+			
+			final List<Issue> issues = new ArrayList<>();
+			for(final String line : Files.readAllLines(new File(fileName).toPath(), StandardCharsets.UTF_8)) {
+				issues.add(new Issue(fileName, issues.size() + 1, IssueSeverity.WARNING, IssueType.CHECKSTYLE, line));
+			}
+			
+			return issues;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,140 @@
+package stylechecksaggregator.discovery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test cases for {@link ReportFilePattern} and the search for matching files by the {@link ReportFileFinder}.
+ * 
+ * @author Holger Knoche
+ */
+public class ReportFilePatternTest {
+	
+	private static final FileSystem FILE_SYSTEM = FileSystems.getDefault();
+	
+	@TempDir
+	Path rootPath;
+	
+	/**
+	 * A leading <code>**&#47;</code> must also match files directly in the root path, which the glob syntax of the
+	 * path matcher does not.
+	 */
+	@Test
+	public void leadingAnyDirectoriesMatchesRootFiles() {
+		final ReportFilePattern pattern = new ReportFilePattern("**/checkstyle-*.xml");
+		
+		assertTrue(matches(pattern, "checkstyle-main.xml"));
+		assertTrue(matches(pattern, "module/checkstyle-main.xml"));
+		assertTrue(matches(pattern, "module/target/checkstyle-main.xml"));
+		assertFalse(matches(pattern, "module/pmd-main.xml"));
+		
+		// Without the prefix, files in subdirectories must not match
+		final ReportFilePattern rootPattern = new ReportFilePattern("checkstyle-*.xml");
+		assertTrue(matches(rootPattern, "checkstyle-main.xml"));
+		assertFalse(matches(rootPattern, "module/checkstyle-main.xml"));
+	}
+	
+	/**
+	 * Leading <code>./</code> and backslashes must be normalized.
+	 */
+	@Test
+	public void patternsAreNormalized() {
+		final ReportFilePattern pattern = new ReportFilePattern(" ./././target\\*.xml ");
+		
+		assertEquals("target/*.xml", pattern.toString());
+		assertTrue(matches(pattern, "target/checkstyle.xml"));
+	}
+	
+	/**
+	 * Directories must only be searched if they match the literal leading segments of the pattern, and not below
+	 * the number of segments of a pattern without <code>**</code>.
+	 */
+	@Test
+	public void literalSegmentsPruneDirectories() {
+		final ReportFilePattern pattern = new ReportFilePattern("modules/*/target/*.xml");
+		
+		assertTrue(pattern.mayMatchBelow(1, "modules", false));
+		assertFalse(pattern.mayMatchBelow(1, "other", false));
+		
+		// The second segment is a pattern, so all directories are searched from there on
+		assertTrue(pattern.mayMatchBelow(2, "anything", false));
+		assertTrue(pattern.mayMatchBelow(3, "target", false));
+		
+		// A matching file has four segments, so there is nothing to find below the third level
+		assertFalse(pattern.mayMatchBelow(4, "deeper", false));
+		
+		// Patterns containing ** have no maximum depth
+		final ReportFilePattern anyDirectoriesPattern = new ReportFilePattern("modules/**/*.xml");
+		assertFalse(anyDirectoriesPattern.mayMatchBelow(1, "other", false));
+		assertTrue(anyDirectoriesPattern.mayMatchBelow(100, "deep", false));
+	}
+	
+	/**
+	 * Ignored directories must be skipped, unless they are named explicitly by the literal segments of the pattern.
+	 */
+	@Test
+	public void ignoredDirectoriesAreOnlySearchedIfNamedExplicitly() {
+		assertFalse(new ReportFilePattern("**/*.xml").mayMatchBelow(1, ".git", true));
+		assertFalse(new ReportFilePattern("*/reports/*.xml").mayMatchBelow(1, ".git", true));
+		assertTrue(new ReportFilePattern(".git/reports/*.xml").mayMatchBelow(1, ".git", true));
+		assertTrue(new ReportFilePattern(".git/reports/*.xml").mayMatchBelow(2, "reports", false));
+	}
+	
+	/**
+	 * The finder must apply the special cases above while walking the file tree.
+	 */
+	@Test
+	public void finderAppliesPatterns() throws IOException {
+		this.createFiles("checkstyle-root.xml", "module/target/checkstyle-main.xml", "module/target/pmd.xml", "node_modules/lib/checkstyle-lib.xml",
+				".git/reports/result.xml", "modules/a/target/one.xml", "modules/b/target/two.xml", "modules/b/target/deep/three.xml", "other/a/target/four.xml");
+		
+		final List<ReportFilePattern> patterns = Arrays.asList(new ReportFilePattern("**/checkstyle-*.xml"), new ReportFilePattern(".git/reports/*.xml"),
+				new ReportFilePattern("modules/*/target/*.xml"), new ReportFilePattern("missing/**/*.xml"));
+		final List<List<String>> fileNames = new ReportFileFinder(this.rootPath.toString()).findFiles(patterns);
+		
+		assertEquals(Arrays.asList("checkstyle-root.xml", "module/target/checkstyle-main.xml"), this.relativize(fileNames.get(0)));
+		assertEquals(Collections.singletonList(".git/reports/result.xml"), this.relativize(fileNames.get(1)));
+		assertEquals(Arrays.asList("modules/a/target/one.xml", "modules/b/target/two.xml"), this.relativize(fileNames.get(2)));
+		assertEquals(Collections.emptyList(), fileNames.get(3));
+	}
+	
+	private void createFiles(final String... relativeFileNames) throws IOException {
+		for(final String relativeFileName : relativeFileNames) {
+			final Path file = this.rootPath.resolve(relativeFileName);
+			
+			Files.createDirectories(file.getParent());
+			Files.write(file, new byte[0]);
+		}
+	}
+	
+	private List<String> relativize(final List<String> fileNames) {
+		final List<String> relativeFileNames = new ArrayList<>(fileNames.size());
+		
+		for(final String fileName : fileNames) {
+			relativeFileNames.add(this.rootPath.relativize(Paths.get(fileName)).toString().replace('\\', '/'));
+		}
+		
+		return relativeFileNames;
+	}
+	
+	private static boolean matches(final ReportFilePattern pattern, final String relativePath) {
+		final int separatorIndex = relativePath.lastIndexOf('/');
+		return pattern.matches(relativePath, relativePath.substring(separatorIndex + 1), FILE_SYSTEM);
+	}
+	
+}
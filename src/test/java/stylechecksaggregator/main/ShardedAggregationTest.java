@@ -0,0 +1,202 @@
+package stylechecksaggregator.main;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import stylechecksaggregator.main.StylechecksAggregator.SortIssueByFileNameAndLineNumberComparator;
+import stylechecksaggregator.metrics.AggregationMetrics;
+import stylechecksaggregator.model.Issue;
+import stylechecksaggregator.model.IssueSeverity;
+import stylechecksaggregator.model.IssueType;
+import stylechecksaggregator.shard.PartialResultMerger;
+import stylechecksaggregator.shard.PartialResultWriter;
+
+/**
+ * Test cases for the sharded aggregation, whose merged partial results must yield exactly the same output as a
+ * single aggregation of all reports.
+ * 
+ * @author Holger Knoche
+ */
+public class ShardedAggregationTest {
+	
+	private static final int MODULE_COUNT = 12;
+	
+	private static final int ISSUES_PER_REPORT = 200;
+	
+	private static final String[] CHECKSTYLE_SEVERITIES = { "error", "warning", "info", "ignore" };
+	
+	private static final String[] PMD_PRIORITIES = { "1", "2", "3", "4", "5" };
+	
+	@TempDir
+	Path temporaryDirectory;
+	
+	private Path rootPath;
+	
+	private Path configFile;
+	
+	@BeforeEach
+	public void createReports() throws IOException {
+		this.rootPath = Files.createDirectory(this.temporaryDirectory.resolve("reports"));
+		
+		for(int moduleIndex = 0; moduleIndex < MODULE_COUNT; moduleIndex++) {
+			final Path reportDirectory = Files.createDirectories(this.rootPath.resolve("mod-" + moduleIndex).resolve("reports"));
+			
+			Files.write(reportDirectory.resolve("checkstyle-main.xml"), createCheckstyleReport(moduleIndex).getBytes(StandardCharsets.UTF_8));
+			Files.write(reportDirectory.resolve("pmd-main.xml"), createPMDReport(moduleIndex).getBytes(StandardCharsets.UTF_8));
+		}
+		
+		this.configFile = this.temporaryDirectory.resolve("config.properties");
+		Files.write(this.configFile, "checkstyle.fileNames=**/checkstyle-*.xml\npmd.fileNames=**/pmd-*.xml\n".getBytes(StandardCharsets.UTF_8));
+	}
+	
+	/**
+	 * Merging the partial results of any number of shards must yield the same bytes as a single aggregation. As the
+	 * reports contain different issues at the same positions, this requires the merge to preserve the report order.
+	 */
+	@Test
+	public void mergedShardsMatchSingleAggregation() throws IOException {
+		final byte[] expectedOutput = this.runAggregator("--config", this.configFile.toString(), this.rootPath.toString());
+		assertTrue(expectedOutput.length > 0);
+		
+		for(final int shardCount : new int[] { 1, 2, 3, 5 }) {
+			for(final String[] options : Arrays.asList(new String[0], new String[] { "--threads", "3" }, new String[] { "--sort-memory", "1" })) {
+				final List<String> mergeArguments = new ArrayList<>();
+				
+				for(int shardNumber = 1; shardNumber <= shardCount; shardNumber++) {
+					final String partialFileName = this.temporaryDirectory.resolve("shard" + shardNumber + ".bin").toString();
+					
+					final List<String> arguments = new ArrayList<>(Arrays.asList(options));
+					arguments.addAll(Arrays.asList("--config", this.configFile.toString(), "--shard", shardNumber + "/" + shardCount, "--save-partial", partialFileName,
+							this.rootPath.toString()));
+					this.runAggregator(arguments.toArray(new String[0]));
+					
+					mergeArguments.add("--merge");
+					mergeArguments.add(partialFileName);
+				}
+				
+				final byte[] mergedOutput = this.runAggregator(mergeArguments.toArray(new String[0]));
+				assertArrayEquals(expectedOutput, mergedOutput, "Output differs for " + shardCount + " shard(s) with options " + Arrays.toString(options) + ".");
+			}
+		}
+	}
+	
+	/**
+	 * A partial result whose reports are spilled to temporary runs (including intermediate merges) must be merged
+	 * into the same order as a stable sort of all issues.
+	 */
+	@Test
+	public void spilledPartialResultMatchesStableSort() throws IOException {
+		final Comparator<Issue> comparator = new SortIssueByFileNameAndLineNumberComparator();
+		final int reportCount = 40;
+		
+		final List<List<Issue>> reports = new ArrayList<>(reportCount);
+		final List<Issue> allIssues = new ArrayList<>();
+		
+		for(int reportIndex = 0; reportIndex < reportCount; reportIndex++) {
+			final List<Issue> issues = new ArrayList<>();
+			for(int issueIndex = 0; issueIndex < 50; issueIndex++) {
+				issues.add(new Issue("File" + (issueIndex % 7) + ".java", issueIndex % 11, IssueSeverity.WARNING, IssueType.CHECKSTYLE, "Report " + reportIndex + ", issue " + issueIndex));
+			}
+			
+			allIssues.addAll(issues);
+			Collections.sort(issues, comparator);
+			reports.add(issues);
+		}
+		
+		Collections.sort(allIssues, comparator);
+		
+		// A budget of one byte writes each report to its own run, which exceeds the number of runs merged at once
+		final File file = this.temporaryDirectory.resolve("spilled.bin").toFile();
+		try (PartialResultWriter writer = new PartialResultWriter(file, comparator, 1, 1, reportCount, IssueSeverity.UNCLASSIFIED, 1)) {
+			// Add the reports out of order, as the writer must not depend on the order of the reports
+			for(int reportIndex = reportCount - 1; reportIndex >= 0; reportIndex--) {
+				writer.addReport(reportIndex, reports.get(reportIndex));
+			}
+			
+			writer.commit();
+			assertEquals(allIssues.size(), writer.getIssueCount());
+		}
+		
+		final List<Issue> mergedIssues = new ArrayList<>();
+		PartialResultMerger.merge(Collections.singletonList(file), comparator, IssueSeverity.UNCLASSIFIED, mergedIssues::add);
+		
+		assertEquals(toStrings(allIssues), toStrings(mergedIssues));
+	}
+	
+	private byte[] runAggregator(final String... arguments) throws IOException {
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		final ByteArrayOutputStream errorStream = new ByteArrayOutputStream();
+		
+		final int exitCode = StylechecksAggregator.run(arguments, null, StylechecksAggregator::initializeAdapters, new AggregationMetrics(), outputStream,
+				new PrintStream(errorStream, true, "UTF-8"));
+		assertEquals(0, exitCode, () -> "Aggregation failed: " + new String(errorStream.toByteArray(), StandardCharsets.UTF_8));
+		
+		return outputStream.toByteArray();
+	}
+	
+	private static List<String> toStrings(final List<Issue> issues) {
+		final List<String> strings = new ArrayList<>(issues.size());
+		for(final Issue issue : issues) {
+			strings.add(issue.toString());
+		}
+		
+		return strings;
+	}
+	
+	/**
+	 * Creates a Checkstyle report whose issues share their files and line numbers with the issues of the other
+	 * modules, but not their messages.
+	 */
+	private static String createCheckstyleReport(final int moduleIndex) {
+		final StringBuilder builder = new StringBuilder();
+		
+		builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		builder.append("<checkstyle version=\"8.0\">\n");
+		
+		for(int issueIndex = 0; issueIndex < ISSUES_PER_REPORT; issueIndex++) {
+			builder.append("<file name=\"/src/pkg/Class").append(issueIndex % 13).append(".java\">\n");
+			builder.append("<error line=\"").append(issueIndex % 17 + 1).append("\" column=\"3\" severity=\"").append(CHECKSTYLE_SEVERITIES[(issueIndex + moduleIndex) % CHECKSTYLE_SEVERITIES.length]);
+			builder.append("\" message=\"Module ").append(moduleIndex).append(" message ").append(issueIndex).append(" &amp; more\" source=\"x\"/>\n");
+			builder.append("</file>\n");
+		}
+		
+		builder.append("</checkstyle>\n");
+		return builder.toString();
+	}
+	
+	private static String createPMDReport(final int moduleIndex) {
+		final StringBuilder builder = new StringBuilder();
+		
+		builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		builder.append("<pmd version=\"6.0\">\n");
+		
+		for(int issueIndex = 0; issueIndex < ISSUES_PER_REPORT; issueIndex++) {
+			builder.append("<file name=\"/src/pkg/Class").append(issueIndex % 13).append(".java\">\n");
+			builder.append("<violation beginline=\"").append(issueIndex % 19 + 1).append("\" endline=\"3\" priority=\"").append(PMD_PRIORITIES[(issueIndex + moduleIndex) % PMD_PRIORITIES.length]);
+			builder.append("\" rule=\"R\">Module ").append(moduleIndex).append(" rule ").append(issueIndex).append("</violation>\n");
+			builder.append("</file>\n");
+		}
+		
+		builder.append("</pmd>\n");
+		return builder.toString();
+	}
+	
+}
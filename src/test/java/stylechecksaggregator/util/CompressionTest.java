@@ -0,0 +1,194 @@
+package stylechecksaggregator.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test cases for the recognition of compressed reports by {@link Compression} and their decompression by
+ * {@link XMLUtil}.
+ * 
+ * @author Holger Knoche
+ */
+public class CompressionTest {
+	
+	private static final String REPORT = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<checkstyle version=\"8.0\"></checkstyle>\n";
+	
+	@TempDir
+	Path temporaryDirectory;
+	
+	/**
+	 * Uncompressed XML must be recognized as such, regardless of its encoding and of how short it is.
+	 */
+	@Test
+	public void uncompressedData() throws IOException {
+		assertEquals(Compression.NONE, detect(REPORT.getBytes(StandardCharsets.UTF_8)));
+		assertEquals(Compression.NONE, detect(("\uFEFF" + REPORT).getBytes(StandardCharsets.UTF_8)));
+		assertEquals(Compression.NONE, detect(REPORT.getBytes(StandardCharsets.UTF_16)));
+		assertEquals(Compression.NONE, detect(REPORT.getBytes(StandardCharsets.UTF_16LE)));
+		assertEquals(Compression.NONE, detect(" \n\t<a/>".getBytes(StandardCharsets.UTF_8)));
+		
+		assertEquals(Compression.NONE, detect(new byte[0]));
+		assertEquals(Compression.NONE, detect(new byte[] { 0x1F }));
+		assertEquals(Compression.NONE, detect(new byte[] { 'P', 'K', 3 }));
+	}
+	
+	/**
+	 * Compressed data must be recognized for all compression levels.
+	 */
+	@Test
+	public void compressedData() throws IOException {
+		final byte[] data = REPORT.getBytes(StandardCharsets.UTF_8);
+		
+		assertEquals(Compression.GZIP, detect(gzip(data)));
+		
+		for(final int level : new int[] { Deflater.NO_COMPRESSION, Deflater.BEST_SPEED, Deflater.DEFAULT_COMPRESSION, Deflater.BEST_COMPRESSION }) {
+			assertEquals(Compression.ZLIB, detect(zlib(data, level)), "Compression level " + level);
+		}
+		
+		assertEquals(Compression.ZIP, detect(zip(new String[] { "report.xml" }, new byte[][] { data })));
+		assertEquals(Compression.ZIP, detect(zip(new String[0], new byte[0][])));
+	}
+	
+	/**
+	 * The recognition must not change the position of the stream.
+	 */
+	@Test
+	public void detectionKeepsPosition() throws IOException {
+		final byte[] data = gzip(REPORT.getBytes(StandardCharsets.UTF_8));
+		final InputStream inputStream = new BufferedInputStream(new ByteArrayInputStream(data));
+		
+		assertEquals(Compression.GZIP, Compression.detect(inputStream));
+		assertEquals(0x1F, inputStream.read());
+		assertEquals(0x8B, inputStream.read());
+	}
+	
+	/**
+	 * Compressed reports must be decompressed transparently, regardless of their file names, while archives must
+	 * be rejected.
+	 */
+	@Test
+	public void openFileDecompresses() throws IOException {
+		final byte[] data = REPORT.getBytes(StandardCharsets.UTF_8);
+		
+		final File plainFile = this.write("plain.xml", data);
+		final File gzipFile = this.write("gzip.xml", gzip(data));
+		final File zlibFile = this.write("zlib.dat", zlib(data, Deflater.DEFAULT_COMPRESSION));
+		final File archiveFile = this.write("archive.xml", zip(new String[] { "report.xml" }, new byte[][] { data }));
+		
+		for(final File file : Arrays.asList(plainFile, gzipFile, zlibFile)) {
+			try (InputStream inputStream = XMLUtil.openFile(file)) {
+				assertEquals(REPORT, new String(readAll(inputStream), StandardCharsets.UTF_8), file.getName());
+			}
+		}
+		
+		assertFalse(XMLUtil.isCompressed(plainFile));
+		assertTrue(XMLUtil.isCompressed(gzipFile));
+		assertTrue(XMLUtil.isCompressed(zlibFile));
+		assertTrue(XMLUtil.isCompressed(archiveFile));
+		
+		assertFalse(XMLUtil.isArchive(gzipFile));
+		assertTrue(XMLUtil.isArchive(archiveFile));
+		assertThrows(IOException.class, () -> XMLUtil.openFile(archiveFile));
+	}
+	
+	/**
+	 * The reports of an archive must be passed in the order of their names, decompressing compressed entries and
+	 * skipping entries that are not reports.
+	 */
+	@Test
+	public void archivedReports() throws IOException {
+		final byte[] data = REPORT.getBytes(StandardCharsets.UTF_8);
+		final File archiveFile = this.write("reports.zip", zip(new String[] { "b/report.xml.gz", "readme.txt", "a/report.xml", "c/report.XML.zz" },
+				new byte[][] { gzip(data), "Not a report".getBytes(StandardCharsets.UTF_8), data, zlib(data, Deflater.BEST_SPEED) }));
+		
+		final List<String> entryNames = new ArrayList<>();
+		XMLUtil.forEachArchivedReport(archiveFile, (entryName, systemId, inputStream) -> {
+			entryNames.add(entryName);
+			
+			assertTrue(systemId.startsWith("jar:") && systemId.endsWith("!/" + entryName), systemId);
+			assertEquals(REPORT, new String(readAll(inputStream), StandardCharsets.UTF_8), entryName);
+		});
+		
+		assertEquals(Arrays.asList("a/report.xml", "b/report.xml.gz", "c/report.XML.zz"), entryNames);
+	}
+	
+	private File write(final String fileName, final byte[] data) throws IOException {
+		return Files.write(this.temporaryDirectory.resolve(fileName), data).toFile();
+	}
+	
+	private static Compression detect(final byte[] data) throws IOException {
+		return Compression.detect(new BufferedInputStream(new ByteArrayInputStream(data)));
+	}
+	
+	private static byte[] gzip(final byte[] data) throws IOException {
+		final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+		
+		try (OutputStream outputStream = new GZIPOutputStream(byteStream)) {
+			outputStream.write(data);
+		}
+		
+		return byteStream.toByteArray();
+	}
+	
+	private static byte[] zlib(final byte[] data, final int level) throws IOException {
+		final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+		
+		try (OutputStream outputStream = new DeflaterOutputStream(byteStream, new Deflater(level))) {
+			outputStream.write(data);
+		}
+		
+		return byteStream.toByteArray();
+	}
+	
+	private static byte[] zip(final String[] entryNames, final byte[][] entryData) throws IOException {
+		final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+		
+		try (ZipOutputStream outputStream = new ZipOutputStream(byteStream)) {
+			for(int entryIndex = 0; entryIndex < entryNames.length; entryIndex++) {
+				outputStream.putNextEntry(new ZipEntry(entryNames[entryIndex]));
+				outputStream.write(entryData[entryIndex]);
+				outputStream.closeEntry();
+			}
+		}
+		
+		return byteStream.toByteArray();
+	}
+	
+	private static byte[] readAll(final InputStream inputStream) throws IOException {
+		final ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[4096];
+		
+		int bytesRead = inputStream.read(buffer);
+		while(bytesRead >= 0) {
+			byteStream.write(buffer, 0, bytesRead);
+			bytesRead = inputStream.read(buffer);
+		}
+		
+		return byteStream.toByteArray();
+	}
+	
+}